@@ -0,0 +1,314 @@
+package org.aksw.limes.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.aksw.limes.core.datastrutures.Point;
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.MemoryCache;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.aksw.limes.core.measures.mapper.pointsets.Polygon;
+import org.aksw.limes.core.measures.measure.MeasureFactory;
+import org.aksw.limes.core.measures.measure.MeasureType;
+import org.aksw.limes.core.measures.measure.pointsets.benchmarking.GranularityModifier;
+import org.aksw.limes.core.measures.measure.pointsets.benchmarking.IPolygonModifier;
+import org.aksw.limes.core.measures.measure.pointsets.benchmarking.MeasurementErrorModifier;
+import org.aksw.limes.core.util.DataGenerator;
+
+/**
+ * Synthetic data of the benchmarks. Each target instance is a perturbed copy
+ * of the source instance with the same index, so that the mappers find links
+ * at high thresholds, too. Target polygons are derived from the source
+ * polygons with the polygon modifiers of the point set measures. All other
+ * values are drawn from a seeded random generator, so that all planners and
+ * mappers see the same data.
+ */
+public class BenchmarkData {
+
+    public static final String SOURCE_VAR = "?x";
+    public static final String TARGET_VAR = "?y";
+    public static final String SOURCE_PREFIX = "http://example.org/source/";
+    public static final String TARGET_PREFIX = "http://example.org/target/";
+
+    public static final String LAT = "lat";
+    public static final String LONG = "long";
+    public static final String VECTOR = "vec";
+    public static final String VALUE = "value";
+    public static final String BEGIN = "begin";
+    public static final String END = "end";
+    public static final String MACHINE = "machine";
+    public static final String WKT = "asWKT";
+    public static final String ITEMS = "items";
+
+    private static final long SEED = 42;
+    private static final int MIN_LENGTH = 5;
+    private static final int MAX_LENGTH = 20;
+    private static final int DIMENSIONS = 16;
+    private static final int VERTICES = 8;
+
+    /**
+     * Kinds of values the measures compare.
+     */
+    public enum DataType {
+        STRING, POINT, VECTOR, NUMBER, INTERVAL, POLYGON, SET
+    }
+
+    /**
+     * @param type
+     *            Type of a measure
+     * @return the kind of values the measure compares
+     */
+    public static DataType getDataType(MeasureType type) {
+        String name = type.name();
+        if (name.startsWith("GEO_") || name.startsWith("TOP_")) {
+            return DataType.POLYGON;
+        }
+        if (name.startsWith("TMP_")) {
+            return DataType.INTERVAL;
+        }
+        if (name.startsWith("VECTOR_")) {
+            return DataType.VECTOR;
+        }
+        if (name.startsWith("NUMERIC_")) {
+            return DataType.NUMBER;
+        }
+        if (name.startsWith("SET_")) {
+            return DataType.SET;
+        }
+        if (type == MeasureType.EUCLIDEAN || type == MeasureType.MANHATTAN) {
+            return DataType.POINT;
+        }
+        return DataType.STRING;
+    }
+
+    /**
+     * @param measure
+     *            Name of a measure, e.g., trigrams
+     * @return an atomic measure expression over the properties of the
+     *         generated caches
+     */
+    public static String getExpression(String measure) {
+        MeasureType type = MeasureFactory.getMeasureType(measure);
+        String property;
+        switch (getDataType(type)) {
+        case POINT:
+            property = LAT + "|" + LONG;
+            break;
+        case VECTOR:
+            property = VECTOR;
+            break;
+        case NUMBER:
+            property = VALUE;
+            break;
+        case INTERVAL:
+            if (type == MeasureType.TMP_CONCURRENT || type == MeasureType.TMP_PREDECESSOR
+                    || type == MeasureType.TMP_SUCCESSOR) {
+                property = BEGIN + "|" + MACHINE;
+            } else {
+                property = BEGIN + "|" + END;
+            }
+            break;
+        case POLYGON:
+            property = WKT;
+            break;
+        case SET:
+            property = ITEMS;
+            break;
+        default:
+            property = DataGenerator.LABEL;
+        }
+        return measure + "(x." + property + ", y." + property + ")";
+    }
+
+    /**
+     * Generates a source and a target cache whose instances carry the
+     * properties of the given kinds of values.
+     *
+     * @param size
+     *            Number of instances of each cache
+     * @param types
+     *            Kinds of values to generate
+     * @return the source and the target cache
+     */
+    public static ACache[] generateCaches(int size, DataType... types) {
+        Random random = new Random(SEED);
+        IPolygonModifier error = new MeasurementErrorModifier();
+        IPolygonModifier granularity = new GranularityModifier();
+        SimpleDateFormat dates = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssXXX");
+        dates.setTimeZone(TimeZone.getTimeZone("UTC"));
+        long epoch = 1420070400000L;
+
+        ACache source = new MemoryCache();
+        ACache target = new MemoryCache();
+        for (int i = 0; i < size; i++) {
+            String s = SOURCE_PREFIX + i;
+            String t = TARGET_PREFIX + i;
+            for (DataType type : types) {
+                switch (type) {
+                case STRING:
+                    String label = generateString(random);
+                    source.addTriple(s, DataGenerator.LABEL, label);
+                    target.addTriple(t, DataGenerator.LABEL, edit(label, random));
+                    break;
+                case POINT:
+                    double lat = random.nextDouble() * 180 - 90;
+                    double lon = random.nextDouble() * 360 - 180;
+                    source.addTriple(s, LAT, "" + lat);
+                    source.addTriple(s, LONG, "" + lon);
+                    target.addTriple(t, LAT, "" + (lat + random.nextGaussian() * 0.1));
+                    target.addTriple(t, LONG, "" + (lon + random.nextGaussian() * 0.1));
+                    break;
+                case VECTOR:
+                    StringBuilder sv = new StringBuilder("[");
+                    StringBuilder tv = new StringBuilder("[");
+                    for (int d = 0; d < DIMENSIONS; d++) {
+                        double v = random.nextDouble();
+                        sv.append(d == 0 ? "" : ", ").append(v);
+                        tv.append(d == 0 ? "" : ", ").append(v + random.nextGaussian() * 0.05);
+                    }
+                    source.addTriple(s, VECTOR, sv.append("]").toString());
+                    target.addTriple(t, VECTOR, tv.append("]").toString());
+                    break;
+                case NUMBER:
+                    double value = random.nextDouble() * 1000;
+                    source.addTriple(s, VALUE, "" + value);
+                    target.addTriple(t, VALUE, "" + (value + random.nextGaussian()));
+                    break;
+                case INTERVAL:
+                    long begin = epoch + random.nextInt(30 * 24 * 60) * 60000L;
+                    long end = begin + (1 + random.nextInt(120)) * 60000L;
+                    long shift = random.nextInt(3) * 60000L;
+                    String machine = "" + random.nextInt(10);
+                    source.addTriple(s, BEGIN, dates.format(new Date(begin)));
+                    source.addTriple(s, END, dates.format(new Date(end)));
+                    source.addTriple(s, MACHINE, machine);
+                    target.addTriple(t, BEGIN, dates.format(new Date(begin + shift)));
+                    target.addTriple(t, END, dates.format(new Date(end + shift)));
+                    target.addTriple(t, MACHINE, machine);
+                    break;
+                case POLYGON:
+                    Polygon p = generatePolygon(s, random);
+                    Polygon q = granularity.modify(error.modify(p, 0.0001), 0.8);
+                    source.addTriple(s, WKT, toWkt(p));
+                    target.addTriple(t, WKT, toWkt(q));
+                    break;
+                case SET:
+                    int vocabulary = Math.max(10, size / 2);
+                    int items = 1 + random.nextInt(5);
+                    for (int k = 0; k < items; k++) {
+                        String item = "item" + random.nextInt(vocabulary);
+                        source.addTriple(s, ITEMS, item);
+                        target.addTriple(t, ITEMS, k == 0 ? "item" + random.nextInt(vocabulary) : item);
+                    }
+                    break;
+                }
+            }
+        }
+        return new ACache[] { source, target };
+    }
+
+    /**
+     * Generates a mapping between the instances of
+     * {@link #generateCaches(int, DataType...)} with random similarities.
+     *
+     * @param size
+     *            Number of source and target instances
+     * @param links
+     *            Number of links
+     * @param seed
+     *            Seed of the random generator
+     * @return the mapping
+     */
+    public static AMapping generateMapping(int size, int links, long seed) {
+        Random random = new Random(seed);
+        AMapping m = MappingFactory.createDefaultMapping();
+        while (m.size() < links) {
+            m.add(SOURCE_PREFIX + random.nextInt(size), TARGET_PREFIX + random.nextInt(size), random.nextDouble());
+        }
+        return m;
+    }
+
+    /**
+     * @param prefix
+     *            Prefix of the file name
+     * @param suffix
+     *            Suffix of the file name
+     * @return a temporary file that is deleted on exit
+     */
+    public static File createTempFile(String prefix, String suffix) {
+        try {
+            File file = File.createTempFile(prefix, suffix);
+            file.deleteOnExit();
+            return file;
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot create a temporary file", e);
+        }
+    }
+
+    /**
+     * Generates a string in (a-z)* like a {@link RandomStringGenerator}.
+     */
+    private static String generateString(Random random) {
+        int length = MIN_LENGTH + random.nextInt(MAX_LENGTH - MIN_LENGTH);
+        StringBuilder s = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            s.append((char) ('a' + random.nextInt(26)));
+        }
+        return s.toString();
+    }
+
+    /**
+     * Applies one random insertion, deletion or substitution to a string.
+     */
+    private static String edit(String s, Random random) {
+        int i = random.nextInt(s.length() + 1);
+        char c = (char) ('a' + random.nextInt(26));
+        switch (random.nextInt(3)) {
+        case 0:
+            return s.substring(0, i) + c + s.substring(i);
+        case 1:
+            return i == s.length() ? s : s.substring(0, i) + s.substring(i + 1);
+        default:
+            return i == s.length() ? s : s.substring(0, i) + c + s.substring(i + 1);
+        }
+    }
+
+    /**
+     * Generates a small convex polygon around a random center, as the
+     * topological relations need a closed ring.
+     */
+    private static Polygon generatePolygon(String uri, Random random) {
+        double lat = random.nextDouble() * 160 - 80;
+        double lon = random.nextDouble() * 340 - 170;
+        double radius = 0.0005 + random.nextDouble() * 0.001;
+        List<Point> points = new ArrayList<Point>();
+        for (int i = 0; i < VERTICES; i++) {
+            double angle = 2 * Math.PI * i / VERTICES;
+            points.add(new Point(lon + radius * Math.cos(angle), lat + radius * Math.sin(angle)));
+        }
+        return new Polygon(uri, points);
+    }
+
+    private static String toWkt(Polygon p) {
+        List<Point> points = new ArrayList<Point>(p.points);
+        // the modifiers may move or drop points, so the ring is closed again
+        points.add(points.get(0));
+        while (points.size() < 4) {
+            points.add(1, points.get(0));
+        }
+        StringBuilder wkt = new StringBuilder("POLYGON ((");
+        for (int i = 0; i < points.size(); i++) {
+            Point point = points.get(i);
+            wkt.append(i == 0 ? "" : ", ").append(point.coordinates.get(0)).append(" ")
+                    .append(point.coordinates.get(1));
+        }
+        return wkt.append("))").toString();
+    }
+}
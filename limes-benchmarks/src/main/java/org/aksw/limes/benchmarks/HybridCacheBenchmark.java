@@ -0,0 +1,75 @@
+package org.aksw.limes.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.HybridCache;
+import org.aksw.limes.core.io.cache.Instance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Saves and loads the serialization of a {@link HybridCache} that holds
+ * instances with all kinds of generated values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class HybridCacheBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    public int size;
+
+    private File folder;
+    private File file;
+    private HybridCache cache;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        folder = Files.createTempDirectory("limes-").toFile();
+        File cacheFolder = new File(folder, "cache");
+        cacheFolder.mkdir();
+        file = new File(cacheFolder, "benchmark.ser");
+        cache = new HybridCache(folder);
+        ACache data = BenchmarkData.generateCaches(size, BenchmarkData.DataType.values())[0];
+        for (Instance instance : data.getAllInstances()) {
+            cache.addInstance(instance);
+        }
+        cache.saveToFile(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        file.delete();
+        file.getParentFile().delete();
+        folder.delete();
+    }
+
+    @Benchmark
+    public File save() {
+        cache.saveToFile(file);
+        return file;
+    }
+
+    @Benchmark
+    public HybridCache load() throws IOException {
+        return HybridCache.loadFromFile(file);
+    }
+}
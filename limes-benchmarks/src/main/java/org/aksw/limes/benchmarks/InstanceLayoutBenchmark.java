@@ -0,0 +1,143 @@
+package org.aksw.limes.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.Instance;
+import org.aksw.limes.core.io.cache.MemoryCache;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.measures.mapper.MapperFactory;
+import org.aksw.limes.core.measures.measure.MeasureType;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the default instances with the {@link org.aksw.limes.core.io.cache.CompactInstance}s
+ * of a cache: filling the cache, reading all values, running a mapper and
+ * the heap retained by the filled cache, reported as the auxiliary counter
+ * retainedBytes of {@link #footprint(Footprint)}. Run with {@code -prof gc}
+ * to compare the allocation rates and GC times as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class InstanceLayoutBenchmark {
+
+    @Param({ "default", "compact" })
+    public String layout;
+
+    @Param({ "10000", "100000" })
+    public int size;
+
+    private List<String[]> triples;
+    private ACache source;
+    private ACache target;
+
+    /**
+     * Heap retained by a filled cache.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long retainedBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            retainedBytes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ACache[] caches = BenchmarkData.generateCaches(size, BenchmarkData.DataType.values());
+        triples = new ArrayList<>();
+        for (Instance instance : caches[0].getAllInstances()) {
+            for (String p : instance.getAllProperties()) {
+                for (String o : instance.getProperty(p)) {
+                    triples.add(new String[] { instance.getUri(), p, o });
+                }
+            }
+        }
+        source = copy(caches[0]);
+        target = copy(caches[1]);
+    }
+
+    private MemoryCache newCache() {
+        MemoryCache cache = new MemoryCache();
+        cache.setCompact(layout.equals("compact"));
+        return cache;
+    }
+
+    private ACache copy(ACache cache) {
+        MemoryCache copy = newCache();
+        for (Instance instance : cache.getAllInstances()) {
+            for (String p : instance.getAllProperties()) {
+                for (String o : instance.getProperty(p)) {
+                    copy.addTriple(instance.getUri(), p, o);
+                }
+            }
+        }
+        return copy;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    @Benchmark
+    public ACache fill() {
+        MemoryCache cache = newCache();
+        for (String[] t : triples) {
+            cache.addTriple(t[0], t[1], t[2]);
+        }
+        return cache;
+    }
+
+    @Benchmark
+    public void read(Blackhole bh) {
+        for (Instance instance : source.getAllInstances()) {
+            for (String p : instance.getAllProperties()) {
+                for (String o : instance.getProperty(p)) {
+                    bh.consume(o);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public AMapping map() {
+        return MapperFactory.createMapper(MeasureType.TRIGRAM).getMapping(source, target, BenchmarkData.SOURCE_VAR,
+                BenchmarkData.TARGET_VAR, BenchmarkData.getExpression("trigrams"), 0.8);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Measurement(iterations = 5, batchSize = 1)
+    public ACache footprint(Footprint footprint) {
+        long before = usedHeap();
+        ACache cache = fill();
+        footprint.retainedBytes = usedHeap() - before;
+        return cache;
+    }
+}
@@ -0,0 +1,68 @@
+package org.aksw.limes.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.aksw.limes.core.execution.engine.filter.LinearFilter;
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Filters random mappings with the {@link LinearFilter}, both by threshold
+ * only and by a measure that is computed for each link.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class LinearFilterBenchmark {
+
+    @Param({ "10000", "100000" })
+    public int links;
+
+    @Param({ "0.5", "0.9" })
+    public double threshold;
+
+    @Param({ "trigrams(x.label, y.label)", "euclidean(x.lat|long, y.lat|long)" })
+    public String condition;
+
+    private ACache source;
+    private ACache target;
+    private AMapping map;
+    private LinearFilter filter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int size = (int) Math.sqrt(links) + 1;
+        ACache[] caches = BenchmarkData.generateCaches(size, BenchmarkData.DataType.STRING,
+                BenchmarkData.DataType.POINT);
+        source = caches[0];
+        target = caches[1];
+        map = BenchmarkData.generateMapping(size, links, 1);
+        filter = new LinearFilter();
+    }
+
+    @Benchmark
+    public AMapping filterByThreshold() {
+        return filter.filter(map, threshold);
+    }
+
+    @Benchmark
+    public AMapping filterByCondition() {
+        return filter.filter(map, condition, threshold, source, target, BenchmarkData.SOURCE_VAR,
+                BenchmarkData.TARGET_VAR);
+    }
+}
@@ -0,0 +1,71 @@
+package org.aksw.limes.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.measures.mapper.AMapper;
+import org.aksw.limes.core.measures.mapper.MapperFactory;
+import org.aksw.limes.core.measures.measure.MeasureFactory;
+import org.aksw.limes.core.measures.measure.MeasureType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Runs one measure of each mapper of the {@link MapperFactory} on synthetic
+ * caches of several sizes and with several thresholds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class MapperBenchmark {
+
+    @Param({ "jaro", "jarowinkler", "qgrams", "trigrams", "approx_jaccard", "levenshtein", "exactmatch", "soundex",
+            "mongeelkan", "ratcliff", "euclidean", "vector_cosine", "numeric_absolute", "geo_hausdorff",
+            "geo_symmetric_hausdorff", "tmp_concurrent", "tmp_predecessor", "tmp_successor", "tmp_after",
+            "tmp_before", "tmp_during", "tmp_during_reverse", "tmp_equals", "tmp_finishes", "tmp_is_finished_by",
+            "tmp_is_met_by", "tmp_is_overlapped_by", "tmp_is_started_by", "tmp_meets", "tmp_overlaps", "tmp_starts",
+            "top_contains", "top_covered_by", "top_covers", "top_crosses", "top_disjoint", "top_equals",
+            "top_intersects", "top_overlaps", "top_touches", "top_within", "set_jaccard" })
+    public String measure;
+
+    @Param({ "100", "1000" })
+    public int size;
+
+    @Param({ "0.5", "0.8", "0.95" })
+    public double threshold;
+
+    private ACache source;
+    private ACache target;
+    private String expression;
+    private AMapper mapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MeasureType type = MeasureFactory.getMeasureType(measure);
+        ACache[] caches = BenchmarkData.generateCaches(size, BenchmarkData.getDataType(type));
+        source = caches[0];
+        target = caches[1];
+        expression = BenchmarkData.getExpression(measure);
+        mapper = MapperFactory.createMapper(type);
+    }
+
+    @Benchmark
+    public AMapping getMapping() {
+        return mapper.getMapping(source, target, BenchmarkData.SOURCE_VAR, BenchmarkData.TARGET_VAR, expression,
+                threshold);
+    }
+}
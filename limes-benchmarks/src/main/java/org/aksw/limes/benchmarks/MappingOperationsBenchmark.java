@@ -0,0 +1,60 @@
+package org.aksw.limes.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.measures.mapper.MappingOperations;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Runs the set operators of {@link MappingOperations} on random mappings
+ * whose links partly overlap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class MappingOperationsBenchmark {
+
+    @Param({ "10000", "100000", "1000000" })
+    public int links;
+
+    private AMapping map1;
+    private AMapping map2;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // the instances are chosen such that about half of the links overlap
+        int size = (int) Math.sqrt(2d * links) + 1;
+        map1 = BenchmarkData.generateMapping(size, links, 1);
+        map2 = BenchmarkData.generateMapping(size, links, 2);
+    }
+
+    @Benchmark
+    public AMapping union() {
+        return MappingOperations.union(map1, map2);
+    }
+
+    @Benchmark
+    public AMapping intersection() {
+        return MappingOperations.intersection(map1, map2);
+    }
+
+    @Benchmark
+    public AMapping difference() {
+        return MappingOperations.difference(map1, map2);
+    }
+}
@@ -0,0 +1,93 @@
+package org.aksw.limes.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.aksw.limes.core.execution.engine.ExecutionEngine;
+import org.aksw.limes.core.execution.engine.ExecutionEngineFactory;
+import org.aksw.limes.core.execution.engine.ExecutionEngineFactory.ExecutionEngineType;
+import org.aksw.limes.core.execution.planning.plan.NestedPlan;
+import org.aksw.limes.core.execution.planning.planner.ExecutionPlannerFactory;
+import org.aksw.limes.core.execution.planning.planner.ExecutionPlannerFactory.ExecutionPlannerType;
+import org.aksw.limes.core.execution.planning.planner.Planner;
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.ls.LinkSpecification;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Plans and executes complex link specifications with each planner of the
+ * {@link ExecutionPlannerFactory}. The static planners are executed by
+ * {@link org.aksw.limes.core.execution.engine.SimpleExecutionEngine#executeStatic(NestedPlan)},
+ * the dynamic planner by its dynamic execution.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class PlannerBenchmark {
+
+    private static final Map<String, String> SPECS = new HashMap<String, String>();
+
+    static {
+        SPECS.put("and", "AND(trigrams(x.label, y.label)|0.6, euclidean(x.lat|long, y.lat|long)|0.5)");
+        SPECS.put("or", "OR(jaccard(x.label, y.label)|0.7, numeric_absolute(x.value, y.value)|0.9)");
+        SPECS.put("minus", "MINUS(AND(trigrams(x.label, y.label)|0.5, cosine(x.label, y.label)|0.6)|0.5, "
+                + "euclidean(x.lat|long, y.lat|long)|0.9)");
+        SPECS.put("shared", "OR(AND(trigrams(x.label, y.label)|0.8, euclidean(x.lat|long, y.lat|long)|0.5)|0.5, "
+                + "AND(trigrams(x.label, y.label)|0.6, numeric_absolute(x.value, y.value)|0.9)|0.5)");
+    }
+
+    @Param({ "canonical", "helios", "dynamic" })
+    public String planner;
+
+    @Param({ "and", "or", "minus", "shared" })
+    public String spec;
+
+    @Param({ "1000", "10000" })
+    public int size;
+
+    private ACache source;
+    private ACache target;
+    private LinkSpecification linkSpecification;
+    private ExecutionPlannerType plannerType;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ACache[] caches = BenchmarkData.generateCaches(size, BenchmarkData.DataType.STRING,
+                BenchmarkData.DataType.POINT, BenchmarkData.DataType.NUMBER);
+        source = caches[0];
+        target = caches[1];
+        linkSpecification = new LinkSpecification(SPECS.get(spec), 0.5);
+        plannerType = ExecutionPlannerFactory.getExecutionPlannerType(planner);
+    }
+
+    @Benchmark
+    public NestedPlan plan() {
+        Planner p = ExecutionPlannerFactory.getPlanner(plannerType, source, target);
+        return p.plan(p.normalize(linkSpecification));
+    }
+
+    @Benchmark
+    public AMapping execute() {
+        // planners and engines keep state between runs, so both are fresh
+        Planner p = ExecutionPlannerFactory.getPlanner(plannerType, source, target);
+        ExecutionEngine engine = ExecutionEngineFactory.getEngine(ExecutionEngineType.SIMPLE, source, target,
+                BenchmarkData.SOURCE_VAR, BenchmarkData.TARGET_VAR);
+        return engine.execute(linkSpecification, p);
+    }
+}
@@ -0,0 +1,64 @@
+package org.aksw.limes.benchmarks;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.serializer.ISerializer;
+import org.aksw.limes.core.io.serializer.SerializerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Writes random mappings with each serializer of the
+ * {@link SerializerFactory}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SerializerBenchmark {
+
+    private static final String PREDICATE = "http://www.w3.org/2002/07/owl#sameAs";
+
+    @Param({ "nt", "ttl", "csv", "tab" })
+    public String format;
+
+    @Param({ "10000", "100000" })
+    public int links;
+
+    private AMapping mapping;
+    private ISerializer serializer;
+    private File file;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mapping = BenchmarkData.generateMapping((int) Math.sqrt(2d * links) + 1, links, 1);
+        serializer = SerializerFactory.createSerializer(format);
+        file = BenchmarkData.createTempFile("limes-", "." + serializer.getFileExtension());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public File writeToFile() {
+        serializer.writeToFile(mapping, PREDICATE, file.getAbsolutePath());
+        return file;
+    }
+}
@@ -4,7 +4,12 @@ import static org.fusesource.jansi.Ansi.ansi;
 import static org.fusesource.jansi.Ansi.Color.RED;
 
 import org.aksw.limes.core.exceptions.UnsupportedMLImplementationException;
+import org.aksw.limes.core.execution.ExecutionContext;
 import org.aksw.limes.core.execution.engine.ExecutionEngineFactory;
+import org.aksw.limes.core.execution.metrics.JobMetrics;
+import org.aksw.limes.core.execution.metrics.RunProfile;
+import org.aksw.limes.core.execution.planning.cost.CostCalibrator;
+import org.aksw.limes.core.execution.planning.cost.CostProfile;
 import org.aksw.limes.core.execution.planning.planner.ExecutionPlannerFactory;
 import org.aksw.limes.core.execution.rewriter.RewriterFactory;
 //import org.aksw.limes.core.gui.LimesGUI;
@@ -15,7 +20,9 @@ import org.aksw.limes.core.io.config.Configuration;
 import org.aksw.limes.core.io.config.reader.AConfigurationReader;
 import org.aksw.limes.core.io.config.reader.rdf.RDFConfigurationReader;
 import org.aksw.limes.core.io.config.reader.xml.XMLConfigurationReader;
+import org.aksw.limes.core.io.ls.LinkSpecification;
 import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingChangeset;
 import org.aksw.limes.core.io.serializer.ISerializer;
 import org.aksw.limes.core.io.serializer.SerializerFactory;
 import org.aksw.limes.core.measures.mapper.MappingOperations;
@@ -23,6 +30,7 @@ import org.apache.commons.cli.BasicParser;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
 import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 import org.apache.commons.lang3.time.StopWatch;
@@ -30,6 +38,9 @@ import org.apache.logging.log4j.LogManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.function.Function;
 
 /**
@@ -44,6 +55,8 @@ public class Controller {
     private static Logger logger = null;
     private static int defaultPort = 8080;
     private static int defaultLimit = -1;
+    static final String ADDED_SUFFIX = "_added";
+    static final String DELETED_SUFFIX = "_deleted";
     private static Options options = getOptions();
 
     /**
@@ -65,6 +78,19 @@ public class Controller {
 //        } else if (cmd.hasOption('g')){
 //            LimesGUI.startGUI(new String[0]);
 //            System.exit(0);
+        } else if (cmd.hasOption('c')) {
+            CostProfile profile = CostProfile.getDefault();
+            if (profile == null) {
+                profile = CostProfile.load(new File(CostProfile.DEFAULT_PROFILE));
+            }
+            CostCalibrator calibrator = new CostCalibrator(profile);
+            if (cmd.getOptionValue('c') != null) {
+                calibrator.calibrate(Arrays.asList(cmd.getOptionValue('c').split(",")));
+            } else {
+                calibrator.calibrate(CostCalibrator.DEFAULT_MEASURES);
+            }
+            profile.save();
+            System.exit(0);
         } else if (cmd.hasOption('s')){
             int port = defaultPort;
             if (cmd.hasOption('p')) port = Integer.parseInt(cmd.getOptionValue('p'));
@@ -80,7 +106,8 @@ public class Controller {
             }
 
             Configuration config = getConfig(cmd);
-            ResultMappings mappings = getMapping(config);
+            File stateDirectory = cmd.hasOption('i') ? new File(cmd.getOptionValue('i')) : null;
+            ResultMappings mappings = getMapping(config, defaultLimit, null, ExecutionContext.NONE, stateDirectory);
             writeResults(mappings, config);
         }
     }
@@ -147,11 +174,73 @@ public class Controller {
 
 
     static ResultMappings getMapping(Configuration config, int limit) {
+        return getMapping(config, limit, null);
+    }
+
+    /**
+     * Execute LIMES and record the measurements of the run in the registry
+     * of the process and in the profile of the result.
+     *
+     * @param config
+     *            LIMES configuration object
+     * @param limit
+     *            Maximal number of instances of each cache, or -1
+     * @param jobId
+     *            Identifier of the job, or null
+     * @return Instance of ResultMapping
+     */
+    static ResultMappings getMapping(Configuration config, int limit, String jobId) {
+        return getMapping(config, limit, jobId, ExecutionContext.NONE);
+    }
+
+    /**
+     * Execute LIMES within a context, which cancels the run, bounds its
+     * duration and receives its progress, and record the measurements of the
+     * run.
+     *
+     * @param config
+     *            LIMES configuration object
+     * @param limit
+     *            Maximal number of instances of each cache, or -1
+     * @param jobId
+     *            Identifier of the job, or null
+     * @param context
+     *            Context of the run
+     * @return Instance of ResultMapping
+     */
+    static ResultMappings getMapping(Configuration config, int limit, String jobId, ExecutionContext context) {
+        return getMapping(config, limit, jobId, context, null);
+    }
+
+    /**
+     * Execute LIMES within a context and, if a state directory is given,
+     * update the mapping of the previous run kept there by linking only the
+     * instances added or changed since then. The changeset of the update is
+     * set on the result.
+     *
+     * @param config
+     *            LIMES configuration object
+     * @param limit
+     *            Maximal number of instances of each cache, or -1
+     * @param jobId
+     *            Identifier of the job, or null
+     * @param context
+     *            Context of the run
+     * @param stateDirectory
+     *            Directory holding the state of the previous run, or null
+     *            for a full run
+     * @return Instance of ResultMapping
+     */
+    static ResultMappings getMapping(Configuration config, int limit, String jobId, ExecutionContext context,
+                                     File stateDirectory) {
         if (logger == null)
             logger = LoggerFactory.getLogger(Controller.class);
         AMapping results = null;
+        RunProfile profile = new RunProfile();
+        JobMetrics job = new JobMetrics(jobId);
 
         // 3. Fill Caches
+        long loadBegin = System.nanoTime();
         ACache sourceCache = HybridCache.getData(config.getSourceInfo());
         ACache targetCache = HybridCache.getData(config.getTargetInfo());
         if (limit > 0) {
@@ -163,26 +252,49 @@ public class Controller {
             sourceCache = getSubCache.apply(sourceCache);
             targetCache = getSubCache.apply(targetCache);
         }
+        job.setCaches(sourceCache, targetCache, System.nanoTime() - loadBegin);
+        context.checkpoint();
 
         // 4. Machine Learning or Planning
         StopWatch stopWatch = new StopWatch();
         stopWatch.start();
         boolean isAlgorithm = !config.getMlAlgorithmName().equals("");
+        MappingChangeset changeset = null;
+        if (isAlgorithm && stateDirectory != null) {
+            logger.warn("Incremental runs are not supported for machine learning, computing all links");
+        }
         if (isAlgorithm) {
             try {
                 results = MLPipeline.execute(sourceCache, targetCache, config, config.getMlAlgorithmName(),
 
                         config.getMlImplementationType(), config.getMlAlgorithmParameters(),
-                        config.getTrainingDataFile(), config.getMlPseudoFMeasure(), MAX_ITERATIONS_NUMBER);
+                        config.getTrainingDataFile(), config.getMlPseudoFMeasure(), MAX_ITERATIONS_NUMBER, context);
             } catch (UnsupportedMLImplementationException e) {
                 e.printStackTrace();
             }
+        } else if (stateDirectory != null) {
+            try {
+                IncrementalPipeline.Result result = IncrementalPipeline.execute(sourceCache, targetCache,
+                        stateDirectory,
+                        new LinkSpecification(config.getMetricExpression(), config.getVerificationThreshold()),
+                        config.getSourceInfo().getVar(), config.getTargetInfo().getVar(),
+                        RewriterFactory.getRewriterType(config.getExecutionRewriter()),
+                        ExecutionPlannerFactory.getExecutionPlannerType(config.getExecutionPlanner()),
+                        ExecutionEngineFactory.getExecutionEngineType(config.getExecutionEngine()),
+                        config.getSourceInfo().getRestrictions() + " " + config.getTargetInfo().getRestrictions(),
+                        profile, context);
+                results = result.getMapping();
+                changeset = result.getChangeset();
+            } catch (IOException e) {
+                throw new RuntimeException("Could not update the state in " + stateDirectory, e);
+            }
         } else {
-            results = LSPipeline.execute(sourceCache, targetCache, config.getMetricExpression(),
-                    config.getVerificationThreshold(), config.getSourceInfo().getVar(), config.getTargetInfo().getVar(),
+            results = LSPipeline.execute(sourceCache, targetCache,
+                    new LinkSpecification(config.getMetricExpression(), config.getVerificationThreshold()),
+                    config.getSourceInfo().getVar(), config.getTargetInfo().getVar(),
                     RewriterFactory.getRewriterType(config.getExecutionRewriter()),
                     ExecutionPlannerFactory.getExecutionPlannerType(config.getExecutionPlanner()),
-                    ExecutionEngineFactory.getExecutionEngineType(config.getExecutionEngine()));
+                    ExecutionEngineFactory.getExecutionEngineType(config.getExecutionEngine()), profile, context);
         }
         logger.info("Mapping task finished in " + stopWatch.getTime() + " ms");
         assert results != null;
@@ -190,7 +302,12 @@ public class Controller {
         AMapping verificationMapping = MappingOperations.difference(results, acceptanceMapping);
         logger.info("Mapping size: " + acceptanceMapping.size() + " (accepted) + " + verificationMapping.size()
                 + " (need verification) = " + results.size() + " (total)");
-        return new ResultMappings(verificationMapping, acceptanceMapping);
+        job.setResult(stopWatch.getNanoTime(), acceptanceMapping.size(), verificationMapping.size());
+        profile.record(job);
+        ResultMappings mappings = new ResultMappings(verificationMapping, acceptanceMapping);
+        mappings.setProfile(profile);
+        mappings.setChangeset(changeset);
+        return mappings;
     }
 
     private static void writeResults(ResultMappings mappings, Configuration config) {
@@ -200,6 +317,37 @@ public class Controller {
         output.writeToFile(mappings.getVerificationMapping(), config.getVerificationRelation(),
                 config.getVerificationFile());
         output.writeToFile(mappings.getAcceptanceMapping(), config.getAcceptanceRelation(), config.getAcceptanceFile());
+        if (mappings.getProfile() != null) {
+            mappings.getProfile().write(RunProfile.getProfileFile(config.getAcceptanceFile()));
+        }
+        if (mappings.getChangeset() != null) {
+            // a link whose similarity moves across the acceptance threshold
+            // is deleted from one and added to the other file
+            double acceptance = config.getAcceptanceThreshold();
+            writeChangeset(output, mappings.getChangeset().getSubChangeset(Double.NEGATIVE_INFINITY, acceptance),
+                    config.getVerificationRelation(), config.getVerificationFile());
+            writeChangeset(output, mappings.getChangeset().getSubChangeset(acceptance, Double.POSITIVE_INFINITY),
+                    config.getAcceptanceRelation(), config.getAcceptanceFile());
+        }
+    }
+
+    private static void writeChangeset(ISerializer output, MappingChangeset changeset, String relation,
+                                       String file) {
+        output.writeToFile(changeset.getAdditions(), relation, getChangesetFile(file, ADDED_SUFFIX));
+        output.writeToFile(changeset.getDeletions(), relation, getChangesetFile(file, DELETED_SUFFIX));
+    }
+
+    /**
+     * @return the file of one part of the changeset of an output file, named
+     *         like the output file with the suffix inserted before its
+     *         extension
+     */
+    static String getChangesetFile(String file, String suffix) {
+        int dot = file.lastIndexOf('.');
+        if (dot <= Math.max(file.lastIndexOf('/'), file.lastIndexOf(File.separatorChar))) {
+            return file + suffix;
+        }
+        return file.substring(0, dot) + suffix + file.substring(dot);
     }
 
     /**
@@ -218,11 +366,23 @@ public class Controller {
         Options options = new Options();
 //        options.addOption("g", false, "Run LIMES GUI");
         options.addOption("s", false, "Run LIMES Server");
+        Option calibrate = new Option("c", "Calibrate the cost model of the HELIOS and DYNAMIC planners on synthetic " +
+                "data and exit. Optionally takes a comma-separated list of measures. The profile is written to " +
+                "'" + CostProfile.DEFAULT_PROFILE + "' unless the system property " + CostProfile.PROFILE_PROPERTY +
+                " is set. The planners only use a profile when this property points to it.");
+        calibrate.setArgs(1);
+        calibrate.setOptionalArg(true);
+        options.addOption(calibrate);
         options.addOption("h", false, "Show this help");
         options.addOption("o", true, "Set path of log file. Default is 'limes.log'");
         options.addOption("f", true, "Optionally configure format of <config_file_or_uri>, either \"xml\" (default) or " +
                 "\"rdf\". If not specified, LIMES tries to infer the format from file ending.");
         options.addOption("p", true, "Optionally configure HTTP server port. Only effective if -s is specified. Default port is 8080.");
+        options.addOption("i", true, "Optionally link incrementally: the mapping of the previous run kept in the " +
+                "given directory is updated by linking only the instances added or changed since then, and the " +
+                "links added and deleted are written next to the acceptance and verification files with the " +
+                "suffixes '" + ADDED_SUFFIX + "' and '" + DELETED_SUFFIX + "'. The directory is created on the " +
+                "first run.");
         options.addOption("l", true, "Optionally configure a limit for source and target resources processed by LIMES Server. Only effective if -s is specified. Default value is -1 (no limit).");
         // options.addOption("v", false, "Verbose run");
         return options;
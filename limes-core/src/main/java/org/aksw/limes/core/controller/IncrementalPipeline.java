@@ -0,0 +1,322 @@
+package org.aksw.limes.core.controller;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.aksw.limes.core.execution.ExecutionContext;
+import org.aksw.limes.core.execution.engine.ExecutionEngineFactory;
+import org.aksw.limes.core.execution.metrics.MetricsRegistry;
+import org.aksw.limes.core.execution.planning.planner.ExecutionPlannerFactory;
+import org.aksw.limes.core.execution.rewriter.RewriterFactory;
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.InstanceFingerprints;
+import org.aksw.limes.core.io.ls.LinkSpecification;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.LinkSink;
+import org.aksw.limes.core.io.mapping.MappingChangeset;
+import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.aksw.limes.core.io.mapping.ResultStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Execution pipeline that updates the mapping of a previous run of a LS
+ * instead of recomputing it. The instances added, removed and changed since
+ * the previous run are determined from the fingerprints of its caches. The
+ * links of removed and changed instances are retracted from the previous
+ * mapping and the LS is only executed for the added and changed source
+ * instances against the whole target cache and for the whole source cache
+ * against the added and changed target instances.
+ * <p>
+ * The result equals the one of a full run as long as the similarity of a
+ * pair of instances only depends on these two instances, which holds for all
+ * measures and operators of a LS. The state is only reused by runs of the
+ * same LS with the same settings, other runs compute all links.
+ */
+public class IncrementalPipeline {
+    private static final Logger logger = LoggerFactory.getLogger(IncrementalPipeline.class);
+
+    /**
+     * File of the state directory holding the fingerprints of the source cache
+     */
+    public static final String SOURCE_FINGERPRINTS = "source.fingerprints";
+    /**
+     * File of the state directory holding the fingerprints of the target cache
+     */
+    public static final String TARGET_FINGERPRINTS = "target.fingerprints";
+    /**
+     * File of the state directory holding the mapping as {@link ResultStore}
+     */
+    public static final String MAPPING = "mapping.links";
+    /**
+     * File of the state directory holding the hash of the LS and the settings
+     * of the execution
+     */
+    public static final String SETTINGS = "settings.hash";
+
+    /**
+     * Result of an incremental run.
+     */
+    public static class Result {
+        private final AMapping mapping;
+        private final MappingChangeset changeset;
+
+        private Result(AMapping mapping, MappingChangeset changeset) {
+            this.mapping = mapping;
+            this.changeset = changeset;
+        }
+
+        /**
+         * @return the updated mapping
+         */
+        public AMapping getMapping() {
+            return mapping;
+        }
+
+        /**
+         * @return the links added to and deleted from the previous mapping
+         */
+        public MappingChangeset getChangeset() {
+            return changeset;
+        }
+    }
+
+    /**
+     * Updates the mapping of a previous run of a LS.
+     *
+     * @param sourceCache Current resources from source KB
+     * @param targetCache Current resources from target KB
+     * @param sourceFingerprints Fingerprints of the source cache of the previous run
+     * @param targetFingerprints Fingerprints of the target cache of the previous run
+     * @param previousMapping Mapping of the previous run
+     * @param ls LIMES Link Specification
+     * @param sourceVar Name of SPARQL variable for resources from source KB
+     * @param targetVar Name of SPARQL variable for resources from target KB
+     * @param rewriterType Specifies rewriter module to use
+     * @param executionPlannerType Specifies executionPlanner module to use
+     * @param executionEngineType Specifies executionEngine module to use
+     * @param metrics Registry of the measurements, or null for the registry of the process
+     * @param context Context of the execution, used for cancellation, timeout and progress
+     * @return the updated mapping and its changeset
+     */
+    public static Result execute(ACache sourceCache, ACache targetCache, InstanceFingerprints sourceFingerprints,
+                                 InstanceFingerprints targetFingerprints, AMapping previousMapping,
+                                 LinkSpecification ls, String sourceVar, String targetVar,
+                                 RewriterFactory.RewriterType rewriterType,
+                                 ExecutionPlannerFactory.ExecutionPlannerType executionPlannerType,
+                                 ExecutionEngineFactory.ExecutionEngineType executionEngineType,
+                                 MetricsRegistry metrics, ExecutionContext context) {
+        InstanceFingerprints.Delta sourceDelta = sourceFingerprints.getDelta(sourceCache);
+        InstanceFingerprints.Delta targetDelta = targetFingerprints.getDelta(targetCache);
+        logger.info("Source: " + sourceDelta + ", target: " + targetDelta);
+        context.checkpoint();
+
+        // links of the modified instances against the whole other cache; if
+        // all instances of a side are modified, one full run covers both
+        AMapping delta = MappingFactory.createDefaultMapping();
+        LinkSink newLinks = delta::add;
+        ACache modifiedSource = sourceDelta.getModifiedInstances(sourceCache);
+        ACache modifiedTarget = targetDelta.getModifiedInstances(targetCache);
+        if (modifiedSource.size() == sourceCache.size() || modifiedTarget.size() == targetCache.size()) {
+            if (sourceCache.size() > 0 && targetCache.size() > 0) {
+                newLinks.addAll(LSPipeline.execute(sourceCache, targetCache, ls, sourceVar, targetVar,
+                        rewriterType, executionPlannerType, executionEngineType, metrics, context));
+            }
+        } else {
+            if (modifiedSource.size() > 0) {
+                newLinks.addAll(LSPipeline.execute(modifiedSource, targetCache, ls, sourceVar, targetVar,
+                        rewriterType, executionPlannerType, executionEngineType, metrics, context.slice(0, 0.5)));
+            }
+            if (modifiedTarget.size() > 0) {
+                newLinks.addAll(LSPipeline.execute(sourceCache, modifiedTarget, ls, sourceVar, targetVar,
+                        rewriterType, executionPlannerType, executionEngineType, metrics, context.slice(0.5, 1)));
+            }
+        }
+        context.checkpoint();
+
+        // merge the new links into the kept links of the previous mapping
+        Set<String> retractedSources = new HashSet<>(sourceDelta.getRemoved());
+        retractedSources.addAll(sourceDelta.getChanged());
+        Set<String> retractedTargets = new HashSet<>(targetDelta.getRemoved());
+        retractedTargets.addAll(targetDelta.getChanged());
+        AMapping mapping = MappingFactory.createDefaultMapping();
+        AMapping additions = MappingFactory.createDefaultMapping();
+        AMapping deletions = MappingFactory.createDefaultMapping();
+        for (Map.Entry<String, HashMap<String, Double>> links : delta.getMap().entrySet()) {
+            HashMap<String, Double> previous = previousMapping.getMap().get(links.getKey());
+            for (Map.Entry<String, Double> link : links.getValue().entrySet()) {
+                mapping.add(links.getKey(), link.getKey(), link.getValue());
+                if (previous == null || !link.getValue().equals(previous.get(link.getKey()))) {
+                    additions.add(links.getKey(), link.getKey(), link.getValue());
+                }
+            }
+        }
+        for (Map.Entry<String, HashMap<String, Double>> links : previousMapping.getMap().entrySet()) {
+            boolean retracted = retractedSources.contains(links.getKey());
+            HashMap<String, Double> current = delta.getMap().get(links.getKey());
+            for (Map.Entry<String, Double> link : links.getValue().entrySet()) {
+                if (!retracted && !retractedTargets.contains(link.getKey())) {
+                    mapping.add(links.getKey(), link.getKey(), link.getValue());
+                } else if (current == null || !link.getValue().equals(current.get(link.getKey()))) {
+                    deletions.add(links.getKey(), link.getKey(), link.getValue());
+                }
+            }
+        }
+        logger.info("Changeset: " + additions.size() + " added, " + deletions.size() + " deleted links");
+        return new Result(mapping, new MappingChangeset(additions, deletions));
+    }
+
+    /**
+     * Updates the mapping of the previous run of a LS whose state is kept in
+     * a directory and replaces the state by the one of this run. If the
+     * directory holds no state, all links are computed.
+     *
+     * @param sourceCache Current resources from source KB
+     * @param targetCache Current resources from target KB
+     * @param stateDirectory Directory holding the state of the previous run
+     * @param ls LIMES Link Specification
+     * @param sourceVar Name of SPARQL variable for resources from source KB
+     * @param targetVar Name of SPARQL variable for resources from target KB
+     * @param rewriterType Specifies rewriter module to use
+     * @param executionPlannerType Specifies executionPlanner module to use
+     * @param executionEngineType Specifies executionEngine module to use
+     * @param metrics Registry of the measurements, or null for the registry of the process
+     * @param context Context of the execution, used for cancellation, timeout and progress
+     * @return the updated mapping and its changeset
+     * @throws IOException if the state cannot be read or written
+     */
+    public static Result execute(ACache sourceCache, ACache targetCache, File stateDirectory, LinkSpecification ls,
+                                 String sourceVar, String targetVar, RewriterFactory.RewriterType rewriterType,
+                                 ExecutionPlannerFactory.ExecutionPlannerType executionPlannerType,
+                                 ExecutionEngineFactory.ExecutionEngineType executionEngineType,
+                                 MetricsRegistry metrics, ExecutionContext context) throws IOException {
+        return execute(sourceCache, targetCache, stateDirectory, ls, sourceVar, targetVar, rewriterType,
+                executionPlannerType, executionEngineType, "", metrics, context);
+    }
+
+    /**
+     * Updates the mapping of the previous run of a LS whose state is kept in
+     * a directory and replaces the state by the one of this run. If the
+     * directory holds no state or the state of a run with another LS or
+     * other settings, all links are computed and the changeset is the one to
+     * the mapping of the previous run.
+     *
+     * @param sourceCache Current resources from source KB
+     * @param targetCache Current resources from target KB
+     * @param stateDirectory Directory holding the state of the previous run
+     * @param ls LIMES Link Specification
+     * @param sourceVar Name of SPARQL variable for resources from source KB
+     * @param targetVar Name of SPARQL variable for resources from target KB
+     * @param rewriterType Specifies rewriter module to use
+     * @param executionPlannerType Specifies executionPlanner module to use
+     * @param executionEngineType Specifies executionEngine module to use
+     * @param settings Further settings the links depend on, e.g., the restrictions of the caches
+     * @param metrics Registry of the measurements, or null for the registry of the process
+     * @param context Context of the execution, used for cancellation, timeout and progress
+     * @return the updated mapping and its changeset
+     * @throws IOException if the state cannot be read or written
+     */
+    public static Result execute(ACache sourceCache, ACache targetCache, File stateDirectory, LinkSpecification ls,
+                                 String sourceVar, String targetVar, RewriterFactory.RewriterType rewriterType,
+                                 ExecutionPlannerFactory.ExecutionPlannerType executionPlannerType,
+                                 ExecutionEngineFactory.ExecutionEngineType executionEngineType, String settings,
+                                 MetricsRegistry metrics, ExecutionContext context) throws IOException {
+        File sourceFile = new File(stateDirectory, SOURCE_FINGERPRINTS);
+        File targetFile = new File(stateDirectory, TARGET_FINGERPRINTS);
+        File mappingFile = new File(stateDirectory, MAPPING);
+        File settingsFile = new File(stateDirectory, SETTINGS);
+        String settingsHash = getSettingsHash(ls, sourceVar, targetVar, rewriterType, executionPlannerType,
+                executionEngineType, settings);
+        InstanceFingerprints sourceFingerprints = InstanceFingerprints.empty();
+        InstanceFingerprints targetFingerprints = InstanceFingerprints.empty();
+        AMapping previousMapping = MappingFactory.createDefaultMapping();
+        boolean sameSettings = false;
+        if (sourceFile.isFile() && targetFile.isFile() && mappingFile.isFile()) {
+            try (ResultStore store = ResultStore.open(mappingFile)) {
+                store.forEachLink(previousMapping::add);
+            }
+            sameSettings = settingsFile.isFile() && settingsHash.equals(
+                    new String(Files.readAllBytes(settingsFile.toPath()), StandardCharsets.UTF_8));
+            if (sameSettings) {
+                sourceFingerprints = InstanceFingerprints.read(sourceFile);
+                targetFingerprints = InstanceFingerprints.read(targetFile);
+            } else {
+                logger.info("The state in " + stateDirectory + " is one of another LS or other settings, "
+                        + "computing all links");
+            }
+        } else {
+            logger.info("No previous state in " + stateDirectory + ", computing all links");
+        }
+        Result result;
+        if (sameSettings || previousMapping.size() == 0) {
+            result = execute(sourceCache, targetCache, sourceFingerprints, targetFingerprints, previousMapping,
+                    ls, sourceVar, targetVar, rewriterType, executionPlannerType, executionEngineType, metrics,
+                    context);
+        } else {
+            // the links of the previous run cannot be kept, so all of them are compared
+            AMapping mapping = MappingFactory.createDefaultMapping();
+            if (sourceCache.size() > 0 && targetCache.size() > 0) {
+                mapping = LSPipeline.execute(sourceCache, targetCache, ls, sourceVar, targetVar, rewriterType,
+                        executionPlannerType, executionEngineType, metrics, context);
+            }
+            context.checkpoint();
+            result = new Result(mapping, MappingChangeset.of(previousMapping, mapping));
+        }
+
+        // the mapping is written last, so that an interrupted update leaves
+        // no complete state behind
+        if (!stateDirectory.isDirectory() && !stateDirectory.mkdirs()) {
+            throw new IOException("Could not create " + stateDirectory);
+        }
+        mappingFile.delete();
+        write(sourceFile, InstanceFingerprints.of(sourceCache)::write);
+        write(targetFile, InstanceFingerprints.of(targetCache)::write);
+        write(settingsFile, file -> Files.write(file.toPath(), settingsHash.getBytes(StandardCharsets.UTF_8)));
+        write(mappingFile, file -> ResultStore.write(result.getMapping(), file));
+        return result;
+    }
+
+    /**
+     * @return SHA-256 hash of the LS, including the thresholds of all its
+     *         nodes, and of the settings of its execution
+     */
+    static String getSettingsHash(LinkSpecification ls, String sourceVar, String targetVar,
+                                  RewriterFactory.RewriterType rewriterType,
+                                  ExecutionPlannerFactory.ExecutionPlannerType executionPlannerType,
+                                  ExecutionEngineFactory.ExecutionEngineType executionEngineType, String settings) {
+        String key = ls.getFullExpression() + "\n" + ls + "\n" + sourceVar + "\n" + targetVar + "\n"
+                + rewriterType + "\n" + executionPlannerType + "\n" + executionEngineType + "\n" + settings;
+        try {
+            StringBuilder hash = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8))) {
+                hash.append(String.format("%02x", b));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private interface StateWriter {
+        void write(File file) throws IOException;
+    }
+
+    private static void write(File file, StateWriter writer) throws IOException {
+        File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+        writer.write(tmp);
+        if (!tmp.renameTo(file)) {
+            file.delete();
+            if (!tmp.renameTo(file)) {
+                throw new IOException("Could not rename " + tmp);
+            }
+        }
+    }
+}
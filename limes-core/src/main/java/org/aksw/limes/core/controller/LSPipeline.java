@@ -1,7 +1,9 @@
 package org.aksw.limes.core.controller;
 
+import org.aksw.limes.core.execution.ExecutionContext;
 import org.aksw.limes.core.execution.engine.ExecutionEngine;
 import org.aksw.limes.core.execution.engine.ExecutionEngineFactory;
+import org.aksw.limes.core.execution.metrics.MetricsRegistry;
 import org.aksw.limes.core.execution.planning.planner.ExecutionPlannerFactory;
 import org.aksw.limes.core.execution.planning.planner.Planner;
 import org.aksw.limes.core.execution.rewriter.Rewriter;
@@ -59,6 +61,55 @@ public class LSPipeline {
                                    String targetVar, RewriterFactory.RewriterType rewriterType,
                                    ExecutionPlannerFactory.ExecutionPlannerType executionPlannerType,
                                    ExecutionEngineFactory.ExecutionEngineType executionEngineType) {
+        return execute(sourceCache, targetCache, ls, sourceVar, targetVar, rewriterType, executionPlannerType,
+                executionEngineType, null);
+    }
+
+    /**
+     * Execute a given LS, generating a mapping and recording the measurements
+     * of the executed instructions.
+     *
+     * @param sourceCache Resources from source KB
+     * @param targetCache Resources from target KB
+     * @param ls LIMES Link Specification
+     * @param sourceVar Name of SPARQL variable for resources from source KB
+     * @param targetVar Name of SPARQL variable for resources from target KB
+     * @param rewriterType Specifies rewriter module to use
+     * @param executionPlannerType Specifies executionPlanner module to use
+     * @param executionEngineType Specifies executionEngine module to use
+     * @param metrics Registry of the measurements, or null for the registry of the process
+     * @return Mapping of resources in sourceCache to resources in targetCache with similarity &gt; threshold
+     */
+    public static AMapping execute(ACache sourceCache, ACache targetCache, LinkSpecification ls, String sourceVar,
+                                   String targetVar, RewriterFactory.RewriterType rewriterType,
+                                   ExecutionPlannerFactory.ExecutionPlannerType executionPlannerType,
+                                   ExecutionEngineFactory.ExecutionEngineType executionEngineType,
+                                   MetricsRegistry metrics) {
+        return execute(sourceCache, targetCache, ls, sourceVar, targetVar, rewriterType, executionPlannerType,
+                executionEngineType, metrics, ExecutionContext.NONE);
+    }
+
+    /**
+     * Execute a given LS within a context, generating a mapping and recording
+     * the measurements of the executed instructions.
+     *
+     * @param sourceCache Resources from source KB
+     * @param targetCache Resources from target KB
+     * @param ls LIMES Link Specification
+     * @param sourceVar Name of SPARQL variable for resources from source KB
+     * @param targetVar Name of SPARQL variable for resources from target KB
+     * @param rewriterType Specifies rewriter module to use
+     * @param executionPlannerType Specifies executionPlanner module to use
+     * @param executionEngineType Specifies executionEngine module to use
+     * @param metrics Registry of the measurements, or null for the registry of the process
+     * @param context Context of the execution, used for cancellation, timeout and progress
+     * @return Mapping of resources in sourceCache to resources in targetCache with similarity &gt; threshold
+     */
+    public static AMapping execute(ACache sourceCache, ACache targetCache, LinkSpecification ls, String sourceVar,
+                                   String targetVar, RewriterFactory.RewriterType rewriterType,
+                                   ExecutionPlannerFactory.ExecutionPlannerType executionPlannerType,
+                                   ExecutionEngineFactory.ExecutionEngineType executionEngineType,
+                                   MetricsRegistry metrics, ExecutionContext context) {
         // Optimize LS by rewriting
         Rewriter rw = RewriterFactory.getRewriter(rewriterType);
         assert rw != null;
@@ -70,7 +121,8 @@ public class LSPipeline {
         ExecutionEngine engine = ExecutionEngineFactory.getEngine(executionEngineType, sourceCache, targetCache,
                 sourceVar, targetVar);
         assert engine != null;
-        return engine.execute(rwLs, planner);
+        engine.setMetrics(metrics);
+        return engine.execute(rwLs, planner, context);
     }
 
     /**
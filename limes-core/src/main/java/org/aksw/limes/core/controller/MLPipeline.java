@@ -8,6 +8,7 @@ import org.aksw.limes.core.evaluation.evaluator.EvaluatorFactory;
 import org.aksw.limes.core.evaluation.evaluator.EvaluatorType;
 import org.aksw.limes.core.evaluation.qualititativeMeasures.PseudoFMeasure;
 import org.aksw.limes.core.exceptions.UnsupportedMLImplementationException;
+import org.aksw.limes.core.execution.ExecutionContext;
 import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.config.Configuration;
 import org.aksw.limes.core.io.mapping.AMapping;
@@ -44,6 +45,22 @@ public class MLPipeline {
             String trainingDataFile,
             EvaluatorType pfmType,
             int maxIt
+    ) throws UnsupportedMLImplementationException {
+        return execute(source, target, configuration, mlAlgorithmName, mlImplementationType, learningParameters,
+                trainingDataFile, pfmType, maxIt, ExecutionContext.NONE);
+    }
+
+    public static AMapping execute(
+            ACache source,
+            ACache target,
+            Configuration configuration,
+            String mlAlgorithmName,
+            MLImplementationType mlImplementationType,
+            List<LearningParameter> learningParameters,
+            String trainingDataFile,
+            EvaluatorType pfmType,
+            int maxIt,
+            ExecutionContext context
     ) throws UnsupportedMLImplementationException {
         Class<? extends ACoreMLAlgorithm> clazz = MLAlgorithmFactory.getAlgorithmType(mlAlgorithmName);
         MLResults mlm;
@@ -60,6 +77,7 @@ public class MLPipeline {
                 SupervisedMLAlgorithm mls = new SupervisedMLAlgorithm(clazz);
                 mls.init(learningParameters, source, target);
                 mls.getMl().setConfiguration(configuration);
+                mls.setContext(context);
                 mlm = mls.learn(trainingDataMap);
                 logger.info("Learned: " + mlm.getLinkSpecification().getFullExpression() + " with threshold: " + mlm.getLinkSpecification().getThreshold());
                 return mls.predict(source, target, mlm);
@@ -69,6 +87,7 @@ public class MLPipeline {
                 ActiveMLAlgorithm mla = new ActiveMLAlgorithm(clazz);
                 mla.init(learningParameters, source, target);
                 mla.getMl().setConfiguration(configuration);
+                mla.setContext(context);
                 mlm = mla.activeLearn();
                 Scanner scan = new Scanner(System.in);
                 double rating;
@@ -115,6 +134,7 @@ public class MLPipeline {
                 UnsupervisedMLAlgorithm mlu = new UnsupervisedMLAlgorithm(clazz);
                 mlu.init(learningParameters, source, target);
                 mlu.getMl().setConfiguration(configuration);
+                mlu.setContext(context);
                 PseudoFMeasure pfm = null;
                 if(pfmType != null){
                     pfm = (PseudoFMeasure) EvaluatorFactory.create(pfmType);
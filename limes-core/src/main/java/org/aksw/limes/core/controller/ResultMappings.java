@@ -1,6 +1,8 @@
 package org.aksw.limes.core.controller;
 
+import org.aksw.limes.core.execution.metrics.RunProfile;
 import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingChangeset;
 import org.aksw.limes.core.io.mapping.MappingFactory;
 
 /**
@@ -9,6 +11,8 @@ import org.aksw.limes.core.io.mapping.MappingFactory;
 public class ResultMappings {
     protected AMapping verificationMapping;
     protected AMapping acceptanceMapping;
+    protected RunProfile profile;
+    protected MappingChangeset changeset;
 
     /**
      * Constructor
@@ -46,4 +50,36 @@ public class ResultMappings {
         return acceptanceMapping;
     }
 
+    /**
+     * Getter for the profile of the run
+     * @return measurements of the run, or null
+     */
+    public RunProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * Setter for the profile of the run
+     * @param profile measurements of the run
+     */
+    public void setProfile(RunProfile profile) {
+        this.profile = profile;
+    }
+
+    /**
+     * Getter for the changes of an incremental run
+     * @return links added to and deleted from the previous run, or null
+     */
+    public MappingChangeset getChangeset() {
+        return changeset;
+    }
+
+    /**
+     * Setter for the changes of an incremental run
+     * @param changeset links added to and deleted from the previous run
+     */
+    public void setChangeset(MappingChangeset changeset) {
+        this.changeset = changeset;
+    }
+
 }
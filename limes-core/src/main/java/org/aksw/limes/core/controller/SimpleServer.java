@@ -5,9 +5,15 @@ import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
 import eu.medsea.mimeutil.MimeUtil;
+import org.aksw.limes.core.exceptions.ExecutionCancelledException;
+import org.aksw.limes.core.execution.ExecutionContext;
+import org.aksw.limes.core.execution.metrics.Metrics;
+import org.aksw.limes.core.execution.metrics.RunProfile;
 import org.aksw.limes.core.io.config.Configuration;
 import org.aksw.limes.core.io.config.reader.AConfigurationReader;
 import org.aksw.limes.core.io.config.reader.xml.XMLConfigurationReader;
+import org.aksw.limes.core.io.mapping.ResultStore;
+import org.aksw.limes.core.io.serializer.NtSerializer;
 import org.aksw.limes.core.io.serializer.ISerializer;
 import org.aksw.limes.core.io.serializer.SerializerFactory;
 import org.apache.commons.fileupload.MultipartStream;
@@ -16,12 +22,19 @@ import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.net.InetSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * @author Kevin Dreßler
@@ -34,8 +47,23 @@ public class SimpleServer {
     private static final String LOCK_DIR_PATH = "/lock/";
     private static final String QUERY_PARAM_RESULT_TYPE = "result_type";
     private static final String QUERY_PARAM_JOB_ID = "job_id";
+    private static final String QUERY_PARAM_OFFSET = "offset";
+    private static final String QUERY_PARAM_LIMIT = "limit";
+    private static final String QUERY_PARAM_SOURCE_PREFIX = "source_prefix";
+    private static final String QUERY_PARAM_MIN_SIMILARITY = "min_similarity";
+    private static final String QUERY_PARAM_MAX_SIMILARITY = "max_similarity";
+    private static final String QUERY_PARAM_FORMAT = "format";
     private static final String CONFIG_FILE_PREFIX = "limes_server_cfg_";
+    /** suffix of the {@link ResultStore} written next to each result file */
+    private static final String LINKS_FILE_SUFFIX = ".links";
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 10000;
+    private static final int BUFFER_SIZE = 1 << 16;
+    /** MIME types of the result files, which do not change once written */
+    private static ConcurrentMap<String, String> mimeTypes = new ConcurrentHashMap<>();
     private static ConcurrentMap<Long, Integer> jobs = new ConcurrentHashMap<>();
+    private static ConcurrentMap<Long, ExecutionContext> contexts = new ConcurrentHashMap<>();
+    private static ConcurrentMap<Long, Double> progress = new ConcurrentHashMap<>();
     private static int limit;
 
     public static void startServer(int port, int limit) {
@@ -50,8 +78,13 @@ public class SimpleServer {
         }
         server.createContext("/execute", new ExecuteHandler());
         server.createContext("/get_result", new GetResultHandler());
+        server.createContext("/get_links", new GetLinksHandler());
         server.createContext("/get_status", new GetStatusHandler());
+        server.createContext("/get_progress", new GetProgressHandler());
+        server.createContext("/cancel", new CancelHandler());
+        server.createContext("/metrics", new MetricsHandler());
         server.setExecutor(java.util.concurrent.Executors.newCachedThreadPool());
+        MimeUtil.registerMimeDetector("eu.medsea.mimeutil.detector.MagicMimeMimeDetector");
         server.start();
         logger.info("Server has been started! Waiting for requests...");
     }
@@ -61,6 +94,32 @@ public class SimpleServer {
         headers.add("Access-Control-Allow-Methods", "GET, POST, OPTIONS");
     }
 
+    private static boolean acceptsGzip(HttpExchange t) {
+        List<String> encodings = t.getRequestHeaders().get("Accept-Encoding");
+        return encodings != null && encodings.stream().anyMatch(e -> e.toLowerCase().contains("gzip"));
+    }
+
+    /**
+     * Sends the headers of a chunked response and returns its body, gzipped
+     * if the client accepts it.
+     */
+    private static OutputStream openChunkedBody(HttpExchange t) throws IOException {
+        if (acceptsGzip(t)) {
+            t.getResponseHeaders().add("Content-Encoding", "gzip");
+            t.sendResponseHeaders(200, 0);
+            return new GZIPOutputStream(t.getResponseBody(), BUFFER_SIZE);
+        }
+        t.sendResponseHeaders(200, 0);
+        return t.getResponseBody();
+    }
+
+    private static String getMimeType(File file) {
+        return mimeTypes.computeIfAbsent(file.getAbsolutePath(), path -> {
+            Collection<?> types = MimeUtil.getMimeTypes(file, new eu.medsea.mimeutil.MimeType("text/plain"));
+            return types.iterator().next().toString();
+        });
+    }
+
     private static class ExecuteHandler implements HttpHandler {
 
         @Override
@@ -77,6 +136,10 @@ public class SimpleServer {
                     }
                 }
                 String id = writeConfigFile(t.getRequestBody(), boundary);
+                long jobId = Long.parseLong(id);
+                ExecutionContext context = new ExecutionContext().withProgress(p -> progress.put(jobId, p));
+                contexts.put(jobId, context);
+                progress.put(jobId, 0d);
                 jobs.put(Long.parseLong(id), 0);
                 String response = id + "\n";
                 t.sendResponseHeaders(200, response.length());
@@ -87,7 +150,16 @@ public class SimpleServer {
                 AConfigurationReader reader = new XMLConfigurationReader(STORAGE_DIR_PATH + CONFIG_FILE_PREFIX + id + ".xml");
                 Configuration config = reader.read();
                 jobs.put(Long.parseLong(id), 1);
-                ResultMappings mappings = Controller.getMapping(config, limit);
+                ResultMappings mappings;
+                try {
+                    mappings = Controller.getMapping(config, limit, id, context);
+                } catch (ExecutionCancelledException e) {
+                    jobs.put(jobId, 3);
+                    logger.info("Job " + id + " stopped: " + e.getMessage());
+                    return;
+                } finally {
+                    contexts.remove(jobId);
+                }
                 String outputFormat = config.getOutputFormat();
                 ISerializer output = SerializerFactory.createSerializer(outputFormat);
                 output.setPrefixes(config.getPrefixes());
@@ -104,9 +176,17 @@ public class SimpleServer {
                         _verificationFile.getAbsolutePath());
                 output.writeToFile(mappings.getAcceptanceMapping(), config.getAcceptanceRelation(),
                         _acceptanceFile.getAbsolutePath());
+                File _verificationLinks = new File(_verificationFile + LINKS_FILE_SUFFIX);
+                File _acceptanceLinks = new File(_acceptanceFile + LINKS_FILE_SUFFIX);
+                ResultStore.write(mappings.getVerificationMapping(), _verificationLinks);
+                ResultStore.write(mappings.getAcceptanceMapping(), _acceptanceLinks);
+                _verificationLinks.renameTo(new File(verificationFile + LINKS_FILE_SUFFIX));
+                _acceptanceLinks.renameTo(new File(acceptanceFile + LINKS_FILE_SUFFIX));
                 _verificationFile.renameTo(verificationFile);
                 _acceptanceFile.renameTo(acceptanceFile);
+                mappings.getProfile().write(RunProfile.getProfileFile(acceptanceFile.getPath()));
                 lockDir.delete();
+                progress.put(jobId, 1d);
                 jobs.put(Long.parseLong(id), 2);
             } else if (t.getRequestMethod().equals("OPTIONS")) {
                 // we only accept POST requests here, anything else gets code "405 - Method Not Allowed"
@@ -148,7 +228,7 @@ public class SimpleServer {
             if (t.getRequestMethod().equals("GET")) {
                 Map<String, String> params = queryToMap(t.getRequestURI().getRawQuery());
                 if (params.containsKey(QUERY_PARAM_JOB_ID) && params.containsKey(QUERY_PARAM_RESULT_TYPE) &&
-                        Arrays.asList("acceptance", "review").contains(params.get(QUERY_PARAM_RESULT_TYPE).toLowerCase())) {
+                        Arrays.asList("acceptance", "review", "profile").contains(params.get(QUERY_PARAM_RESULT_TYPE).toLowerCase())) {
                     // get data from Config
                     long id = Long.parseLong(params.get(QUERY_PARAM_JOB_ID));
                     if (!new File(STORAGE_DIR_PATH + CONFIG_FILE_PREFIX + id + ".xml").exists()) {
@@ -158,31 +238,42 @@ public class SimpleServer {
                     } else {
                         AConfigurationReader reader = new XMLConfigurationReader(STORAGE_DIR_PATH + CONFIG_FILE_PREFIX + id + ".xml");
                         Configuration config = reader.read();
-                        String requestedFileName = params.get(QUERY_PARAM_RESULT_TYPE).equalsIgnoreCase("acceptance") ?
-                                config.getAcceptanceFile() : config.getVerificationFile();
+                        String resultType = params.get(QUERY_PARAM_RESULT_TYPE).toLowerCase();
+                        String requestedFileName = resultType.equals("acceptance") ? config.getAcceptanceFile()
+                                : resultType.equals("profile")
+                                        ? RunProfile.getProfileFile(config.getAcceptanceFile()).getName()
+                                        : config.getVerificationFile();
                         File requestedFile = new File(STORAGE_DIR_PATH + id + "/" + requestedFileName);
                         File requestedFileLock = new File(STORAGE_DIR_PATH + id + LOCK_DIR_PATH + requestedFileName);
                         // is the file available yet?
                         if (requestedFile.exists()) {
                             // prepare HTTP headers
-                            MimeUtil.registerMimeDetector("eu.medsea.mimeutil.detector.MagicMimeMimeDetector");
-                            Collection mimeTypes = MimeUtil.getMimeTypes(requestedFile, new eu.medsea.mimeutil.MimeType("text/plain"));
                             Headers headers = t.getResponseHeaders();
-                            headers.add("Content-Type", mimeTypes.iterator().next().toString());
+                            headers.add("Content-Type", getMimeType(requestedFile));
                             headers.add("Content-Disposition", "attachment; filename=" + requestedFileName);
-                            t.sendResponseHeaders(200, requestedFile.length());
-                            // attempt to open the file
                             // stream the file
-                            OutputStream os = t.getResponseBody();
-                            FileInputStream fs = new FileInputStream(requestedFile);
-                            final byte[] buffer = new byte[1024];
-                            int count;
-                            while ((count = fs.read(buffer)) >= 0) {
-                                os.write(buffer, 0, count);
+                            try (FileChannel in = FileChannel.open(requestedFile.toPath(), StandardOpenOption.READ)) {
+                                if (acceptsGzip(t)) {
+                                    try (OutputStream os = openChunkedBody(t)) {
+                                        InputStream fs = Channels.newInputStream(in);
+                                        final byte[] buffer = new byte[BUFFER_SIZE];
+                                        int count;
+                                        while ((count = fs.read(buffer)) >= 0) {
+                                            os.write(buffer, 0, count);
+                                        }
+                                    }
+                                } else {
+                                    long size = in.size();
+                                    t.sendResponseHeaders(200, size);
+                                    try (OutputStream os = t.getResponseBody()) {
+                                        WritableByteChannel out = Channels.newChannel(os);
+                                        long position = 0;
+                                        while (position < size) {
+                                            position += in.transferTo(position, size - position, out);
+                                        }
+                                    }
+                                }
                             }
-                            os.flush();
-                            fs.close();
-                            os.close();
                         } else if (requestedFileLock.exists()) {
                             // 204 - No Content
                             // Indicates that Job is being processed and output will soon be available
@@ -212,6 +303,132 @@ public class SimpleServer {
         }
     }
 
+    /**
+     * Replies a page of the acceptance or review links of a job sorted by
+     * descending similarity, read from the {@link ResultStore} of the result
+     * file. The links can be restricted to source URIs starting with a
+     * prefix and to a similarity range, and are streamed as JSON or, with
+     * format=nt, as N-Triples.
+     */
+    private static class GetLinksHandler implements HttpHandler {
+
+        @Override
+        public void handle(HttpExchange t) throws IOException {
+            addCORSHeaders(t.getResponseHeaders());
+            if (t.getRequestMethod().equals("GET")) {
+                Map<String, String> params = queryToMap(t.getRequestURI().getRawQuery());
+                String resultType = params.getOrDefault(QUERY_PARAM_RESULT_TYPE, "").toLowerCase();
+                String format = params.getOrDefault(QUERY_PARAM_FORMAT, "json").toLowerCase();
+                long offset;
+                int limit;
+                double min, max;
+                try {
+                    offset = Long.parseLong(params.getOrDefault(QUERY_PARAM_OFFSET, "0"));
+                    limit = Integer.parseInt(params.getOrDefault(QUERY_PARAM_LIMIT, "" + DEFAULT_PAGE_SIZE));
+                    min = Double.parseDouble(params.getOrDefault(QUERY_PARAM_MIN_SIMILARITY, "0"));
+                    max = Double.parseDouble(params.getOrDefault(QUERY_PARAM_MAX_SIMILARITY, "1"));
+                } catch (NumberFormatException e) {
+                    offset = limit = -1;
+                    min = max = 0;
+                }
+                if (!params.containsKey(QUERY_PARAM_JOB_ID) || !Arrays.asList("acceptance", "review").contains(resultType)
+                        || !Arrays.asList("json", "nt").contains(format) || offset < 0 || limit < 0
+                        || limit > MAX_PAGE_SIZE) {
+                    // 400 - Bad Request
+                    t.sendResponseHeaders(400, -1);
+                    logger.info("Bad request: " + t.getRequestURI() + "\nPlease specify job_id and result_type query "
+                            + "parameters and a limit of at most " + MAX_PAGE_SIZE + "!");
+                    return;
+                }
+                long id = Long.parseLong(params.get(QUERY_PARAM_JOB_ID));
+                if (!new File(STORAGE_DIR_PATH + CONFIG_FILE_PREFIX + id + ".xml").exists()) {
+                    // 404 - Not Found
+                    t.sendResponseHeaders(404, -1);
+                    logger.info("Bad request: " + t.getRequestURI() + "\nResource not found!");
+                    return;
+                }
+                AConfigurationReader reader = new XMLConfigurationReader(STORAGE_DIR_PATH + CONFIG_FILE_PREFIX + id + ".xml");
+                Configuration config = reader.read();
+                boolean acceptance = resultType.equals("acceptance");
+                String requestedFileName = (acceptance ? config.getAcceptanceFile() : config.getVerificationFile())
+                        + LINKS_FILE_SUFFIX;
+                File requestedFile = new File(STORAGE_DIR_PATH + id + "/" + requestedFileName);
+                if (!requestedFile.exists()) {
+                    if (new File(STORAGE_DIR_PATH + id + LOCK_DIR_PATH + requestedFileName).exists()) {
+                        // 204 - No Content
+                        t.sendResponseHeaders(204, -1);
+                        logger.info("Job not yet finished: " + t.getRequestURI());
+                    } else {
+                        // 404 - Not Found
+                        t.sendResponseHeaders(404, -1);
+                        logger.info("Bad request: " + t.getRequestURI() + "\nResource not found!");
+                    }
+                    return;
+                }
+                String relation = acceptance ? config.getAcceptanceRelation() : config.getVerificationRelation();
+                for (Map.Entry<String, String> prefix : config.getPrefixes().entrySet()) {
+                    if (relation.startsWith(prefix.getKey() + ":")) {
+                        relation = NtSerializer.expand(relation, prefix.getValue());
+                        break;
+                    }
+                }
+                String predicate = relation;
+                String sourcePrefix = params.get(QUERY_PARAM_SOURCE_PREFIX);
+                try (ResultStore store = ResultStore.open(requestedFile)) {
+                    t.getResponseHeaders().add("Content-Type", format.equals("nt")
+                            ? "application/n-triples; charset=utf-8" : "application/json; charset=utf-8");
+                    try (Writer out = new BufferedWriter(new OutputStreamWriter(openChunkedBody(t),
+                            StandardCharsets.UTF_8), BUFFER_SIZE)) {
+                        if (format.equals("nt")) {
+                            store.query(sourcePrefix, min, max, offset, limit, (s, o, sim) -> write(out,
+                                    "<" + s + "> <" + predicate + "> <" + o + "> .\n"));
+                        } else {
+                            out.write("{\"offset\":" + offset + ",\"limit\":" + limit + ",\"links\":[");
+                            boolean[] first = { true };
+                            long total = store.query(sourcePrefix, min, max, offset, limit, (s, o, sim) -> {
+                                write(out, (first[0] ? "" : ",") + "\n{\"source\":" + toJson(s) + ",\"target\":"
+                                        + toJson(o) + ",\"similarity\":" + sim + "}");
+                                first[0] = false;
+                            });
+                            out.write("],\"total\":" + total + "}\n");
+                        }
+                    }
+                } catch (UncheckedIOException e) {
+                    logger.info("Client closed the connection: " + t.getRequestURI());
+                }
+            } else if (t.getRequestMethod().equals("OPTIONS")) {
+                t.sendResponseHeaders(200 ,-1);
+                logger.info("Replied to OPTIONS request");
+            } else {
+                // we only accept GET requests here, anything else gets code "405 - Method Not Allowed"
+                t.sendResponseHeaders(405 ,-1);
+                logger.info("Bad request: HTTP VERB must be GET for " + t.getRequestURI());
+            }
+        }
+
+        private static void write(Writer out, String s) {
+            try {
+                out.write(s);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static String toJson(String s) {
+            StringBuilder b = new StringBuilder("\"");
+            for (char c : s.toCharArray()) {
+                if (c == '"' || c == '\\') {
+                    b.append('\\').append(c);
+                } else if (c < 0x20) {
+                    b.append(String.format("\\u%04x", (int) c));
+                } else {
+                    b.append(c);
+                }
+            }
+            return b.append('"').toString();
+        }
+    }
+
     private static class GetStatusHandler implements HttpHandler {
 
         @Override
@@ -257,18 +474,139 @@ public class SimpleServer {
         }
     }
 
-    private static Map<String, String> queryToMap(String query){
+    /**
+     * Replies the progress of a job in percent, or -1 for unknown jobs.
+     */
+    private static class GetProgressHandler implements HttpHandler {
+
+        @Override
+        public void handle(HttpExchange t) throws IOException {
+            addCORSHeaders(t.getResponseHeaders());
+            if (t.getRequestMethod().equals("GET")) {
+                Map<String, String> params = queryToMap(t.getRequestURI().getRawQuery());
+                if (params.containsKey(QUERY_PARAM_JOB_ID)) {
+                    long id = Long.parseLong(params.get(QUERY_PARAM_JOB_ID));
+                    Double fraction = progress.get(id);
+                    int percent = fraction == null ? -1 : (int) Math.floor(fraction * 100);
+                    byte[] response = String.valueOf(percent).getBytes();
+                    t.sendResponseHeaders(200, response.length);
+                    OutputStream os = t.getResponseBody();
+                    os.write(response);
+                    os.close();
+                } else {
+                    // 400 - Bad Request
+                    t.sendResponseHeaders(400, -1);
+                    logger.info("Bad request: " + t.getRequestURI() + "\nPlease specify job_id query parameters!");
+                }
+            } else if (t.getRequestMethod().equals("OPTIONS")) {
+                t.sendResponseHeaders(200 ,-1);
+                logger.info("Replied to OPTIONS request");
+            } else {
+                // we only accept GET requests here, anything else gets code "405 - Method Not Allowed"
+                t.sendResponseHeaders(405, -1);
+                logger.info("Bad request: HTTP VERB must be GET for " + t.getRequestURI());
+            }
+        }
+    }
+
+    /**
+     * Cancels a queued or running job, which then stops at the next
+     * checkpoint of its execution and gets the status 3.
+     */
+    private static class CancelHandler implements HttpHandler {
+
+        @Override
+        public void handle(HttpExchange t) throws IOException {
+            addCORSHeaders(t.getResponseHeaders());
+            if (t.getRequestMethod().equals("POST")) {
+                Map<String, String> params = queryToMap(t.getRequestURI().getRawQuery());
+                if (params.containsKey(QUERY_PARAM_JOB_ID)) {
+                    long id = Long.parseLong(params.get(QUERY_PARAM_JOB_ID));
+                    ExecutionContext context = contexts.get(id);
+                    if (context != null) {
+                        context.cancel();
+                        t.sendResponseHeaders(200, -1);
+                        logger.info("Cancelled job: " + id);
+                    } else {
+                        // 404 - Not Found
+                        t.sendResponseHeaders(404, -1);
+                        logger.info("Bad request: " + t.getRequestURI() + "\nNo queued or running job found!");
+                    }
+                } else {
+                    // 400 - Bad Request
+                    t.sendResponseHeaders(400, -1);
+                    logger.info("Bad request: " + t.getRequestURI() + "\nPlease specify job_id query parameters!");
+                }
+            } else if (t.getRequestMethod().equals("OPTIONS")) {
+                t.sendResponseHeaders(200 ,-1);
+                logger.info("Replied to OPTIONS request");
+            } else {
+                // we only accept POST requests here, anything else gets code "405 - Method Not Allowed"
+                t.sendResponseHeaders(405, -1);
+                logger.info("Bad request: HTTP VERB must be POST for " + t.getRequestURI());
+            }
+        }
+    }
+
+    /**
+     * Exposes the metrics of the process and the number of jobs per status in
+     * the Prometheus text format.
+     */
+    private static class MetricsHandler implements HttpHandler {
+
+        @Override
+        public void handle(HttpExchange t) throws IOException {
+            addCORSHeaders(t.getResponseHeaders());
+            if (t.getRequestMethod().equals("GET")) {
+                StringWriter writer = new StringWriter();
+                Metrics.getRegistry().write(writer);
+                int[] statusCounts = new int[4];
+                for (int status : jobs.values()) {
+                    statusCounts[status]++;
+                }
+                writer.write("# HELP limes_server_jobs Jobs of the server per status.\n");
+                writer.write("# TYPE limes_server_jobs gauge\n");
+                String[] statusNames = { "queued", "running", "finished", "cancelled" };
+                for (int i = 0; i < statusNames.length; i++) {
+                    writer.write("limes_server_jobs{status=\"" + statusNames[i] + "\"} " + statusCounts[i] + "\n");
+                }
+                byte[] response = writer.toString().getBytes(StandardCharsets.UTF_8);
+                t.getResponseHeaders().add("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+                t.sendResponseHeaders(200, response.length);
+                OutputStream os = t.getResponseBody();
+                os.write(response);
+                os.close();
+            } else if (t.getRequestMethod().equals("OPTIONS")) {
+                t.sendResponseHeaders(200 ,-1);
+                logger.info("Replied to OPTIONS request");
+            } else {
+                // we only accept GET requests here, anything else gets code "405 - Method Not Allowed"
+                t.sendResponseHeaders(405, -1);
+                logger.info("Bad request: HTTP VERB must be GET for " + t.getRequestURI());
+            }
+        }
+    }
+
+    /**
+     * Splits a raw query into its parameters. Each parameter is split at its
+     * first raw "=" before its name and value are decoded, so that encoded
+     * "=" and "&amp;" are kept in the values.
+     *
+     * @param query raw query of a request, may be null
+     * @return decoded values per decoded parameter name
+     */
+    static Map<String, String> queryToMap(String query){
         Map<String, String> result = new HashMap<>();
         if (query == null)
             return result;
         for (String param : query.split("&")) {
             try {
-                param = java.net.URLDecoder.decode(param, "UTF-8");
-                String pair[] = param.split("=");
-                if (pair.length > 1) {
-                    result.put(pair[0], pair[1]);
+                int split = param.indexOf('=');
+                if (split >= 0) {
+                    result.put(java.net.URLDecoder.decode(param.substring(0, split), "UTF-8"),
+                            java.net.URLDecoder.decode(param.substring(split + 1), "UTF-8"));
                 } else {
-                    result.put(pair[0], "");
+                    result.put(java.net.URLDecoder.decode(param, "UTF-8"), "");
                 }
             } catch (UnsupportedEncodingException e) {
                 e.printStackTrace();
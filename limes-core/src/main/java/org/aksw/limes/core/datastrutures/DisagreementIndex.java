@@ -0,0 +1,450 @@
+package org.aksw.limes.core.datastrutures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntToDoubleFunction;
+
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingFactory;
+
+/**
+ * Votes of a committee of mappings, as used by active learning to find the
+ * links the committee disagrees most on. For each pair of source and target
+ * URI, the index counts the members containing it in a primitive hash table,
+ * so members can be added and removed incrementally without walking the
+ * mappings of the other members. The most controversial pairs are selected
+ * with a bounded heap.
+ */
+public class DisagreementIndex {
+
+    private final Map<String, Integer> sourceIds = new HashMap<>();
+    private final Map<String, Integer> targetIds = new HashMap<>();
+    private final List<String> sourceUris = new ArrayList<>();
+    private final List<String> targetUris = new ArrayList<>();
+    /** encoded links of each member */
+    private final Map<Object, long[]> members = new LinkedHashMap<>();
+    private final LongIntTable votes = new LongIntTable();
+    private final LongIntTable excluded = new LongIntTable();
+
+    /**
+     * Adds a member, replacing a member with the same key.
+     *
+     * @param key
+     *            Key of the member, e.g., its link specification
+     * @param mapping
+     *            Mapping of the member
+     */
+    public void addMember(Object key, AMapping mapping) {
+        addMember(key, mapping, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Adds a member, replacing a member with the same key.
+     *
+     * @param key
+     *            Key of the member, e.g., its link specification
+     * @param mapping
+     *            Mapping of the member
+     * @param maxLinks
+     *            The links of further sources are ignored once the member
+     *            has this many links
+     */
+    public void addMember(Object key, AMapping mapping, int maxLinks) {
+        removeMember(key);
+        long[] links = new long[mapping.size()];
+        int size = 0;
+        for (Map.Entry<String, HashMap<String, Double>> e : mapping.getMap().entrySet()) {
+            if (size >= maxLinks) {
+                break;
+            }
+            long source = getId(e.getKey(), sourceIds, sourceUris);
+            for (String target : e.getValue().keySet()) {
+                if (size == links.length) {
+                    links = Arrays.copyOf(links, size * 2 + 1);
+                }
+                links[size++] = source << 32 | getId(target, targetIds, targetUris);
+            }
+        }
+        links = Arrays.copyOf(links, size);
+        for (long link : links) {
+            votes.add(link, 1);
+        }
+        members.put(key, links);
+    }
+
+    /**
+     * @param key
+     *            Key of a member
+     * @return true if the member was removed
+     */
+    public boolean removeMember(Object key) {
+        long[] links = members.remove(key);
+        if (links == null) {
+            return false;
+        }
+        for (long link : links) {
+            votes.add(link, -1);
+        }
+        return true;
+    }
+
+    /**
+     * Removes all members whose key is not contained in the given keys.
+     *
+     * @param keys
+     *            Keys of the members to keep
+     */
+    public void retainMembers(Collection<?> keys) {
+        HashSet<?> retained = new HashSet<>(keys);
+        Iterator<Map.Entry<Object, long[]>> it = members.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Object, long[]> e = it.next();
+            if (!retained.contains(e.getKey())) {
+                for (long link : e.getValue()) {
+                    votes.add(link, -1);
+                }
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * @param key
+     *            Key of a member
+     * @return true if the committee contains the member
+     */
+    public boolean containsMember(Object key) {
+        return members.containsKey(key);
+    }
+
+    /**
+     * @return the number of members
+     */
+    public int getMemberCount() {
+        return members.size();
+    }
+
+    /**
+     * Removes all members. Excluded pairs stay excluded.
+     */
+    public void clear() {
+        members.clear();
+        votes.clear();
+    }
+
+    /**
+     * Excludes a pair from the candidates, e.g., because its label is known.
+     *
+     * @param sourceUri
+     *            Source URI
+     * @param targetUri
+     *            Target URI
+     */
+    public void exclude(String sourceUri, String targetUri) {
+        long link = (long) getId(sourceUri, sourceIds, sourceUris) << 32 | getId(targetUri, targetIds, targetUris);
+        if (excluded.get(link) == 0) {
+            excluded.add(link, 1);
+        }
+    }
+
+    /**
+     * Excludes all links of a mapping from the candidates.
+     *
+     * @param mapping
+     *            Mapping of the pairs to exclude
+     */
+    public void exclude(AMapping mapping) {
+        for (Map.Entry<String, HashMap<String, Double>> e : mapping.getMap().entrySet()) {
+            for (String target : e.getValue().keySet()) {
+                exclude(e.getKey(), target);
+            }
+        }
+    }
+
+    /**
+     * @param sourceUri
+     *            Source URI
+     * @param targetUri
+     *            Target URI
+     * @return the number of members containing the pair
+     */
+    public int getVotes(String sourceUri, String targetUri) {
+        Integer source = sourceIds.get(sourceUri);
+        Integer target = targetIds.get(targetUri);
+        if (source == null || target == null) {
+            return 0;
+        }
+        return votes.get((long) source << 32 | target);
+    }
+
+    /**
+     * @return the pairs contained in at least one member and not excluded,
+     *         with their number of votes as similarity
+     */
+    public AMapping getVotes() {
+        AMapping result = MappingFactory.createDefaultMapping();
+        for (int i = 0; i < votes.keys.length; i++) {
+            long link = votes.keys[i];
+            if (link != LongIntTable.EMPTY && votes.values[i] > 0 && excluded.get(link) == 0) {
+                result.add(sourceUris.get((int) (link >>> 32)), targetUris.get((int) link), votes.values[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Selects the pairs with the highest score, ignoring excluded pairs and
+     * pairs no member contains. Pairs of equal score are ordered by the time
+     * their source and target URIs were first seen, so the result does not
+     * depend on hashing.
+     *
+     * @param k
+     *            Maximal number of pairs
+     * @param score
+     *            Score of a pair given its number of votes
+     * @param onePerSource
+     *            If true, at most the best pair of each source URI is
+     *            selected
+     * @return the selected pairs ordered by descending score
+     */
+    public List<Candidate> getTopCandidates(int k, IntToDoubleFunction score, boolean onePerSource) {
+        if (k <= 0) {
+            return new ArrayList<>();
+        }
+        double[] scores = new double[Math.max(1, votes.keys.length)];
+        int[] counts = new int[scores.length];
+        long[] links = new long[scores.length];
+        int n = 0;
+        int[] best = onePerSource ? new int[sourceUris.size()] : null;
+        if (best != null) {
+            Arrays.fill(best, -1);
+        }
+        for (int i = 0; i < votes.keys.length; i++) {
+            long link = votes.keys[i];
+            int count = votes.values[i];
+            if (link == LongIntTable.EMPTY || count <= 0 || excluded.get(link) != 0) {
+                continue;
+            }
+            double s = score.applyAsDouble(count);
+            if (best == null) {
+                scores[n] = s;
+                counts[n] = count;
+                links[n++] = link;
+                continue;
+            }
+            int source = (int) (link >>> 32);
+            int j = best[source];
+            if (j < 0) {
+                best[source] = n;
+                scores[n] = s;
+                counts[n] = count;
+                links[n++] = link;
+            } else if (isBetter(s, link, scores[j], links[j])) {
+                scores[j] = s;
+                counts[j] = count;
+                links[j] = link;
+            }
+        }
+        // min-heap of the best k candidates, the worst one at the root
+        int[] heap = new int[Math.min(k, n)];
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            if (size < heap.length) {
+                heap[size] = i;
+                siftUp(heap, size++, scores, links);
+            } else if (isBetter(scores[i], links[i], scores[heap[0]], links[heap[0]])) {
+                heap[0] = i;
+                siftDown(heap, size, scores, links);
+            }
+        }
+        Candidate[] result = new Candidate[size];
+        while (size > 0) {
+            int i = heap[0];
+            heap[0] = heap[--size];
+            siftDown(heap, size, scores, links);
+            result[size] = new Candidate(sourceUris.get((int) (links[i] >>> 32)), targetUris.get((int) links[i]),
+                    counts[i], scores[i]);
+        }
+        return new ArrayList<>(Arrays.asList(result));
+    }
+
+    private static boolean isBetter(double score, long link, double otherScore, long otherLink) {
+        return score > otherScore || (score == otherScore && link < otherLink);
+    }
+
+    private static void siftUp(int[] heap, int i, double[] scores, long[] links) {
+        int x = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!isBetter(scores[heap[parent]], links[heap[parent]], scores[x], links[x])) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = x;
+    }
+
+    private static void siftDown(int[] heap, int size, double[] scores, long[] links) {
+        if (size == 0) {
+            return;
+        }
+        int x = heap[0];
+        int i = 0;
+        while (2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && isBetter(scores[heap[child]], links[heap[child]], scores[heap[child + 1]],
+                    links[heap[child + 1]])) {
+                child++;
+            }
+            if (!isBetter(scores[x], links[x], scores[heap[child]], links[heap[child]])) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = x;
+    }
+
+    private static int getId(String uri, Map<String, Integer> ids, List<String> uris) {
+        Integer id = ids.get(uri);
+        if (id == null) {
+            id = uris.size();
+            ids.put(uri, id);
+            uris.add(uri);
+        }
+        return id;
+    }
+
+    /**
+     * A pair selected from the index.
+     */
+    public static class Candidate {
+        private final String sourceUri;
+        private final String targetUri;
+        private final int votes;
+        private final double score;
+
+        Candidate(String sourceUri, String targetUri, int votes, double score) {
+            this.sourceUri = sourceUri;
+            this.targetUri = targetUri;
+            this.votes = votes;
+            this.score = score;
+        }
+
+        /**
+         * @return the source URI
+         */
+        public String getSourceUri() {
+            return sourceUri;
+        }
+
+        /**
+         * @return the target URI
+         */
+        public String getTargetUri() {
+            return targetUri;
+        }
+
+        /**
+         * @return the number of members containing the pair
+         */
+        public int getVotes() {
+            return votes;
+        }
+
+        /**
+         * @return the score of the pair
+         */
+        public double getScore() {
+            return score;
+        }
+
+        @Override
+        public String toString() {
+            return "<" + sourceUri + "> <" + targetUri + "> " + votes;
+        }
+    }
+
+    /**
+     * Open addressing hash table from non-negative long keys to int values.
+     * Keys whose value drops to 0 stay in the table until it grows.
+     */
+    private static class LongIntTable {
+        static final long EMPTY = -1L;
+
+        long[] keys = new long[0];
+        int[] values = new int[0];
+        int used = 0;
+
+        int get(long key) {
+            if (keys.length == 0) {
+                return 0;
+            }
+            int i = find(keys, key);
+            return keys[i] == key ? values[i] : 0;
+        }
+
+        void add(long key, int delta) {
+            if ((used + 1) * 2 > keys.length) {
+                rehash();
+            }
+            int i = find(keys, key);
+            if (keys[i] == EMPTY) {
+                keys[i] = key;
+                used++;
+            }
+            values[i] += delta;
+        }
+
+        void clear() {
+            keys = new long[0];
+            values = new int[0];
+            used = 0;
+        }
+
+        private void rehash() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            int live = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY && oldValues[i] != 0) {
+                    live++;
+                }
+            }
+            int capacity = 16;
+            while (capacity < (live + 1) * 4) {
+                capacity <<= 1;
+            }
+            keys = new long[capacity];
+            values = new int[capacity];
+            Arrays.fill(keys, EMPTY);
+            used = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY && oldValues[i] != 0) {
+                    int j = find(keys, oldKeys[i]);
+                    keys[j] = oldKeys[i];
+                    values[j] = oldValues[i];
+                    used++;
+                }
+            }
+        }
+
+        private static int find(long[] keys, long key) {
+            int mask = keys.length - 1;
+            long h = key * 0x9E3779B97F4A7C15L;
+            int i = (int) (h ^ (h >>> 32)) & mask;
+            while (keys[i] != EMPTY && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            return i;
+        }
+    }
+}
@@ -154,5 +154,19 @@ public class EvaluationRun {
         return datasetName;
     }
 
+    /**
+     * @return the record of the quantitative measures of the run
+     */
+    public RunRecord getQuantitativeRecord() {
+        return quanititativeRecord;
+    }
+
+    /**
+     * @param quantitativeRecord the record of the quantitative measures of the run
+     */
+    public void setQuantitativeRecord(RunRecord quantitativeRecord) {
+        this.quanititativeRecord = quantitativeRecord;
+    }
+
 
 }
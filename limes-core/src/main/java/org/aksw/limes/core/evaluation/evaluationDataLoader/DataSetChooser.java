@@ -2,14 +2,16 @@ package org.aksw.limes.core.evaluation.evaluationDataLoader;
 
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.function.Supplier;
 
-import org.aksw.limes.core.evaluation.oracle.IOracle;
 import org.aksw.limes.core.evaluation.oracle.OracleFactory;
 import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.cache.HybridCache;
+import org.aksw.limes.core.io.config.KBInfo;
 import org.aksw.limes.core.io.config.reader.AConfigurationReader;
 import org.aksw.limes.core.io.config.reader.xml.XMLConfigurationReader;
 import org.aksw.limes.core.io.mapping.AMapping;
@@ -101,10 +103,8 @@ public class DataSetChooser {
         param.put(MapKey.EVALUATION_RESULTS_FOLDER, getEvalFolder());
         param.put(MapKey.MAX_RUNS, 5);
         EvaluationData data = EvaluationData.buildFromHashMap(param);
-        AMapping fixed = fixReferenceMap(data.getReferenceMapping(), data.getSourceCache(), data.getTargetCache());
         if (d.equals("RESTAURANTSFIXED")) {
-            data.setReferenceMapping(fixed);
-            data.setName("Restaurants_fixed");
+            fixReferenceMap(data, param);
         }
         return data;
     }
@@ -217,9 +217,7 @@ public class DataSetChooser {
         param.put(MapKey.MAX_RUNS, 5);
         EvaluationData data = EvaluationData.buildFromHashMap(param);
         if (a.equals(DataSets.RESTAURANTS_FIXED)) {
-            AMapping fixed = fixReferenceMap(data.getReferenceMapping(), data.getSourceCache(), data.getTargetCache());
-            data.setReferenceMapping(fixed);
-            data.setName("Restaurants_fixed");
+            fixReferenceMap(data, param);
         }
         return data;
     }
@@ -247,14 +245,14 @@ public class DataSetChooser {
 
         param.put(MapKey.PROPERTY_MAPPING, PropMapper.getPropertyMappingFromFile((String) param.get(MapKey.BASE_FOLDER),
                 (String) param.get(MapKey.CONFIG_FILE)));
-        param.put(MapKey.SOURCE_CACHE, Experiment.readOAEIFile(
+        param.put(MapKey.SOURCE_CACHE, oaeiCache(
                 (String) param.get(MapKey.DATASET_FOLDER) + (String) param.get(MapKey.SOURCE_FILE), type));
-        param.put(MapKey.SOURCE_CACHE, Experiment.readOAEIFile(
+        param.put(MapKey.SOURCE_CACHE, oaeiCache(
                 (String) param.get(MapKey.DATASET_FOLDER) + (String) param.get(MapKey.SOURCE_FILE), type));
 
-        param.put(MapKey.TARGET_CACHE, Experiment.readOAEIFile(
+        param.put(MapKey.TARGET_CACHE, oaeiCache(
                 (String) param.get(MapKey.DATASET_FOLDER) + (String) param.get(MapKey.TARGET_FILE), type));
-        param.put(MapKey.REFERENCE_MAPPING, Experiment.readOAEIMapping(
+        param.put(MapKey.REFERENCE_MAPPING, oaeiMapping(
                 (String) param.get(MapKey.DATASET_FOLDER) + (String) param.get(MapKey.REFERENCE_FILE)));
 
         param.put(MapKey.SOURCE_CLASS, "http://www.okkam.org/ontology_person1.owl#Person");
@@ -284,14 +282,14 @@ public class DataSetChooser {
 
         param.put(MapKey.PROPERTY_MAPPING, PropMapper.getPropertyMappingFromFile((String) param.get(MapKey.BASE_FOLDER),
                 (String) param.get(MapKey.CONFIG_FILE)));
-        param.put(MapKey.SOURCE_CACHE, Experiment.readOAEIFile(
+        param.put(MapKey.SOURCE_CACHE, oaeiCache(
                 (String) param.get(MapKey.DATASET_FOLDER) + (String) param.get(MapKey.SOURCE_FILE), type));
-        param.put(MapKey.SOURCE_CACHE, Experiment.readOAEIFile(
+        param.put(MapKey.SOURCE_CACHE, oaeiCache(
                 (String) param.get(MapKey.DATASET_FOLDER) + (String) param.get(MapKey.SOURCE_FILE), type));
 
-        param.put(MapKey.TARGET_CACHE, Experiment.readOAEIFile(
+        param.put(MapKey.TARGET_CACHE, oaeiCache(
                 (String) param.get(MapKey.DATASET_FOLDER) + (String) param.get(MapKey.TARGET_FILE), type));
-        param.put(MapKey.REFERENCE_MAPPING, Experiment.readOAEIMapping(
+        param.put(MapKey.REFERENCE_MAPPING, oaeiMapping(
                 (String) param.get(MapKey.DATASET_FOLDER) + (String) param.get(MapKey.REFERENCE_FILE)));
 
         param.put(MapKey.SOURCE_CLASS, "http://www.okkam.org/ontology_person1.owl#Person");
@@ -320,11 +318,9 @@ public class DataSetChooser {
 
         param.put(MapKey.PROPERTY_MAPPING, PropMapper.getPropertyMappingFromFile((String) param.get(MapKey.BASE_FOLDER),
                 (String) param.get(MapKey.CONFIG_FILE)));
-        param.put(MapKey.SOURCE_CACHE, HybridCache.getData(cR.getConfiguration().getSourceInfo()));
-        param.put(MapKey.TARGET_CACHE, HybridCache.getData(cR.getConfiguration().getTargetInfo()));
-        OAEIMappingParser mappingParser = new OAEIMappingParser(
-                (String) param.get(MapKey.BASE_FOLDER) + (String) param.get(MapKey.REFERENCE_FILE));
-        param.put(MapKey.REFERENCE_MAPPING, mappingParser.parseDocument());
+        param.put(MapKey.SOURCE_CACHE, kbCache(cR.getConfiguration().getSourceInfo()));
+        param.put(MapKey.TARGET_CACHE, kbCache(cR.getConfiguration().getTargetInfo()));
+        param.put(MapKey.REFERENCE_MAPPING, oaeiAlignment((String) param.get(MapKey.BASE_FOLDER) + (String) param.get(MapKey.REFERENCE_FILE)));
 
         param.put(MapKey.SOURCE_CLASS, "oaei2014:Book");
         param.put(MapKey.TARGET_CLASS, "oaei2014:Book");
@@ -346,18 +342,16 @@ public class DataSetChooser {
         AConfigurationReader cR = new XMLConfigurationReader(
                 (String) param.get(MapKey.BASE_FOLDER) + (String) param.get(MapKey.CONFIG_FILE));
         cR.read();
-        HybridCache sC = HybridCache.getData(cR.getConfiguration().getSourceInfo());
-        HybridCache tC = HybridCache.getData(cR.getConfiguration().getTargetInfo());
+        Supplier<ACache> sC = kbCache(cR.getConfiguration().getSourceInfo());
+        Supplier<ACache> tC = kbCache(cR.getConfiguration().getTargetInfo());
         // data
         param.put(MapKey.CONFIG_READER, cR);
         param.put(MapKey.PROPERTY_MAPPING, PropMapper.getPropertyMappingFromFile((String) param.get(MapKey.BASE_FOLDER),
                 (String) param.get(MapKey.CONFIG_FILE)));
         param.put(MapKey.SOURCE_CACHE, sC);
         param.put(MapKey.TARGET_CACHE, tC);
-        IOracle o = OracleFactory
-                .getOracle("" + /* param.get(MapKey.BASE_FOLDER)+ */param.get(MapKey.DATASET_FOLDER)
-                        + param.get(MapKey.REFERENCE_FILE), "CSV", "simple");
-        param.put(MapKey.REFERENCE_MAPPING, o.getMapping());
+        param.put(MapKey.REFERENCE_MAPPING, oracleMapping("" + /* param.get(MapKey.BASE_FOLDER)+ */param.get(MapKey.DATASET_FOLDER)
+                        + param.get(MapKey.REFERENCE_FILE), "CSV"));
         return param;
     }
 
@@ -376,7 +370,7 @@ public class DataSetChooser {
         param.put(MapKey.NAME, "Persons2");
         // data
         // Cache sC =
-        // Experiment.readOAEIFile((String)param.get(MapKey.DATASET_FOLDER)+(String)param.get(MapKey.SOURCE_FILE),
+        // oaeiCache((String)param.get(MapKey.DATASET_FOLDER)+(String)param.get(MapKey.SOURCE_FILE),
         // type);
         // Experiment.toCsvFile(sC,
         // (String)param.get(MapKey.DATASET_FOLDER)+(String)param.get(MapKey.SOURCE_FILE)+".csv");
@@ -385,7 +379,7 @@ public class DataSetChooser {
         // type);
         // Experiment.toCsvFile(tC,
         // (String)param.get(MapKey.DATASET_FOLDER)+(String)param.get(MapKey.TARGET_FILE)+".csv");
-        // Experiment.toCsvFile(Experiment.readOAEIMapping((String)param.get(MapKey.DATASET_FOLDER)+(String)param.get(MapKey.REFERENCE_FILE)),
+        // Experiment.toCsvFile(oaeiMapping((String)param.get(MapKey.DATASET_FOLDER)+(String)param.get(MapKey.REFERENCE_FILE)),
         // (String)param.get(MapKey.DATASET_FOLDER)+(String)param.get(MapKey.REFERENCE_FILE)+".csv");
         AConfigurationReader cR = new XMLConfigurationReader(
                 "" + param.get(MapKey.BASE_FOLDER) + param.get(MapKey.CONFIG_FILE));
@@ -393,11 +387,11 @@ public class DataSetChooser {
         param.put(MapKey.CONFIG_READER, cR);
         param.put(MapKey.PROPERTY_MAPPING, PropMapper.getPropertyMappingFromFile((String) param.get(MapKey.BASE_FOLDER),
                 (String) param.get(MapKey.CONFIG_FILE)));
-        param.put(MapKey.SOURCE_CACHE, Experiment.readOAEIFile(
+        param.put(MapKey.SOURCE_CACHE, oaeiCache(
                 (String) param.get(MapKey.DATASET_FOLDER) + (String) param.get(MapKey.SOURCE_FILE), type));
-        param.put(MapKey.TARGET_CACHE, Experiment.readOAEIFile(
+        param.put(MapKey.TARGET_CACHE, oaeiCache(
                 (String) param.get(MapKey.DATASET_FOLDER) + (String) param.get(MapKey.TARGET_FILE), type));
-        param.put(MapKey.REFERENCE_MAPPING, Experiment.readOAEIMapping(
+        param.put(MapKey.REFERENCE_MAPPING, oaeiMapping(
                 (String) param.get(MapKey.DATASET_FOLDER) + (String) param.get(MapKey.REFERENCE_FILE)));
 
         param.put(MapKey.SOURCE_CLASS, "http://www.okkam.org/ontology_person1.owl#Person");
@@ -420,18 +414,16 @@ public class DataSetChooser {
         AConfigurationReader cR = new XMLConfigurationReader(
                 (String) param.get(MapKey.BASE_FOLDER) + (String) param.get(MapKey.CONFIG_FILE));
         cR.read();
-        HybridCache sC = HybridCache.getData(cR.getConfiguration().getSourceInfo());
-        HybridCache tC = HybridCache.getData(cR.getConfiguration().getTargetInfo());
+        Supplier<ACache> sC = kbCache(cR.getConfiguration().getSourceInfo());
+        Supplier<ACache> tC = kbCache(cR.getConfiguration().getTargetInfo());
 
         param.put(MapKey.CONFIG_READER, cR);
         param.put(MapKey.PROPERTY_MAPPING, PropMapper.getPropertyMappingFromFile((String) param.get(MapKey.BASE_FOLDER),
                 (String) param.get(MapKey.CONFIG_FILE)));
         param.put(MapKey.SOURCE_CACHE, sC);
         param.put(MapKey.TARGET_CACHE, tC);
-        IOracle o = OracleFactory
-                .getOracle("" + /* param.get(MapKey.BASE_FOLDER)+ */param.get(MapKey.DATASET_FOLDER)
-                        + param.get(MapKey.REFERENCE_FILE), "CSV", "simple");
-        param.put(MapKey.REFERENCE_MAPPING, o.getMapping());
+        param.put(MapKey.REFERENCE_MAPPING, oracleMapping("" + /* param.get(MapKey.BASE_FOLDER)+ */param.get(MapKey.DATASET_FOLDER)
+                        + param.get(MapKey.REFERENCE_FILE), "CSV"));
         return param;
     }
 
@@ -449,7 +441,7 @@ public class DataSetChooser {
         param.put(MapKey.NAME, "Restaurants");
         // data
         // Cache sC =
-        // Experiment.readOAEIFile((String)param.get(MapKey.DATASET_FOLDER)+(String)param.get(MapKey.SOURCE_FILE),
+        // oaeiCache((String)param.get(MapKey.DATASET_FOLDER)+(String)param.get(MapKey.SOURCE_FILE),
         // type);
         // Experiment.toCsvFile(sC,
         // (String)param.get(MapKey.DATASET_FOLDER)+(String)param.get(MapKey.SOURCE_FILE)+".csv");
@@ -458,7 +450,7 @@ public class DataSetChooser {
         // type);
         // Experiment.toCsvFile(tC,
         // (String)param.get(MapKey.DATASET_FOLDER)+(String)param.get(MapKey.TARGET_FILE)+".csv");
-        // Experiment.toCsvFile(Experiment.readOAEIMapping((String)param.get(MapKey.DATASET_FOLDER)+(String)param.get(MapKey.REFERENCE_FILE)),
+        // Experiment.toCsvFile(oaeiMapping((String)param.get(MapKey.DATASET_FOLDER)+(String)param.get(MapKey.REFERENCE_FILE)),
         // (String)param.get(MapKey.DATASET_FOLDER)+(String)param.get(MapKey.REFERENCE_FILE)+".csv");
 
         AConfigurationReader cR = new XMLConfigurationReader(
@@ -468,17 +460,17 @@ public class DataSetChooser {
         param.put(MapKey.PROPERTY_MAPPING, PropMapper.getPropertyMappingFromFile((String) param.get(MapKey.BASE_FOLDER),
                 (String) param.get(MapKey.CONFIG_FILE)));
         param.put(MapKey.SOURCE_CACHE,
-                Experiment.readOAEIFile(
+                oaeiCache(
                         /* (String)param.get(MapKey.BASE_FOLDER)+ */param.get(MapKey.DATASET_FOLDER)
                                 + (String) param.get(MapKey.SOURCE_FILE),
                         type));
         param.put(MapKey.TARGET_CACHE,
-                Experiment.readOAEIFile(
+                oaeiCache(
                         /* (String)param.get(MapKey.BASE_FOLDER)+ */param.get(MapKey.DATASET_FOLDER)
                                 + (String) param.get(MapKey.TARGET_FILE),
                         type));
         param.put(MapKey.REFERENCE_MAPPING,
-                Experiment.readOAEIMapping(
+                oaeiMapping(
                         /* (String)param.get(MapKey.BASE_FOLDER)+ */param.get(MapKey.DATASET_FOLDER)
                                 + (String) param.get(MapKey.REFERENCE_FILE)));
 
@@ -504,18 +496,16 @@ public class DataSetChooser {
         AConfigurationReader cR = new XMLConfigurationReader(
                 (String) param.get(MapKey.BASE_FOLDER) + (String) param.get(MapKey.CONFIG_FILE));
         cR.read();
-        HybridCache sC = HybridCache.getData(cR.getConfiguration().getSourceInfo());
-        HybridCache tC = HybridCache.getData(cR.getConfiguration().getTargetInfo());
+        Supplier<ACache> sC = kbCache(cR.getConfiguration().getSourceInfo());
+        Supplier<ACache> tC = kbCache(cR.getConfiguration().getTargetInfo());
 
         param.put(MapKey.CONFIG_READER, cR);
         param.put(MapKey.PROPERTY_MAPPING, PropMapper.getPropertyMappingFromFile((String) param.get(MapKey.BASE_FOLDER),
                 (String) param.get(MapKey.CONFIG_FILE)));
         param.put(MapKey.SOURCE_CACHE, sC);
         param.put(MapKey.TARGET_CACHE, tC);
-        IOracle o = OracleFactory
-                .getOracle(""/* +param.get(MapKey.BASE_FOLDER) */ + param.get(MapKey.DATASET_FOLDER)
-                        + param.get(MapKey.REFERENCE_FILE), "CSV", "simple");
-        param.put(MapKey.REFERENCE_MAPPING, o.getMapping());
+        param.put(MapKey.REFERENCE_MAPPING, oracleMapping(""/* +param.get(MapKey.BASE_FOLDER) */ + param.get(MapKey.DATASET_FOLDER)
+                        + param.get(MapKey.REFERENCE_FILE), "CSV"));
 
         param.put(MapKey.SOURCE_CLASS, "http://www.okkam.org/ontology_restaurant1.owl#Restaurant");
         param.put(MapKey.TARGET_CLASS, "http://www.okkam.org/ontology_restaurant2.owl#Restaurant");
@@ -542,13 +532,11 @@ public class DataSetChooser {
         param.put(MapKey.CONFIG_READER, cR);
         param.put(MapKey.PROPERTY_MAPPING, PropMapper.getPropertyMappingFromFile((String) param.get(MapKey.BASE_FOLDER),
                 (String) param.get(MapKey.CONFIG_FILE)));
-        param.put(MapKey.SOURCE_CACHE, HybridCache.getData(cR.getConfiguration().getSourceInfo()));
-        param.put(MapKey.TARGET_CACHE, HybridCache.getData(cR.getConfiguration().getTargetInfo()));
+        param.put(MapKey.SOURCE_CACHE, kbCache(cR.getConfiguration().getSourceInfo()));
+        param.put(MapKey.TARGET_CACHE, kbCache(cR.getConfiguration().getTargetInfo()));
         param.put(MapKey.REFERENCE_MAPPING,
-                OracleFactory
-                        .getOracle((String) /* param.get(MapKey.BASE_FOLDER)+ */param.get(MapKey.DATASET_FOLDER)
-                                + param.get(MapKey.REFERENCE_FILE), "csv", "simple")
-                        .getMapping());
+                oracleMapping("" + /* param.get(MapKey.BASE_FOLDER)+ */param.get(MapKey.DATASET_FOLDER)
+                                + param.get(MapKey.REFERENCE_FILE), "csv"));
         param.put(MapKey.SOURCE_CLASS, "dblp:book");
         param.put(MapKey.TARGET_CLASS, "acm:book");
         return param;
@@ -575,13 +563,11 @@ public class DataSetChooser {
         param.put(MapKey.CONFIG_READER, cR);
         param.put(MapKey.PROPERTY_MAPPING, PropMapper.getPropertyMappingFromFile((String) param.get(MapKey.BASE_FOLDER),
                 (String) param.get(MapKey.CONFIG_FILE)));
-        param.put(MapKey.SOURCE_CACHE, HybridCache.getData(cR.getConfiguration().getSourceInfo()));
-        param.put(MapKey.TARGET_CACHE, HybridCache.getData(cR.getConfiguration().getTargetInfo()));
+        param.put(MapKey.SOURCE_CACHE, kbCache(cR.getConfiguration().getSourceInfo()));
+        param.put(MapKey.TARGET_CACHE, kbCache(cR.getConfiguration().getTargetInfo()));
         param.put(MapKey.REFERENCE_MAPPING,
-                OracleFactory
-                        .getOracle((String) /* param.get(MapKey.BASE_FOLDER)+ */param.get(MapKey.DATASET_FOLDER)
-                                + param.get(MapKey.REFERENCE_FILE), "csv", "simple")
-                        .getMapping());
+                oracleMapping("" + /* param.get(MapKey.BASE_FOLDER)+ */param.get(MapKey.DATASET_FOLDER)
+                                + param.get(MapKey.REFERENCE_FILE), "csv"));
         param.put(MapKey.SOURCE_CLASS, "abt:product");
         param.put(MapKey.TARGET_CLASS, "buy:product");
         return param;
@@ -609,13 +595,11 @@ public class DataSetChooser {
         param.put(MapKey.PROPERTY_MAPPING, PropMapper.getPropertyMappingFromFile((String) param.get(MapKey.BASE_FOLDER),
                 (String) param.get(MapKey.CONFIG_FILE)));
 
-        param.put(MapKey.SOURCE_CACHE, HybridCache.getData(cR.getConfiguration().getSourceInfo()));
-        param.put(MapKey.TARGET_CACHE, HybridCache.getData(cR.getConfiguration().getTargetInfo()));
+        param.put(MapKey.SOURCE_CACHE, kbCache(cR.getConfiguration().getSourceInfo()));
+        param.put(MapKey.TARGET_CACHE, kbCache(cR.getConfiguration().getTargetInfo()));
         param.put(MapKey.REFERENCE_MAPPING,
-                OracleFactory
-                        .getOracle((String) /* param.get(MapKey.BASE_FOLDER)+ */param.get(MapKey.DATASET_FOLDER)
-                                + param.get(MapKey.REFERENCE_FILE), "csv", "simple")
-                        .getMapping());
+                oracleMapping("" + /* param.get(MapKey.BASE_FOLDER)+ */param.get(MapKey.DATASET_FOLDER)
+                                + param.get(MapKey.REFERENCE_FILE), "csv"));
 
         param.put(MapKey.SOURCE_CLASS, "dblp:book");
         param.put(MapKey.TARGET_CLASS, "scholar:book");
@@ -643,13 +627,11 @@ public class DataSetChooser {
         param.put(MapKey.CONFIG_READER, cR);
         param.put(MapKey.PROPERTY_MAPPING, PropMapper.getPropertyMappingFromFile((String) param.get(MapKey.BASE_FOLDER),
                 (String) param.get(MapKey.CONFIG_FILE)));
-        param.put(MapKey.SOURCE_CACHE, HybridCache.getData(cR.getConfiguration().getSourceInfo()));
-        param.put(MapKey.TARGET_CACHE, HybridCache.getData(cR.getConfiguration().getTargetInfo()));
+        param.put(MapKey.SOURCE_CACHE, kbCache(cR.getConfiguration().getSourceInfo()));
+        param.put(MapKey.TARGET_CACHE, kbCache(cR.getConfiguration().getTargetInfo()));
         param.put(MapKey.REFERENCE_MAPPING,
-                OracleFactory
-                        .getOracle((String) /* param.get(MapKey.BASE_FOLDER)+ */param.get(MapKey.DATASET_FOLDER)
-                                + param.get(MapKey.REFERENCE_FILE), "csv", "simple")
-                        .getMapping());
+                oracleMapping("" + /* param.get(MapKey.BASE_FOLDER)+ */param.get(MapKey.DATASET_FOLDER)
+                                + param.get(MapKey.REFERENCE_FILE), "csv"));
 
         param.put(MapKey.SOURCE_CLASS, "amazon:product");
         param.put(MapKey.TARGET_CLASS, "google:product");
@@ -677,13 +659,11 @@ public class DataSetChooser {
         param.put(MapKey.CONFIG_READER, cR);
         param.put(MapKey.PROPERTY_MAPPING, PropMapper.getPropertyMappingFromFile((String) param.get(MapKey.BASE_FOLDER),
                 (String) param.get(MapKey.CONFIG_FILE)));
-        param.put(MapKey.SOURCE_CACHE, HybridCache.getData(cR.getConfiguration().getSourceInfo()));
-        param.put(MapKey.TARGET_CACHE, HybridCache.getData(cR.getConfiguration().getTargetInfo()));
+        param.put(MapKey.SOURCE_CACHE, kbCache(cR.getConfiguration().getSourceInfo()));
+        param.put(MapKey.TARGET_CACHE, kbCache(cR.getConfiguration().getTargetInfo()));
         param.put(MapKey.REFERENCE_MAPPING,
-                OracleFactory
-                        .getOracle((String) /* param.get(MapKey.BASE_FOLDER)+ */param.get(MapKey.DATASET_FOLDER)
-                                + param.get(MapKey.REFERENCE_FILE), "tab", "simple")
-                        .getMapping());
+                oracleMapping("" + /* param.get(MapKey.BASE_FOLDER)+ */param.get(MapKey.DATASET_FOLDER)
+                                + param.get(MapKey.REFERENCE_FILE), "tab"));
 
         param.put(MapKey.SOURCE_CLASS, "dbpedia:film");
         param.put(MapKey.TARGET_CLASS, "linkedmdb:movie");
@@ -711,19 +691,87 @@ public class DataSetChooser {
         param.put(MapKey.CONFIG_READER, cR);
         param.put(MapKey.PROPERTY_MAPPING, PropMapper.getPropertyMappingFromFile((String) param.get(MapKey.BASE_FOLDER),
                 (String) param.get(MapKey.CONFIG_FILE)));
-        param.put(MapKey.SOURCE_CACHE, HybridCache.getData(cR.getConfiguration().getSourceInfo()));
-        param.put(MapKey.TARGET_CACHE, HybridCache.getData(cR.getConfiguration().getTargetInfo()));
+        param.put(MapKey.SOURCE_CACHE, kbCache(cR.getConfiguration().getSourceInfo()));
+        param.put(MapKey.TARGET_CACHE, kbCache(cR.getConfiguration().getTargetInfo()));
         param.put(MapKey.REFERENCE_MAPPING,
-                OracleFactory
-                        .getOracle((String) /* param.get(MapKey.BASE_FOLDER)+ */param.get(MapKey.DATASET_FOLDER)
-                                + param.get(MapKey.REFERENCE_FILE), "csv", "simple")
-                        .getMapping());
+                oracleMapping("" + /* param.get(MapKey.BASE_FOLDER)+ */param.get(MapKey.DATASET_FOLDER)
+                                + param.get(MapKey.REFERENCE_FILE), "csv"));
 
         param.put(MapKey.SOURCE_CLASS, "dailymed:drug");
         param.put(MapKey.TARGET_CLASS, "drugbank:drug");
         return param;
     }
 
+    /**
+     * Lets the data load the fixed reference mapping on the first access.
+     *
+     * @param data
+     *            Data whose reference mapping is fixed
+     * @param param
+     *            The parameters the data was built from
+     */
+    private static void fixReferenceMap(EvaluationData data, HashMap<MapKey, Object> param) {
+        EvaluationData original = EvaluationData.buildFromHashMap(param);
+        data.setReferenceMappingLoader(() -> fixReferenceMap(original.getReferenceMapping(), data.getSourceCache(),
+                data.getTargetCache()));
+        data.setName("Restaurants_fixed");
+    }
+
+    /**
+     * @param file
+     *            OAEI file
+     * @param type
+     *            Type token of the instances
+     * @return loader of the cache, shared through the {@link DatasetStore}
+     */
+    private static Supplier<ACache> oaeiCache(String file, String type) {
+        return () -> DatasetStore.getDefault().getCache(new File(file), "oaei:" + type,
+                () -> Experiment.readOAEIFile(file, type));
+    }
+
+    /**
+     * @param file
+     *            OAEI reference file
+     * @return loader of the mapping, shared through the {@link DatasetStore}
+     */
+    private static Supplier<AMapping> oaeiMapping(String file) {
+        return () -> DatasetStore.getDefault().getMapping(new File(file), "oaei",
+                () -> Experiment.readOAEIMapping(file));
+    }
+
+    /**
+     * @param file
+     *            OAEI alignment file
+     * @return loader of the mapping, shared through the {@link DatasetStore}
+     */
+    private static Supplier<AMapping> oaeiAlignment(String file) {
+        return () -> DatasetStore.getDefault().getMapping(new File(file), "alignment",
+                () -> new OAEIMappingParser(file).parseDocument());
+    }
+
+    /**
+     * @param file
+     *            Reference file
+     * @param type
+     *            Input type of the oracle
+     * @return loader of the mapping, shared through the {@link DatasetStore}
+     */
+    private static Supplier<AMapping> oracleMapping(String file, String type) {
+        return () -> DatasetStore.getDefault().getMapping(new File(file), "oracle:" + type.toLowerCase(),
+                () -> OracleFactory.getOracle(file, type, "simple").getMapping());
+    }
+
+    /**
+     * @param kb
+     *            Endpoint specification
+     * @return loader of the cache, shared through the {@link DatasetStore} if
+     *         the endpoint is a local file
+     */
+    private static Supplier<ACache> kbCache(KBInfo kb) {
+        return () -> DatasetStore.getDefault().getCache(new File(kb.getEndpoint()), "kb:" + kb.hashCode(),
+                () -> HybridCache.getData(kb));
+    }
+
     public static Set<MapKey> getLoggingKeys() {
         HashSet<MapKey> set = new HashSet<MapKey>();
         set.add(MapKey.NAME);
@@ -0,0 +1,388 @@
+package org.aksw.limes.core.evaluation.evaluationDataLoader;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.Instance;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Process-wide store of the caches and reference mappings of evaluation
+ * datasets. An entry is keyed by the kind of loading (e.g., the OAEI type
+ * token), the path of the file it was loaded from and the checksum of that
+ * file, so that a changed file is loaded again.
+ * <p>
+ * The most recently used entries are kept in memory as long as their
+ * estimated size fits into the maximal memory of the store. If the system
+ * property {@link #STORE_PROPERTY} is set to a folder, entries are
+ * additionally persisted there in a binary form, which is read much faster
+ * than the original files are parsed. Its maximal memory in MB can be set with
+ * {@link #MEMORY_PROPERTY}.
+ * <p>
+ * The returned caches and mappings are shared and must not be modified.
+ */
+public class DatasetStore {
+    private static final Logger logger = LoggerFactory.getLogger(DatasetStore.class);
+
+    /**
+     * System property holding the folder of the default store
+     */
+    public static final String STORE_PROPERTY = "limes.datasetStore";
+    /**
+     * System property holding the maximal memory of the default store in MB
+     */
+    public static final String MEMORY_PROPERTY = "limes.datasetStore.maxMemory";
+
+    private static final int MAGIC = 0x4c445331;
+    private static final String SUFFIX = ".bin";
+    private static final byte CACHE = 0;
+    private static final byte MAPPING = 1;
+    /** Estimated bytes of a string besides its characters */
+    private static final long STRING_BYTES = 64;
+
+    private static DatasetStore defaultStore = null;
+
+    private final File folder;
+    private final long maxMemory;
+    private long memory = 0;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+    /** Checksums per file path as {last modified, length, checksum} */
+    private final Map<String, long[]> checksums = new HashMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param folder
+     *            Folder the entries are persisted in, created if needed, or
+     *            null to keep them in memory only
+     * @param maxMemory
+     *            Maximal estimated size in bytes of the entries kept in memory
+     */
+    public DatasetStore(File folder, long maxMemory) {
+        this.folder = folder;
+        this.maxMemory = maxMemory;
+        if (folder != null) {
+            folder.mkdirs();
+        }
+    }
+
+    /**
+     * @return the store configured with {@link #STORE_PROPERTY} and
+     *         {@link #MEMORY_PROPERTY}. Without the properties, entries are
+     *         only kept in memory, using at most a quarter of the heap.
+     */
+    public static synchronized DatasetStore getDefault() {
+        if (defaultStore == null) {
+            String path = System.getProperty(STORE_PROPERTY);
+            long maxMemory = Runtime.getRuntime().maxMemory() / 4;
+            if (System.getProperty(MEMORY_PROPERTY) != null) {
+                maxMemory = Long.parseLong(System.getProperty(MEMORY_PROPERTY)) << 20;
+            }
+            defaultStore = new DatasetStore(path == null || path.isEmpty() ? null : new File(path), maxMemory);
+        }
+        return defaultStore;
+    }
+
+    /**
+     * @param file
+     *            File the cache is loaded from
+     * @param kind
+     *            Kind of loading, distinguishes caches loaded differently
+     *            from the same file
+     * @param loader
+     *            Loads the cache if it is not stored yet
+     * @return the stored or loaded cache
+     */
+    public ACache getCache(File file, String kind, Supplier<ACache> loader) {
+        return (ACache) get(file, kind, CACHE, loader);
+    }
+
+    /**
+     * @param file
+     *            File the mapping is loaded from
+     * @param kind
+     *            Kind of loading, distinguishes mappings loaded differently
+     *            from the same file
+     * @param loader
+     *            Loads the mapping if it is not stored yet
+     * @return the stored or loaded mapping
+     */
+    public AMapping getMapping(File file, String kind, Supplier<AMapping> loader) {
+        return (AMapping) get(file, kind, MAPPING, loader);
+    }
+
+    /**
+     * Removes all entries from memory. Persisted entries are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        memory = 0;
+    }
+
+    private Object get(File file, String kind, byte type, Supplier<?> loader) {
+        if (!file.isFile()) {
+            return loader.get();
+        }
+        String key;
+        try {
+            key = type + "\t" + kind + "\t" + file.getAbsolutePath() + "\t" + Long.toHexString(getChecksum(file));
+        } catch (IOException e) {
+            logger.warn("Could not compute the checksum of " + file + ": " + e.getMessage());
+            return loader.get();
+        }
+        synchronized (locks.computeIfAbsent(key, k -> new Object())) {
+            synchronized (this) {
+                Entry entry = entries.get(key);
+                if (entry != null) {
+                    return entry.value;
+                }
+            }
+            Object value = null;
+            File stored = getFile(key);
+            if (stored != null && stored.exists()) {
+                try {
+                    value = read(stored, key, type);
+                } catch (IOException | ReflectiveOperationException e) {
+                    logger.warn("Could not read stored dataset " + stored + ": " + e.getMessage());
+                }
+            }
+            if (value == null) {
+                value = loader.get();
+                if (value == null) {
+                    return null;
+                }
+                if (stored != null) {
+                    write(stored, key, type, value);
+                }
+            }
+            put(key, new Entry(value, type == CACHE ? getSize((ACache) value) : getSize((AMapping) value)));
+            return value;
+        }
+    }
+
+    private synchronized void put(String key, Entry entry) {
+        entries.put(key, entry);
+        memory += entry.size;
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (memory > maxMemory && it.hasNext()) {
+            Map.Entry<String, Entry> eldest = it.next();
+            if (!eldest.getKey().equals(key)) {
+                memory -= eldest.getValue().size;
+                it.remove();
+            }
+        }
+    }
+
+    private long getChecksum(File file) throws IOException {
+        String path = file.getAbsolutePath();
+        synchronized (checksums) {
+            long[] known = checksums.get(path);
+            if (known != null && known[0] == file.lastModified() && known[1] == file.length()) {
+                return known[2];
+            }
+        }
+        long lastModified = file.lastModified();
+        long length = file.length();
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[1 << 16];
+        try (InputStream in = new FileInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                crc.update(buffer, 0, read);
+            }
+        }
+        long checksum = crc.getValue() << 32 ^ length;
+        synchronized (checksums) {
+            checksums.put(path, new long[] { lastModified, length, checksum });
+        }
+        return checksum;
+    }
+
+    private File getFile(String key) {
+        if (folder == null) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(key.getBytes(StandardCharsets.UTF_8));
+        return new File(folder, Integer.toHexString(key.hashCode()) + Long.toHexString(crc.getValue()) + SUFFIX);
+    }
+
+    private static long getSize(ACache cache) {
+        long size = 0;
+        for (Instance instance : cache.getAllInstances()) {
+            size += STRING_BYTES + 2 * instance.getUri().length();
+            for (String property : instance.getAllProperties()) {
+                for (String value : instance.getProperty(property)) {
+                    size += STRING_BYTES + 2 * value.length();
+                }
+            }
+        }
+        return size;
+    }
+
+    private static long getSize(AMapping mapping) {
+        long size = 0;
+        for (Map.Entry<String, HashMap<String, Double>> links : mapping.getMap().entrySet()) {
+            size += STRING_BYTES + 2 * links.getKey().length();
+            for (String target : links.getValue().keySet()) {
+                size += 2 * STRING_BYTES + 2 * target.length();
+            }
+        }
+        return size;
+    }
+
+    private static void write(File file, String key, byte type, Object value) {
+        File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeByte(type);
+                writeString(out, key);
+                if (type == CACHE) {
+                    writeCache(out, (ACache) value);
+                } else {
+                    writeMapping(out, (AMapping) value);
+                }
+            }
+            if (!tmp.renameTo(file)) {
+                file.delete();
+                if (!tmp.renameTo(file)) {
+                    throw new IOException("Could not rename " + tmp);
+                }
+            }
+        } catch (IOException e) {
+            tmp.delete();
+            logger.warn("Could not store dataset " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static Object read(File file, String key, byte type) throws IOException, ReflectiveOperationException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readByte() != type || !readString(in).equals(key)) {
+                return null;
+            }
+            return type == CACHE ? readCache(in) : readMapping(in);
+        }
+    }
+
+    private static void writeCache(DataOutputStream out, ACache cache) throws IOException {
+        Map<String, Integer> properties = new LinkedHashMap<>();
+        List<Instance> instances = cache.getAllInstances();
+        for (Instance instance : instances) {
+            for (String property : instance.getAllProperties()) {
+                properties.putIfAbsent(property, properties.size());
+            }
+        }
+        out.writeUTF(cache.getClass().getName());
+        out.writeInt(properties.size());
+        for (String property : properties.keySet()) {
+            writeString(out, property);
+        }
+        out.writeInt(instances.size());
+        for (Instance instance : instances) {
+            writeString(out, instance.getUri());
+            Set<String> instanceProperties = instance.getAllProperties();
+            out.writeInt(instanceProperties.size());
+            for (String property : instanceProperties) {
+                TreeSet<String> values = instance.getProperty(property);
+                out.writeInt(properties.get(property));
+                out.writeInt(values.size());
+                for (String value : values) {
+                    writeString(out, value);
+                }
+            }
+        }
+    }
+
+    private static ACache readCache(DataInputStream in) throws IOException, ReflectiveOperationException {
+        ACache cache = (ACache) Class.forName(in.readUTF()).newInstance();
+        List<String> properties = new ArrayList<>();
+        for (int i = in.readInt(); i > 0; i--) {
+            properties.add(readString(in));
+        }
+        for (int i = in.readInt(); i > 0; i--) {
+            Instance instance = new Instance(readString(in));
+            for (int j = in.readInt(); j > 0; j--) {
+                String property = properties.get(in.readInt());
+                TreeSet<String> values = new TreeSet<>();
+                for (int k = in.readInt(); k > 0; k--) {
+                    values.add(readString(in));
+                }
+                instance.addProperty(property, values);
+            }
+            cache.addInstance(instance);
+        }
+        cache.resetIterator();
+        return cache;
+    }
+
+    private static void writeMapping(DataOutputStream out, AMapping mapping) throws IOException {
+        out.writeInt(mapping.getMap().size());
+        for (Map.Entry<String, HashMap<String, Double>> links : mapping.getMap().entrySet()) {
+            writeString(out, links.getKey());
+            out.writeInt(links.getValue().size());
+            for (Map.Entry<String, Double> link : links.getValue().entrySet()) {
+                writeString(out, link.getKey());
+                out.writeDouble(link.getValue());
+            }
+        }
+    }
+
+    private static AMapping readMapping(DataInputStream in) throws IOException {
+        AMapping mapping = MappingFactory.createDefaultMapping();
+        for (int i = in.readInt(); i > 0; i--) {
+            String source = readString(in);
+            for (int j = in.readInt(); j > 0; j--) {
+                mapping.add(source, readString(in), in.readDouble());
+            }
+        }
+        return mapping;
+    }
+
+    // unlike writeUTF, not limited to 64 KB
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static class Entry {
+        final Object value;
+        final long size;
+
+        Entry(Object value, long size) {
+            this.value = value;
+            this.size = size;
+        }
+    }
+}
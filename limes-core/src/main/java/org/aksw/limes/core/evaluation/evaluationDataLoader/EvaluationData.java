@@ -2,6 +2,7 @@ package org.aksw.limes.core.evaluation.evaluationDataLoader;
 
 import java.io.File;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import org.aksw.limes.core.evaluation.evaluationDataLoader.DataSetChooser.MapKey;
 import org.aksw.limes.core.io.cache.ACache;
@@ -18,6 +19,9 @@ import org.slf4j.LoggerFactory;
 /**
  * Class to specify evaluation parameters. Hold all neeeded data: caches, ConfigReader, and additional folder settings.
  * <p>
+ * The caches and the reference mapping can be given as loaders, which are
+ * called on the first access only.
+ * <p>
  * To support the older HashMap setting,
  * it provides a static constructor-like method  {@code buildFromHashMap(Map<MapKey, Object> map)}.
  *
@@ -43,6 +47,9 @@ public class EvaluationData {
     private PropertyMapping propertyMapping;
     private ACache sourceCache;
     private ACache targetCache;
+    private Supplier<ACache> sourceCacheLoader;
+    private Supplier<ACache> targetCacheLoader;
+    private Supplier<AMapping> referenceMappingLoader;
     private String sourceClass;
     private String targetClass;
     private AMapping referenceMapping;
@@ -53,9 +60,11 @@ public class EvaluationData {
      * the outdated HashMap-based approach.
      *
      * @param map
-     *         HashMap meeting the standards of the {@link DataSetChooser}.
+     *         HashMap meeting the standards of the {@link DataSetChooser}. The caches and the reference mapping
+     *         may be given as {@link Supplier}s to load them lazily.
      * @return EvaluationData-Contains all information regarding the evaluation such as dataset folder, dataset files and property mapping
      */
+    @SuppressWarnings("unchecked")
     public static EvaluationData buildFromHashMap(Map<MapKey, Object> map) {
         EvaluationData data = new EvaluationData();
         data.baseFolder = (String) map.get(MapKey.BASE_FOLDER);
@@ -67,10 +76,22 @@ public class EvaluationData {
         data.goldStandardFile = (String) map.get(MapKey.REFERENCE_FILE);
         data.name = (String) map.get(MapKey.NAME);
         data.propertyMapping = (PropertyMapping) map.get(MapKey.PROPERTY_MAPPING);
-        data.referenceMapping = (AMapping) map.get(MapKey.REFERENCE_MAPPING);
-        data.sourceCache = (ACache) map.get(MapKey.SOURCE_CACHE);
+        if (map.get(MapKey.REFERENCE_MAPPING) instanceof Supplier) {
+            data.referenceMappingLoader = (Supplier<AMapping>) map.get(MapKey.REFERENCE_MAPPING);
+        } else {
+            data.referenceMapping = (AMapping) map.get(MapKey.REFERENCE_MAPPING);
+        }
+        if (map.get(MapKey.SOURCE_CACHE) instanceof Supplier) {
+            data.sourceCacheLoader = (Supplier<ACache>) map.get(MapKey.SOURCE_CACHE);
+        } else {
+            data.sourceCache = (ACache) map.get(MapKey.SOURCE_CACHE);
+        }
         data.sourceFileName = (String) map.get(MapKey.SOURCE_FILE);
-        data.targetCache = (ACache) map.get(MapKey.TARGET_CACHE);
+        if (map.get(MapKey.TARGET_CACHE) instanceof Supplier) {
+            data.targetCacheLoader = (Supplier<ACache>) map.get(MapKey.TARGET_CACHE);
+        } else {
+            data.targetCache = (ACache) map.get(MapKey.TARGET_CACHE);
+        }
         data.targetFileName = (String) map.get(MapKey.TARGET_FILE);
         data.sourceClass = (String) map.get(MapKey.SOURCE_CLASS);
         data.targetClass = (String) map.get(MapKey.TARGET_CLASS);
@@ -259,9 +280,13 @@ public class EvaluationData {
     }
 
     /**
-     * @return the targetCache
+     * @return the targetCache, loaded on the first call if a loader is set
      */
-    public ACache getTargetCache() {
+    public synchronized ACache getTargetCache() {
+        if (targetCache == null && targetCacheLoader != null) {
+            targetCache = targetCacheLoader.get();
+            targetCacheLoader = null;
+        }
         return targetCache;
     }
 
@@ -269,14 +294,28 @@ public class EvaluationData {
      * @param targetCache
      *         the targetCache to set
      */
-    public void setTargetCache(ACache targetCache) {
+    public synchronized void setTargetCache(ACache targetCache) {
         this.targetCache = targetCache;
+        this.targetCacheLoader = null;
     }
 
     /**
-     * @return the sourceCache
+     * @param targetCacheLoader
+     *         loader of the targetCache, called on the first access
      */
-    public ACache getSourceCache() {
+    public synchronized void setTargetCacheLoader(Supplier<ACache> targetCacheLoader) {
+        this.targetCache = null;
+        this.targetCacheLoader = targetCacheLoader;
+    }
+
+    /**
+     * @return the sourceCache, loaded on the first call if a loader is set
+     */
+    public synchronized ACache getSourceCache() {
+        if (sourceCache == null && sourceCacheLoader != null) {
+            sourceCache = sourceCacheLoader.get();
+            sourceCacheLoader = null;
+        }
         return sourceCache;
     }
 
@@ -284,14 +323,28 @@ public class EvaluationData {
      * @param sourceCache
      *         the sourceCache to set
      */
-    public void setSourceCache(ACache sourceCache) {
+    public synchronized void setSourceCache(ACache sourceCache) {
         this.sourceCache = sourceCache;
+        this.sourceCacheLoader = null;
     }
 
     /**
-     * @return the referenceMapping
+     * @param sourceCacheLoader
+     *         loader of the sourceCache, called on the first access
      */
-    public AMapping getReferenceMapping() {
+    public synchronized void setSourceCacheLoader(Supplier<ACache> sourceCacheLoader) {
+        this.sourceCache = null;
+        this.sourceCacheLoader = sourceCacheLoader;
+    }
+
+    /**
+     * @return the referenceMapping, loaded on the first call if a loader is set
+     */
+    public synchronized AMapping getReferenceMapping() {
+        if (referenceMapping == null && referenceMappingLoader != null) {
+            referenceMapping = referenceMappingLoader.get();
+            referenceMappingLoader = null;
+        }
         return referenceMapping;
     }
 
@@ -299,8 +352,18 @@ public class EvaluationData {
      * @param referenceMapping
      *         the referenceMapping to set
      */
-    public void setReferenceMapping(AMapping referenceMapping) {
+    public synchronized void setReferenceMapping(AMapping referenceMapping) {
         this.referenceMapping = referenceMapping;
+        this.referenceMappingLoader = null;
+    }
+
+    /**
+     * @param referenceMappingLoader
+     *         loader of the referenceMapping, called on the first access
+     */
+    public synchronized void setReferenceMappingLoader(Supplier<AMapping> referenceMappingLoader) {
+        this.referenceMapping = null;
+        this.referenceMappingLoader = referenceMappingLoader;
     }
 
     /**
@@ -1,5 +1,7 @@
 package org.aksw.limes.core.evaluation.evaluator;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -8,6 +10,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.aksw.limes.core.datastrutures.EvaluationRun;
 import org.aksw.limes.core.datastrutures.GoldStandard;
@@ -16,17 +24,20 @@ import org.aksw.limes.core.datastrutures.TaskData;
 import org.aksw.limes.core.evaluation.evaluationDataLoader.EvaluationData;
 import org.aksw.limes.core.evaluation.qualititativeMeasures.QualitativeMeasuresEvaluator;
 import org.aksw.limes.core.evaluation.quantitativeMeasures.IQuantitativeMeasure;
+import org.aksw.limes.core.evaluation.quantitativeMeasures.RunRecord;
+import org.aksw.limes.core.evaluation.quantitativeMeasures.RunsData;
 import org.aksw.limes.core.exceptions.UnsupportedMLImplementationException;
+import org.aksw.limes.core.execution.ExecutionContext;
 import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.cache.HybridCache;
 import org.aksw.limes.core.io.cache.Instance;
 import org.aksw.limes.core.io.config.Configuration;
 import org.aksw.limes.core.io.mapping.AMapping;
 import org.aksw.limes.core.io.mapping.MappingFactory;
-import org.aksw.limes.core.measures.mapper.MappingOperations;
 import org.aksw.limes.core.ml.algorithm.AMLAlgorithm;
 import org.aksw.limes.core.ml.algorithm.ActiveMLAlgorithm;
 import org.aksw.limes.core.ml.algorithm.LearningParameter;
+import org.aksw.limes.core.ml.algorithm.MLAlgorithmFactory;
 import org.aksw.limes.core.ml.algorithm.MLImplementationType;
 import org.aksw.limes.core.ml.algorithm.MLResults;
 import org.aksw.limes.core.ml.algorithm.SupervisedMLAlgorithm;
@@ -45,10 +56,17 @@ import org.slf4j.LoggerFactory;
 public class Evaluator {
     static Logger logger = LoggerFactory.getLogger(Evaluator.class);
 
+    private static final long MB = 1024 * 1024;
+
     List<EvaluationRun> runsList = new ArrayList<EvaluationRun>();
 
-    /**  The qualitative measure evaluator that evaluates the predictions generated by a machine learning algorithm using a gold standard and set of measures*/
-    private QualitativeMeasuresEvaluator eval = new QualitativeMeasuresEvaluator();
+    /** The time of the runs and the peak heap of the process during them */
+    private RunsData runsData = new RunsData();
+    private long nextRunId = 0;
+    private int threads = 1;
+    /** The expected heap of a run in megabytes, limiting the concurrent runs, 0 if unknown */
+    private long runHeapEstimate = 0;
+    private Random random = new Random();
 
     //remember
     //---------AMLAlgorithm(concrete:SupervisedMLAlgorithm,ActiveMLAlgorithm or UnsupervisedMLAlgorithm--------
@@ -65,62 +83,74 @@ public class Evaluator {
      * @return List -  contains list of multiple runs evaluation results corresponding to the algorithms, its implementation and used dataset
      */
     public List<EvaluationRun> evaluate(List<TaskAlgorithm> TaskAlgorithms, Set<TaskData> datasets ,Set<EvaluatorType> QlMeasures, Set<IQuantitativeMeasure> QnMeasures) {
-        AMapping predictions = null;
-        Map<EvaluatorType, Double> evaluationResults = null;
+        List<Callable<EvaluationRun>> runs = new ArrayList<>();
+        // each concurrent run needs its own instance of the stateful algorithm
+        boolean copy = getConcurrency(TaskAlgorithms.size() * datasets.size()) > 1;
+        for (TaskAlgorithm tAlgorithm : TaskAlgorithms) {     //iterate over algorithms tasks(type,algorithm,parameter)
+            for (TaskData dataset : datasets) {     //iterate over datasets(name,source,target,mapping,training,pseudofm)
+                AMLAlgorithm algorithm = copy ? copy(tAlgorithm.getMlAlgorithm()) : tAlgorithm.getMlAlgorithm();
+                runs.add(() -> evaluate(tAlgorithm.getMlType(), algorithm, dataset, QlMeasures));
+            }
+        }
+        runsList.addAll(run(runs, QnMeasures));
+        return runsList;
+
+    }
+
+    private EvaluationRun evaluate(MLImplementationType mlType, AMLAlgorithm algorithm, TaskData dataset, Set<EvaluatorType> QlMeasures) {
+        logger.info("Running algorihm: "+algorithm.getName());
+        logger.info("Used dataset: "+dataset.dataName);
         try{
-            for (TaskAlgorithm tAlgorithm : TaskAlgorithms) {     //iterate over algorithms tasks(type,algorithm,parameter)
-                logger.info("Running algorihm: "+tAlgorithm.getMlAlgorithm().getName());
-                for (TaskData dataset : datasets) {     //iterate over datasets(name,source,target,mapping,training,pseudofm)
-                    logger.info("Used dataset: "+dataset.dataName);
-                    //initialize the algorithm with source and target data, passing its parameters too ( if it is null in case of WOMBAT it will use its defaults)
-                    tAlgorithm.getMlAlgorithm().init(null, dataset.source, dataset.target);
-                    
-                    MLResults mlModel= null; // model resulting from the learning process
-                    
-                    if(tAlgorithm.getMlType().equals(MLImplementationType.SUPERVISED_BATCH))
-                    {
-                        logger.info("Implementation type: "+MLImplementationType.SUPERVISED_BATCH);
-                        SupervisedMLAlgorithm sml =(SupervisedMLAlgorithm)tAlgorithm.getMlAlgorithm();
-                        mlModel = sml.learn(dataset.training);
-                    }
-                    else if(tAlgorithm.getMlType().equals(MLImplementationType.SUPERVISED_ACTIVE))
-                    {
-                        logger.info("Implementation type: "+MLImplementationType.SUPERVISED_ACTIVE);
-                        ActiveMLAlgorithm sml =(ActiveMLAlgorithm)tAlgorithm.getMlAlgorithm();
-                        sml.getMl().setConfiguration(dataset.evalData.getConfigReader().getConfiguration());
-//                        if(tAlgorithm.getMlAlgorithm().getName().equals("Decision Tree Learning")){
-//                            ((DecisionTreeLearning)sml.getMl()).setPropertyMapping(dataset.evalData.getPropertyMapping());
-//                            ((DecisionTreeLearning)sml.getMl()).setInitialMapping(dataset.training);
-//                        }
-                        sml.activeLearn();
-                        //mlModel = sml.activeLearn(dataset.training);
-                        AMapping nextExamples = sml.getNextExamples((int)Math.round(0.5*dataset.training.size()));
-                        AMapping oracleFeedback = oracleFeedback(nextExamples,dataset.training);
-                        mlModel = sml.activeLearn(oracleFeedback);
-                     }
-                    else if(tAlgorithm.getMlType().equals(MLImplementationType.UNSUPERVISED))
-                    {
-                        logger.info("Implementation type: "+MLImplementationType.UNSUPERVISED);
-                        UnsupervisedMLAlgorithm sml =(UnsupervisedMLAlgorithm)tAlgorithm.getMlAlgorithm();
-                        mlModel = sml.learn(dataset.pseudoFMeasure);
-                    }
-                    predictions = tAlgorithm.getMlAlgorithm().predict(dataset.source, dataset.target, mlModel);
-                    logger.info("Start the evaluation of the results");
-                    evaluationResults = eval.evaluate(predictions, dataset.goldStandard, QlMeasures);
-                    EvaluationRun er = new EvaluationRun(tAlgorithm.getMlAlgorithm().getName().replaceAll("\\s+", ""),tAlgorithm.getMlType().name().replaceAll("//s", ""),dataset.dataName.replaceAll("//s", ""),evaluationResults);
-                    runsList.add(er);
-                }
+            //initialize the algorithm with source and target data, passing its parameters too ( if it is null in case of WOMBAT it will use its defaults)
+            algorithm.init(null, dataset.source, dataset.target);
+
+            MLResults mlModel= null; // model resulting from the learning process
+
+            if(mlType.equals(MLImplementationType.SUPERVISED_BATCH))
+            {
+                logger.info("Implementation type: "+MLImplementationType.SUPERVISED_BATCH);
+                SupervisedMLAlgorithm sml =(SupervisedMLAlgorithm)algorithm;
+                mlModel = sml.learn(dataset.training);
+            }
+            else if(mlType.equals(MLImplementationType.SUPERVISED_ACTIVE))
+            {
+                logger.info("Implementation type: "+MLImplementationType.SUPERVISED_ACTIVE);
+                ActiveMLAlgorithm sml =(ActiveMLAlgorithm)algorithm;
+                sml.getMl().setConfiguration(dataset.evalData.getConfigReader().getConfiguration());
+//                if(tAlgorithm.getMlAlgorithm().getName().equals("Decision Tree Learning")){
+//                    ((DecisionTreeLearning)sml.getMl()).setPropertyMapping(dataset.evalData.getPropertyMapping());
+//                    ((DecisionTreeLearning)sml.getMl()).setInitialMapping(dataset.training);
+//                }
+                sml.activeLearn();
+                //mlModel = sml.activeLearn(dataset.training);
+                AMapping nextExamples = sml.getNextExamples((int)Math.round(0.5*dataset.training.size()));
+                AMapping oracleFeedback = oracleFeedback(nextExamples,dataset.training);
+                mlModel = sml.activeLearn(oracleFeedback);
+            }
+            else if(mlType.equals(MLImplementationType.UNSUPERVISED))
+            {
+                logger.info("Implementation type: "+MLImplementationType.UNSUPERVISED);
+                UnsupervisedMLAlgorithm sml =(UnsupervisedMLAlgorithm)algorithm;
+                mlModel = sml.learn(dataset.pseudoFMeasure);
             }
+            AMapping predictions = algorithm.predict(dataset.source, dataset.target, mlModel);
+            logger.info("Start the evaluation of the results");
+            Map<EvaluatorType, Double> evaluationResults = new QualitativeMeasuresEvaluator().evaluate(predictions, dataset.goldStandard, QlMeasures);
+            return new EvaluationRun(algorithm.getName().replaceAll("\\s+", ""),mlType.name().replaceAll("//s", ""),dataset.dataName.replaceAll("//s", ""),evaluationResults);
         }
         catch (UnsupportedMLImplementationException e) {
             e.printStackTrace();
+            return null;
         }
-        return runsList;
-
     }
 
 
     /**
+     * Runs a k-fold cross-validation: every fold is used once as test data
+     * while the algorithm learns on the union of the other folds. The folds of
+     * all datasets are evaluated concurrently with up to
+     * {@link #setThreads(int)} runs.
+     *
      * @param algorithm  the algorithm used to generate the predicted mappings
      * @param datasets    the set of the datasets to apply the algorithms on them. The should include source Cache, target Cache, goldstandard and predicted mapping
      * @param parameter the parameters of the algorithm (will be set to default if this is null)
@@ -136,154 +166,216 @@ public class Evaluator {
     public List<EvaluationRun>  crossValidate(AMLAlgorithm algorithm, List<LearningParameter> parameter, Set<TaskData> datasets,
             int foldNumber, Set<EvaluatorType> qlMeasures, Set<IQuantitativeMeasure> qnMeasures) {
 
+        List<Callable<EvaluationRun>> runs = new ArrayList<>();
+        boolean copy = getConcurrency(datasets.size() * foldNumber) > 1;
         // select a dataset-pair to evaluate each ML algorithm on
         for (TaskData dataset : datasets) {
-        	List<FoldData> folds = generateFolds(dataset.evalData, foldNumber);
-
-			FoldData trainData = new FoldData();
-			FoldData testData = folds.get(foldNumber - 1);
-			// perform union on test folds
-			for (int i = 0; i < foldNumber; i++) {
-				if (i != 9) {
-					trainData.map = MappingOperations.union(trainData.map, folds.get(i).map);
-					trainData.sourceCache = cacheUnion(trainData.sourceCache, folds.get(i).sourceCache);
-					trainData.targetCache = cacheUnion(trainData.targetCache, folds.get(i).targetCache);
-				}
-			}
-			// fix caches if necessary
-			for (String s : trainData.map.getMap().keySet()) {
-				for (String t : trainData.map.getMap().get(s).keySet()) {
-					if (!trainData.targetCache.containsUri(t)) {
-						// logger.info("target: " + t);
-						trainData.targetCache.addInstance(dataset.target.getInstance(t));
-					}
-				}
-				if (!trainData.sourceCache.containsUri(s)) {
-					// logger.info("source: " + s);
-					trainData.sourceCache.addInstance(dataset.source.getInstance(s));
-				}
-			}  
-			AMapping trainingData = trainData.map;
-			ACache trainSourceCache = trainData.sourceCache;
-			ACache trainTargetCache = trainData.targetCache;
-			ACache testSourceCache = testData.sourceCache;
-			ACache testTargetCache = testData.targetCache;
-			GoldStandard goldStandard = new GoldStandard(testData.map, testSourceCache.getAllUris(), testTargetCache.getAllUris()); 
-
-			//train
-		    algorithm.init(parameter, trainSourceCache, trainTargetCache);
-		    Configuration config = dataset.evalData.getConfigReader().read();
-		    algorithm.getMl().setConfiguration(config);
-            MLResults model =null;
-            try {
-                if(algorithm instanceof SupervisedMLAlgorithm)
-                    model = algorithm.asSupervised().learn(trainingData);
-                else if(algorithm instanceof ActiveMLAlgorithm)
-                    model = algorithm.asActive().activeLearn(trainingData);
-            } catch (UnsupportedMLImplementationException e) {
-                e.printStackTrace();
-            }	    
-            EvaluationRun er = new EvaluationRun(algorithm.getName() ,dataset.dataName, eval.evaluate(algorithm.predict(testSourceCache, testTargetCache, model), goldStandard, qlMeasures));
+            // the folds are shared by all runs of the dataset
+            List<FoldData> folds = generateFolds(dataset.evalData, foldNumber);
+            for (int i = 0; i < foldNumber; i++) {
+                AMLAlgorithm foldAlgorithm = copy ? copy(algorithm) : algorithm;
+                Configuration config = dataset.evalData.getConfigReader().read();
+                int testFold = i;
+                runs.add(() -> crossValidate(foldAlgorithm, parameter, config, dataset, folds, testFold, qlMeasures));
+            }
+        }
+        List<EvaluationRun> results = run(runs, qnMeasures);
+        for (EvaluationRun er : results) {
             er.display();
-            runsList.add(er);
         }
+        runsList.addAll(results);
         return runsList;
-// =========== OLD =======================0
-//
-//        //      Table<String, String, Map<EvaluatorType, Double>> evalTable = HashBasedTable.create();// multimap stores aglortihmName:datasetname:List of evaluations
-//
-//        // select a dataset-pair to evaluate each ML algorithm on
-//        for (TaskData dataset : datasets) {
-//
-//            ACache source = dataset.source;
-//            ArrayList<Instance> srcInstances = source.getAllInstances();
-//            AMapping mapping = dataset.mapping;
-//            AMapping goldstd = dataset.goldStandard.referenceMappings;
-//
-//            // create source partitions: S into S1, .., Sk
-//            ACache[] srcParts = new ACache[folds];
-//            // create source folds (opposite of partitions)
-//            ACache[] srcFolds = new ACache[folds];
-//            // create mappings
-//            AMapping[] srcMap = new AMapping[folds];
-//            AMapping[] srcGold = new AMapping[folds];
-//            for (int i = 0; i < folds; i++) {
-//                srcParts[i] = new MemoryCache();
-//                srcFolds[i] = new MemoryCache();
-//                // AN: Changed the type of mapping as the input is a type, not the name
-//                // srcMap[i] = MappingFactory.createMapping(dataset.pairName + "_mapping_" + i);
-//                //srcGold[i] = MappingFactory.createMapping(dataset.pairName + "_goldstd_" + i);
-//                srcMap[i] = MappingFactory.createDefaultMapping();
-//                srcGold[i] = MappingFactory.createDefaultMapping();
-//            }
-//
-//            // randomly distribute instances into #folds partitions
-//            for (Instance inst : srcInstances) {
-//                int destination;
-//                do {
-//                    destination = (int) (Math.random() * folds);
-//                } while (srcParts[destination].size() > source.size() / folds);
-//                srcParts[destination].addInstance(inst);
-//
-//                // build folds
-//                for (int i = 0; i < folds; i++)
-//                    if (i != destination)
-//                        srcFolds[i].addInstance(inst);
-//            }
-//
-//            // copy mapping entries into the one of the respective fold
-//            HashMap<String, HashMap<String, Double>> map = mapping.getMap();
-//            for (int i = 0; i < folds; i++) {
-//                for (Instance inst : srcParts[i].getAllInstances()) {
-//                    String uri = inst.getUri();
-//                    // look for (s, t) belonging to mapping and create G1, ..., G10
-//                    if (map.containsKey(uri))
-//                        srcMap[i].add(uri, map.get(uri));
-//                }
-//            }
-//
-//            // copy gold standard entries into the one of the respective fold
-//            HashMap<String, HashMap<String, Double>> gst = goldstd.getMap();
-//            for (int i = 0; i < folds; i++) {
-//                for (Instance inst : srcParts[i].getAllInstances()) {
-//                    String uri = inst.getUri();
-//                    // look for (s, t) belonging to gold standard and create G1, ..., G10
-//                    if (gst.containsKey(uri))
-//                        srcGold[i].add(uri, gst.get(uri));
-//                }
-//            }
-//
-//            //////////////
-//            GoldStandard goldStandard = new GoldStandard(null, dataset.source.getAllUris(), dataset.target.getAllUris());
-//
-//            // train and test folds
-//            for (int i = 0; i < folds; i++) {
-//
-//                // algorithm .setSourceCache(srcFolds[i]); 
-//                algorithm.init(null, srcFolds[i], dataset.target);
-//                // target cache is invariant
-//                MLResults model =null;
-//                //algorithm.learn(srcMap[i]);
-//
-//                try {
-//                    if(algorithm instanceof SupervisedMLAlgorithm)
-//                        model = algorithm.asSupervised().learn(srcMap[i]);
-//                    else if(algorithm instanceof ActiveMLAlgorithm)
-//                        model = algorithm.asActive().activeLearn(srcMap[i]);
-//                } catch (UnsupportedMLImplementationException e) {
-//                    e.printStackTrace();
-//                }
-//                
-//
-//                goldStandard.referenceMappings = srcGold[i];
-//                EvaluationRun er = new EvaluationRun(algorithm.getName() + " - fold " + i,dataset.dataName, eval.evaluate(algorithm.predict(srcFolds[i], srcFolds[i], model), goldStandard, qlMeasures));
-//                runsList.add(er);
-//                //               evalTable.put(algorithm.getName() + " - fold " + i, dataset.dataName, eval.evaluate(algorithm.predict(srcFolds[i], srcFolds[i], model), goldStandard, qlMeasures));
-//            }
-//        }
-//        return runsList;
-//        //        return evalTable;
+    }
 
+    private EvaluationRun crossValidate(AMLAlgorithm algorithm, List<LearningParameter> parameter, Configuration config,
+            TaskData dataset, List<FoldData> folds, int testFold, Set<EvaluatorType> qlMeasures) {
+        FoldData trainData = mergeFolds(folds, testFold);
+        FoldData testData = folds.get(testFold);
+        // fix caches if necessary
+        for (String s : trainData.map.getMap().keySet()) {
+            for (String t : trainData.map.getMap().get(s).keySet()) {
+                if (!trainData.targetCache.containsUri(t)) {
+                    // logger.info("target: " + t);
+                    trainData.targetCache.addInstance(dataset.target.getInstance(t));
+                }
+            }
+            if (!trainData.sourceCache.containsUri(s)) {
+                // logger.info("source: " + s);
+                trainData.sourceCache.addInstance(dataset.source.getInstance(s));
+            }
+        }
+        AMapping trainingData = trainData.map;
+        ACache trainSourceCache = trainData.sourceCache;
+        ACache trainTargetCache = trainData.targetCache;
+        ACache testSourceCache = testData.sourceCache;
+        ACache testTargetCache = testData.targetCache;
+        GoldStandard goldStandard = new GoldStandard(testData.map, testSourceCache.getAllUris(), testTargetCache.getAllUris());
+
+        //train
+        algorithm.init(parameter, trainSourceCache, trainTargetCache);
+        algorithm.getMl().setConfiguration(config);
+        MLResults model =null;
+        try {
+            if(algorithm instanceof SupervisedMLAlgorithm)
+                model = algorithm.asSupervised().learn(trainingData);
+            else if(algorithm instanceof ActiveMLAlgorithm)
+                model = algorithm.asActive().activeLearn(trainingData);
+        } catch (UnsupportedMLImplementationException e) {
+            e.printStackTrace();
+        }
+        return new EvaluationRun(algorithm.getName() + " - fold " + testFold, dataset.dataName,
+                new QualitativeMeasuresEvaluator().evaluate(algorithm.predict(testSourceCache, testTargetCache, model), goldStandard, qlMeasures));
+    }
+
+    /**
+     * Merges all folds but one into the training data of a run. The caches
+     * of the training data reference the instances of the fold caches, which
+     * are neither copied nor modified.
+     *
+     * @param folds the folds of a dataset
+     * @param testFold the index of the fold to leave out
+     * @return the training data
+     */
+    private FoldData mergeFolds(List<FoldData> folds, int testFold) {
+        FoldData trainData = new FoldData();
+        for (int i = 0; i < folds.size(); i++) {
+            if (i != testFold) {
+                FoldData fold = folds.get(i);
+                for (Map.Entry<String, HashMap<String, Double>> links : fold.map.getMap().entrySet()) {
+                    for (Map.Entry<String, Double> link : links.getValue().entrySet()) {
+                        trainData.map.add(links.getKey(), link.getKey(), link.getValue());
+                    }
+                }
+                for (Instance instance : fold.sourceCache.getAllInstances()) {
+                    trainData.sourceCache.addInstance(instance);
+                }
+                for (Instance instance : fold.targetCache.getAllInstances()) {
+                    trainData.targetCache.addInstance(instance);
+                }
+            }
+        }
+        trainData.size = trainData.map.getSize();
+        return trainData;
+    }
+
+    /**
+     * Executes evaluation runs with up to {@link #setThreads(int)} threads and
+     * records their time and the peak heap usage of the process during each
+     * run.
+     *
+     * @param runs the evaluation runs
+     * @param qnMeasures the quantitative measures to add the run records to, may be null
+     * @return the results of the runs in the given order, without failed runs
+     */
+    private List<EvaluationRun> run(List<Callable<EvaluationRun>> runs, Set<IQuantitativeMeasure> qnMeasures) {
+        List<Callable<EvaluationRun>> tasks = new ArrayList<>();
+        List<EvaluationRun> results = new ArrayList<>();
+        try (HeapSampler sampler = new HeapSampler()) {
+            for (Callable<EvaluationRun> run : runs) {
+                long runId = nextRunId++;
+                tasks.add(() -> {
+                    AtomicLong peak = sampler.start();
+                    long start = System.nanoTime();
+                    EvaluationRun er = run.call();
+                    double time = (System.nanoTime() - start) / 1e6;
+                    double memory = sampler.stop(peak) / (double) MB;
+                    if (er != null) {
+                        er.setQuantitativeRecord(new RunRecord(runId, time, memory));
+                    }
+                    return er;
+                });
+            }
+            for (EvaluationRun er : invokeAll(tasks, getConcurrency(tasks.size()))) {
+                if (er != null) {
+                    results.add(er);
+                    runsData.addRun(er.getQuantitativeRecord());
+                    if (qnMeasures != null) {
+                        for (IQuantitativeMeasure measure : qnMeasures) {
+                            measure.addRun(er.getQuantitativeRecord());
+                        }
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @param tasks number of runs
+     * @return number of runs to execute concurrently, limited by the threads
+     *         and by the number of run heap estimates that fit into the
+     *         maximal heap
+     */
+    private int getConcurrency(int tasks) {
+        int concurrency = Math.min(threads, tasks);
+        if (runHeapEstimate > 0) {
+            concurrency = (int) Math.min(concurrency, Runtime.getRuntime().maxMemory() / (runHeapEstimate * MB));
+        }
+        return Math.max(1, concurrency);
+    }
+
+    /**
+     * Runs the tasks on the shared pool of the execution contexts, so that the
+     * parallel steps of the learners and mappers of concurrent runs use the
+     * same threads instead of adding their own.
+     */
+    private static <T> List<T> invokeAll(List<Callable<T>> tasks, int threads) {
+        return ExecutionContext.NONE.invokeAll(tasks, threads);
+    }
+
+    /**
+     * @param algorithm an algorithm
+     * @return a new instance of the algorithm with the same implementation type and parameters
+     */
+    private static AMLAlgorithm copy(AMLAlgorithm algorithm) {
+        MLImplementationType type = algorithm instanceof SupervisedMLAlgorithm ? MLImplementationType.SUPERVISED_BATCH
+                : algorithm instanceof ActiveMLAlgorithm ? MLImplementationType.SUPERVISED_ACTIVE
+                        : MLImplementationType.UNSUPERVISED;
+        try {
+            AMLAlgorithm result = MLAlgorithmFactory.createMLAlgorithm(algorithm.getMl().getClass(), type);
+            if (algorithm.getParameters() != null) {
+                for (LearningParameter lp : algorithm.getParameters()) {
+                    result.setParameter(lp.getName(), lp.getValue());
+                }
+            }
+            return result;
+        } catch (UnsupportedMLImplementationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @param threads the maximal number of evaluation runs executed concurrently
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * @param runHeapEstimate the heap in megabytes a single evaluation run is
+     *        expected to use. It only limits the concurrency: runs are
+     *        executed concurrently as far as their estimates fit into the
+     *        maximal heap, but a run is not stopped if it needs more. 0 does
+     *        not limit the concurrency.
+     */
+    public void setRunHeapEstimate(long runHeapEstimate) {
+        this.runHeapEstimate = runHeapEstimate;
+    }
+
+    /**
+     * @param seed the seed of the random generator used to split the reference mappings into folds
+     */
+    public void setSeed(long seed) {
+        random = new Random(seed);
+    }
+
+    /**
+     * @return the run time in milliseconds of all runs and the peak heap in
+     *         megabytes of the whole process during each of them, which
+     *         includes the heap of concurrent runs
+     */
+    public RunsData getRunsData() {
+        return runsData;
     }
     
 	public ACache cacheUnion(ACache a, ACache b) {
@@ -337,7 +429,9 @@ public class Evaluator {
 	}
     
     public List<AMapping> generateMappingFolds(AMapping refMap, ACache source, ACache target, int foldNumber) {
-		Random rand = new Random();
+		Random rand = random;
+		// links not assigned to a fold yet
+		refMap = copyLinks(refMap);
 		List<AMapping> foldMaps = new ArrayList<>();
 		int mapSize = refMap.getMap().keySet().size();
 		int foldSize = (int) (mapSize / foldNumber);
@@ -355,7 +449,7 @@ public class Evaluator {
 			while (index.size() < foldSize) {
 				int number;
 				do {
-					number = (int) (mapSize * Math.random());
+					number = rand.nextInt(mapSize);
 				} while (index.contains(number));
 				index.add(number);
 			}
@@ -388,7 +482,7 @@ public class Evaluator {
 			}
 
 			foldMaps.add(foldMap);
-			refMap = removeSubMap(refMap, foldMap);
+			removeLinks(refMap, foldMap);
 		}
 		int i = 0;
 		int odd = 0;
@@ -436,6 +530,31 @@ public class Evaluator {
 		return getRandomTargetInstance(source, target, values, random, refMap, sourceInstance, randomInt);
 	}
     
+    private static AMapping copyLinks(AMapping map) {
+		AMapping result = MappingFactory.createDefaultMapping();
+		for (Map.Entry<String, HashMap<String, Double>> links : map.getMap().entrySet()) {
+			result.getMap().put(links.getKey(), new HashMap<>(links.getValue()));
+		}
+		return result;
+	}
+
+	/**
+	 * Removes the links of a sub mapping from a mapping in place, unlike
+	 * {@link #removeSubMap(AMapping, AMapping)} which copies the remaining
+	 * links.
+	 */
+	private static void removeLinks(AMapping mainMap, AMapping subMap) {
+		for (Map.Entry<String, HashMap<String, Double>> links : subMap.getMap().entrySet()) {
+			HashMap<String, Double> targets = mainMap.getMap().get(links.getKey());
+			if (targets != null) {
+				targets.keySet().removeAll(links.getValue().keySet());
+				if (targets.isEmpty()) {
+					mainMap.getMap().remove(links.getKey());
+				}
+			}
+		}
+	}
+
     public AMapping removeSubMap(AMapping mainMap, AMapping subMap) {
 		AMapping result = MappingFactory.createDefaultMapping();
 		double value = 0;
@@ -510,4 +629,51 @@ public class Evaluator {
     }*/
 
 
+    /**
+     * Samples the used heap of the whole process periodically and tracks its
+     * peak during each active run. The JVM does not account heap per run, so
+     * the peak of a run includes the heap of concurrent runs and of anything
+     * else in the process; it is a per-run figure only with one thread.
+     */
+    private static class HeapSampler implements AutoCloseable {
+        private static final long INTERVAL = 50;
+        private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+        private final Set<AtomicLong> peaks = ConcurrentHashMap.newKeySet();
+        private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "heap-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        HeapSampler() {
+            timer.scheduleAtFixedRate(this::sample, INTERVAL, INTERVAL, TimeUnit.MILLISECONDS);
+        }
+
+        private void sample() {
+            long used = MEMORY.getHeapMemoryUsage().getUsed();
+            for (AtomicLong peak : peaks) {
+                peak.accumulateAndGet(used, Math::max);
+            }
+        }
+
+        AtomicLong start() {
+            AtomicLong peak = new AtomicLong();
+            peaks.add(peak);
+            sample();
+            return peak;
+        }
+
+        long stop(AtomicLong peak) {
+            sample();
+            peaks.remove(peak);
+            return peak.get();
+        }
+
+        @Override
+        public void close() {
+            timer.shutdownNow();
+        }
+    }
+
 }
@@ -0,0 +1,341 @@
+package org.aksw.limes.core.evaluation.qualititativeMeasures;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.aksw.limes.core.datastrutures.LogicOperator;
+import org.aksw.limes.core.io.mapping.AMapping;
+
+/**
+ * Computes the same values as {@link PseudoFMeasure} without 1-to-1 mappings
+ * for a fixed pair of source and target URIs, but without building a
+ * {@link org.aksw.limes.core.datastrutures.GoldStandard} and the sets of
+ * linked URIs for each evaluated mapping.
+ * <p>
+ * URIs are interned to int ids once. A mapping can be encoded as a
+ * {@link LinkSet}, i.e., its links sorted by source and by target id, from
+ * which the number of links per source and per target can be read. The
+ * pseudo-F-measure of a mapping that results from a union, intersection or
+ * difference of an encoded mapping with another one is computed from the
+ * links of the other mapping only, so that refining a large mapping with
+ * small classifiers does not walk the large mapping again.
+ * <p>
+ * Instances are thread-safe.
+ */
+public class PseudoFMeasureEvaluator {
+
+    private final Map<String, Integer> sourceIds = new ConcurrentHashMap<>();
+    private final Map<String, Integer> targetIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextSourceId = new AtomicInteger();
+    private final AtomicInteger nextTargetId = new AtomicInteger();
+    /** |S| + |T| as used by {@link PseudoRecall} */
+    private final int universeSize;
+    private final double beta;
+    private final boolean symmetricPrecision;
+
+    /**
+     * Constructor for the pseudo-F1-measure with symmetric precision as
+     * computed by {@link PseudoFMeasure#calculate}.
+     *
+     * @param sourceUris
+     *            URIs of the source resources
+     * @param targetUris
+     *            URIs of the target resources
+     */
+    public PseudoFMeasureEvaluator(Collection<String> sourceUris, Collection<String> targetUris) {
+        this(sourceUris, targetUris, 1d, true);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param sourceUris
+     *            URIs of the source resources
+     * @param targetUris
+     *            URIs of the target resources
+     * @param beta
+     *            Beta for F-beta
+     * @param symmetricPrecision
+     *            Whether the pseudo-precision counts linked targets as well
+     */
+    public PseudoFMeasureEvaluator(Collection<String> sourceUris, Collection<String> targetUris, double beta,
+            boolean symmetricPrecision) {
+        this.universeSize = sourceUris.size() + targetUris.size();
+        this.beta = beta;
+        this.symmetricPrecision = symmetricPrecision;
+        for (String uri : sourceUris) {
+            getId(sourceIds, nextSourceId, uri);
+        }
+        for (String uri : targetUris) {
+            getId(targetIds, nextTargetId, uri);
+        }
+    }
+
+    private static int getId(Map<String, Integer> ids, AtomicInteger next, String uri) {
+        Integer id = ids.get(uri);
+        if (id == null) {
+            // linked URIs that are not part of the universe still count as
+            // in PseudoRecall
+            id = ids.computeIfAbsent(uri, k -> next.getAndIncrement());
+        }
+        return id;
+    }
+
+    /**
+     * @return beta of the F-beta-measure
+     */
+    public double getBeta() {
+        return beta;
+    }
+
+    /**
+     * @return whether the pseudo-precision is symmetric
+     */
+    public boolean isSymmetricPrecision() {
+        return symmetricPrecision;
+    }
+
+    /**
+     * Encodes the links of a mapping.
+     *
+     * @param mapping
+     *            The mapping
+     * @return the id-encoded links of the mapping
+     */
+    public LinkSet encode(AMapping mapping) {
+        int size = 0;
+        for (HashMap<String, Double> links : mapping.getMap().values()) {
+            size += links.size();
+        }
+        long[] bySource = new long[size];
+        long[] byTarget = new long[size];
+        int i = 0;
+        for (Map.Entry<String, HashMap<String, Double>> links : mapping.getMap().entrySet()) {
+            long s = getId(sourceIds, nextSourceId, links.getKey());
+            for (String target : links.getValue().keySet()) {
+                long t = getId(targetIds, nextTargetId, target);
+                bySource[i] = s << 32 | t;
+                byTarget[i] = t << 32 | s;
+                i++;
+            }
+        }
+        Arrays.sort(bySource);
+        Arrays.sort(byTarget);
+        return new LinkSet(bySource, byTarget);
+    }
+
+    /**
+     * @param mapping
+     *            The mapping
+     * @return the pseudo-F-measure of the mapping
+     */
+    public double calculate(AMapping mapping) {
+        // the mapping is walked once and no intermediate sets are built
+        boolean[] marks = new boolean[nextTargetId.get()];
+        long links = 0;
+        int sources = 0, targets = 0;
+        for (HashMap<String, Double> linked : mapping.getMap().values()) {
+            if (linked.isEmpty()) {
+                continue;
+            }
+            sources++;
+            links += linked.size();
+            for (String target : linked.keySet()) {
+                int t = getId(targetIds, nextTargetId, target);
+                if (t >= marks.length) {
+                    marks = Arrays.copyOf(marks, Math.max(t + 1, nextTargetId.get()));
+                }
+                if (!marks[t]) {
+                    marks[t] = true;
+                    targets++;
+                }
+            }
+        }
+        return fMeasure(links, sources, targets);
+    }
+
+    /**
+     * @param links
+     *            Encoded mapping
+     * @return the pseudo-F-measure of the mapping
+     */
+    public double calculate(LinkSet links) {
+        return fMeasure(links.size(), links.getSourceCount(), links.getTargetCount());
+    }
+
+    /**
+     * Computes the pseudo-F-measure of the result of a set operation without
+     * building it. Only the links of the operand are visited, each with a
+     * binary search in the links of the parent.
+     *
+     * @param parent
+     *            Left operand, usually the larger one
+     * @param op
+     *            AND, OR, MINUS, DIFF (same as MINUS) or XOR
+     * @param operand
+     *            Right operand
+     * @return the pseudo-F-measure of parent op operand
+     */
+    public double calculate(LinkSet parent, LogicOperator op, LinkSet operand) {
+        long[] sources = countDelta(parent.bySource, parent.sources, op, operand.bySource);
+        long[] targets = countDelta(parent.byTarget, parent.targets, op, operand.byTarget);
+        return fMeasure(sources[0], (int) sources[1], (int) targets[1]);
+    }
+
+    /**
+     * Counts the links and distinct keys (sources or targets) of a op b. Keys
+     * that do not occur in b keep their links of a unless op is AND.
+     *
+     * @return {number of links, number of distinct keys}
+     */
+    private static long[] countDelta(long[] a, int aKeys, LogicOperator op, long[] b) {
+        boolean and = op == LogicOperator.AND;
+        long links = and ? 0 : a.length;
+        long keys = and ? 0 : aKeys;
+        for (int from = 0; from < b.length;) {
+            long key = b[from] >>> 32;
+            int to = from + 1;
+            while (to < b.length && b[to] >>> 32 == key) {
+                to++;
+            }
+            int aFrom = lowerBound(a, 0, a.length, key << 32);
+            int aTo = lowerBound(a, aFrom, a.length, (key + 1) << 32);
+            long inA = aTo - aFrom, inB = to - from, common = 0;
+            if (inA > 0) {
+                for (int i = from; i < to; i++) {
+                    if (Arrays.binarySearch(a, aFrom, aTo, b[i]) >= 0) {
+                        common++;
+                    }
+                }
+            }
+            long before = and ? 0 : inA;
+            long after;
+            switch (op) {
+            case AND:
+                after = common;
+                break;
+            case OR:
+                after = inA + inB - common;
+                break;
+            case XOR:
+                after = inA + inB - 2 * common;
+                break;
+            default:
+                after = inA - common;
+            }
+            links += after - before;
+            keys += (after > 0 ? 1 : 0) - (before > 0 ? 1 : 0);
+            from = to;
+        }
+        return new long[] { links, keys };
+    }
+
+    private static int lowerBound(long[] a, int from, int to, long key) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (a[mid] < key) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * @param mapping
+     *            The mapping
+     * @return the pseudo-precision of the mapping
+     */
+    public double precision(AMapping mapping) {
+        LinkSet links = encode(mapping);
+        return precision(links.size(), links.getSourceCount(), links.getTargetCount());
+    }
+
+    /**
+     * @param mapping
+     *            The mapping
+     * @return the pseudo-recall of the mapping
+     */
+    public double recall(AMapping mapping) {
+        LinkSet links = encode(mapping);
+        return recall(links.getSourceCount(), links.getTargetCount());
+    }
+
+    private double precision(long links, int sources, int targets) {
+        if (links == 0) {
+            return 0;
+        }
+        return symmetricPrecision ? (sources + targets) / (2d * links) : sources / (double) links;
+    }
+
+    private double recall(int sources, int targets) {
+        if (universeSize == 0) {
+            return 0;
+        }
+        return (sources + targets) / (double) universeSize;
+    }
+
+    private double fMeasure(long links, int sources, int targets) {
+        double p = precision(links, sources, targets);
+        double r = recall(sources, targets);
+        if (p == 0 && r == 0) {
+            return 0;
+        }
+        return (1 + beta * beta) * p * r / (beta * beta * p + r);
+    }
+
+    /**
+     * Links of a mapping as (source id, target id) pairs, sorted by source id
+     * and by target id. The links of a source (target) are a contiguous range
+     * of the respective array.
+     */
+    public static class LinkSet {
+        private final long[] bySource;
+        private final long[] byTarget;
+        private final int sources;
+        private final int targets;
+
+        LinkSet(long[] bySource, long[] byTarget) {
+            this.bySource = bySource;
+            this.byTarget = byTarget;
+            this.sources = countKeys(bySource);
+            this.targets = countKeys(byTarget);
+        }
+
+        private static int countKeys(long[] links) {
+            int keys = 0;
+            for (int i = 0; i < links.length; i++) {
+                if (i == 0 || links[i] >>> 32 != links[i - 1] >>> 32) {
+                    keys++;
+                }
+            }
+            return keys;
+        }
+
+        /**
+         * @return the number of links
+         */
+        public int size() {
+            return bySource.length;
+        }
+
+        /**
+         * @return the number of linked sources
+         */
+        public int getSourceCount() {
+            return sources;
+        }
+
+        /**
+         * @return the number of linked targets
+         */
+        public int getTargetCount() {
+            return targets;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.aksw.limes.core.evaluation.quantitativeMeasures;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,7 +24,7 @@ public class RunsData implements IQuantitativeMeasure {
     // retrieves all runs
     @Override
     public List<RunRecord> getRuns() {
-        return (List<RunRecord>) runs.values();
+        return new ArrayList<RunRecord>(runs.values());
     }
 
     //set a run's information
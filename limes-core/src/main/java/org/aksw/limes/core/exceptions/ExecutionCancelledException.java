@@ -0,0 +1,33 @@
+package org.aksw.limes.core.exceptions;
+
+/**
+ * Exception thrown when a linking or learning task stops at a checkpoint of
+ * its {@link org.aksw.limes.core.execution.ExecutionContext} because it was
+ * cancelled, its thread was interrupted or its deadline passed.
+ *
+ * @version 1.0
+ */
+public class ExecutionCancelledException extends RuntimeException {
+
+    private static final long serialVersionUID = -3419258170343914218L;
+
+    private final boolean timeout;
+
+    /**
+     * Constructor of ExecutionCancelledException class.
+     *
+     * @param timeout,
+     *            True if the deadline passed, false if the task was cancelled
+     */
+    public ExecutionCancelledException(boolean timeout) {
+        super(timeout ? "Execution exceeded its deadline." : "Execution was cancelled.");
+        this.timeout = timeout;
+    }
+
+    /**
+     * @return true if the deadline passed, false if the task was cancelled
+     */
+    public boolean isTimeout() {
+        return timeout;
+    }
+}
@@ -0,0 +1,279 @@
+package org.aksw.limes.core.execution;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.DoubleConsumer;
+
+import org.aksw.limes.core.exceptions.ExecutionCancelledException;
+
+/**
+ * Context of a linking or learning task, passed through the execution
+ * engines, the mappers and the learning algorithms. It carries a
+ * cancellation token shared by all contexts derived from it, an optional
+ * deadline and a progress sink.
+ * <p>
+ * Long loops call {@link #checkpoint()} periodically, which throws an
+ * {@link ExecutionCancelledException} once the task was cancelled, its
+ * thread was interrupted or the deadline passed. Progress is reported as a
+ * fraction in [0, 1]; {@link #slice(double, double)} derives the context of a
+ * step whose progress covers a part of the progress of its parent.
+ * <p>
+ * Parallel steps run through {@link #invokeAll(List, int)} on the pool of the
+ * context, by default one pool with a thread per processor shared by all
+ * contexts. Steps that are nested, e.g., the mappers of the folds of an
+ * evaluation, therefore share its threads instead of each creating their own.
+ */
+public class ExecutionContext {
+
+    /** pool of all contexts without an own pool, created on first use */
+    private static class SharedPool {
+        private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Context of tasks that can neither be cancelled nor report progress
+     */
+    public static final ExecutionContext NONE = new ExecutionContext(null, Long.MAX_VALUE, null, 0, 1, null);
+
+    /** shared by a context and all contexts derived from it */
+    private static class Token {
+        private volatile boolean cancelled = false;
+    }
+
+    private final Token token;
+    /** System.nanoTime() of the deadline, Long.MAX_VALUE for none */
+    private final long deadline;
+    private final DoubleConsumer progress;
+    private final double from;
+    private final double to;
+    /** pool of the parallel steps, null for the shared pool */
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor of a cancellable context without deadline and progress sink
+     */
+    public ExecutionContext() {
+        this(new Token(), Long.MAX_VALUE, null, 0, 1, null);
+    }
+
+    private ExecutionContext(Token token, long deadline, DoubleConsumer progress, double from, double to,
+            ForkJoinPool pool) {
+        this.token = token;
+        this.deadline = deadline;
+        this.progress = progress;
+        this.from = from;
+        this.to = to;
+        this.pool = pool;
+    }
+
+    /**
+     * Derives a context that additionally expires after a timeout. The
+     * earlier deadline wins.
+     *
+     * @param timeout
+     *            Timeout from now on
+     * @param unit
+     *            Unit of the timeout
+     * @return the derived context, sharing the cancellation token
+     */
+    public ExecutionContext withTimeout(long timeout, TimeUnit unit) {
+        long nanos = unit.toNanos(timeout);
+        long now = System.nanoTime();
+        long newDeadline = nanos >= Long.MAX_VALUE - now ? Long.MAX_VALUE : now + nanos;
+        return new ExecutionContext(token, deadline - newDeadline < 0 ? deadline : newDeadline, progress, from, to,
+                pool);
+    }
+
+    /**
+     * Derives a context that reports its progress to a sink.
+     *
+     * @param sink
+     *            Receiver of the progress in [0, 1], or null for none
+     * @return the derived context, sharing the cancellation token and deadline
+     */
+    public ExecutionContext withProgress(DoubleConsumer sink) {
+        return new ExecutionContext(token, deadline, sink, 0, 1, pool);
+    }
+
+    /**
+     * Derives a context whose parallel steps run on a given pool, e.g., to
+     * bound the threads of a task below the number of processors.
+     *
+     * @param pool
+     *            Pool of the parallel steps, or null for the shared pool
+     * @return the derived context, sharing the cancellation token, deadline
+     *         and progress sink
+     */
+    public ExecutionContext withPool(ForkJoinPool pool) {
+        return new ExecutionContext(token, deadline, progress, from, to, pool);
+    }
+
+    /**
+     * Derives the context of a step of the task. The progress of the step,
+     * from 0 to 1, is reported as the progress of this context from the
+     * given lower to the given upper fraction.
+     *
+     * @param lower
+     *            Progress of this context when the step starts
+     * @param upper
+     *            Progress of this context when the step finished
+     * @return the context of the step
+     */
+    public ExecutionContext slice(double lower, double upper) {
+        if (progress == null) {
+            return this;
+        }
+        return new ExecutionContext(token, deadline, progress, from + (to - from) * lower,
+                from + (to - from) * upper, pool);
+    }
+
+    /**
+     * Cancels the task and all steps sharing its token. Has no effect on
+     * {@link #NONE}.
+     */
+    public void cancel() {
+        if (token != null) {
+            token.cancelled = true;
+        }
+    }
+
+    /**
+     * @return true if the task was cancelled or its thread was interrupted
+     */
+    public boolean isCancelled() {
+        return token != null && token.cancelled || Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * @return true if the deadline of the task passed
+     */
+    public boolean isExpired() {
+        return deadline != Long.MAX_VALUE && System.nanoTime() - deadline >= 0;
+    }
+
+    /**
+     * Stops the task if it was cancelled, its thread was interrupted or its
+     * deadline passed.
+     *
+     * @throws ExecutionCancelledException
+     *             if the task has to stop
+     */
+    public void checkpoint() {
+        if (isCancelled()) {
+            throw new ExecutionCancelledException(false);
+        }
+        if (isExpired()) {
+            throw new ExecutionCancelledException(true);
+        }
+    }
+
+    /**
+     * Reports the progress of the task.
+     *
+     * @param fraction
+     *            Finished part of the task in [0, 1]
+     */
+    public void progress(double fraction) {
+        if (progress != null) {
+            progress.accept(from + (to - from) * Math.max(0, Math.min(1, fraction)));
+        }
+    }
+
+    /**
+     * @return the pool of the parallel steps of the task
+     */
+    public ForkJoinPool getPool() {
+        return pool != null ? pool : SharedPool.POOL;
+    }
+
+    /**
+     * Runs tasks on the pool of the context, at most the given number of them
+     * at a time. With one thread, the tasks run in the calling thread. A
+     * thread of the pool that calls this method runs tasks itself while it
+     * waits, so nested calls add no threads. After the first failed task, no
+     * further tasks are started.
+     *
+     * @param tasks
+     *            Tasks to run
+     * @param threads
+     *            Maximal number of tasks running at a time
+     * @param <T>
+     *            Type of the results
+     * @return the results in the order of the tasks
+     * @throws ExecutionCancelledException
+     *             if a task was cancelled or the calling thread was
+     *             interrupted
+     * @throws RuntimeException
+     *             the exception of the first failed task, checked exceptions
+     *             wrapped
+     */
+    public <T> List<T> invokeAll(List<? extends Callable<T>> tasks, int threads) {
+        int parts = Math.max(1, Math.min(threads, tasks.size()));
+        if (parts == 1) {
+            List<T> results = new ArrayList<>(tasks.size());
+            for (Callable<T> task : tasks) {
+                results.add(call(task));
+            }
+            return results;
+        }
+        @SuppressWarnings("unchecked")
+        T[] results = (T[]) new Object[tasks.size()];
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        List<ForkJoinTask<?>> workers = new ArrayList<>(parts);
+        for (int part = 0; part < parts; part++) {
+            final int first = part;
+            workers.add(ForkJoinTask.adapt(() -> {
+                for (int i = first; i < results.length && error.get() == null; i += parts) {
+                    try {
+                        results[i] = tasks.get(i).call();
+                    } catch (Throwable e) {
+                        error.compareAndSet(null, e);
+                    }
+                }
+            }));
+        }
+        ForkJoinPool pool = getPool();
+        if (ForkJoinTask.getPool() == pool) {
+            ForkJoinTask.invokeAll(workers);
+        } else {
+            try {
+                pool.submit(() -> ForkJoinTask.invokeAll(workers)).get();
+            } catch (InterruptedException e) {
+                // the workers stop after their current task
+                error.compareAndSet(null, new ExecutionCancelledException(false));
+                Thread.currentThread().interrupt();
+                throw new ExecutionCancelledException(false);
+            } catch (ExecutionException e) {
+                error.compareAndSet(null, e.getCause());
+            }
+        }
+        Throwable e = error.get();
+        if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        if (e != null) {
+            throw new RuntimeException(e);
+        }
+        return new ArrayList<>(Arrays.asList(results));
+    }
+
+    private static <T> T call(Callable<T> task) {
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -3,8 +3,15 @@ package org.aksw.limes.core.execution.engine;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.aksw.limes.core.execution.ExecutionContext;
+import org.aksw.limes.core.execution.metrics.InstructionMetrics;
+import org.aksw.limes.core.execution.metrics.Metrics;
+import org.aksw.limes.core.execution.metrics.MetricsRegistry;
+import org.aksw.limes.core.execution.planning.planner.IPlanner;
 import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.ls.LinkSpecification;
 import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.measures.measure.ValueIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,6 +46,26 @@ public abstract class ExecutionEngine implements IExecutionEngine {
      * Target cache.
      */
     protected ACache target;
+    /**
+     * Registry of the measurements of the instructions, or null for the
+     * registry of the process.
+     */
+    protected MetricsRegistry metrics = null;
+    /**
+     * Context of the execution, checked between instructions and by the
+     * mappers.
+     */
+    protected ExecutionContext context = ExecutionContext.NONE;
+    /**
+     * Number of atomic runs the progress of the context is divided into, 0 if
+     * unknown.
+     */
+    private int expectedRuns = 0;
+    private int finishedRuns = 0;
+    /**
+     * Value index of the source and target cache, created on first use.
+     */
+    private ValueIndex values = null;
 
     /**
      * Constructor for an execution engine.
@@ -59,4 +86,103 @@ public abstract class ExecutionEngine implements IExecutionEngine {
         this.sourceVariable = sourceVar;
         this.targetVariable = targetVar;
     }
+
+    /**
+     * Sets the registry receiving the measurements of the instructions, e.g.,
+     * a {@link org.aksw.limes.core.execution.metrics.RunProfile}.
+     *
+     * @param metrics
+     *            The registry, or null for the registry of the process
+     */
+    public void setMetrics(MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Sets the value index shared by the mappers and filters of the following
+     * executions. An index can be shared by engines running on the same
+     * source and target caches, e.g., by the evaluations of a learning
+     * algorithm, and has to be dropped whenever the caches change.
+     *
+     * @param values
+     *            Value index of the source and target cache
+     */
+    public void setValueIndex(ValueIndex values) {
+        this.values = values;
+    }
+
+    /**
+     * @return the value index of the source and target cache
+     */
+    public ValueIndex getValueIndex() {
+        if (values == null) {
+            values = new ValueIndex(source, target);
+        }
+        return values;
+    }
+
+    /**
+     * Sets the context of the following executions. Without a link
+     * specification, the number of runs is unknown and no progress is
+     * reported.
+     *
+     * @param context
+     *            The execution context
+     */
+    public void setContext(ExecutionContext context) {
+        this.context = context;
+        expectedRuns = 0;
+    }
+
+    @Override
+    public AMapping execute(LinkSpecification spec, IPlanner planner, ExecutionContext context) {
+        ExecutionContext previous = this.context;
+        this.context = context;
+        expectedRuns = Math.max(1, spec.getAllLeaves().size());
+        finishedRuns = 0;
+        try {
+            context.checkpoint();
+            AMapping m = execute(spec, planner);
+            context.progress(1);
+            return m;
+        } finally {
+            this.context = previous;
+            expectedRuns = 0;
+        }
+    }
+
+    /**
+     * Checks the context before an atomic run and derives the context of the
+     * mapper, which covers the share of the run in the progress.
+     *
+     * @return the context of the mapper
+     */
+    protected ExecutionContext startRun() {
+        context.checkpoint();
+        if (expectedRuns == 0) {
+            return context.withProgress(null);
+        }
+        return context.slice(Math.min(1, (double) finishedRuns / expectedRuns),
+                Math.min(1, (double) (finishedRuns + 1) / expectedRuns));
+    }
+
+    /**
+     * Reports the progress after an atomic run.
+     */
+    protected void finishRun() {
+        finishedRuns++;
+        if (expectedRuns > 0) {
+            context.progress(Math.min(1, (double) finishedRuns / expectedRuns));
+        }
+    }
+
+    /**
+     * Records the measurements of an executed instruction.
+     *
+     * @param m
+     *            Measurements of the instruction
+     */
+    protected void record(InstructionMetrics m) {
+        (metrics == null ? Metrics.getRegistry() : metrics).record(m);
+    }
 }
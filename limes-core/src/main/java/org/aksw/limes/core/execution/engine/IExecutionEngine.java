@@ -1,5 +1,6 @@
 package org.aksw.limes.core.execution.engine;
 
+import org.aksw.limes.core.execution.ExecutionContext;
 import org.aksw.limes.core.execution.planning.planner.IPlanner;
 import org.aksw.limes.core.io.ls.LinkSpecification;
 import org.aksw.limes.core.io.mapping.AMapping;
@@ -25,4 +26,18 @@ public interface IExecutionEngine {
      */
     AMapping execute(LinkSpecification spec, IPlanner planner);
 
+    /**
+     * Implementation of the execution of a link specification within a
+     * context, which can cancel the execution and receives its progress.
+     *
+     * @param spec
+     *            The link specification
+     * @param planner,
+     *            The type of the planner
+     * @param context
+     *            The execution context
+     * @return The mapping obtained from executing the plan
+     */
+    AMapping execute(LinkSpecification spec, IPlanner planner, ExecutionContext context);
+
 }
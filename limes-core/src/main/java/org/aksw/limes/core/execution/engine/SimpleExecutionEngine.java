@@ -1,12 +1,19 @@
 package org.aksw.limes.core.execution.engine;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import org.aksw.limes.core.datastrutures.LogicOperator;
 import org.aksw.limes.core.exceptions.InvalidThresholdException;
 import org.aksw.limes.core.execution.engine.filter.LinearFilter;
+import org.aksw.limes.core.execution.metrics.InstructionMetrics;
+import org.aksw.limes.core.execution.metrics.MetricsRegistry;
+import org.aksw.limes.core.execution.metrics.Probe;
+import org.aksw.limes.core.execution.planning.cost.CostProfile;
 import org.aksw.limes.core.execution.planning.plan.Instruction;
 import org.aksw.limes.core.execution.planning.plan.Instruction.Command;
 import org.aksw.limes.core.execution.planning.plan.NestedPlan;
@@ -16,11 +23,15 @@ import org.aksw.limes.core.execution.planning.planner.IPlanner;
 import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.ls.LinkSpecification;
 import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.AtomicMappingStore;
+import org.aksw.limes.core.io.mapping.FileMapping;
+import org.aksw.limes.core.io.mapping.LinkSink;
 import org.aksw.limes.core.io.mapping.MappingFactory;
-import org.aksw.limes.core.io.mapping.MemoryMapping;
+import org.aksw.limes.core.io.parser.Parser;
 import org.aksw.limes.core.measures.mapper.IMapper;
 import org.aksw.limes.core.measures.mapper.MapperFactory;
 import org.aksw.limes.core.measures.mapper.MappingOperations;
+import org.aksw.limes.core.measures.mapper.ThresholdSweep;
 import org.aksw.limes.core.measures.measure.MeasureFactory;
 import org.aksw.limes.core.measures.measure.MeasureType;
 import org.slf4j.Logger;
@@ -31,6 +42,16 @@ import org.slf4j.LoggerFactory;
  * gets as input a link specification and a planner type, executes the
  * independent parts of the plan returned from the planner sequentially and
  * returns a MemoryMemoryMapping.
+ * <p>
+ * With a memory budget (see {@link #setMemoryBudget(long)}), intermediate
+ * mappings are released as soon as no remaining instruction reads them, and
+ * the largest intermediates are spilled to sorted runs on disk
+ * ({@link FileMapping}) whenever the estimated size of the intermediates held
+ * exceeds the budget. The set operators merge spilled mappings from disk.
+ * <p>
+ * The measurements of each RUN, filter and set operation are recorded as
+ * {@link InstructionMetrics} in the registry set with
+ * {@link #setMetrics(MetricsRegistry)} or else in the registry of the process.
  *
  * @author Axel-C. Ngonga Ngomo (ngonga@informatik.uni-leipzig.de)
  * @author Kleanthi Georgala (georgala@informatik.uni-leipzig.de)
@@ -39,10 +60,50 @@ import org.slf4j.LoggerFactory;
 public class SimpleExecutionEngine extends ExecutionEngine {
 
     static Logger logger = LoggerFactory.getLogger(SimpleExecutionEngine.class);
+    /**
+     * System property holding the default memory budget for intermediate
+     * mappings in MB
+     */
+    public static final String MEMORY_BUDGET_PROPERTY = "limes.engine.memoryBudget";
+    /**
+     * System property holding the default folder for spilled mappings
+     */
+    public static final String SPILL_FOLDER_PROPERTY = "limes.engine.spillFolder";
     /**
      * Map of intermediate mappings. Used for dynamic planning.
      */
-    private HashMap<String, AMapping> dynamicResults = new HashMap<String, AMapping>();
+    private HashMap<String, Intermediate> dynamicResults = new HashMap<String, Intermediate>();
+    /**
+     * Intermediate mappings currently held, which are spilled when their
+     * estimated size exceeds the memory budget.
+     */
+    private List<Intermediate> intermediates = new ArrayList<>();
+    /**
+     * Memory budget for intermediate mappings in bytes, or a negative value
+     * for no budget.
+     */
+    private long memoryBudget = -1;
+    /**
+     * Folder of spilled mappings, or null for the default temporary folder.
+     */
+    private File spillFolder = null;
+    /**
+     * Shared runs of the static plan being executed, see
+     * {@link NestedPlan#getSharedRuns()}.
+     */
+    private Map<String, Double> sharedRuns = null;
+    /**
+     * Mappings of the shared runs executed so far and the number of their
+     * remaining uses.
+     */
+    private Map<String, AMapping> sharedMappings = new HashMap<String, AMapping>();
+    private Map<String, Integer> sharedUses = new HashMap<String, Integer>();
+    /**
+     * Optional memo of the mappings of atomic measures, keyed by measure
+     * expression and threshold. Can be shared by engines running on the same
+     * caches.
+     */
+    private Map<String, AMapping> atomicMappings = null;
 
     /**
      * Constructor for a simple execution engine.
@@ -58,13 +119,64 @@ public class SimpleExecutionEngine extends ExecutionEngine {
      */
     public SimpleExecutionEngine(ACache source, ACache target, String sourceVar, String targetVar) {
         super(source, target, sourceVar, targetVar);
+        if (System.getProperty(MEMORY_BUDGET_PROPERTY) != null) {
+            memoryBudget = Long.parseLong(System.getProperty(MEMORY_BUDGET_PROPERTY)) << 20;
+        }
+        if (System.getProperty(SPILL_FOLDER_PROPERTY) != null) {
+            spillFolder = new File(System.getProperty(SPILL_FOLDER_PROPERTY));
+        }
+    }
+
+    /**
+     * Sets the memory budget for intermediate mappings. Defaults to the value
+     * of the system property {@link #MEMORY_BUDGET_PROPERTY}, if any.
+     *
+     * @param memoryBudget
+     *            Budget in bytes, or a negative value for no budget
+     */
+    public void setMemoryBudget(long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * @return the memory budget for intermediate mappings in bytes, or a
+     *         negative value if there is none
+     */
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Sets the folder of spilled mappings. Defaults to the value of the system
+     * property {@link #SPILL_FOLDER_PROPERTY} or the temporary folder.
+     *
+     * @param spillFolder
+     *            An existing folder
+     */
+    public void setSpillFolder(File spillFolder) {
+        this.spillFolder = spillFolder;
+    }
+
+    /**
+     * Sets a memo for the mappings of atomic measures. The memo must only be
+     * shared by engines running on the same source and target caches and has
+     * to be cleared whenever the caches change. The memoized mappings are
+     * never modified; each run receives a copy.
+     *
+     * @param atomicMappings
+     *            A thread-safe map if the memo is shared across threads
+     */
+    public void setAtomicMappings(Map<String, AMapping> atomicMappings) {
+        this.atomicMappings = atomicMappings;
     }
 
     /**
      * Implementation of the execution of a plan. It receives a plan as a set of
      * instructions and executes them sequentially. This function does not
      * execute nested plans. In case of a RUN command, the instruction must
-     * include an atomic link specification.
+     * include an atomic link specification. With a memory budget, the
+     * mappings in the buffer are released after the last instruction reading
+     * them and spilled if they exceed the budget.
      *
      * @param plan
      *            An execution plan
@@ -77,8 +189,27 @@ public class SimpleExecutionEngine extends ExecutionEngine {
             return MappingFactory.createDefaultMapping();
         }
         List<Instruction> instructions = plan.getInstructionList();
+        int[] lastReads = memoryBudget < 0 ? null : getLastReads(instructions);
+        List<Intermediate> held = new ArrayList<>();
+        AMapping result = null;
+        try {
+            result = executeInstructions(instructions, lastReads, held);
+            return result;
+        } finally {
+            // only the result is left after a complete execution; the runs
+            // of an interrupted one are deleted
+            for (Intermediate intermediate : held) {
+                if (intermediate != null) {
+                    release(intermediate, intermediate.mapping != result);
+                }
+            }
+        }
+    }
+
+    private AMapping executeInstructions(List<Instruction> instructions, int[] lastReads, List<Intermediate> held) {
         AMapping m = MappingFactory.createDefaultMapping();
         for (int i = 0; i < instructions.size(); i++) {
+            context.checkpoint();
             Instruction inst = instructions.get(i);
             // get the index for writing the results
             int index = inst.getResultIndex();
@@ -120,12 +251,14 @@ public class SimpleExecutionEngine extends ExecutionEngine {
             }
             // place resulting mapping in the buffer
             if (index < 0) {// add the new mapping at the end of the list
-                buffer.add((MemoryMapping) m);
+                buffer.add(m);
+                index = buffer.size() - 1;
             } else {
                 // avoid overriding places in buffer
                 // by adding the result at the end
                 if (index < buffer.size()) {
-                    buffer.add((MemoryMapping) m);
+                    buffer.add(m);
+                    index = buffer.size() - 1;
                 } else {
                     // add placeholders to ensure that the mapping can be placed
                     // where the user wanted to have it
@@ -133,10 +266,30 @@ public class SimpleExecutionEngine extends ExecutionEngine {
                     while ((index + 1) > buffer.size()) {
                         buffer.add(MappingFactory.createDefaultMapping());
                     }
-                    buffer.set(index, (MemoryMapping) m);
+                    buffer.set(index, m);
                 }
 
             }
+            if (lastReads != null) {
+                while (held.size() < buffer.size()) {
+                    held.add(null);
+                }
+                held.set(index, hold(m));
+                // release the mappings no remaining instruction reads
+                for (int j = 0; j < held.size(); j++) {
+                    if (held.get(j) != null && lastReads[j] <= i) {
+                        release(held.get(j), true);
+                        held.set(j, null);
+                        buffer.set(j, MappingFactory.createDefaultMapping());
+                    }
+                }
+                enforceBudget();
+                for (int j = 0; j < held.size(); j++) {
+                    if (held.get(j) != null) {
+                        buffer.set(j, held.get(j).mapping);
+                    }
+                }
+            }
         }
 
         // just in case the return operator was forgotten.
@@ -148,15 +301,155 @@ public class SimpleExecutionEngine extends ExecutionEngine {
         }
     }
 
+    /**
+     * Computes for each slot of the buffer the index of the last instruction
+     * reading it, placing the results like
+     * {@link #executeInstructions(Plan)}. The slot that is returned is never
+     * released.
+     */
+    private static int[] getLastReads(List<Instruction> instructions) {
+        List<Integer> lastReads = new ArrayList<>();
+        for (int i = 0; i < instructions.size(); i++) {
+            Instruction inst = instructions.get(i);
+            int index = inst.getResultIndex();
+            if (inst.getCommand().equals(Command.RETURN)) {
+                if (!lastReads.isEmpty()) {
+                    lastReads.set(index < 0 ? lastReads.size() - 1 : index, Integer.MAX_VALUE);
+                }
+                return toArray(lastReads);
+            }
+            if (!inst.getCommand().equals(Command.RUN)) {
+                lastReads.set(inst.getSourceIndex(), i);
+            }
+            if (!inst.getCommand().equals(Command.RUN) && !inst.getCommand().equals(Command.FILTER)
+                    && !inst.getCommand().equals(Command.REVERSEFILTER)) {
+                lastReads.set(inst.getTargetIndex(), i);
+            }
+            if (index < 0 || index < lastReads.size()) {
+                lastReads.add(-1);
+            } else {
+                while ((index + 1) > lastReads.size()) {
+                    lastReads.add(-1);
+                }
+            }
+        }
+        if (!lastReads.isEmpty()) {
+            lastReads.set(lastReads.size() - 1, Integer.MAX_VALUE);
+        }
+        return toArray(lastReads);
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * Holds an intermediate mapping, so that it counts towards the memory
+     * budget and may be spilled by {@link #enforceBudget()}.
+     */
+    private Intermediate hold(AMapping mapping) {
+        Intermediate intermediate = new Intermediate(mapping, memoryBudget < 0 ? 0 : FileMapping.estimateSize(mapping));
+        intermediates.add(intermediate);
+        return intermediate;
+    }
+
+    /**
+     * Releases an intermediate mapping.
+     *
+     * @param discard
+     *            If true, the run of a spilled mapping is deleted unless
+     *            another intermediate holds the mapping
+     * @return the mapping
+     */
+    private AMapping release(Intermediate intermediate, boolean discard) {
+        intermediates.remove(intermediate);
+        AMapping m = intermediate.mapping;
+        if (discard && m instanceof FileMapping) {
+            for (Intermediate other : intermediates) {
+                if (other.mapping == m) {
+                    return m;
+                }
+            }
+            ((FileMapping) m).delete();
+        }
+        return m;
+    }
+
+    /**
+     * Releases the spilled results of a dynamic execution except its result
+     * and deletes their runs. The results kept in memory are reused by later
+     * executions with the same planner, the others are computed again.
+     */
+    private void releaseSpilledResults(AMapping result) {
+        Iterator<Intermediate> results = dynamicResults.values().iterator();
+        while (results.hasNext()) {
+            Intermediate intermediate = results.next();
+            if (intermediate.mapping != result && FileMapping.isSpilled(intermediate.mapping)) {
+                release(intermediate, true);
+                results.remove();
+            }
+        }
+    }
+
+    /**
+     * Spills the largest intermediate mappings held until their estimated
+     * size fits into the memory budget.
+     */
+    private void enforceBudget() {
+        if (memoryBudget < 0) {
+            return;
+        }
+        long[] sizes = new long[intermediates.size()];
+        long total = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = intermediates.get(i).getSize();
+            total += sizes[i];
+        }
+        while (total > memoryBudget) {
+            int largest = -1;
+            for (int i = 0; i < sizes.length; i++) {
+                if (sizes[i] > 0 && (largest < 0 || sizes[i] > sizes[largest])) {
+                    largest = i;
+                }
+            }
+            if (largest < 0) {
+                break;
+            }
+            Intermediate intermediate = intermediates.get(largest);
+            intermediate.mapping = FileMapping.spill(intermediate.mapping, spillFolder);
+            logger.debug("Spilled " + intermediate.mapping);
+            total -= sizes[largest];
+            sizes[largest] = 0;
+        }
+    }
+
     /**
      * Implements the execution of the RUN operator. The input instruction must
-     * include an atomic link specification.
+     * include an atomic link specification. If an {@link AtomicMappingStore}
+     * is configured, the mapping is served from a stored result with a lower
+     * or equal threshold whenever possible. Results of the memo set with
+     * {@link #setAtomicMappings(Map)} are returned as copies. Within a static
+     * plan, shared runs (see {@link NestedPlan#getSharedRuns()}) are executed
+     * once with their lowest threshold and filtered.
      *
      * @param inst
      *            Atomic RUN instruction
      * @return The mapping obtained from executing the atomic RUN instruction
      */
     public AMapping executeRun(Instruction inst) {
+        AMapping shared = getSharedRun(inst);
+        if (shared != null) {
+            return shared.getSubMap(Double.parseDouble(inst.getThreshold()));
+        }
+        return run(inst);
+    }
+
+    private AMapping run(Instruction inst) {
+        Probe probe = Probe.start();
         double threshold = Double.parseDouble(inst.getThreshold());
         //try {
             if (threshold <= 0) {
@@ -168,8 +461,51 @@ public class SimpleExecutionEngine extends ExecutionEngine {
                     MeasureType type = MeasureFactory.getMeasureType(inst.getMeasureExpression());
                     mapper = MapperFactory.createMapper(type);
 
-                    return mapper.getMapping(source, target, sourceVariable, targetVariable,
+                    String memoKey = null;
+                    if (atomicMappings != null) {
+                        memoKey = inst.getMeasureExpression().replaceAll("\\s", "") + "|" + threshold;
+                        AMapping memoized = atomicMappings.get(memoKey);
+                        if (memoized != null) {
+                            AMapping m = copy(memoized, threshold);
+                            recordRun(inst, threshold, probe, m.size(), 0);
+                            finishRun();
+                            return m;
+                        }
+                    }
+                    AtomicMappingStore store = AtomicMappingStore.getDefault();
+                    String key = null;
+                    if (store != null) {
+                        key = AtomicMappingStore.getKey(inst.getMeasureExpression(), threshold, source, target,
+                                mapper);
+                        AMapping stored = store.get(key, threshold);
+                        if (stored != null) {
+                            if (memoKey != null) {
+                                atomicMappings.put(memoKey, copy(stored, threshold));
+                            }
+                            recordRun(inst, threshold, probe, stored.size(), 0);
+                            finishRun();
+                            return stored;
+                        }
+                    }
+                    mapper.setContext(startRun());
+                    mapper.setValueIndex(getValueIndex());
+                    long begin = System.nanoTime();
+                    AMapping m = mapper.getMapping(source, target, sourceVariable, targetVariable,
                             inst.getMeasureExpression(), threshold);
+                    CostProfile profile = CostProfile.getDefault();
+                    if (profile != null) {
+                        profile.recordRun(type, threshold, source.size(), target.size(),
+                                (System.nanoTime() - begin) / 1e6, m.getNumberofMappings());
+                    }
+                    recordRun(inst, threshold, probe, m.size(), mapper.getCandidateCount());
+                    if (store != null) {
+                        store.put(key, threshold, m);
+                    }
+                    if (memoKey != null) {
+                        atomicMappings.put(memoKey, copy(m, threshold));
+                    }
+                    finishRun();
+                    return m;
                /* } catch (InvalidMeasureException e) {
                     e.printStackTrace();
                     logger.info("Returning an empty mapping");
@@ -182,6 +518,111 @@ public class SimpleExecutionEngine extends ExecutionEngine {
         
     }
 
+    /**
+     * Copies the links of a mapping that reach a threshold without modifying
+     * the mapping. {@link AMapping#getSubMap(double)} is not used, as it
+     * builds the reversed map of the mapping lazily, which is not safe for a
+     * memoized mapping read by several threads.
+     */
+    private static AMapping copy(AMapping mapping, double threshold) {
+        return new LinearFilter().filter(mapping, threshold);
+    }
+
+    private void recordRun(Instruction inst, double threshold, Probe probe, long links, long candidates) {
+        record(new InstructionMetrics(Command.RUN, inst.getMeasureExpression(), threshold, probe, source.size(),
+                target.size(), links, candidates));
+    }
+
+    /**
+     * Streaming version of {@link #executeRun(Instruction)}: the links of the
+     * mapper are pushed into the sink as they are computed. If a memo or an
+     * {@link AtomicMappingStore} is configured, the mapping is materialized to
+     * be memoized and then pushed.
+     *
+     * @param inst
+     *            Atomic RUN instruction
+     * @param sink
+     *            Receiver of the links
+     */
+    public void executeRun(Instruction inst, LinkSink sink) {
+        AMapping shared = getSharedRun(inst);
+        if (shared != null) {
+            new LinearFilter().filter(sink, Double.parseDouble(inst.getThreshold())).addAll(shared);
+            return;
+        }
+        if (atomicMappings != null || AtomicMappingStore.getDefault() != null) {
+            sink.addAll(executeRun(inst));
+            return;
+        }
+        double threshold = Double.parseDouble(inst.getThreshold());
+        if (threshold <= 0) {
+            throw new InvalidThresholdException(threshold);
+        }
+        MeasureType type = MeasureFactory.getMeasureType(inst.getMeasureExpression());
+        IMapper mapper = MapperFactory.createMapper(type);
+        MeteredSink links = new MeteredSink(sink);
+        mapper.setContext(startRun());
+        mapper.setValueIndex(getValueIndex());
+        long begin = System.nanoTime();
+        mapper.getMapping(source, target, sourceVariable, targetVariable, inst.getMeasureExpression(), threshold,
+                links);
+        // the time spent downstream is not part of the run
+        long nanos = System.nanoTime() - begin - links.nanos;
+        CostProfile profile = CostProfile.getDefault();
+        if (profile != null) {
+            profile.recordRun(type, threshold, source.size(), target.size(), nanos / 1e6, links.links);
+        }
+        record(new InstructionMetrics(Command.RUN, inst.getMeasureExpression(), threshold, nanos, -1, -1,
+                source.size(), target.size(), links.links, mapper.getCandidateCount()));
+        finishRun();
+    }
+
+    /**
+     * Returns the mapping of a shared run with its lowest threshold, executing
+     * it on the first use. The mapping is dropped after its last use.
+     *
+     * @param inst
+     *            Atomic RUN instruction
+     * @return the mapping, or null if the instruction is not a shared run
+     */
+    private AMapping getSharedRun(Instruction inst) {
+        if (sharedRuns == null || inst.getMeasureExpression() == null
+                || !sharedRuns.containsKey(NestedPlan.getRunKey(inst))) {
+            return null;
+        }
+        String key = NestedPlan.getRunKey(inst);
+        AMapping m = sharedMappings.get(key);
+        if (m == null) {
+            m = run(new Instruction(Command.RUN, inst.getMeasureExpression(), sharedRuns.get(key) + "", -1, -1, -1));
+            sharedMappings.put(key, m);
+        }
+        Integer uses = sharedUses.get(key);
+        if (uses != null && uses <= 1) {
+            sharedMappings.remove(key);
+            sharedUses.remove(key);
+        } else if (uses != null) {
+            sharedUses.put(key, uses - 1);
+        }
+        return m;
+    }
+
+    /**
+     * Executes an atomic measure expression for a series of thresholds. The
+     * expression is run once with the lowest threshold (see
+     * {@link #executeRun(Instruction)}) and the mappings of the higher
+     * thresholds are cut from its links sorted by confidence.
+     *
+     * @param measureExpression
+     *            Atomic measure expression
+     * @param lowestThreshold
+     *            Lowest threshold of the series
+     * @return the sweep from which the mapping of each threshold can be cut
+     */
+    public ThresholdSweep executeSweep(String measureExpression, double lowestThreshold) {
+        Instruction inst = new Instruction(Command.RUN, measureExpression, lowestThreshold + "", -1, -1, -1);
+        return new ThresholdSweep(executeRun(inst));
+    }
+
     /**
      * Runs the reverse filtering operator.
      *
@@ -192,9 +633,12 @@ public class SimpleExecutionEngine extends ExecutionEngine {
      * @return Filtered mapping
      */
     private AMapping executeReverseFilter(Instruction inst, AMapping input) {
-        LinearFilter filter = new LinearFilter();
-        return filter.reversefilter(input, inst.getMeasureExpression(), Double.parseDouble(inst.getThreshold()),
+        Probe probe = Probe.start();
+        LinearFilter filter = new LinearFilter(getValueIndex());
+        AMapping m = filter.reversefilter(input, inst.getMeasureExpression(), Double.parseDouble(inst.getThreshold()),
                 Double.parseDouble(inst.getMainThreshold()), source, target, sourceVariable, targetVariable);
+        recordFilter(inst, probe, input, m);
+        return m;
     }
 
     /**
@@ -207,22 +651,85 @@ public class SimpleExecutionEngine extends ExecutionEngine {
      * @return filtered Mapping
      */
     public AMapping executeFilter(Instruction inst, AMapping input) {
-        LinearFilter filter = new LinearFilter();
+        Probe probe = Probe.start();
+        LinearFilter filter = new LinearFilter(getValueIndex());
         AMapping m = MappingFactory.createDefaultMapping();
         if (inst.getMeasureExpression() == null)
             m = filter.filter(input, Double.parseDouble(inst.getThreshold()));
         else {
+            long begin = System.nanoTime();
             if (inst.getMainThreshold() != null)
                 m = filter.filter(input, inst.getMeasureExpression(), Double.parseDouble(inst.getThreshold()),
                         Double.parseDouble(inst.getMainThreshold()), source, target, sourceVariable, targetVariable);
             else// original filtering
                 m = filter.filter(input, inst.getMeasureExpression(), Double.parseDouble(inst.getThreshold()), source,
                         target, sourceVariable, targetVariable);
+            recordFilter(inst, input, (System.nanoTime() - begin) / 1e6);
         }
-
+        recordFilter(inst, probe, input, m);
         return m;
     }
 
+    private void recordFilter(Instruction inst, Probe probe, AMapping input, AMapping output) {
+        record(new InstructionMetrics(inst.getCommand(), inst.getMeasureExpression(),
+                Double.parseDouble(inst.getThreshold()), probe, input.size(), -1, output.size(), input.size()));
+    }
+
+    /**
+     * Streaming version of the FILTER and REVERSEFILTER instructions: returns
+     * a sink that filters the links pushed into it on the fly and passes the
+     * remaining ones to the given sink. The runtime of a filter with a
+     * measure expression is recorded once {@link FilterSink#close()} is
+     * called.
+     *
+     * @param inst
+     *            Input instruction with FILTER or REVERSEFILTER command
+     * @param sink
+     *            Receiver of the filtered links
+     * @return the filtering sink
+     */
+    public FilterSink filterSink(Instruction inst, LinkSink sink) {
+        LinearFilter filter = new LinearFilter(getValueIndex());
+        double threshold = Double.parseDouble(inst.getThreshold());
+        MeteredSink output = new MeteredSink(sink);
+        if (inst.getMeasureExpression() == null) {
+            return new FilterSink(this, inst, false, filter.filter(output, threshold), output);
+        }
+        LinkSink filtered;
+        if (inst.getCommand().equals(Command.REVERSEFILTER)) {
+            filtered = filter.reversefilter(output, inst.getMeasureExpression(), threshold,
+                    Double.parseDouble(inst.getMainThreshold()), source, target, sourceVariable, targetVariable);
+            return new FilterSink(this, inst, false, filtered, output);
+        }
+        if (inst.getMainThreshold() != null) {
+            filtered = filter.filter(output, inst.getMeasureExpression(), threshold,
+                    Double.parseDouble(inst.getMainThreshold()), source, target, sourceVariable, targetVariable);
+        } else {
+            filtered = filter.filter(output, inst.getMeasureExpression(), threshold, source, target, sourceVariable,
+                    targetVariable);
+        }
+        return new FilterSink(this, inst, true, filtered, output);
+    }
+
+    /**
+     * Records the runtime of a filter with an atomic measure expression in the
+     * default {@link CostProfile}, if enabled.
+     */
+    private void recordFilter(Instruction inst, AMapping input, double runtime) {
+        recordFilter(inst, input.getNumberofMappings(), runtime);
+    }
+
+    private static void recordFilter(Instruction inst, int links, double runtime) {
+        CostProfile profile = CostProfile.getDefault();
+        if (profile == null) {
+            return;
+        }
+        Parser p = new Parser(inst.getMeasureExpression(), Double.parseDouble(inst.getThreshold()));
+        if (p.isAtomic()) {
+            profile.recordFilter(MeasureFactory.getMeasureType(p.getOperator()), links, runtime);
+        }
+    }
+
     /**
      * Implements the difference between two mappings.
      *
@@ -233,7 +740,10 @@ public class SimpleExecutionEngine extends ExecutionEngine {
      * @return Difference of m1 and m2
      */
     public AMapping executeDifference(AMapping m1, AMapping m2) {
-        return MappingOperations.difference(m1, m2);
+        Probe probe = Probe.start();
+        AMapping m = MappingOperations.difference(m1, m2);
+        recordOperation(Command.DIFF, probe, m1, m2, m);
+        return m;
     }
 
     /**
@@ -246,7 +756,10 @@ public class SimpleExecutionEngine extends ExecutionEngine {
      * @return Intersection of m1 and m2
      */
     public AMapping executeIntersection(AMapping m1, AMapping m2) {
-        return MappingOperations.intersection(m1, m2);
+        Probe probe = Probe.start();
+        AMapping m = MappingOperations.intersection(m1, m2);
+        recordOperation(Command.INTERSECTION, probe, m1, m2, m);
+        return m;
     }
 
     /**
@@ -259,7 +772,14 @@ public class SimpleExecutionEngine extends ExecutionEngine {
      * @return Intersection of m1 and m2
      */
     public AMapping executeUnion(AMapping m1, AMapping m2) {
-        return MappingOperations.union(m1, m2);
+        Probe probe = Probe.start();
+        AMapping m = MappingOperations.union(m1, m2);
+        recordOperation(Command.UNION, probe, m1, m2, m);
+        return m;
+    }
+
+    private void recordOperation(Command command, Probe probe, AMapping m1, AMapping m2, AMapping result) {
+        record(new InstructionMetrics(command, null, Double.NaN, probe, m1.size(), m2.size(), result.size(), -1));
     }
 
     /**
@@ -276,21 +796,77 @@ public class SimpleExecutionEngine extends ExecutionEngine {
      * @return The mapping obtained from executing the plan
      */
     public AMapping executeStatic(NestedPlan plan) {
-        // empty nested plan contains nothing
         AMapping m = MappingFactory.createDefaultMapping();
+        executeStatic(plan, m::add);
+        return m;
+    }
+
+    /**
+     * Streaming version of {@link #executeStatic(NestedPlan)}. The links of an
+     * atomic plan are pushed from the mapper into the sink, and a plan that
+     * only filters the result of its single subplan, as the Helios planner
+     * creates for conjunctions, filters the links of the subplan on the fly.
+     * Thus, only the inputs of set operators are materialized. The shared runs
+     * of the plan (see {@link NestedPlan#getSharedRuns()}) are executed once
+     * with their lowest threshold and filtered for every use. With a memory
+     * budget, the result of the subplans merged so far may be spilled while
+     * the next subplan runs.
+     *
+     * @param plan
+     *            A nested plan created by a static planner (Canonical or
+     *            Helios)
+     * @param sink
+     *            Receiver of the links of the plan
+     */
+    public void executeStatic(NestedPlan plan, LinkSink sink) {
+        if (sharedRuns == null && plan.getSharedRuns() != null) {
+            sharedRuns = plan.getSharedRuns();
+            for (Instruction inst : plan.getInstructionList()) {
+                if (inst.getCommand().equals(Command.RUN) && sharedRuns.containsKey(NestedPlan.getRunKey(inst))) {
+                    String key = NestedPlan.getRunKey(inst);
+                    sharedUses.put(key, sharedUses.containsKey(key) ? sharedUses.get(key) + 1 : 1);
+                }
+            }
+            try {
+                executeStatic(plan, sink);
+            } finally {
+                sharedRuns = null;
+                sharedMappings.clear();
+                sharedUses.clear();
+            }
+            return;
+        }
+        // empty nested plan contains nothing
         if (plan.isEmpty()) {
         } // atomic nested plan just contain simple list of instructions
         else if (plan.isAtomic()) {
-            m = executeInstructions(plan);
+            List<Instruction> instructions = plan.getInstructionList();
+            if (instructions.size() == 1 && instructions.get(0).getCommand().equals(Command.RUN)) {
+                executeRun(instructions.get(0), sink);
+            } else {
+                sink.addAll(executeInstructions(plan));
+            }
+        } // a filter on a single subplan is applied while the subplan runs
+        else if (plan.getOperator() == null && plan.getSubPlans().size() == 1) {
+            if (plan.getFilteringInstruction() == null) {
+                executeStatic(plan.getSubPlans().get(0), sink);
+            } else {
+                FilterSink filter = filterSink(plan.getFilteringInstruction(), sink);
+                executeStatic(plan.getSubPlans().get(0), filter);
+                filter.close();
+            }
         } // nested plans contain subplans, an operator for merging the results
           // of the subplans and a filter for filtering the results of the
           // subplan
         else {
             // run all the subplans
-            m = executeStatic(plan.getSubPlans().get(0));
+            Intermediate merged = hold(executeStatic(plan.getSubPlans().get(0)));
+            enforceBudget();
+            AMapping m = merged.mapping;
             AMapping m2, result = m;
             for (int i = 1; i < plan.getSubPlans().size(); i++) {
                 m2 = executeStatic(plan.getSubPlans().get(i));
+                m = merged.mapping;
                 if (plan.getOperator().equals(Command.INTERSECTION)) {
                     result = executeIntersection(m, m2);
                 } // union
@@ -309,16 +885,24 @@ public class SimpleExecutionEngine extends ExecutionEngine {
                     mright = f.filter(mright, Double.parseDouble(plan.getThreshold()));
                     result = executeDifference(mleft, mright);
                 }
-                m = result;
+                release(merged, true);
+                merged = hold(result);
+                enforceBudget();
             }
+            m = release(merged, false);
             // only run filtering if there is a filter indeed, else simply
             // return MemoryMapping
             if (plan.getFilteringInstruction() != null) {
-                m = executeFilter(plan.getFilteringInstruction(), m);
+                FilterSink filter = filterSink(plan.getFilteringInstruction(), sink);
+                filter.addAll(m);
+                filter.close();
+            } else {
+                sink.addAll(m);
+            }
+            if (m instanceof FileMapping) {
+                ((FileMapping) m).delete();
             }
         }
-
-        return m;
     }
 
     /**
@@ -351,20 +935,21 @@ public class SimpleExecutionEngine extends ExecutionEngine {
      * @return The mapping obtained from executing the link specification.
      */
     public AMapping executeDynamic(LinkSpecification spec, DynamicPlanner planner) {
-        long begin = System.currentTimeMillis();
-        long end = 0;
+        Probe probe = Probe.start();
         AMapping m = MappingFactory.createDefaultMapping();
         NestedPlan plan = new NestedPlan();
         // create function to check if linkspec has been seen before
-        if (!planner.isExecuted(spec)) {
+        // results whose runs were deleted after a previous execution are
+        // computed again
+        if (!planner.isExecuted(spec) || !dynamicResults.containsKey(spec.toString())) {
             String dependent = planner.getDependency(spec);
-            if (dependent != null) {
-                AMapping dependentM = dynamicResults.get(dependent);
+            if (dependent != null && dynamicResults.containsKey(dependent)) {
+                Intermediate dependentM = dynamicResults.get(dependent);
                 if (spec.getThreshold() > 0) {
                     // create a temporary filtering instruction
                     Instruction tempFilteringInstruction = new Instruction(Instruction.Command.FILTER, null,
                             spec.getThreshold() + "", -1, -1, 0);
-                    m = executeFilter(tempFilteringInstruction, dependentM);
+                    m = executeFilter(tempFilteringInstruction, dependentM.mapping);
                 }
             } else {
                 if (spec.isEmpty()) {
@@ -445,15 +1030,17 @@ public class SimpleExecutionEngine extends ExecutionEngine {
 
                 }
             } // save results
-            dynamicResults.put(spec.toString(), MappingFactory.createDefaultMapping());
-            dynamicResults.put(spec.toString(), m);
-            end = System.currentTimeMillis();
+            Intermediate previous = dynamicResults.put(spec.toString(), hold(m));
+            if (previous != null) {
+                release(previous, true);
+            }
+            enforceBudget();
             double msize = m.getNumberofMappings();
             double selectivity = msize / (source.size() * target.size());
-            planner.updatePlan(spec, end - begin, selectivity, msize);
+            planner.updatePlan(spec, probe.getWallNanos() / 1000000, selectivity, msize);
         } else {
             if (dynamicResults.containsKey(spec.toString())) {
-                m = dynamicResults.get(spec.toString());
+                m = dynamicResults.get(spec.toString()).mapping;
             } else {
                 logger.info("Error in spec: " + spec + ". Result not stored.");
                 throw new RuntimeException();
@@ -471,7 +1058,9 @@ public class SimpleExecutionEngine extends ExecutionEngine {
      * finally executed. Subsequently, the plan never changes and is simply
      * executed. For the Dynamic planner, we enable a flow of information from
      * the execution engine back to the planner, that uses intermediary
-     * execution results to improve plans generated previously.
+     * execution results to improve plans generated previously. The spilled
+     * results of the subspecifications of a dynamic execution are released
+     * and their runs deleted once it is done.
      *
      * @param spec
      *            The link specification, after it was re-written
@@ -486,13 +1075,109 @@ public class SimpleExecutionEngine extends ExecutionEngine {
 
         spec = planner.normalize(spec);
         if (planner.isStatic() == false) {
-            m = executeDynamic(spec, (DynamicPlanner) planner);
+            try {
+                m = executeDynamic(spec, (DynamicPlanner) planner);
+            } finally {
+                releaseSpilledResults(m);
+            }
         } else {
             NestedPlan plan = planner.plan(spec);
             m = executeStatic(plan);
         }
+        if (CostProfile.getDefault() != null) {
+            CostProfile.getDefault().saveIfDirty();
+        }
 
         return m;
     }
 
+    /**
+     * Sink of a FILTER or REVERSEFILTER instruction, see
+     * {@link SimpleExecutionEngine#filterSink(Instruction, LinkSink)}.
+     */
+    public static class FilterSink implements LinkSink, AutoCloseable {
+        private final SimpleExecutionEngine engine;
+        private final Instruction inst;
+        /** true if the runtime is recorded in the cost profile */
+        private final boolean costs;
+        private final LinkSink filter;
+        private final MeteredSink output;
+        private int links = 0;
+        private long nanos = 0;
+
+        private FilterSink(SimpleExecutionEngine engine, Instruction inst, boolean costs, LinkSink filter,
+                MeteredSink output) {
+            this.engine = engine;
+            this.inst = inst;
+            this.costs = costs;
+            this.filter = filter;
+            this.output = output;
+        }
+
+        @Override
+        public void add(String source, String target, double similarity) {
+            links++;
+            long begin = System.nanoTime();
+            filter.add(source, target, similarity);
+            nanos += System.nanoTime() - begin;
+        }
+
+        /**
+         * Records the runtime of the filter without the time spent downstream.
+         */
+        @Override
+        public void close() {
+            long runtime = nanos - output.nanos;
+            if (costs) {
+                recordFilter(inst, links, runtime / 1e6);
+            }
+            engine.record(new InstructionMetrics(inst.getCommand(), inst.getMeasureExpression(),
+                    Double.parseDouble(inst.getThreshold()), runtime, -1, -1, links, -1, output.links, links));
+        }
+    }
+
+    /**
+     * Intermediate mapping held by the engine. The mapping is replaced by a
+     * spilled {@link FileMapping} when it exceeds the memory budget.
+     */
+    private static class Intermediate {
+        private AMapping mapping;
+        /** estimated size of the mapping when it was held */
+        private final long size;
+
+        Intermediate(AMapping mapping, long size) {
+            this.mapping = mapping;
+            this.size = size;
+        }
+
+        /**
+         * @return the estimated size of the mapping in memory
+         */
+        long getSize() {
+            return mapping instanceof FileMapping ? ((FileMapping) mapping).getEstimatedSize() : size;
+        }
+    }
+
+    /**
+     * Sink that passes the links to another sink, counting them and measuring
+     * the time spent in the other sink.
+     */
+    private static class MeteredSink implements LinkSink {
+        private final LinkSink sink;
+        private int links = 0;
+        private long nanos = 0;
+
+        MeteredSink(LinkSink sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void add(String source, String target, double similarity) {
+            links++;
+            long begin = System.nanoTime();
+            sink.add(source, target, similarity);
+            nanos += System.nanoTime() - begin;
+        }
+    }
+
 }
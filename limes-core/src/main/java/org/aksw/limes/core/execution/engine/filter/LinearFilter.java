@@ -3,9 +3,11 @@ package org.aksw.limes.core.execution.engine.filter;
 import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.cache.Instance;
 import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.LinkSink;
 import org.aksw.limes.core.io.mapping.MappingFactory;
 import org.aksw.limes.core.measures.mapper.MappingOperations;
 import org.aksw.limes.core.measures.measure.MeasureProcessor;
+import org.aksw.limes.core.measures.measure.ValueIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,6 +22,33 @@ public class LinearFilter implements IFilter {
 
     static Logger logger = LoggerFactory.getLogger(LinearFilter.class);
 
+    /**
+     * Value index of the run, used if the filtered caches are its caches.
+     */
+    private final ValueIndex values;
+
+    /**
+     * Constructor of a filter that computes every similarity.
+     */
+    public LinearFilter() {
+        this(null);
+    }
+
+    /**
+     * Constructor of a filter that memoizes the similarities of atomic
+     * measures in a value index.
+     *
+     * @param values
+     *            Value index of the run, or null for none
+     */
+    public LinearFilter(ValueIndex values) {
+        this.values = values;
+    }
+
+    private ValueIndex getValueIndex(ACache source, ACache target) {
+        return values != null && values.indexes(source, target) ? values : null;
+    }
+
     /**
      * Naive filter function for mapping using a threshold as filtering
      * criterion. The output mapping includes set of links from the initial
@@ -51,6 +80,26 @@ public class LinearFilter implements IFilter {
         }
     }
 
+    /**
+     * Streaming version of {@link #filter(AMapping, double)}.
+     *
+     * @param sink
+     *            Receiver of the links that pass the filter
+     * @param threshold
+     *            Value of threshold
+     * @return a sink that passes the links with sim {@literal >}= threshold
+     */
+    public LinkSink filter(LinkSink sink, double threshold) {
+        if (threshold <= 0.0) {
+            return sink;
+        }
+        return (key, value, sim) -> {
+            if (sim >= threshold) {
+                sink.add(key, value, sim);
+            }
+        };
+    }
+
     /**
      * Filter function for mapping using a condition and a threshold as
      * filtering criterion. The output mapping includes set of links from the
@@ -76,28 +125,46 @@ public class LinearFilter implements IFilter {
      */
     public AMapping filter(AMapping map, String condition, double threshold, ACache source, ACache target,
             String sourceVar, String targetVar) {
-        double sim = 0.0;
-        Instance s, t;
+        AMapping result = MappingFactory.createDefaultMapping();
+        filter(result::add, condition, threshold, source, target, sourceVar, targetVar).addAll(map);
+        return result;
+    }
 
+    /**
+     * Streaming version of
+     * {@link #filter(AMapping, String, double, ACache, ACache, String, String)}.
+     *
+     * @param sink
+     *            Receiver of the links that pass the filter
+     * @param condition
+     *            The condition for filtering
+     * @param threshold
+     *            Value of threshold
+     * @param source
+     *            Source knowledge base
+     * @param target
+     *            Target knowledge base
+     * @param sourceVar
+     *            Source property
+     * @param targetVar
+     *            Target property
+     * @return a sink that filters the links pushed into it
+     */
+    public LinkSink filter(LinkSink sink, String condition, double threshold, ACache source, ACache target,
+            String sourceVar, String targetVar) {
         if (condition == null) {
             logger.error("Null condition in filter function (LinearFilter). Exiting..");
             throw new RuntimeException();
         }
-
-        AMapping result = MappingFactory.createDefaultMapping();
-        // 2. run on all pairs and remove those
-        for (String key : map.getMap().keySet()) {
-            s = source.getInstance(key);
-            for (String value : map.getMap().get(key).keySet()) {
-                t = target.getInstance(value);
-                sim = MeasureProcessor.getSimilarity(s, t, condition, threshold, sourceVar, targetVar);
-                if (sim >= threshold) {
-                    result.add(s.getUri(), t.getUri(), sim);
-                }
+        ValueIndex index = getValueIndex(source, target);
+        return (key, value, confidence) -> {
+            Instance s = source.getInstance(key);
+            Instance t = target.getInstance(value);
+            double sim = MeasureProcessor.getSimilarity(s, t, condition, threshold, sourceVar, targetVar, index);
+            if (sim >= threshold) {
+                sink.add(s.getUri(), t.getUri(), sim);
             }
-
-        }
-        return result;
+        };
     }
 
     /**
@@ -131,34 +198,55 @@ public class LinearFilter implements IFilter {
      */
     public AMapping filter(AMapping map, String condition, double threshold, double mainThreshold, ACache source,
             ACache target, String sourceVar, String targetVar) {
-        double sim = 0.0;
-        Instance s, t;
         AMapping result = MappingFactory.createDefaultMapping();
+        filter(result::add, condition, threshold, mainThreshold, source, target, sourceVar, targetVar).addAll(map);
+        return result;
+
+    }
+
+    /**
+     * Streaming version of
+     * {@link #filter(AMapping, String, double, double, ACache, ACache, String, String)}.
+     *
+     * @param sink
+     *            Receiver of the links that pass the filter
+     * @param condition
+     *            The condition for filtering
+     * @param threshold
+     *            Value of the first threshold
+     * @param mainThreshold
+     *            Value of second threshold
+     * @param source
+     *            Source knowledge base
+     * @param target
+     *            Target knowledge base
+     * @param sourceVar
+     *            Source property
+     * @param targetVar
+     *            Target property
+     * @return a sink that filters the links pushed into it
+     */
+    public LinkSink filter(LinkSink sink, String condition, double threshold, double mainThreshold, ACache source,
+            ACache target, String sourceVar, String targetVar) {
         if (condition == null) {
             logger.info("Null condition in extended filter function (LinearFilter). Exiting..");
             throw new RuntimeException();
         }
-
-        for (String key : map.getMap().keySet()) {
-            s = source.getInstance(key);
-            for (String value : map.getMap().get(key).keySet()) {
-                t = target.getInstance(value);
-                sim = MeasureProcessor.getSimilarity(s, t, condition, threshold, sourceVar, targetVar);
-                // result must pass the filter threshold first!
-                if (sim >= threshold) {
-                    double sim2 = map.getConfidence(key, value);
-                    double minSimilarity = Math.min(sim, sim2);
-                    // min similarity because of AND operator
-                    // check if min sim passes the bigger threshold
-                    if (minSimilarity >= mainThreshold) {
-                        result.add(key, value, minSimilarity);
-                    }
+        ValueIndex index = getValueIndex(source, target);
+        return (key, value, sim2) -> {
+            Instance s = source.getInstance(key);
+            Instance t = target.getInstance(value);
+            double sim = MeasureProcessor.getSimilarity(s, t, condition, threshold, sourceVar, targetVar, index);
+            // result must pass the filter threshold first!
+            if (sim >= threshold) {
+                double minSimilarity = Math.min(sim, sim2);
+                // min similarity because of AND operator
+                // check if min sim passes the bigger threshold
+                if (minSimilarity >= mainThreshold) {
+                    sink.add(key, value, minSimilarity);
                 }
-
             }
-        }
-        return result;
-
+        };
     }
 
     /**
@@ -191,33 +279,51 @@ public class LinearFilter implements IFilter {
      */
     public AMapping reversefilter(AMapping map, String condition, double threshold, double mainThreshold, ACache source,
             ACache target, String sourceVar, String targetVar) {
-
-        double sim = 0.0;
-        Instance s, t;
         AMapping result = MappingFactory.createDefaultMapping();
+        reversefilter(result::add, condition, threshold, mainThreshold, source, target, sourceVar, targetVar)
+                .addAll(map);
+        return result;
+
+    }
+
+    /**
+     * Streaming version of
+     * {@link #reversefilter(AMapping, String, double, double, ACache, ACache, String, String)}.
+     *
+     * @param sink
+     *            Receiver of the links that pass the filter
+     * @param condition
+     *            The condition for filtering
+     * @param threshold
+     *            Value of the first threshold
+     * @param mainThreshold
+     *            Value of second threshold
+     * @param source
+     *            Source knowledge base
+     * @param target
+     *            Target knowledge base
+     * @param sourceVar
+     *            Source property
+     * @param targetVar
+     *            Target property
+     * @return a sink that filters the links pushed into it
+     */
+    public LinkSink reversefilter(LinkSink sink, String condition, double threshold, double mainThreshold,
+            ACache source, ACache target, String sourceVar, String targetVar) {
         if (condition == null) {
             System.err.println("Null condition in extended reverse filter function (LinearFilter). Exiting..");
             throw new RuntimeException();
         }
-
-        // 2. run on all pairs and remove those
-        for (String key : map.getMap().keySet()) {
-            s = source.getInstance(key);
-            for (String value : map.getMap().get(key).keySet()) {
-                t = target.getInstance(value);
-                sim = MeasureProcessor.getSimilarity(s, t, condition, threshold, sourceVar, targetVar);
-
-                // similarity of s and t must be 0 to be accepted
-                if (sim == 0) {
-                    double sim2 = map.getConfidence(key, value);
-                    if (sim2 >= mainThreshold) {
-                        result.add(key, value, sim2);
-                    }
-                }
+        ValueIndex index = getValueIndex(source, target);
+        return (key, value, sim2) -> {
+            Instance s = source.getInstance(key);
+            Instance t = target.getInstance(value);
+            double sim = MeasureProcessor.getSimilarity(s, t, condition, threshold, sourceVar, targetVar, index);
+            // similarity of s and t must be 0 to be accepted
+            if (sim == 0 && sim2 >= mainThreshold) {
+                sink.add(key, value, sim2);
             }
-        }
-        return result;
-
+        };
     }
 
     /**
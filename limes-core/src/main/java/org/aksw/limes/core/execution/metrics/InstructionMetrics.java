@@ -0,0 +1,179 @@
+package org.aksw.limes.core.execution.metrics;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.aksw.limes.core.execution.planning.plan.Instruction.Command;
+
+/**
+ * Measurements of one executed instruction. The inputs of a RUN instruction
+ * are the sizes of the source and target caches, the inputs of a filter and
+ * of the set operators are the sizes of their input mappings. The output is
+ * the number of links that passed, i.e., the verified pairs. The candidates
+ * are the pairs whose similarity was computed, which only some mappers
+ * report.
+ */
+public class InstructionMetrics {
+
+    /** operators combining the measures of complex expressions */
+    private static final List<String> OPERATORS = Arrays.asList("max", "min", "and", "or", "add", "xor", "minus",
+            "mult", "diff");
+
+    private final Command command;
+    private final String measureExpression;
+    private final double threshold;
+    private final long wallNanos;
+    private final long cpuNanos;
+    private final long allocatedBytes;
+    private final long input;
+    private final long secondInput;
+    private final long output;
+    private final long candidates;
+
+    /**
+     * Constructor
+     *
+     * @param command
+     *            Command of the instruction
+     * @param measureExpression
+     *            Measure expression of the instruction, or null
+     * @param threshold
+     *            Threshold of the instruction, or NaN
+     * @param probe
+     *            Probe started with the instruction
+     * @param input
+     *            Size of the first input
+     * @param secondInput
+     *            Size of the second input, or -1
+     * @param output
+     *            Number of links of the result
+     * @param candidates
+     *            Number of compared pairs, or -1 if unknown
+     */
+    public InstructionMetrics(Command command, String measureExpression, double threshold, Probe probe, long input,
+            long secondInput, long output, long candidates) {
+        this(command, measureExpression, threshold, probe.getWallNanos(), probe.getCpuNanos(),
+                probe.getAllocatedBytes(), input, secondInput, output, candidates);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param command
+     *            Command of the instruction
+     * @param measureExpression
+     *            Measure expression of the instruction, or null
+     * @param threshold
+     *            Threshold of the instruction, or NaN
+     * @param wallNanos
+     *            Wall time in nanoseconds
+     * @param cpuNanos
+     *            CPU time in nanoseconds, or -1
+     * @param allocatedBytes
+     *            Allocated bytes, or -1
+     * @param input
+     *            Size of the first input
+     * @param secondInput
+     *            Size of the second input, or -1
+     * @param output
+     *            Number of links of the result
+     * @param candidates
+     *            Number of compared pairs, or -1 if unknown
+     */
+    public InstructionMetrics(Command command, String measureExpression, double threshold, long wallNanos,
+            long cpuNanos, long allocatedBytes, long input, long secondInput, long output, long candidates) {
+        this.command = command;
+        this.measureExpression = measureExpression;
+        this.threshold = threshold;
+        this.wallNanos = wallNanos;
+        this.cpuNanos = cpuNanos;
+        this.allocatedBytes = allocatedBytes;
+        this.input = input;
+        this.secondInput = secondInput;
+        this.output = output;
+        this.candidates = candidates;
+    }
+
+    public Command getCommand() {
+        return command;
+    }
+
+    /**
+     * @return the measure expression, or null
+     */
+    public String getMeasureExpression() {
+        return measureExpression;
+    }
+
+    /**
+     * @return the operator of an atomic measure expression, "complex" for
+     *         other expressions or "none" without an expression
+     */
+    public String getMeasure() {
+        if (measureExpression == null) {
+            return "none";
+        }
+        int bracket = measureExpression.indexOf('(');
+        if (bracket <= 0) {
+            return "none";
+        }
+        String operator = measureExpression.substring(0, bracket).trim().toLowerCase();
+        return OPERATORS.contains(operator) ? "complex" : operator;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    public long getCpuNanos() {
+        return cpuNanos;
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public long getInput() {
+        return input;
+    }
+
+    public long getSecondInput() {
+        return secondInput;
+    }
+
+    public long getOutput() {
+        return output;
+    }
+
+    public long getCandidates() {
+        return candidates;
+    }
+
+    /**
+     * @return the share of the possible pairs that passed: the output
+     *         relative to |S| |T| for RUN, to the input for the filters and
+     *         to the sum of the inputs for the set operators, or NaN if
+     *         there was no input
+     */
+    public double getSelectivity() {
+        double pairs;
+        if (command == Command.RUN) {
+            pairs = (double) input * secondInput;
+        } else if (secondInput < 0) {
+            pairs = input;
+        } else {
+            pairs = input + secondInput;
+        }
+        return pairs > 0 ? output / pairs : Double.NaN;
+    }
+
+    @Override
+    public String toString() {
+        return command + (measureExpression == null ? "" : " " + measureExpression) + " " + output + " links in "
+                + wallNanos / 1000000 + " ms";
+    }
+}
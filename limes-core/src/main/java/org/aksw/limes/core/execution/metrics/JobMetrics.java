@@ -0,0 +1,111 @@
+package org.aksw.limes.core.execution.metrics;
+
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.Instance;
+
+/**
+ * Measurements of one linking job: loading the caches, executing the link
+ * specification or learning algorithm, and the resulting links.
+ */
+public class JobMetrics {
+
+    private final String id;
+    private long loadNanos = 0;
+    private long executionNanos = 0;
+    private long sourceInstances = 0;
+    private long sourceTriples = 0;
+    private long targetInstances = 0;
+    private long targetTriples = 0;
+    private long acceptedLinks = 0;
+    private long verificationLinks = 0;
+
+    /**
+     * Constructor
+     *
+     * @param id
+     *            Identifier of the job, e.g., the id of a server job
+     */
+    public JobMetrics(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Records the loaded caches.
+     *
+     * @param source
+     *            Source cache
+     * @param target
+     *            Target cache
+     * @param loadNanos
+     *            Time needed to load both caches in nanoseconds
+     */
+    public void setCaches(ACache source, ACache target, long loadNanos) {
+        this.loadNanos = loadNanos;
+        sourceInstances = source.size();
+        sourceTriples = countTriples(source);
+        targetInstances = target.size();
+        targetTriples = countTriples(target);
+    }
+
+    /**
+     * Records the result of the job.
+     *
+     * @param executionNanos
+     *            Time needed to compute the links in nanoseconds
+     * @param acceptedLinks
+     *            Number of accepted links
+     * @param verificationLinks
+     *            Number of links that need verification
+     */
+    public void setResult(long executionNanos, long acceptedLinks, long verificationLinks) {
+        this.executionNanos = executionNanos;
+        this.acceptedLinks = acceptedLinks;
+        this.verificationLinks = verificationLinks;
+    }
+
+    private static long countTriples(ACache cache) {
+        long triples = 0;
+        for (Instance instance : cache.getAllInstances()) {
+            for (String property : instance.getAllProperties()) {
+                triples += instance.getProperty(property).size();
+            }
+        }
+        return triples;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public long getLoadNanos() {
+        return loadNanos;
+    }
+
+    public long getExecutionNanos() {
+        return executionNanos;
+    }
+
+    public long getSourceInstances() {
+        return sourceInstances;
+    }
+
+    public long getSourceTriples() {
+        return sourceTriples;
+    }
+
+    public long getTargetInstances() {
+        return targetInstances;
+    }
+
+    public long getTargetTriples() {
+        return targetTriples;
+    }
+
+    public long getAcceptedLinks() {
+        return acceptedLinks;
+    }
+
+    public long getVerificationLinks() {
+        return verificationLinks;
+    }
+}
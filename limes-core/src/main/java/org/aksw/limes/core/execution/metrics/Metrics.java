@@ -0,0 +1,30 @@
+package org.aksw.limes.core.execution.metrics;
+
+/**
+ * Holds the metrics registry of the process, a {@link PrometheusRegistry}
+ * unless another registry is plugged in.
+ */
+public class Metrics {
+
+    private static volatile MetricsRegistry registry = new PrometheusRegistry();
+
+    /**
+     * @return the registry of the process
+     */
+    public static MetricsRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Replaces the registry of the process.
+     *
+     * @param registry
+     *            The registry
+     */
+    public static void setRegistry(MetricsRegistry registry) {
+        if (registry == null) {
+            throw new IllegalArgumentException("The metrics registry must not be null");
+        }
+        Metrics.registry = registry;
+    }
+}
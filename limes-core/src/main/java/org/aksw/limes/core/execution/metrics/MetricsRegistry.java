@@ -0,0 +1,38 @@
+package org.aksw.limes.core.execution.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Receiver of the measurements of the execution engine and the controller.
+ * The registry of the process is held by {@link Metrics} and exposed by the
+ * server. Registries are called from several threads.
+ */
+public interface MetricsRegistry {
+
+    /**
+     * Records an executed instruction.
+     *
+     * @param metrics
+     *            Measurements of the instruction
+     */
+    void record(InstructionMetrics metrics);
+
+    /**
+     * Records a finished job.
+     *
+     * @param metrics
+     *            Measurements of the job
+     */
+    void record(JobMetrics metrics);
+
+    /**
+     * Writes the recorded metrics in the format of the registry.
+     *
+     * @param writer
+     *            Writer, which is not closed
+     * @throws IOException
+     *             if writing fails
+     */
+    void write(Writer writer) throws IOException;
+}
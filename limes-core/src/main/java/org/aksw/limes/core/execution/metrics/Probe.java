@@ -0,0 +1,73 @@
+package org.aksw.limes.core.execution.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Measures the wall time, the CPU time and the allocated bytes of the current
+ * thread since the probe was started. CPU time and allocations are only
+ * available if the JVM supports them, and do not include the work of other
+ * threads, e.g., of the worker pools of parallel mappers.
+ */
+public class Probe {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final long wall;
+    private final long cpu;
+    private final long allocated;
+
+    private Probe() {
+        wall = System.nanoTime();
+        cpu = cpuTime();
+        allocated = allocatedBytes();
+    }
+
+    /**
+     * @return a probe started now
+     */
+    public static Probe start() {
+        return new Probe();
+    }
+
+    /**
+     * @return the wall time since the start in nanoseconds
+     */
+    public long getWallNanos() {
+        return System.nanoTime() - wall;
+    }
+
+    /**
+     * @return the CPU time of the current thread since the start in
+     *         nanoseconds, or -1 if it is not measured
+     */
+    public long getCpuNanos() {
+        return cpu < 0 ? -1 : cpuTime() - cpu;
+    }
+
+    /**
+     * @return the bytes allocated by the current thread since the start, or
+     *         -1 if they are not measured
+     */
+    public long getAllocatedBytes() {
+        return allocated < 0 ? -1 : allocatedBytes() - allocated;
+    }
+
+    private static long cpuTime() {
+        if (!THREADS.isCurrentThreadCpuTimeSupported() || !THREADS.isThreadCpuTimeEnabled()) {
+            return -1;
+        }
+        return THREADS.getCurrentThreadCpuTime();
+    }
+
+    private static long allocatedBytes() {
+        if (!(THREADS instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+        if (!threads.isThreadAllocatedMemorySupported() || !threads.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
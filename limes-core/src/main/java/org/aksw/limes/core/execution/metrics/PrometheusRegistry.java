@@ -0,0 +1,95 @@
+package org.aksw.limes.core.execution.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Registry that sums up the measurements per command and measure and writes
+ * them as counters in the Prometheus text exposition format. CPU time,
+ * allocations and candidates are only summed up where they are measured.
+ */
+public class PrometheusRegistry implements MetricsRegistry {
+
+    private static final String[] INSTRUCTION_METRICS = {
+            "limes_instructions_total", "counter", "Number of executed instructions.",
+            "limes_instruction_wall_seconds_total", "counter", "Wall time of the instructions.",
+            "limes_instruction_cpu_seconds_total", "counter", "CPU time of the instructions in the executing thread.",
+            "limes_instruction_allocated_bytes_total", "counter", "Bytes allocated by the executing thread.",
+            "limes_instruction_candidates_total", "counter", "Pairs compared by the mappers that count them.",
+            "limes_instruction_links_total", "counter", "Links returned by the instructions." };
+    private static final String[] JOB_METRICS = {
+            "limes_jobs_total", "counter", "Number of finished jobs.",
+            "limes_job_load_seconds_total", "counter", "Time spent loading the caches of the jobs.",
+            "limes_job_execution_seconds_total", "counter", "Time spent computing the links of the jobs.",
+            "limes_job_source_triples_total", "counter", "Triples of the source caches of the jobs.",
+            "limes_job_target_triples_total", "counter", "Triples of the target caches of the jobs.",
+            "limes_job_accepted_links_total", "counter", "Accepted links of the jobs.",
+            "limes_job_verification_links_total", "counter", "Links of the jobs that need verification." };
+
+    /** sums per command and measure, in the order of INSTRUCTION_METRICS */
+    private final Map<String, double[]> instructions = new TreeMap<>();
+    private final double[] jobs = new double[JOB_METRICS.length / 3];
+
+    @Override
+    public synchronized void record(InstructionMetrics metrics) {
+        String labels = "command=\"" + metrics.getCommand().name().toLowerCase() + "\",measure=\""
+                + escape(metrics.getMeasure()) + "\"";
+        double[] sums = instructions.get(labels);
+        if (sums == null) {
+            sums = new double[INSTRUCTION_METRICS.length / 3];
+            instructions.put(labels, sums);
+        }
+        sums[0]++;
+        sums[1] += metrics.getWallNanos() / 1e9;
+        sums[2] += Math.max(0, metrics.getCpuNanos()) / 1e9;
+        sums[3] += Math.max(0, metrics.getAllocatedBytes());
+        sums[4] += Math.max(0, metrics.getCandidates());
+        sums[5] += metrics.getOutput();
+    }
+
+    @Override
+    public synchronized void record(JobMetrics metrics) {
+        jobs[0]++;
+        jobs[1] += metrics.getLoadNanos() / 1e9;
+        jobs[2] += metrics.getExecutionNanos() / 1e9;
+        jobs[3] += metrics.getSourceTriples();
+        jobs[4] += metrics.getTargetTriples();
+        jobs[5] += metrics.getAcceptedLinks();
+        jobs[6] += metrics.getVerificationLinks();
+    }
+
+    @Override
+    public synchronized void write(Writer writer) throws IOException {
+        for (int i = 0; i < INSTRUCTION_METRICS.length / 3; i++) {
+            writeHeader(writer, INSTRUCTION_METRICS, i);
+            for (Map.Entry<String, double[]> e : instructions.entrySet()) {
+                writeSample(writer, INSTRUCTION_METRICS[3 * i], "{" + e.getKey() + "}", e.getValue()[i]);
+            }
+        }
+        for (int i = 0; i < JOB_METRICS.length / 3; i++) {
+            writeHeader(writer, JOB_METRICS, i);
+            writeSample(writer, JOB_METRICS[3 * i], "", jobs[i]);
+        }
+    }
+
+    /**
+     * Writes the HELP and TYPE lines of a metric.
+     */
+    static void writeHeader(Writer writer, String[] metrics, int i) throws IOException {
+        writer.write("# HELP " + metrics[3 * i] + " " + metrics[3 * i + 2] + "\n");
+        writer.write("# TYPE " + metrics[3 * i] + " " + metrics[3 * i + 1] + "\n");
+    }
+
+    static void writeSample(Writer writer, String name, String labels, double value) throws IOException {
+        writer.write(name + labels + " " + (value == Math.rint(value) ? Long.toString((long) value) : value) + "\n");
+    }
+
+    /**
+     * Escapes a label value.
+     */
+    static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,140 @@
+package org.aksw.limes.core.execution.metrics;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registry that keeps the measurements of a single run, i.e., of every
+ * instruction in the order of execution and of the job, and writes them as a
+ * JSON profile. Besides the profile, the measurements are passed on to the
+ * registry of the process.
+ */
+public class RunProfile implements MetricsRegistry {
+
+    /**
+     * Suffix of the profile written next to the acceptance file
+     */
+    public static final String PROFILE_SUFFIX = ".profile.json";
+
+    private final List<InstructionMetrics> instructions = new ArrayList<>();
+    private JobMetrics job = null;
+
+    @Override
+    public void record(InstructionMetrics metrics) {
+        synchronized (this) {
+            instructions.add(metrics);
+        }
+        Metrics.getRegistry().record(metrics);
+    }
+
+    @Override
+    public void record(JobMetrics metrics) {
+        synchronized (this) {
+            job = metrics;
+        }
+        Metrics.getRegistry().record(metrics);
+    }
+
+    /**
+     * @return the measurements of the instructions executed so far
+     */
+    public synchronized List<InstructionMetrics> getInstructions() {
+        return new ArrayList<>(instructions);
+    }
+
+    /**
+     * @return the measurements of the job, or null before it finished
+     */
+    public synchronized JobMetrics getJob() {
+        return job;
+    }
+
+    /**
+     * @param acceptanceFile
+     *            Path of the acceptance file of a run
+     * @return the file of the profile of the run
+     */
+    public static File getProfileFile(String acceptanceFile) {
+        File file = new File(acceptanceFile);
+        String name = file.getName();
+        if (name.lastIndexOf('.') > 0) {
+            name = name.substring(0, name.lastIndexOf('.'));
+        }
+        return new File(file.getAbsoluteFile().getParentFile(), name + PROFILE_SUFFIX);
+    }
+
+    /**
+     * Writes the profile to a file.
+     *
+     * @param file
+     *            The file
+     */
+    public void write(File file) {
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            write(writer);
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot write profile " + file, e);
+        }
+    }
+
+    @Override
+    public synchronized void write(Writer writer) throws IOException {
+        writer.write("{\n");
+        if (job != null) {
+            writer.write("  \"job\": {\"id\": " + string(job.getId()) + ", \"loadMs\": " + millis(job.getLoadNanos())
+                    + ", \"executionMs\": " + millis(job.getExecutionNanos()) + ", \"sourceInstances\": "
+                    + job.getSourceInstances() + ", \"sourceTriples\": " + job.getSourceTriples()
+                    + ", \"targetInstances\": " + job.getTargetInstances() + ", \"targetTriples\": "
+                    + job.getTargetTriples() + ", \"acceptedLinks\": " + job.getAcceptedLinks()
+                    + ", \"verificationLinks\": " + job.getVerificationLinks() + "},\n");
+        }
+        writer.write("  \"instructions\": [");
+        for (int i = 0; i < instructions.size(); i++) {
+            InstructionMetrics m = instructions.get(i);
+            writer.write((i == 0 ? "\n" : ",\n") + "    {\"command\": " + string(m.getCommand().name())
+                    + ", \"measure\": " + string(m.getMeasureExpression()) + ", \"threshold\": "
+                    + number(m.getThreshold()) + ", \"wallMs\": " + millis(m.getWallNanos()) + ", \"cpuMs\": "
+                    + (m.getCpuNanos() < 0 ? "null" : millis(m.getCpuNanos())) + ", \"allocatedBytes\": "
+                    + optional(m.getAllocatedBytes()) + ", \"input\": " + m.getInput() + ", \"secondInput\": "
+                    + optional(m.getSecondInput()) + ", \"candidates\": " + optional(m.getCandidates())
+                    + ", \"output\": " + m.getOutput() + ", \"selectivity\": " + number(m.getSelectivity()) + "}");
+        }
+        writer.write(instructions.isEmpty() ? "]\n" : "\n  ]\n");
+        writer.write("}\n");
+    }
+
+    private static String millis(long nanos) {
+        return Double.toString(nanos / 1e6);
+    }
+
+    private static String optional(long value) {
+        return value < 0 ? "null" : Long.toString(value);
+    }
+
+    private static String number(double value) {
+        return Double.isNaN(value) || Double.isInfinite(value) ? "null" : Double.toString(value);
+    }
+
+    private static String string(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder s = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                s.append('\\').append(c);
+            } else if (c < 0x20) {
+                s.append(String.format("\\u%04x", (int) c));
+            } else {
+                s.append(c);
+            }
+        }
+        return s.append('"').toString();
+    }
+}
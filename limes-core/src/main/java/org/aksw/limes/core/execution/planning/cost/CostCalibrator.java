@@ -0,0 +1,121 @@
+package org.aksw.limes.core.execution.planning.cost;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.aksw.limes.core.execution.engine.filter.LinearFilter;
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.aksw.limes.core.measures.mapper.AMapper;
+import org.aksw.limes.core.measures.mapper.MapperFactory;
+import org.aksw.limes.core.measures.measure.MeasureFactory;
+import org.aksw.limes.core.measures.measure.MeasureType;
+import org.aksw.limes.core.util.DataGenerator;
+import org.aksw.limes.core.util.RandomStringGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Offline calibration of a {@link CostProfile}. Runs the mappers and filters
+ * of a set of measures on synthetic caches of increasing size produced by a
+ * {@link DataGenerator} and records their runtimes and mapping sizes.
+ */
+public class CostCalibrator {
+    private static final Logger logger = LoggerFactory.getLogger(CostCalibrator.class);
+
+    /**
+     * Measures calibrated by default. They all apply to the string labels
+     * produced by the {@link RandomStringGenerator}.
+     */
+    public static final List<String> DEFAULT_MEASURES = Arrays.asList(MeasureFactory.COSINE,
+            MeasureFactory.EXACTMATCH, MeasureFactory.JACCARD, MeasureFactory.JARO, MeasureFactory.JAROWINKLER,
+            MeasureFactory.LEVENSHTEIN, MeasureFactory.MONGEELKAN, MeasureFactory.OVERLAP, MeasureFactory.QGRAMS,
+            MeasureFactory.RATCLIFF, MeasureFactory.SOUNDEX, MeasureFactory.TRIGRAM, MeasureFactory.APPROX_JACCARD,
+            MeasureFactory.APPROX_TRIGRAM);
+
+    private final CostProfile profile;
+    private final DataGenerator generator;
+    private int[] sizes = { 250, 500, 1000, 2000 };
+    private double[] thresholds = { 0.5, 0.7, 0.9 };
+
+    /**
+     * Constructor. Calibrates with random strings of 5 to 15 characters.
+     *
+     * @param profile
+     *            Profile that receives the observations
+     */
+    public CostCalibrator(CostProfile profile) {
+        this(profile, new RandomStringGenerator(5, 15));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param profile
+     *            Profile that receives the observations
+     * @param generator
+     *            Generator of the synthetic caches. The values are read from
+     *            {@link DataGenerator#LABEL}.
+     */
+    public CostCalibrator(CostProfile profile, DataGenerator generator) {
+        this.profile = profile;
+        this.generator = generator;
+    }
+
+    public void setSizes(int... sizes) {
+        this.sizes = sizes;
+    }
+
+    public void setThresholds(double... thresholds) {
+        this.thresholds = thresholds;
+    }
+
+    /**
+     * Calibrates the given measures. For each cache size, the mapper of each
+     * measure is run with each threshold and a random sample of pairs of the
+     * size of the caches is filtered with the measure.
+     *
+     * @param measures
+     *            Names of the measures to calibrate
+     */
+    public void calibrate(List<String> measures) {
+        Random random = new Random(42);
+        LinearFilter filter = new LinearFilter();
+        for (int size : sizes) {
+            ACache source = generator.generateData(size);
+            ACache target = generator.generateData(size);
+            AMapping pairs = getRandomPairs(source, target, size, random);
+            for (String measure : measures) {
+                MeasureType type = MeasureFactory.getMeasureType(measure);
+                AMapper mapper = MapperFactory.createMapper(type);
+                String expression = measure + "(x." + DataGenerator.LABEL + ", y." + DataGenerator.LABEL + ")";
+                for (double threshold : thresholds) {
+                    long begin = System.nanoTime();
+                    AMapping m = mapper.getMapping(source, target, "?x", "?y", expression, threshold);
+                    double runtime = (System.nanoTime() - begin) / 1e6;
+                    profile.recordRun(type, threshold, source.size(), target.size(), runtime,
+                            m.getNumberofMappings());
+                    logger.info(measure + " >= " + threshold + " on " + size + " x " + size + ": " + runtime
+                            + " ms, " + m.getNumberofMappings() + " links");
+                }
+                long begin = System.nanoTime();
+                filter.filter(pairs, expression, thresholds[0], source, target, "?x", "?y");
+                profile.recordFilter(type, pairs.getNumberofMappings(), (System.nanoTime() - begin) / 1e6);
+            }
+        }
+    }
+
+    private static AMapping getRandomPairs(ACache source, ACache target, int size, Random random) {
+        List<String> sourceUris = new ArrayList<>(source.getAllUris());
+        List<String> targetUris = new ArrayList<>(target.getAllUris());
+        AMapping pairs = MappingFactory.createDefaultMapping();
+        for (int i = 0; i < size; i++) {
+            pairs.add(sourceUris.get(random.nextInt(sourceUris.size())),
+                    targetUris.get(random.nextInt(targetUris.size())), 1d);
+        }
+        return pairs;
+    }
+}
@@ -0,0 +1,516 @@
+package org.aksw.limes.core.execution.planning.cost;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.aksw.limes.core.measures.measure.MeasureType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Calibrated cost model of the mappers and measures. The execution engine
+ * records the runtime and the output size of each atomic RUN instruction per
+ * measure type, threshold bucket and input sizes as well as the runtime of
+ * each FILTER instruction per measure type and input size. From these
+ * observations, the profile fits a model per measure type and threshold
+ * bucket:
+ * <ul>
+ * <li>runtime = a + b (|S| + |T|) + c |S| |T| with non-negative coefficients,
+ * choosing the subset of terms with the smallest residual variance,</li>
+ * <li>mapping size = s |S| |T| with the observed selectivity s,</li>
+ * <li>filter runtime = f |M| with the observed runtime per link f.</li>
+ * </ul>
+ * Runtimes are given in milliseconds. The observations are persisted in a
+ * tab-separated profile file, so that the models improve across runs.
+ * <p>
+ * The default profile used by the execution engines and planners is enabled
+ * by setting the system property {@link #PROFILE_PROPERTY} to the profile
+ * file, e.g., {@link #DEFAULT_PROFILE}, which is the file written by the
+ * calibration of the command line. Without the property nothing is recorded
+ * and the planners use the approximations of the mappers.
+ */
+public class CostProfile {
+    private static final Logger logger = LoggerFactory.getLogger(CostProfile.class);
+
+    /**
+     * System property holding the path of the default profile
+     */
+    public static final String PROFILE_PROPERTY = "limes.costProfile";
+    /**
+     * Path of the profile written by the calibration of the command line
+     */
+    public static final String DEFAULT_PROFILE = "cache/cost-profile.tsv";
+    /**
+     * Number of threshold buckets in [0, 1]
+     */
+    public static final int BUCKETS = 10;
+    /**
+     * Number of observations kept per measure type and threshold bucket
+     */
+    private static final int MAX_OBSERVATIONS = 64;
+    /**
+     * Minimal time between two saves of the default profile
+     */
+    private static final long SAVE_INTERVAL = 60000;
+
+    private static CostProfile defaultProfile = null;
+    private static boolean defaultInitialized = false;
+
+    private final File file;
+    /**
+     * Observations of RUN instructions as {|S|, |T|, runtime, mapping size}
+     */
+    private final Map<MeasureType, Deque<double[]>[]> runs = new EnumMap<>(MeasureType.class);
+    /**
+     * Observations of FILTER instructions as {|M|, runtime}
+     */
+    private final Map<MeasureType, Deque<double[]>> filters = new EnumMap<>(MeasureType.class);
+    private final Map<String, double[]> models = new HashMap<>();
+    private boolean dirty = false;
+    private long lastSave = System.currentTimeMillis();
+
+    /**
+     * Constructor
+     *
+     * @param file
+     *            Profile file or null to keep the profile in memory only
+     */
+    public CostProfile(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns the profile shared by the execution engines and planners. It is
+     * loaded on first use and saved when the JVM exits.
+     *
+     * @return the profile configured with {@link #PROFILE_PROPERTY} or null
+     *         if the property is not set
+     */
+    public static synchronized CostProfile getDefault() {
+        if (!defaultInitialized) {
+            String path = System.getProperty(PROFILE_PROPERTY);
+            if (path != null && !path.isEmpty()) {
+                defaultProfile = load(new File(path));
+                final CostProfile profile = defaultProfile;
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> profile.saveIfDirty(0)));
+            }
+            defaultInitialized = true;
+        }
+        return defaultProfile;
+    }
+
+    /**
+     * Loads a profile. A missing or unreadable file yields an empty profile
+     * that is written to the file on save.
+     *
+     * @param file
+     *            Profile file
+     * @return the profile
+     */
+    public static CostProfile load(File file) {
+        CostProfile profile = new CostProfile(file);
+        if (!file.exists()) {
+            return profile;
+        }
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] split = line.split("\t");
+                try {
+                    MeasureType type = MeasureType.valueOf(split[1]);
+                    if (split[0].equals("run") && split.length == 7) {
+                        profile.addRun(type, Integer.parseInt(split[2]), new double[] { Double.parseDouble(split[3]),
+                                Double.parseDouble(split[4]), Double.parseDouble(split[5]),
+                                Double.parseDouble(split[6]) });
+                    } else if (split[0].equals("filter") && split.length == 4) {
+                        profile.addFilter(type,
+                                new double[] { Double.parseDouble(split[2]), Double.parseDouble(split[3]) });
+                    }
+                } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                    // measures that were renamed or removed since
+                    logger.debug("Skipping cost profile entry " + line);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not read cost profile " + file + ": " + e.getMessage());
+        }
+        return profile;
+    }
+
+    /**
+     * Writes the profile to its file.
+     */
+    public synchronized void save() {
+        if (file == null) {
+            return;
+        }
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.println("# LIMES cost profile");
+            writer.println("# run\tmeasure\tbucket\tsourceSize\ttargetSize\truntime\tmappingSize");
+            writer.println("# filter\tmeasure\tmappingSize\truntime");
+            for (Map.Entry<MeasureType, Deque<double[]>[]> entry : runs.entrySet()) {
+                for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                    for (double[] o : entry.getValue()[bucket]) {
+                        writer.println("run\t" + entry.getKey().name() + "\t" + bucket + "\t" + (long) o[0] + "\t"
+                                + (long) o[1] + "\t" + o[2] + "\t" + (long) o[3]);
+                    }
+                }
+            }
+            for (Map.Entry<MeasureType, Deque<double[]>> entry : filters.entrySet()) {
+                for (double[] o : entry.getValue()) {
+                    writer.println("filter\t" + entry.getKey().name() + "\t" + (long) o[0] + "\t" + o[1]);
+                }
+            }
+            dirty = false;
+        } catch (IOException e) {
+            logger.warn("Could not write cost profile " + file + ": " + e.getMessage());
+        }
+        lastSave = System.currentTimeMillis();
+    }
+
+    /**
+     * Saves the profile if it changed and was not saved recently, so that
+     * engines running many small specifications do not write it each time.
+     */
+    public void saveIfDirty() {
+        saveIfDirty(SAVE_INTERVAL);
+    }
+
+    private synchronized void saveIfDirty(long interval) {
+        if (dirty && System.currentTimeMillis() - lastSave >= interval) {
+            save();
+        }
+    }
+
+    /**
+     * Records the execution of a RUN instruction.
+     *
+     * @param type
+     *            Measure type of the instruction
+     * @param threshold
+     *            Threshold of the instruction
+     * @param sourceSize
+     *            Size of the source cache
+     * @param targetSize
+     *            Size of the target cache
+     * @param runtime
+     *            Runtime in milliseconds
+     * @param mappingSize
+     *            Number of links returned
+     */
+    public synchronized void recordRun(MeasureType type, double threshold, int sourceSize, int targetSize,
+            double runtime, int mappingSize) {
+        if (sourceSize == 0 || targetSize == 0) {
+            return;
+        }
+        addRun(type, getBucket(threshold), new double[] { sourceSize, targetSize, runtime, mappingSize });
+        dirty = true;
+    }
+
+    /**
+     * Records the execution of a FILTER instruction.
+     *
+     * @param type
+     *            Measure type of the filter expression
+     * @param mappingSize
+     *            Size of the filtered mapping
+     * @param runtime
+     *            Runtime in milliseconds
+     */
+    public synchronized void recordFilter(MeasureType type, int mappingSize, double runtime) {
+        if (mappingSize == 0) {
+            return;
+        }
+        addFilter(type, new double[] { mappingSize, runtime });
+        dirty = true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addRun(MeasureType type, int bucket, double[] observation) {
+        Deque<double[]>[] buckets = runs.get(type);
+        if (buckets == null) {
+            buckets = new Deque[BUCKETS];
+            for (int b = 0; b < BUCKETS; b++) {
+                buckets[b] = new ArrayDeque<>();
+            }
+            runs.put(type, buckets);
+        }
+        add(buckets[bucket], observation);
+        models.remove(type + "/" + bucket);
+    }
+
+    private void addFilter(MeasureType type, double[] observation) {
+        Deque<double[]> observations = filters.get(type);
+        if (observations == null) {
+            observations = new ArrayDeque<>();
+            filters.put(type, observations);
+        }
+        add(observations, observation);
+    }
+
+    private static void add(Deque<double[]> observations, double[] observation) {
+        if (observations.size() == MAX_OBSERVATIONS) {
+            observations.removeFirst();
+        }
+        observations.addLast(observation);
+    }
+
+    /**
+     * @param threshold
+     *            A threshold in (0, 1]
+     * @return the bucket of the threshold
+     */
+    public static int getBucket(double threshold) {
+        return Math.max(0, Math.min(BUCKETS - 1, (int) (threshold * BUCKETS)));
+    }
+
+    /**
+     * Tells whether the runtime, the mapping size and the filter runtime of a
+     * measure can be estimated for a threshold, i.e., whether all calibrated
+     * costs of the measure are available.
+     *
+     * @param type
+     *            Measure type
+     * @param threshold
+     *            Threshold
+     * @return true if the measure is calibrated for the threshold
+     */
+    public synchronized boolean isCalibrated(MeasureType type, double threshold) {
+        return getClosestBucket(type, getBucket(threshold), 1) >= 0 && filters.containsKey(type);
+    }
+
+    /**
+     * Estimates the runtime of a mapper. If the bucket of the threshold has
+     * no observations, the closest bucket with observations is used.
+     *
+     * @param type
+     *            Measure type
+     * @param threshold
+     *            Threshold
+     * @param sourceSize
+     *            Size of the source cache
+     * @param targetSize
+     *            Size of the target cache
+     * @return the estimated runtime in milliseconds or -1 if the measure was
+     *         never observed
+     */
+    public synchronized double getRuntime(MeasureType type, double threshold, int sourceSize, int targetSize) {
+        int bucket = getClosestBucket(type, getBucket(threshold), BUCKETS);
+        if (bucket < 0) {
+            return -1;
+        }
+        double[] model = getRuntimeModel(type, bucket);
+        return model[0] + model[1] * ((double) sourceSize + targetSize) + model[2] * ((double) sourceSize * targetSize);
+    }
+
+    /**
+     * Estimates the size of the mapping of a mapper. Since the selectivity
+     * depends strongly on the threshold, only the bucket of the threshold and
+     * its neighbours are used.
+     *
+     * @param type
+     *            Measure type
+     * @param threshold
+     *            Threshold
+     * @param sourceSize
+     *            Size of the source cache
+     * @param targetSize
+     *            Size of the target cache
+     * @return the estimated mapping size or -1 if there are no observations
+     *         for the threshold
+     */
+    public synchronized double getMappingSize(MeasureType type, double threshold, int sourceSize, int targetSize) {
+        int bucket = getClosestBucket(type, getBucket(threshold), 1);
+        if (bucket < 0) {
+            return -1;
+        }
+        double links = 0, pairs = 0;
+        for (double[] o : runs.get(type)[bucket]) {
+            links += o[3];
+            pairs += o[0] * o[1];
+        }
+        return links / pairs * sourceSize * targetSize;
+    }
+
+    /**
+     * Estimates the runtime of filtering a mapping with a measure.
+     *
+     * @param type
+     *            Measure type
+     * @param mappingSize
+     *            Size of the mapping
+     * @return the estimated runtime in milliseconds or -1 if the measure was
+     *         never observed
+     */
+    public synchronized double getFilterRuntime(MeasureType type, int mappingSize) {
+        Deque<double[]> observations = filters.get(type);
+        if (observations == null) {
+            return -1;
+        }
+        double links = 0, runtime = 0;
+        for (double[] o : observations) {
+            links += o[0];
+            runtime += o[1];
+        }
+        return runtime / links * mappingSize;
+    }
+
+    private int getClosestBucket(MeasureType type, int bucket, int maxDistance) {
+        Deque<double[]>[] buckets = runs.get(type);
+        if (buckets == null) {
+            return -1;
+        }
+        for (int distance = 0; distance <= maxDistance; distance++) {
+            // prefer the lower bucket, its costs are higher
+            if (bucket - distance >= 0 && !buckets[bucket - distance].isEmpty()) {
+                return bucket - distance;
+            }
+            if (bucket + distance < BUCKETS && !buckets[bucket + distance].isEmpty()) {
+                return bucket + distance;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the coefficients {a, b, c} of the runtime model of a bucket
+     */
+    private double[] getRuntimeModel(MeasureType type, int bucket) {
+        String key = type + "/" + bucket;
+        double[] model = models.get(key);
+        if (model == null) {
+            model = fitRuntimeModel(runs.get(type)[bucket].toArray(new double[0][]));
+            models.put(key, model);
+        }
+        return model;
+    }
+
+    /**
+     * Fits runtime = a + b (|S| + |T|) + c |S| |T| by least squares. All
+     * subsets of the terms are fitted and the one with the smallest residual
+     * variance among those with non-negative coefficients wins. Models with
+     * an intercept need more observations than coefficients; with fewer
+     * observations, the runtime is assumed to be proportional to |S| + |T|.
+     *
+     * @param observations
+     *            Observations as {|S|, |T|, runtime, mapping size}
+     * @return the coefficients {a, b, c}
+     */
+    static double[] fitRuntimeModel(double[][] observations) {
+        // candidate terms: intercept, |S| + |T|, |S| |T|; the linear term first
+        int[][] candidates = { { 1 }, { 2 }, { 0, 1 }, { 0, 2 }, { 1, 2 }, { 0, 1, 2 } };
+        double[] best = null;
+        double bestScore = Double.POSITIVE_INFINITY;
+        for (int[] terms : candidates) {
+            int dof = observations.length - terms.length;
+            if (dof < 0 || (terms[0] == 0 && dof == 0)) {
+                continue;
+            }
+            double[] coefficients = solve(observations, terms);
+            if (coefficients == null) {
+                continue;
+            }
+            double[] model = new double[3];
+            boolean valid = true;
+            for (int i = 0; i < terms.length; i++) {
+                valid &= coefficients[i] >= 0;
+                model[terms[i]] = coefficients[i];
+            }
+            if (!valid) {
+                continue;
+            }
+            double sse = 0;
+            for (double[] o : observations) {
+                double residual = o[2] - model[0] - model[1] * (o[0] + o[1]) - model[2] * (o[0] * o[1]);
+                sse += residual * residual;
+            }
+            double score = dof == 0 ? sse : sse / dof;
+            if (score < bestScore - 1e-12) {
+                best = model;
+                bestScore = score;
+            }
+        }
+        if (best == null) {
+            // e.g., all runtimes were 0
+            best = new double[3];
+        }
+        return best;
+    }
+
+    private static double getTerm(double[] observation, int term) {
+        switch (term) {
+        case 0:
+            return 1;
+        case 1:
+            return observation[0] + observation[1];
+        default:
+            return observation[0] * observation[1];
+        }
+    }
+
+    /**
+     * Solves the normal equations of a least squares fit with Gaussian
+     * elimination.
+     *
+     * @return the coefficients of the terms or null if the system is singular
+     */
+    private static double[] solve(double[][] observations, int[] terms) {
+        int k = terms.length;
+        double[][] a = new double[k][k + 1];
+        for (double[] o : observations) {
+            for (int i = 0; i < k; i++) {
+                double xi = getTerm(o, terms[i]);
+                for (int j = 0; j < k; j++) {
+                    a[i][j] += xi * getTerm(o, terms[j]);
+                }
+                a[i][k] += xi * o[2];
+            }
+        }
+        double[] scale = new double[k];
+        for (int i = 0; i < k; i++) {
+            scale[i] = a[i][i];
+        }
+        for (int col = 0; col < k; col++) {
+            int pivot = col;
+            for (int row = col + 1; row < k; row++) {
+                if (Math.abs(a[row][col]) > Math.abs(a[pivot][col])) {
+                    pivot = row;
+                }
+            }
+            if (Math.abs(a[pivot][col]) <= 1e-10 * scale[col]) {
+                return null;
+            }
+            double[] tmp = a[col];
+            a[col] = a[pivot];
+            a[pivot] = tmp;
+            for (int row = 0; row < k; row++) {
+                if (row != col) {
+                    double factor = a[row][col] / a[col][col];
+                    for (int j = col; j <= k; j++) {
+                        a[row][j] -= factor * a[col][j];
+                    }
+                }
+            }
+        }
+        double[] result = new double[k];
+        for (int i = 0; i < k; i++) {
+            result[i] = a[i][k] / a[i][i];
+        }
+        return result;
+    }
+}
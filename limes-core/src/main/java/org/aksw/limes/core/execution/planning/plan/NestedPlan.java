@@ -1,7 +1,9 @@
 package org.aksw.limes.core.execution.planning.plan;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.aksw.limes.core.execution.planning.plan.Instruction.Command;
 import org.aksw.limes.core.measures.measure.MeasureProcessor;
@@ -32,6 +34,12 @@ public class NestedPlan extends Plan {
      * Fields that declares if the current nested plan is executed or not.
      */
     private boolean executionStatus = false;
+    /**
+     * Lowest thresholds of the atomic measures that are run more than once
+     * within the plan, keyed by {@link #getRunKey(Instruction)}. Only set for
+     * the root plan.
+     */
+    private Map<String, Double> sharedRuns = null;
 
     /**
      * Constructor of the NestedPlan class.
@@ -120,6 +128,41 @@ public class NestedPlan extends Plan {
         this.executionStatus = executionStatus;
     }
 
+    /**
+     * Returns the atomic measures that are run more than once within the plan.
+     * An execution engine runs each of them once with the lowest threshold
+     * and derives the mappings of the higher thresholds by filtering.
+     *
+     * @return the lowest threshold of each shared run keyed by
+     *         {@link #getRunKey(Instruction)}, or null
+     */
+    public Map<String, Double> getSharedRuns() {
+        return sharedRuns;
+    }
+
+    /**
+     * Sets the atomic measures that are run more than once within the plan.
+     *
+     * @param sharedRuns
+     *            The lowest threshold of each shared run keyed by
+     *            {@link #getRunKey(Instruction)}
+     */
+    public void setSharedRuns(Map<String, Double> sharedRuns) {
+        this.sharedRuns = sharedRuns;
+    }
+
+    /**
+     * Returns the key of a RUN instruction under which runs of the same
+     * measure on the same properties are shared.
+     *
+     * @param run
+     *            A RUN instruction
+     * @return the measure expression of the instruction without whitespace
+     */
+    public static String getRunKey(Instruction run) {
+        return run.getMeasureExpression().replaceAll("\\s", "");
+    }
+
     
     /**
      * Checks if the plan is empty. Returns true if and only if the instruction
@@ -204,6 +247,9 @@ public class NestedPlan extends Plan {
         clone.setRuntimeCost(this.runtimeCost);
         clone.setSelectivity(this.selectivity);
         clone.setOperator(this.operator);
+        if (this.sharedRuns != null) {
+            clone.setSharedRuns(new HashMap<String, Double>(this.sharedRuns));
+        }
 
         // clone instructionList
         if (this.instructionList != null) {
@@ -32,13 +32,23 @@ public class CanonicalPlanner extends Planner {
      * sets them as subPlans. Then, it assigns to the plan the corresponding
      * command based on the link specification operator and finally creates a
      * filtering instruction using the filtering expression and threshold of the
-     * input link specification.
+     * input link specification. Atomic measures that are run more than once
+     * are recorded as shared runs of the plan (see
+     * {@link Planner#shareRuns(NestedPlan)}).
      *
      * @param spec
      *            Input link specification
      * @return a NestedPlan of the input link specification
      */
     public NestedPlan plan(LinkSpecification spec) {
+        return shareRuns(planSpec(spec));
+    }
+
+    /**
+     * Generates the NestedPlan of a link specification and its children, see
+     * {@link #plan(LinkSpecification)}.
+     */
+    private NestedPlan planSpec(LinkSpecification spec) {
         NestedPlan plan = new NestedPlan();
         // atomic specs are simply ran
         if (spec == null)
@@ -53,7 +63,7 @@ public class CanonicalPlanner extends Planner {
             List<NestedPlan> children = new ArrayList<NestedPlan>();
             // set children
             for (LinkSpecification child : spec.getChildren()) {
-                NestedPlan childPlan = plan(child);
+                NestedPlan childPlan = planSpec(child);
                 children.add(childPlan);
             }
             plan.setSubPlans(children);
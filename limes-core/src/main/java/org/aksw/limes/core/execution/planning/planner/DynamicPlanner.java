@@ -7,6 +7,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 
 import org.aksw.limes.core.datastrutures.LogicOperator;
+import org.aksw.limes.core.execution.planning.cost.CostProfile;
 import org.aksw.limes.core.execution.planning.plan.Instruction;
 import org.aksw.limes.core.execution.planning.plan.NestedPlan;
 import org.aksw.limes.core.io.cache.ACache;
@@ -59,6 +60,11 @@ public class DynamicPlanner extends Planner {
      * specifications.
      */
     private Map<String, LinkSpecification> dependencies = new HashMap<String, LinkSpecification>();
+    /**
+     * Calibrated cost profile of the specifications, null if the costs are
+     * approximated.
+     */
+    private CostProfile calibrated = null;
 
     public DynamicPlanner(ACache s, ACache t) {
         source = s;
@@ -142,9 +148,12 @@ public class DynamicPlanner extends Planner {
     }
 
     /**
-     * Computes atomic costs for a metric expression. If the metric expression
-     * of is not supported by the framework, it throws an
-     * InvalidMeasureException exception.
+     * Computes atomic costs for a metric expression. The calibrated model of
+     * the {@link CostProfile} is used if the profile is calibrated for all
+     * measures of the planned specification, else the approximation of the
+     * mapper. If the metric expression of is
+     * not supported by the framework, it throws an InvalidMeasureException
+     * exception.
      *
      * @param measure
      *            Measure of metric expression
@@ -154,16 +163,21 @@ public class DynamicPlanner extends Planner {
      * 
      */
     public double getAtomicRuntimeCosts(String measure, double threshold) {
-        AMapper mapper = null;
         MeasureType type = MeasureFactory.getMeasureType(measure);
-        mapper = MapperFactory.createMapper(type);
+        if (calibrated != null) {
+            return calibrated.getRuntime(type, threshold, source.size(), target.size());
+        }
+        AMapper mapper = MapperFactory.createMapper(type);
         return mapper.getRuntimeApproximation(source.size(), target.size(), threshold, lang);
     }
 
     /**
-     * Computes atomic mapping sizes for a measure. If the metric expression of
-     * is not supported by the framework, it throws an InvalidMeasureException
-     * exception.
+     * Computes atomic mapping sizes for a measure. The calibrated model of the
+     * {@link CostProfile} is used if the profile is calibrated for all
+     * measures of the planned specification, else the approximation of the
+     * mapper. If the metric
+     * expression of is not supported by the framework, it throws an
+     * InvalidMeasureException exception.
      *
      * @param measure
      *            Measure of metric expression
@@ -173,9 +187,11 @@ public class DynamicPlanner extends Planner {
      * 
      */
     public double getAtomicMappingSizes(String measure, double threshold) {
-        AMapper mapper = null;
         MeasureType type = MeasureFactory.getMeasureType(measure);
-        mapper = MapperFactory.createMapper(type);
+        if (calibrated != null) {
+            return calibrated.getMappingSize(type, threshold, source.size(), target.size());
+        }
+        AMapper mapper = MapperFactory.createMapper(type);
         return mapper.getMappingSizeApproximation(source.size(), target.size(), threshold, lang);
     }
 
@@ -191,8 +207,10 @@ public class DynamicPlanner extends Planner {
     }
 
     /**
-     * Computes costs for a filtering instruction. If the metric expression of
-     * the filtering instruction is not supported by the framework, it throws an
+     * Computes costs for a filtering instruction, using the calibrated filter
+     * costs of the {@link CostProfile} under the same condition as the atomic
+     * costs. If the metric expression of the
+     * filtering instruction is not supported by the framework, it throws an
      * InvalidMeasureException exception.
      *
      * @param measures
@@ -205,9 +223,9 @@ public class DynamicPlanner extends Planner {
         double cost = 0;
         if (measures != null) {
             for (String measure : measures) {
-                double tempCost = 0;
                 MeasureType type = MeasureFactory.getMeasureType(measure);
-                tempCost = MeasureFactory.createMeasure(type).getRuntimeApproximation(mappingSize);
+                double tempCost = calibrated != null ? calibrated.getFilterRuntime(type, mappingSize)
+                        : MeasureFactory.createMeasure(type).getRuntimeApproximation(mappingSize);
                 cost += tempCost;
             }
         }
@@ -269,6 +287,29 @@ public class DynamicPlanner extends Planner {
 
         plans.put(spec.toString(), plan);
         createDependencies(spec);
+        updateEstimations();
+    }
+
+    /**
+     * Re-estimates the costs of the atomic plans that are not executed yet.
+     * The execution engine records each executed RUN instruction in the
+     * {@link CostProfile}, so the estimations improve while the specification
+     * is executed. All plans switch to the calibrated costs at once, as soon
+     * as the profile is calibrated for all atomic specifications.
+     */
+    private void updateEstimations() {
+        calibrated = getCalibratedProfile(getAtomicSpecifications());
+        for (Entry<String, NestedPlan> entry : plans.entrySet()) {
+            NestedPlan plan = entry.getValue();
+            LinkSpecification spec = specifications.get(entry.getKey());
+            if (plan.getExecutionStatus() || spec == null || !spec.isAtomic() || plan.isEmpty()) {
+                continue;
+            }
+            Parser p = new Parser(spec.getFilterExpression(), spec.getThreshold());
+            plan.setRuntimeCost(getAtomicRuntimeCosts(p.getOperator(), spec.getThreshold()));
+            plan.setMappingSize(getAtomicMappingSizes(p.getOperator(), spec.getThreshold()));
+            plan.setSelectivity(plan.getMappingSize() / (double) (source.size() * target.size()));
+        }
     }
 
     /**
@@ -781,7 +822,18 @@ public class DynamicPlanner extends Planner {
         }
         LinkSpecification ls = new ExtendedLinkSpecification(spec.getFullExpression(), spec.getThreshold());
         init(ls);
+        calibrated = getCalibratedProfile(getAtomicSpecifications());
         return ls;
     }
 
+    private List<LinkSpecification> getAtomicSpecifications() {
+        List<LinkSpecification> atomic = new ArrayList<LinkSpecification>();
+        for (LinkSpecification spec : specifications.values()) {
+            if (spec.isAtomic()) {
+                atomic.add(spec);
+            }
+        }
+        return atomic;
+    }
+
 }
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.aksw.limes.core.datastrutures.LogicOperator;
+import org.aksw.limes.core.execution.planning.cost.CostProfile;
 import org.aksw.limes.core.execution.planning.plan.Instruction;
 import org.aksw.limes.core.execution.planning.plan.NestedPlan;
 import org.aksw.limes.core.io.cache.ACache;
@@ -43,6 +44,11 @@ public class HeliosPlanner extends Planner {
      * Language of the source/target data.
      */
     public Language lang;
+    /**
+     * Calibrated cost profile of the planned specification, null if the
+     * costs are approximated.
+     */
+    private CostProfile calibrated = null;
 
     /**
      * Constructor of the Helios planner class.
@@ -59,9 +65,12 @@ public class HeliosPlanner extends Planner {
     }
 
     /**
-     * Computes atomic costs for a metric expression. If the metric expression
-     * of is not supported by the framework, it throws an
-     * InvalidMeasureException exception.
+     * Computes atomic costs for a metric expression. The calibrated model of
+     * the {@link CostProfile} is used if the profile is calibrated for all
+     * measures of the planned specification, else the approximation of the
+     * mapper. If the metric expression of is
+     * not supported by the framework, it throws an InvalidMeasureException
+     * exception.
      *
      * @param measure
      *            Measure of metric expression
@@ -70,18 +79,21 @@ public class HeliosPlanner extends Planner {
      * @return estimated runtime cost of the metric expression
      */
     public double getAtomicRuntimeCosts(String measure, double threshold) {
-
-        AMapper mapper = null;
         MeasureType type = MeasureFactory.getMeasureType(measure);
-        mapper = MapperFactory.createMapper(type);
+        if (calibrated != null) {
+            return calibrated.getRuntime(type, threshold, source.size(), target.size());
+        }
+        AMapper mapper = MapperFactory.createMapper(type);
         return mapper.getRuntimeApproximation(source.size(), target.size(), threshold, lang);
-
     }
 
     /**
-     * Computes atomic mapping sizes for a measure. If the metric expression of
-     * is not supported by the framework, it throws an InvalidMeasureException
-     * exception.
+     * Computes atomic mapping sizes for a measure. The calibrated model of the
+     * {@link CostProfile} is used if the profile is calibrated for all
+     * measures of the planned specification, else the approximation of the
+     * mapper. If the metric
+     * expression of is not supported by the framework, it throws an
+     * InvalidMeasureException exception.
      *
      * @param measure
      *            Measure of metric expression
@@ -90,15 +102,19 @@ public class HeliosPlanner extends Planner {
      * @return estimated size of returned mapping
      */
     public double getAtomicMappingSizes(String measure, double threshold) {
-        AMapper mapper = null;
         MeasureType type = MeasureFactory.getMeasureType(measure);
-        mapper = MapperFactory.createMapper(type);
+        if (calibrated != null) {
+            return calibrated.getMappingSize(type, threshold, source.size(), target.size());
+        }
+        AMapper mapper = MapperFactory.createMapper(type);
         return mapper.getMappingSizeApproximation(source.size(), target.size(), threshold, lang);
     }
 
     /**
-     * Computes costs for a filtering instruction. If the metric expression of
-     * the filtering instruction is not supported by the framework, it throws an
+     * Computes costs for a filtering instruction, using the calibrated filter
+     * costs of the {@link CostProfile} under the same condition as the atomic
+     * costs. If the metric expression of the
+     * filtering instruction is not supported by the framework, it throws an
      * InvalidMeasureException exception.
      *
      * @param measures
@@ -111,9 +127,9 @@ public class HeliosPlanner extends Planner {
         double cost = 0;
         if (measures != null) {
             for (String measure : measures) {
-                double tempCost = 0;
                 MeasureType type = MeasureFactory.getMeasureType(measure);
-                tempCost = MeasureFactory.createMeasure(type).getRuntimeApproximation(mappingSize);
+                double tempCost = calibrated != null ? calibrated.getFilterRuntime(type, mappingSize)
+                        : MeasureFactory.createMeasure(type).getRuntimeApproximation(mappingSize);
                 cost += tempCost;
             }
         }
@@ -121,7 +137,9 @@ public class HeliosPlanner extends Planner {
     }
 
     /**
-     * Generates a NestedPlan for a link specification.
+     * Generates a NestedPlan for a link specification. Atomic measures that
+     * the plan still runs more than once are recorded as shared runs of the
+     * plan (see {@link Planner#shareRuns(NestedPlan)}).
      *
      * @param spec
      *            Input link specification
@@ -129,7 +147,9 @@ public class HeliosPlanner extends Planner {
      */
     @Override
     public NestedPlan plan(LinkSpecification spec) {
-        return plan(spec, source, target, MappingFactory.createDefaultMapping(), MappingFactory.createDefaultMapping());
+        calibrated = spec == null ? null : getCalibratedProfile(spec.getAllLeaves());
+        return shareRuns(plan(spec, source, target, MappingFactory.createDefaultMapping(),
+                MappingFactory.createDefaultMapping()));
     }
 
     /**
@@ -225,7 +245,8 @@ public class HeliosPlanner extends Planner {
                 plan.setRuntimeCost(0);
                 double selectivity = 1d;
                 for (LinkSpecification child : spec.getChildren()) {
-                    NestedPlan childPlan = plan(child);
+                    NestedPlan childPlan = plan(child, this.source, this.target,
+                            MappingFactory.createDefaultMapping(), MappingFactory.createDefaultMapping());
                     children.add(childPlan);
                     plan.setRuntimeCost(plan.getRuntimeCost() + childPlan.getRuntimeCost());
                     selectivity = selectivity * childPlan.getSelectivity();
@@ -1,5 +1,17 @@
 package org.aksw.limes.core.execution.planning.planner;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.aksw.limes.core.execution.planning.cost.CostProfile;
+import org.aksw.limes.core.execution.planning.plan.Instruction;
+import org.aksw.limes.core.execution.planning.plan.NestedPlan;
+import org.aksw.limes.core.io.ls.LinkSpecification;
+import org.aksw.limes.core.io.parser.Parser;
+import org.aksw.limes.core.measures.measure.MeasureFactory;
+
 /**
  * Implements the planner abstract class. It takes as input a link specification
  * and generates a corresponding NestedPlan.
@@ -9,4 +21,83 @@ package org.aksw.limes.core.execution.planning.planner;
  */
 public abstract class Planner implements IPlanner {
 
+    /**
+     * Cost profile of the planner, null for the default profile
+     */
+    private CostProfile costProfile = null;
+
+    /**
+     * Sets the calibrated cost profile of the planner instead of the default
+     * profile (see {@link CostProfile#getDefault()}).
+     *
+     * @param costProfile
+     *            The profile
+     */
+    public void setCostProfile(CostProfile costProfile) {
+        this.costProfile = costProfile;
+    }
+
+    /**
+     * Returns the cost profile to estimate the costs of a plan with. The
+     * calibrated costs are in milliseconds while the approximations of the
+     * mappers and measures have no unit, so both cannot be compared within a
+     * plan. The profile is therefore only used if it is calibrated for each
+     * atomic measure of the plan, else all costs are approximated.
+     *
+     * @param leaves
+     *            The atomic specifications of the plan
+     * @return the profile or null if the costs have to be approximated
+     */
+    protected CostProfile getCalibratedProfile(Collection<LinkSpecification> leaves) {
+        CostProfile profile = costProfile != null ? costProfile : CostProfile.getDefault();
+        if (profile == null) {
+            return null;
+        }
+        for (LinkSpecification leaf : leaves) {
+            if (leaf.isEmpty()) {
+                continue;
+            }
+            Parser p = new Parser(leaf.getFilterExpression(), leaf.getThreshold());
+            if (!profile.isCalibrated(MeasureFactory.getMeasureType(p.getOperator()), leaf.getThreshold())) {
+                return null;
+            }
+        }
+        return profile;
+    }
+
+    /**
+     * Finds the atomic measures that a plan runs more than once, on the same
+     * properties but possibly with different thresholds, and records them
+     * with their lowest threshold as the shared runs of the plan (see
+     * {@link NestedPlan#getSharedRuns()}). Running the lowest threshold is
+     * needed anyway, so sharing it never increases the costs of the plan.
+     *
+     * @param plan
+     *            The root plan of a link specification
+     * @return the plan
+     */
+    public static NestedPlan shareRuns(NestedPlan plan) {
+        if (plan == null || plan.isEmpty()) {
+            return plan;
+        }
+        Map<String, Double> thresholds = new HashMap<String, Double>();
+        Map<String, Integer> runs = new HashMap<String, Integer>();
+        for (Instruction inst : plan.getInstructionList()) {
+            if (inst.getCommand().equals(Instruction.Command.RUN) && inst.getMeasureExpression() != null) {
+                String key = NestedPlan.getRunKey(inst);
+                double threshold = Double.parseDouble(inst.getThreshold());
+                Double min = thresholds.get(key);
+                thresholds.put(key, min == null ? threshold : Math.min(min, threshold));
+                runs.put(key, runs.containsKey(key) ? runs.get(key) + 1 : 1);
+            }
+        }
+        Iterator<String> keys = thresholds.keySet().iterator();
+        while (keys.hasNext()) {
+            if (runs.get(keys.next()) < 2) {
+                keys.remove();
+            }
+        }
+        plan.setSharedRuns(thresholds.isEmpty() ? null : thresholds);
+        return plan;
+    }
 }
@@ -0,0 +1,193 @@
+package org.aksw.limes.core.io.cache;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Instance that stores its properties in two parallel arrays instead of a map
+ * of tree sets: the ids of the properties, interned by the
+ * {@link PropertyDictionary} of its cache, and their values. A single value
+ * is stored inline as a String, several values as a sorted String[]. Both
+ * arrays are replaced rather than modified, so copies and the read-only views
+ * returned by {@link #getProperty(String)} can share them.
+ */
+public class CompactInstance extends Instance {
+
+    private static final long serialVersionUID = 4410961562410870223L;
+
+    private static final int[] NO_IDS = new int[0];
+    private static final Object[] NO_VALUES = new Object[0];
+
+    private final PropertyDictionary dictionary;
+    private int[] ids = NO_IDS;
+    /** String or sorted String[] per entry of ids */
+    private Object[] values = NO_VALUES;
+
+    /**
+     * Constructor
+     *
+     * @param uri
+     *         URI of the instance
+     * @param dictionary
+     *         Dictionary of the property URIs of the cache
+     */
+    public CompactInstance(String uri, PropertyDictionary dictionary) {
+        super(uri, null);
+        this.dictionary = dictionary;
+    }
+
+    private int indexOf(int id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int indexOf(String propUri) {
+        int id = dictionary.lookup(propUri);
+        return id < 0 ? -1 : indexOf(id);
+    }
+
+    private void put(String propUri, Object value) {
+        int id = dictionary.getId(propUri);
+        int i = indexOf(id);
+        if (i < 0) {
+            ids = Arrays.copyOf(ids, ids.length + 1);
+            values = Arrays.copyOf(values, values.length + 1);
+            i = ids.length - 1;
+            ids[i] = id;
+        } else {
+            values = values.clone();
+        }
+        values[i] = value;
+    }
+
+    private static Object merge(Object current, String value) {
+        if (current instanceof String) {
+            int c = value.compareTo((String) current);
+            if (c == 0) {
+                return current;
+            }
+            return c < 0 ? new String[] { value, (String) current } : new String[] { (String) current, value };
+        }
+        String[] array = (String[]) current;
+        int pos = Arrays.binarySearch(array, value);
+        if (pos >= 0) {
+            return current;
+        }
+        pos = -pos - 1;
+        String[] merged = new String[array.length + 1];
+        System.arraycopy(array, 0, merged, 0, pos);
+        merged[pos] = value;
+        System.arraycopy(array, pos, merged, pos + 1, array.length - pos);
+        return merged;
+    }
+
+    private static Object compact(TreeSet<String> values) {
+        if (values.size() == 1) {
+            return values.first();
+        }
+        String[] array = values.toArray(new String[values.size()]);
+        // the set may use another order than the natural one
+        Arrays.sort(array);
+        return array;
+    }
+
+    private static String[] toArray(Object value) {
+        return value instanceof String ? new String[] { (String) value } : (String[]) value;
+    }
+
+    @Override
+    public void addProperty(String propUri, String value) {
+        int i = indexOf(propUri);
+        Object merged = i < 0 ? value : merge(values[i], value);
+        if (i < 0 || merged != values[i]) {
+            put(propUri, merged);
+        }
+    }
+
+    @Override
+    public void addProperty(String propUri, TreeSet<String> values) {
+        int i = indexOf(propUri);
+        if (i < 0) {
+            put(propUri, compact(values));
+        } else {
+            for (String value : values) {
+                addProperty(propUri, value);
+            }
+        }
+    }
+
+    @Override
+    public void replaceProperty(String propUri, TreeSet<String> values) {
+        removePropery(propUri);
+        addProperty(propUri, values);
+    }
+
+    /**
+     * Return all the values for a given property
+     *
+     * @param propUri property URI
+     * @return read-only view of the values associated with this URI, or a new
+     * empty TreeSet if the instance does not have the property
+     */
+    @Override
+    public TreeSet<String> getProperty(String propUri) {
+        int i = indexOf(propUri);
+        if (i < 0) {
+            return new TreeSet<String>();
+        }
+        return new ValueSetView(toArray(values[i]));
+    }
+
+    /**
+     * @return read-only set of the property URIs of this instance
+     */
+    @Override
+    public Set<String> getAllProperties() {
+        Set<String> properties = new LinkedHashSet<String>();
+        for (int id : ids) {
+            properties.add(dictionary.getName(id));
+        }
+        return Collections.unmodifiableSet(properties);
+    }
+
+    @Override
+    public void removePropery(String uri) {
+        int i = indexOf(uri);
+        if (i < 0) {
+            return;
+        }
+        int[] newIds = new int[ids.length - 1];
+        Object[] newValues = new Object[values.length - 1];
+        System.arraycopy(ids, 0, newIds, 0, i);
+        System.arraycopy(ids, i + 1, newIds, i, ids.length - i - 1);
+        System.arraycopy(values, 0, newValues, 0, i);
+        System.arraycopy(values, i + 1, newValues, i, values.length - i - 1);
+        ids = newIds;
+        values = newValues;
+    }
+
+    @Override
+    public Instance copy() {
+        CompactInstance instance = new CompactInstance(getUri(), dictionary);
+        instance.ids = ids;
+        instance.values = values;
+        return instance;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder(getUri());
+        for (int i = 0; i < ids.length; i++) {
+            s.append("; \n").append(dictionary.getName(ids[i])).append(" -> ")
+                    .append(Arrays.toString(toArray(values[i])));
+        }
+        return s.append("; distance = ").append(distance).append("\n").toString();
+    }
+}
@@ -255,7 +255,7 @@ public class HybridCache extends MemoryCache implements Serializable {
             Instance m = instanceMap.get(s);
             m.addProperty(p, o);
         } else {
-            Instance m = new Instance(s);
+            Instance m = createInstance(s);
             m.addProperty(p, o);
             instanceMap.put(s, m);
         }
@@ -42,6 +42,21 @@ public class Instance implements Comparable<Object>, Serializable {
         distance = -1;
     }
 
+    /**
+     * Constructor of subclasses that store the properties in their own
+     * layout and override all accessors of the properties.
+     *
+     * @param _uri
+     *         URI of the instance
+     * @param properties
+     *         Map of the properties, null if the subclass stores them itself
+     */
+    protected Instance(String _uri, HashMap<String, TreeSet<String>> properties) {
+        uri = _uri;
+        this.properties = properties;
+        distance = -1;
+    }
+
     /**
      * Add a new (property, value) pair
      *
@@ -136,7 +151,7 @@ public class Instance implements Comparable<Object>, Serializable {
      * smaller than the distance from the exemplar to o.
      */
     public int compareTo(Object o) {
-        if (!o.getClass().equals(Instance.class))
+        if (!(o instanceof Instance))
             return -1;
         double diff = distance - ((Instance) o).distance;
         if (diff < 0) {
@@ -0,0 +1,250 @@
+package org.aksw.limes.core.io.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fingerprints of the instances of a cache, i.e., a 64-bit hash of all
+ * properties and values per URI. The fingerprints of a run can be written to
+ * a file, so that a later run can determine which instances were added,
+ * removed or changed since then without keeping the old cache.
+ */
+public class InstanceFingerprints {
+
+    private static final int MAGIC = 0x4c494631;
+
+    private final Map<String, Long> fingerprints;
+
+    private InstanceFingerprints(Map<String, Long> fingerprints) {
+        this.fingerprints = fingerprints;
+    }
+
+    /**
+     * Instances added, removed and changed between two states of a cache.
+     */
+    public static class Delta {
+        private final Set<String> added = new HashSet<>();
+        private final Set<String> removed = new HashSet<>();
+        private final Set<String> changed = new HashSet<>();
+
+        /**
+         * @return URIs of the instances that are new
+         */
+        public Set<String> getAdded() {
+            return added;
+        }
+
+        /**
+         * @return URIs of the instances that do not exist anymore
+         */
+        public Set<String> getRemoved() {
+            return removed;
+        }
+
+        /**
+         * @return URIs of the instances whose properties changed
+         */
+        public Set<String> getChanged() {
+            return changed;
+        }
+
+        /**
+         * @return true if the cache did not change
+         */
+        public boolean isEmpty() {
+            return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+        }
+
+        /**
+         * Returns a cache of the added and changed instances, which are the
+         * ones that have to be linked again.
+         *
+         * @param cache
+         *            The current state of the cache
+         * @return a cache holding the added and changed instances
+         */
+        public ACache getModifiedInstances(ACache cache) {
+            ACache modified = new MemoryCache();
+            for (String uri : added) {
+                modified.addInstance(cache.getInstance(uri));
+            }
+            for (String uri : changed) {
+                modified.addInstance(cache.getInstance(uri));
+            }
+            return modified;
+        }
+
+        @Override
+        public String toString() {
+            return added.size() + " added, " + removed.size() + " removed, " + changed.size() + " changed";
+        }
+    }
+
+    /**
+     * @return fingerprints of an empty cache
+     */
+    public static InstanceFingerprints empty() {
+        return new InstanceFingerprints(new HashMap<>());
+    }
+
+    /**
+     * Computes the fingerprints of the instances of a cache.
+     *
+     * @param cache
+     *            The cache
+     * @return the fingerprints
+     */
+    public static InstanceFingerprints of(ACache cache) {
+        Map<String, Long> fingerprints = new HashMap<>();
+        for (Instance instance : cache.getAllInstances()) {
+            fingerprints.put(instance.getUri(), getFingerprint(instance));
+        }
+        return new InstanceFingerprints(fingerprints);
+    }
+
+    /**
+     * Computes a hash of the properties and values of an instance, which
+     * does not depend on the order in which they were added.
+     *
+     * @param instance
+     *            The instance
+     * @return the fingerprint
+     */
+    public static long getFingerprint(Instance instance) {
+        List<String> properties = new ArrayList<>(instance.getAllProperties());
+        Collections.sort(properties);
+        long hash = hash(instance.getUri());
+        for (String property : properties) {
+            hash = mix(hash * 31 + hash(property));
+            // values are sorted
+            for (String value : instance.getProperty(property)) {
+                hash = mix(hash * 31 + hash(value));
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * @return number of instances
+     */
+    public int size() {
+        return fingerprints.size();
+    }
+
+    /**
+     * @param uri
+     *            URI of an instance
+     * @return true if the instance has a fingerprint
+     */
+    public boolean contains(String uri) {
+        return fingerprints.containsKey(uri);
+    }
+
+    /**
+     * Determines the instances that were added, removed or changed since
+     * these fingerprints were taken.
+     *
+     * @param cache
+     *            The current state of the cache
+     * @return the delta
+     */
+    public Delta getDelta(ACache cache) {
+        Delta delta = new Delta();
+        Set<String> current = new HashSet<>();
+        for (Instance instance : cache.getAllInstances()) {
+            String uri = instance.getUri();
+            current.add(uri);
+            Long previous = fingerprints.get(uri);
+            if (previous == null) {
+                delta.added.add(uri);
+            } else if (previous != getFingerprint(instance)) {
+                delta.changed.add(uri);
+            }
+        }
+        for (String uri : fingerprints.keySet()) {
+            if (!current.contains(uri)) {
+                delta.removed.add(uri);
+            }
+        }
+        return delta;
+    }
+
+    /**
+     * Writes the fingerprints to a file.
+     *
+     * @param file
+     *            The file, overwritten if it exists
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public void write(File file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(fingerprints.size());
+            for (Map.Entry<String, Long> e : fingerprints.entrySet()) {
+                byte[] uri = e.getKey().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(uri.length);
+                out.write(uri);
+                out.writeLong(e.getValue());
+            }
+        }
+    }
+
+    /**
+     * Reads fingerprints written by {@link #write(File)}.
+     *
+     * @param file
+     *            The file
+     * @return the fingerprints
+     * @throws IOException
+     *             if the file cannot be read or holds no fingerprints
+     */
+    public static InstanceFingerprints read(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a fingerprint file: " + file);
+            }
+            int size = in.readInt();
+            Map<String, Long> fingerprints = new HashMap<>(Math.max(16, size * 4 / 3 + 1));
+            for (int i = 0; i < size; i++) {
+                byte[] uri = new byte[in.readInt()];
+                in.readFully(uri);
+                fingerprints.put(new String(uri, StandardCharsets.UTF_8), in.readLong());
+            }
+            return new InstanceFingerprints(fingerprints);
+        }
+    }
+
+    private static long hash(String s) {
+        // FNV-1a
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            hash ^= s.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
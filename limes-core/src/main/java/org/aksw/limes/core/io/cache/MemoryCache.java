@@ -37,8 +37,60 @@ public class MemoryCache extends ACache {
     // Iterator for getting next instance
     protected Iterator<Instance> instanceIterator;
 
+    /**
+     * System property that makes new caches store their instances as
+     * {@link CompactInstance}s if set to true
+     */
+    public static final String COMPACT_PROPERTY = "limes.cache.compact";
+
+    // interns the property URIs of compact instances, null for the default layout
+    protected PropertyDictionary dictionary = null;
+
     public MemoryCache() {
         instanceMap = new HashMap<String, Instance>();
+        setCompact(Boolean.getBoolean(COMPACT_PROPERTY));
+    }
+
+    /**
+     * Sets the layout of the instances created by {@link #addTriple} from
+     * now on. Compact instances intern the property URIs per cache and store
+     * their values in arrays, default instances store them in tree sets.
+     * Defaults to the value of the system property {@link #COMPACT_PROPERTY}.
+     *
+     * @param compact
+     *         true for {@link CompactInstance}s
+     */
+    public void setCompact(boolean compact) {
+        if (!compact) {
+            dictionary = null;
+        } else if (dictionary == null) {
+            dictionary = new PropertyDictionary();
+        }
+    }
+
+    /**
+     * @return true if new instances are {@link CompactInstance}s
+     */
+    public boolean isCompact() {
+        return dictionary != null;
+    }
+
+    /**
+     * @param uri
+     *         URI of the instance
+     * @return a new empty instance in the layout of this cache
+     */
+    protected Instance createInstance(String uri) {
+        return dictionary == null ? new Instance(uri) : new CompactInstance(uri, dictionary);
+    }
+
+    /**
+     * @return a new empty cache with the layout of this cache
+     */
+    protected MemoryCache createEmptyCache() {
+        MemoryCache c = new MemoryCache();
+        c.setCompact(isCompact());
+        return c;
     }
 
     /**
@@ -109,7 +161,7 @@ public class MemoryCache extends ACache {
             Instance m = instanceMap.get(s);
             m.addProperty(p, o);
         } else {
-            Instance m = new Instance(s);
+            Instance m = createInstance(s);
             m.addProperty(p, o);
             instanceMap.put(s, m);
         }
@@ -149,7 +201,7 @@ public class MemoryCache extends ACache {
     }
 
     public ACache getSample(int size) {
-        ACache c = new MemoryCache();
+        ACache c = createEmptyCache();
         ArrayList<String> uris = getAllUris();
         while (c.size() < size) {
             int index = (int) Math.floor(Math.random() * size());
@@ -160,7 +212,7 @@ public class MemoryCache extends ACache {
     }
 
     public ACache processData(Map<String, String> propertyMap) {
-        ACache c = new MemoryCache();
+        ACache c = createEmptyCache();
         for (Instance instance : getAllInstances()) {
             String uri = instance.getUri();
             for (String p : instance.getAllProperties()) {
@@ -177,7 +229,7 @@ public class MemoryCache extends ACache {
     }
 
     public ACache addProperty(String sourcePropertyName, String targetPropertyName, String processingChain) {
-        ACache c = new MemoryCache();
+        ACache c = createEmptyCache();
         for (Instance instance : getAllInstances()) {
             String uri = instance.getUri();
             for (String p : instance.getAllProperties()) {
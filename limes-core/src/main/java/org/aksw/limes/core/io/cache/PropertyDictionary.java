@@ -0,0 +1,70 @@
+package org.aksw.limes.core.io.cache;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns the property URIs of a cache to small consecutive ids, so that
+ * {@link CompactInstance}s store an int per property instead of a map entry.
+ * Lookups are lock-free, new ids are assigned under a lock.
+ */
+public class PropertyDictionary implements Serializable {
+
+    private static final long serialVersionUID = 2741920983511043816L;
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[0];
+
+    /**
+     * Returns the id of a property, assigning the next free id to unknown
+     * properties.
+     *
+     * @param propUri
+     *            URI of the property
+     * @return id of the property
+     */
+    public int getId(String propUri) {
+        Integer id = ids.get(propUri);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(propUri);
+            if (id == null) {
+                id = names.length;
+                String[] newNames = Arrays.copyOf(names, id + 1);
+                newNames[id] = propUri;
+                names = newNames;
+                ids.put(propUri, id);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * @param propUri
+     *            URI of the property
+     * @return id of the property, or -1 if it was never interned
+     */
+    public int lookup(String propUri) {
+        Integer id = ids.get(propUri);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @param id
+     *            Id of a property
+     * @return URI of the property
+     */
+    public String getName(int id) {
+        return names[id];
+    }
+
+    /**
+     * @return number of interned properties
+     */
+    public int size() {
+        return names.length;
+    }
+}
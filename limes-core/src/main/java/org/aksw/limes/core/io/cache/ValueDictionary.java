@@ -0,0 +1,89 @@
+package org.aksw.limes.core.io.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Distinct values of a property of a cache. Every value gets a small
+ * consecutive id and knows the URIs of the instances bearing it, so that
+ * mappers compare each value once instead of once per instance and
+ * similarities can be memoized per pair of value ids. The dictionary is a
+ * snapshot: it does not reflect later changes of the cache.
+ */
+public class ValueDictionary {
+
+    private final Map<String, Set<String>> valueToUris = new HashMap<>();
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    /**
+     * Constructor
+     *
+     * @param cache
+     *            Input cache
+     * @param property
+     *            Property whose values are collected
+     */
+    public ValueDictionary(ACache cache, String property) {
+        for (String uri : cache.getAllUris()) {
+            for (String value : cache.getInstance(uri).getProperty(property)) {
+                Set<String> uris = valueToUris.get(value);
+                if (uris == null) {
+                    uris = new HashSet<>();
+                    valueToUris.put(value, uris);
+                    ids.put(value, values.size());
+                    values.add(value);
+                }
+                uris.add(uri);
+            }
+        }
+    }
+
+    /**
+     * @param value
+     *            A value of the property
+     * @return id of the value, or -1 if no instance of the cache bears it
+     */
+    public int getId(String value) {
+        Integer id = ids.get(value);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @param id
+     *            Id of a value
+     * @return the value
+     */
+    public String getValue(int id) {
+        return values.get(id);
+    }
+
+    /**
+     * @param id
+     *            Id of a value
+     * @return URIs of the instances bearing the value
+     */
+    public Set<String> getUris(int id) {
+        return Collections.unmodifiableSet(valueToUris.get(values.get(id)));
+    }
+
+    /**
+     * @return number of distinct values
+     */
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * @return read-only map from the distinct values to the URIs of the
+     *         instances bearing them
+     */
+    public Map<String, Set<String>> getValueToUriMap() {
+        return Collections.unmodifiableMap(valueToUris);
+    }
+}
@@ -0,0 +1,222 @@
+package org.aksw.limes.core.io.cache;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+/**
+ * Read-only view of the sorted values of a property of a
+ * {@link CompactInstance}. It extends TreeSet only to keep the return type of
+ * {@link Instance#getProperty(String)}; the values are kept in a sorted array
+ * and every mutator throws an {@link UnsupportedOperationException}. Subsets
+ * are unmodifiable copies, {@link #clone()} returns a modifiable copy.
+ */
+class ValueSetView extends TreeSet<String> {
+
+    private static final long serialVersionUID = -6029155913164721730L;
+
+    private final String[] values;
+
+    /**
+     * @param values
+     *            Sorted distinct values, not copied
+     */
+    ValueSetView(String[] values) {
+        this.values = values;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof String && Arrays.binarySearch(values, o) >= 0;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < values.length;
+            }
+
+            @Override
+            public String next() {
+                if (next >= values.length) {
+                    throw new NoSuchElementException();
+                }
+                return values[next++];
+            }
+        };
+    }
+
+    @Override
+    public Iterator<String> descendingIterator() {
+        return descendingSet().iterator();
+    }
+
+    @Override
+    public Spliterator<String> spliterator() {
+        return Spliterators.spliterator(values, Spliterator.DISTINCT | Spliterator.SORTED | Spliterator.ORDERED
+                | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+    }
+
+    @Override
+    public String first() {
+        if (values.length == 0) {
+            throw new NoSuchElementException();
+        }
+        return values[0];
+    }
+
+    @Override
+    public String last() {
+        if (values.length == 0) {
+            throw new NoSuchElementException();
+        }
+        return values[values.length - 1];
+    }
+
+    @Override
+    public String lower(String e) {
+        int i = Arrays.binarySearch(values, e);
+        i = i >= 0 ? i - 1 : -i - 2;
+        return i >= 0 ? values[i] : null;
+    }
+
+    @Override
+    public String floor(String e) {
+        int i = Arrays.binarySearch(values, e);
+        i = i >= 0 ? i : -i - 2;
+        return i >= 0 ? values[i] : null;
+    }
+
+    @Override
+    public String ceiling(String e) {
+        int i = Arrays.binarySearch(values, e);
+        i = i >= 0 ? i : -i - 1;
+        return i < values.length ? values[i] : null;
+    }
+
+    @Override
+    public String higher(String e) {
+        int i = Arrays.binarySearch(values, e);
+        i = i >= 0 ? i + 1 : -i - 1;
+        return i < values.length ? values[i] : null;
+    }
+
+    @Override
+    public NavigableSet<String> descendingSet() {
+        return Collections.unmodifiableNavigableSet(copy().descendingSet());
+    }
+
+    @Override
+    public NavigableSet<String> subSet(String fromElement, boolean fromInclusive, String toElement,
+            boolean toInclusive) {
+        return Collections.unmodifiableNavigableSet(copy().subSet(fromElement, fromInclusive, toElement, toInclusive));
+    }
+
+    @Override
+    public NavigableSet<String> headSet(String toElement, boolean inclusive) {
+        return Collections.unmodifiableNavigableSet(copy().headSet(toElement, inclusive));
+    }
+
+    @Override
+    public NavigableSet<String> tailSet(String fromElement, boolean inclusive) {
+        return Collections.unmodifiableNavigableSet(copy().tailSet(fromElement, inclusive));
+    }
+
+    @Override
+    public SortedSet<String> subSet(String fromElement, String toElement) {
+        return subSet(fromElement, true, toElement, false);
+    }
+
+    @Override
+    public SortedSet<String> headSet(String toElement) {
+        return headSet(toElement, false);
+    }
+
+    @Override
+    public SortedSet<String> tailSet(String fromElement) {
+        return tailSet(fromElement, true);
+    }
+
+    @Override
+    public Object clone() {
+        return copy();
+    }
+
+    @Override
+    public boolean add(String e) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends String> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super String> filter) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String pollFirst() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String pollLast() {
+        throw new UnsupportedOperationException();
+    }
+
+    private TreeSet<String> copy() {
+        return new TreeSet<String>(Arrays.asList(values));
+    }
+
+    /**
+     * Serializes the view as a plain TreeSet.
+     */
+    private Object writeReplace() {
+        return copy();
+    }
+}
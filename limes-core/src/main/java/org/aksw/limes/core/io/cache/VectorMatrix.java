@@ -0,0 +1,328 @@
+package org.aksw.limes.core.io.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.aksw.limes.core.io.mapping.AtomicMappingStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Dense matrix of float vectors stored off-heap, together with the URI of the
+ * instance each row belongs to. Rows are stored in direct buffers of at most
+ * {@link #CHUNK_BYTES} bytes each, so that matrices with millions of rows
+ * neither exceed the capacity of a single buffer nor put pressure on the
+ * garbage collector.
+ * <p>
+ * Matrices can be registered for a property of a cache (e.g., by the
+ * {@link org.aksw.limes.core.io.query.VectorQueryModule}) so that mappers can
+ * reuse them instead of parsing the string values of the cache again.
+ */
+public class VectorMatrix {
+    private static final Logger logger = LoggerFactory.getLogger(VectorMatrix.class);
+
+    /**
+     * Maximal size of a single off-heap chunk
+     */
+    public static final int CHUNK_BYTES = 1 << 22;
+    /**
+     * Matrices built for smaller caches are not registered
+     */
+    private static final int MIN_REGISTERED_ROWS = 1024;
+
+    private static final Map<ACache, Map<String, VectorMatrix>> registry = new WeakHashMap<>();
+
+    private final int dimensions;
+    private final int rowsPerChunk;
+    private final List<FloatBuffer> chunks = new ArrayList<>();
+    private final Map<String, Integer> rows = new HashMap<>();
+    private String[] uris = new String[16];
+    private float[] norms = new float[16];
+    private int size = 0;
+    /** fingerprint of the property in the cache the matrix was registered for */
+    private long registeredFingerprint;
+
+    /**
+     * Constructor
+     *
+     * @param dimensions
+     *            Number of dimensions of the vectors
+     * @param expectedRows
+     *            Expected number of rows, used to size the first chunk
+     */
+    public VectorMatrix(int dimensions, int expectedRows) {
+        if (dimensions <= 0) {
+            throw new IllegalArgumentException("Vectors must have at least one dimension.");
+        }
+        this.dimensions = dimensions;
+        this.rowsPerChunk = Math.max(1, CHUNK_BYTES / (4 * dimensions));
+        chunks.add(allocate(Math.max(1, Math.min(rowsPerChunk, expectedRows))));
+    }
+
+    private FloatBuffer allocate(int rowCount) {
+        return ByteBuffer.allocateDirect(rowCount * dimensions * 4).order(ByteOrder.nativeOrder()).asFloatBuffer();
+    }
+
+    /**
+     * Appends a vector to the matrix.
+     *
+     * @param uri
+     *            URI of the instance the vector belongs to
+     * @param vector
+     *            The vector
+     * @return true if the vector was added, false if it has the wrong number
+     *         of dimensions or the URI already owns a row
+     */
+    public boolean add(String uri, float[] vector) {
+        if (vector.length != dimensions || rows.containsKey(uri)) {
+            return false;
+        }
+        int chunk = size / rowsPerChunk;
+        int offset = (size % rowsPerChunk) * dimensions;
+        if (chunk == chunks.size()) {
+            chunks.add(allocate(rowsPerChunk));
+        } else if (offset == chunks.get(chunk).capacity()) {
+            // only the first chunk may be smaller than rowsPerChunk
+            FloatBuffer grown = allocate(Math.min(rowsPerChunk, size * 2));
+            FloatBuffer old = chunks.get(chunk);
+            old.rewind();
+            grown.put(old);
+            chunks.set(chunk, grown);
+        }
+        FloatBuffer buffer = chunks.get(chunk);
+        double norm = 0;
+        for (int d = 0; d < dimensions; d++) {
+            buffer.put(offset + d, vector[d]);
+            norm += vector[d] * vector[d];
+        }
+        if (size == uris.length) {
+            uris = Arrays.copyOf(uris, size * 2);
+            norms = Arrays.copyOf(norms, size * 2);
+        }
+        uris[size] = uri;
+        norms[size] = (float) Math.sqrt(norm);
+        rows.put(uri, size);
+        size++;
+        return true;
+    }
+
+    /**
+     * @return the number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of dimensions
+     */
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * @param row
+     *            Row index
+     * @return the URI of the row
+     */
+    public String getUri(int row) {
+        return uris[row];
+    }
+
+    /**
+     * @param uri
+     *            URI of an instance
+     * @return the row of the instance or -1 if it has no vector
+     */
+    public int getRow(String uri) {
+        Integer row = rows.get(uri);
+        return row == null ? -1 : row;
+    }
+
+    /**
+     * @param row
+     *            Row index
+     * @return the Euclidean norm of the row
+     */
+    public float getNorm(int row) {
+        return norms[row];
+    }
+
+    /**
+     * Copies a row into an array.
+     *
+     * @param row
+     *            Row index
+     * @param vector
+     *            Array of at least {@link #getDimensions()} floats
+     */
+    public void copyRow(int row, float[] vector) {
+        FloatBuffer buffer = chunks.get(row / rowsPerChunk);
+        int offset = (row % rowsPerChunk) * dimensions;
+        for (int d = 0; d < dimensions; d++) {
+            vector[d] = buffer.get(offset + d);
+        }
+    }
+
+    /**
+     * Computes the dot product of a row and a vector. The loop is unrolled
+     * with independent accumulators so that the JIT can vectorize it.
+     *
+     * @param row
+     *            Row index
+     * @param vector
+     *            Vector with {@link #getDimensions()} entries
+     * @return the dot product
+     */
+    public float dot(int row, float[] vector) {
+        FloatBuffer buffer = chunks.get(row / rowsPerChunk);
+        int offset = (row % rowsPerChunk) * dimensions;
+        float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int d = 0;
+        for (; d + 3 < dimensions; d += 4) {
+            s0 += buffer.get(offset + d) * vector[d];
+            s1 += buffer.get(offset + d + 1) * vector[d + 1];
+            s2 += buffer.get(offset + d + 2) * vector[d + 2];
+            s3 += buffer.get(offset + d + 3) * vector[d + 3];
+        }
+        for (; d < dimensions; d++) {
+            s0 += buffer.get(offset + d) * vector[d];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    /**
+     * Computes the squared Euclidean distance between a row and a vector.
+     *
+     * @param row
+     *            Row index
+     * @param vector
+     *            Vector with {@link #getDimensions()} entries
+     * @return the squared distance
+     */
+    public float squaredDistance(int row, float[] vector) {
+        FloatBuffer buffer = chunks.get(row / rowsPerChunk);
+        int offset = (row % rowsPerChunk) * dimensions;
+        float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int d = 0;
+        for (; d + 3 < dimensions; d += 4) {
+            float d0 = buffer.get(offset + d) - vector[d];
+            float d1 = buffer.get(offset + d + 1) - vector[d + 1];
+            float d2 = buffer.get(offset + d + 2) - vector[d + 2];
+            float d3 = buffer.get(offset + d + 3) - vector[d + 3];
+            s0 += d0 * d0;
+            s1 += d1 * d1;
+            s2 += d2 * d2;
+            s3 += d3 * d3;
+        }
+        for (; d < dimensions; d++) {
+            float d0 = buffer.get(offset + d) - vector[d];
+            s0 += d0 * d0;
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    /**
+     * Parses a vector. Components may be separated by whitespace, commas,
+     * semicolons or pipes and the vector may be enclosed in brackets.
+     *
+     * @param value
+     *            String representation of the vector
+     * @return the vector or null if the value is not a vector
+     */
+    public static float[] parse(String value) {
+        String s = value.trim();
+        if (s.startsWith("[") || s.startsWith("(")) {
+            s = s.substring(1);
+        }
+        if (s.endsWith("]") || s.endsWith(")")) {
+            s = s.substring(0, s.length() - 1);
+        }
+        s = s.trim();
+        if (s.isEmpty()) {
+            return null;
+        }
+        String[] split = s.split("[\\s,;|]+");
+        float[] vector = new float[split.length];
+        try {
+            for (int i = 0; i < split.length; i++) {
+                vector[i] = Float.parseFloat(split[i]);
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return vector;
+    }
+
+    /**
+     * Registers a matrix for a property of a cache. The registration lives as
+     * long as the cache and is only used while the values of the property do
+     * not change.
+     *
+     * @param cache
+     *            Cache the vectors were read into
+     * @param property
+     *            Property holding the vectors
+     * @param matrix
+     *            The matrix
+     */
+    public static synchronized void register(ACache cache, String property, VectorMatrix matrix) {
+        Map<String, VectorMatrix> matrices = registry.get(cache);
+        if (matrices == null) {
+            matrices = new HashMap<>();
+            registry.put(cache, matrices);
+        }
+        matrix.registeredFingerprint = AtomicMappingStore.getFingerprint(cache, property);
+        matrices.put(property, matrix);
+    }
+
+    /**
+     * Returns the matrix of a property of a cache. If none is registered or
+     * the URIs or values of the property changed since, compared by their
+     * {@link AtomicMappingStore#getFingerprint(ACache, String)}, the string values of the property are parsed
+     * once. The first value of each instance that is a vector with the same
+     * number of dimensions as the first vector found is used.
+     *
+     * @param cache
+     *            Input cache
+     * @param property
+     *            Property holding the vectors
+     * @return the matrix or null if the cache contains no vector
+     */
+    public static VectorMatrix forCache(ACache cache, String property) {
+        synchronized (VectorMatrix.class) {
+            Map<String, VectorMatrix> matrices = registry.get(cache);
+            if (matrices != null && matrices.containsKey(property) && matrices.get(property).registeredFingerprint
+                    == AtomicMappingStore.getFingerprint(cache, property)) {
+                return matrices.get(property);
+            }
+        }
+        VectorMatrix matrix = null;
+        for (String uri : cache.getAllUris()) {
+            for (String value : cache.getInstance(uri).getProperty(property)) {
+                float[] vector = parse(value);
+                if (vector == null) {
+                    continue;
+                }
+                if (matrix == null) {
+                    matrix = new VectorMatrix(vector.length, cache.size());
+                }
+                if (matrix.add(uri, vector)) {
+                    break;
+                }
+                logger.warn("Vector of " + uri + " does not have " + matrix.getDimensions() + " dimensions.");
+            }
+        }
+        if (matrix != null && matrix.size() >= MIN_REGISTERED_ROWS) {
+            register(cache, property, matrix);
+        }
+        return matrix;
+    }
+}
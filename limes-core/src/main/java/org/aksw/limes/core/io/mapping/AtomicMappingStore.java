@@ -0,0 +1,380 @@
+package org.aksw.limes.core.io.mapping;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.parser.Parser;
+import org.aksw.limes.core.measures.mapper.IMapper;
+import org.aksw.limes.core.measures.mapper.MapperFactory;
+import org.aksw.limes.core.measures.mapper.pointsets.PropertyFetcher;
+import org.aksw.limes.core.measures.measure.MeasureFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * On-disk store of the mappings of atomic measures that is shared across
+ * runs. An entry is keyed by the measure, the settings of its mapper, the
+ * source and target properties and fingerprints of the values of these
+ * properties in the source and target cache, so that any change of the data,
+ * of its preprocessing or of the mapper yields a new key. Only the result with the lowest threshold computed so far is kept per
+ * key; requests with a higher threshold are served by filtering it.
+ * <p>
+ * Each entry is a gzipped binary file holding a table of the target URIs and
+ * the links of each source URI as (target index, similarity). When the store
+ * exceeds its maximal size, the least recently used entries are deleted. The
+ * most recently read entries are additionally kept in memory.
+ * <p>
+ * The default store used by the execution engines is enabled by setting the
+ * system property {@link #STORE_PROPERTY} to a folder. Its maximal size in MB
+ * can be set with {@link #SIZE_PROPERTY}.
+ */
+public class AtomicMappingStore {
+    private static final Logger logger = LoggerFactory.getLogger(AtomicMappingStore.class);
+
+    /**
+     * System property holding the folder of the default store
+     */
+    public static final String STORE_PROPERTY = "limes.mappingStore";
+    /**
+     * System property holding the maximal size of the default store in MB
+     */
+    public static final String SIZE_PROPERTY = "limes.mappingStore.maxSize";
+    /**
+     * Default maximal size of a store in bytes
+     */
+    public static final long DEFAULT_MAX_SIZE = 1L << 30;
+
+    private static final int MAGIC = 0x4c4d5331;
+    private static final String SUFFIX = ".map";
+    private static final int MEMORY_ENTRIES = 8;
+
+    private static AtomicMappingStore defaultStore = null;
+    private static boolean defaultInitialized = false;
+
+    private final File folder;
+    private final long maxSize;
+    private final Map<String, StoredMapping> recent = new LinkedHashMap<String, StoredMapping>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, StoredMapping> eldest) {
+            return size() > MEMORY_ENTRIES;
+        }
+    };
+
+    /**
+     * Constructor
+     *
+     * @param folder
+     *            Folder holding the entries, created if needed
+     * @param maxSize
+     *            Maximal size of all entries in bytes
+     */
+    public AtomicMappingStore(File folder, long maxSize) {
+        this.folder = folder;
+        this.maxSize = maxSize;
+        folder.mkdirs();
+    }
+
+    /**
+     * @return the store configured with {@link #STORE_PROPERTY} or null if
+     *         the property is not set
+     */
+    public static synchronized AtomicMappingStore getDefault() {
+        if (!defaultInitialized) {
+            String path = System.getProperty(STORE_PROPERTY);
+            if (path != null && !path.isEmpty()) {
+                long maxSize = DEFAULT_MAX_SIZE;
+                if (System.getProperty(SIZE_PROPERTY) != null) {
+                    maxSize = Long.parseLong(System.getProperty(SIZE_PROPERTY)) << 20;
+                }
+                defaultStore = new AtomicMappingStore(new File(path), maxSize);
+            }
+            defaultInitialized = true;
+        }
+        return defaultStore;
+    }
+
+    /**
+     * Computes the key of an atomic measure expression executed by the
+     * default mapper of its measure.
+     *
+     * @param expression
+     *            Atomic measure expression, e.g., trigram(x.name, y.label)
+     * @param threshold
+     *            Threshold, only used for parsing
+     * @param source
+     *            Source cache
+     * @param target
+     *            Target cache
+     * @return the key
+     */
+    public static String getKey(String expression, double threshold, ACache source, ACache target) {
+        return getKey(expression, threshold, source, target,
+                MapperFactory.createMapper(MeasureFactory.getMeasureType(expression)));
+    }
+
+    /**
+     * Computes the key of an atomic measure expression.
+     *
+     * @param expression
+     *            Atomic measure expression, e.g., trigram(x.name, y.label)
+     * @param threshold
+     *            Threshold, only used for parsing
+     * @param source
+     *            Source cache
+     * @param target
+     *            Target cache
+     * @param mapper
+     *            Mapper executing the expression
+     * @return the key
+     */
+    public static String getKey(String expression, double threshold, ACache source, ACache target, IMapper mapper) {
+        Parser p = new Parser(expression, threshold);
+        List<String> properties = PropertyFetcher.getProperties(expression, threshold);
+        return p.getOperator().toLowerCase() + "\t" + mapper.getName() + "(" + mapper.getParameters() + ")\t"
+                + properties.get(0) + "\t" + properties.get(1) + "\t"
+                + Long.toHexString(getFingerprint(source, properties.get(0))) + "\t"
+                + Long.toHexString(getFingerprint(target, properties.get(1)));
+    }
+
+    /**
+     * Computes an order-independent hash of the URIs of a cache and their
+     * values of a property. Properties of point set measures (e.g., lat|long)
+     * are split. The fingerprint is computed from the current content of the
+     * cache on each call, as instances can be changed in place; this is cheap
+     * compared to the mapping it identifies.
+     *
+     * @param cache
+     *            The cache
+     * @param property
+     *            The property
+     * @return the fingerprint
+     */
+    public static long getFingerprint(ACache cache, String property) {
+        String[] properties = property.split("\\|");
+        long fingerprint = cache.size();
+        for (String uri : cache.getAllUris()) {
+            long hash = hash(uri);
+            for (String p : properties) {
+                hash = mix(hash * 31 + 1);
+                // values are sorted
+                for (String value : cache.getInstance(uri).getProperty(p)) {
+                    hash = mix(hash * 31 + hash(value));
+                }
+            }
+            fingerprint += mix(hash);
+        }
+        return fingerprint;
+    }
+
+    private static long hash(String s) {
+        // FNV-1a
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            hash ^= s.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private File getFile(String key) {
+        return new File(folder, Long.toHexString(hash(key)) + SUFFIX);
+    }
+
+    /**
+     * Returns the mapping of a key for a threshold if the stored result was
+     * computed with at most this threshold.
+     *
+     * @param key
+     *            Key of the atomic measure
+     * @param threshold
+     *            Requested threshold
+     * @return the links of the stored result whose similarity is at least the
+     *         threshold or null if there is no such result
+     */
+    public synchronized AMapping get(String key, double threshold) {
+        StoredMapping stored = recent.get(key);
+        File file = getFile(key);
+        if (stored == null && file.exists()) {
+            try {
+                stored = read(file, key);
+                if (stored != null) {
+                    recent.put(key, stored);
+                }
+            } catch (IOException e) {
+                logger.warn("Could not read stored mapping " + file + ": " + e.getMessage());
+            }
+        }
+        if (stored == null || stored.threshold > threshold) {
+            return null;
+        }
+        file.setLastModified(System.currentTimeMillis());
+        AMapping result = MappingFactory.createDefaultMapping();
+        for (Map.Entry<String, HashMap<String, Double>> links : stored.mapping.getMap().entrySet()) {
+            for (Map.Entry<String, Double> link : links.getValue().entrySet()) {
+                if (link.getValue() >= threshold) {
+                    result.add(links.getKey(), link.getKey(), link.getValue());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Stores the mapping of a key unless a result with a lower or equal
+     * threshold is stored already.
+     *
+     * @param key
+     *            Key of the atomic measure
+     * @param threshold
+     *            Threshold the mapping was computed with
+     * @param mapping
+     *            The mapping
+     */
+    public synchronized void put(String key, double threshold, AMapping mapping) {
+        File file = getFile(key);
+        StoredMapping stored = recent.get(key);
+        try {
+            if (stored == null && file.exists()) {
+                stored = read(file, key);
+            }
+            if (stored != null && stored.threshold <= threshold) {
+                return;
+            }
+            recent.remove(key);
+            File tmp = new File(folder, file.getName() + ".tmp");
+            write(tmp, key, threshold, mapping);
+            if (!tmp.renameTo(file)) {
+                file.delete();
+                if (!tmp.renameTo(file)) {
+                    throw new IOException("Could not rename " + tmp);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not store mapping " + file + ": " + e.getMessage());
+            return;
+        }
+        evict();
+    }
+
+    /**
+     * Deletes the least recently used entries until the store fits into its
+     * maximal size.
+     */
+    private void evict() {
+        File[] files = folder.listFiles((dir, name) -> name.endsWith(SUFFIX));
+        if (files == null) {
+            return;
+        }
+        long size = 0;
+        for (File file : files) {
+            size += file.length();
+        }
+        if (size <= maxSize) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (int i = 0; i < files.length && size > maxSize; i++) {
+            size -= files[i].length();
+            files[i].delete();
+        }
+        recent.clear();
+    }
+
+    private static void write(File file, String key, double threshold, AMapping mapping) throws IOException {
+        Map<String, Integer> targets = new LinkedHashMap<>();
+        for (HashMap<String, Double> links : mapping.getMap().values()) {
+            for (String target : links.keySet()) {
+                if (!targets.containsKey(target)) {
+                    targets.put(target, targets.size());
+                }
+            }
+        }
+        try (DataOutputStream out = new DataOutputStream(
+                new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(file))))) {
+            out.writeInt(MAGIC);
+            out.writeUTF(key);
+            out.writeDouble(threshold);
+            out.writeInt(targets.size());
+            for (String target : targets.keySet()) {
+                out.writeUTF(target);
+            }
+            out.writeInt(mapping.getMap().size());
+            for (Map.Entry<String, HashMap<String, Double>> links : mapping.getMap().entrySet()) {
+                out.writeUTF(links.getKey());
+                out.writeInt(links.getValue().size());
+                for (Map.Entry<String, Double> link : links.getValue().entrySet()) {
+                    out.writeInt(targets.get(link.getKey()));
+                    out.writeDouble(link.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the stored mapping or null if the file belongs to another key
+     */
+    private static StoredMapping read(File file, String key) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new GZIPInputStream(new BufferedInputStream(new FileInputStream(file))))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a stored mapping");
+            }
+            if (!in.readUTF().equals(key)) {
+                // hash collision
+                return null;
+            }
+            double threshold = in.readDouble();
+            String[] targets = new String[in.readInt()];
+            for (int i = 0; i < targets.length; i++) {
+                targets[i] = in.readUTF();
+            }
+            AMapping mapping = MappingFactory.createDefaultMapping();
+            int sources = in.readInt();
+            for (int s = 0; s < sources; s++) {
+                String source = in.readUTF();
+                int links = in.readInt();
+                for (int l = 0; l < links; l++) {
+                    String target = targets[in.readInt()];
+                    mapping.add(source, target, in.readDouble());
+                }
+            }
+            return new StoredMapping(threshold, mapping);
+        }
+    }
+
+    private static class StoredMapping {
+        final double threshold;
+        final AMapping mapping;
+
+        StoredMapping(double threshold, AMapping mapping) {
+            this.threshold = threshold;
+            this.mapping = mapping;
+        }
+    }
+}
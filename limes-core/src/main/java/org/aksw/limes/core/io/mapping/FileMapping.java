@@ -1,72 +1,644 @@
 package org.aksw.limes.core.io.mapping;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 /**
+ * Mapping that can be spilled to disk. Until {@link #spill(File)} is called,
+ * it behaves like a {@link MemoryMapping}. Once spilled, its links are only
+ * kept in a run on disk, sorted by source and target URI, and the mapping is
+ * loaded back into memory when its links are accessed through
+ * {@link #getMap()} or any of the lookup methods. {@link #size()} and
+ * {@link #getSubMap(double)} as well as {@link #cursor(AMapping)} read the run
+ * without loading it, so that set operators can merge spilled mappings with a
+ * sorted merge. The run is deleted once the mapping is loaded back or
+ * {@link #delete()} is called; runs are not registered for deletion on exit,
+ * so their owner has to release them. Two mappings are equal if they hold the
+ * same links, whether they are spilled or not.
+ *
  * @author Mohamed Sherif {@literal <}sherif {@literal @} informatik.uni-leipzig.de{@literal >}
  * @version Nov 12, 2015
  */
 public class FileMapping extends AMapping {
 
-	/**
-	 * 
-	 */
-	private static final long serialVersionUID = -6896787320093743557L;
-	public HashMap<String, HashMap<String, Double>> map;
+    /**
+     *
+     */
+    private static final long serialVersionUID = -6896787320093743557L;
 
-    public int getNumberofMappings() {
-        // TODO Auto-generated method stub
-        return 0;
+    private static final int MAGIC = 0x4c52554e;
+    private static final byte END = 0;
+    private static final byte SOURCE = 1;
+    private static final byte TARGET = 2;
+    /** Estimated bytes of a string besides its characters */
+    private static final long STRING_BYTES = 64;
+
+    /** sorted run holding the links while the mapping is spilled */
+    private File file = null;
+
+    public FileMapping() {
+        super();
     }
 
-    public FileMapping reverseSourceTarget() {
-        // TODO Auto-generated method stub
-        return null;
+    /**
+     * Spills a mapping to a sorted run in the given folder. A spilled
+     * {@link FileMapping} is returned as is, any other mapping is left
+     * unchanged and copied to a new {@link FileMapping}.
+     *
+     * @param mapping
+     *            The mapping
+     * @param folder
+     *            Folder of the run, or null for the default temporary folder
+     * @return the spilled mapping
+     */
+    public static FileMapping spill(AMapping mapping, File folder) {
+        if (mapping instanceof FileMapping) {
+            ((FileMapping) mapping).spill(folder);
+            return (FileMapping) mapping;
+        }
+        try (Writer writer = writer(folder); Cursor links = cursor(mapping)) {
+            while (links.next()) {
+                writer.add(links.getSource(), links.getTarget(), links.getSimilarity());
+            }
+            FileMapping spilled = writer.finish();
+            spilled.setPredicate(mapping.getPredicate());
+            return spilled;
+        }
     }
 
-    public int size() {
-        // TODO Auto-generated method stub
-        return 0;
+    /**
+     * Writes the links of this mapping to a sorted run in the given folder and
+     * drops them from memory.
+     *
+     * @param folder
+     *            Folder of the run, or null for the default temporary folder
+     */
+    public void spill(File folder) {
+        if (isSpilled()) {
+            return;
+        }
+        try (Writer writer = writer(folder); Cursor links = cursor(this)) {
+            while (links.next()) {
+                writer.add(links.getSource(), links.getTarget(), links.getSimilarity());
+            }
+            file = writer.finish().file;
+        }
+        map = null;
     }
 
-    public void add(String key, String value, Double double1) {
-        // TODO Auto-generated method stub
+    /**
+     * @param mapping
+     *            A mapping
+     * @return true if the mapping is a {@link FileMapping} whose links are
+     *         only on disk
+     */
+    public static boolean isSpilled(AMapping mapping) {
+        return mapping instanceof FileMapping && ((FileMapping) mapping).isSpilled();
+    }
 
+    /**
+     * @return true if the links of this mapping are only on disk
+     */
+    public boolean isSpilled() {
+        return map == null;
     }
 
-    public void add(String key, HashMap<String, Double> hashMap) {
-        // TODO Auto-generated method stub
+    /**
+     * @return the run of this mapping, or null if it is not spilled
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @return the estimated size of the links in memory in bytes, or 0 if the
+     *         mapping is spilled
+     */
+    public long getEstimatedSize() {
+        return isSpilled() ? 0 : estimateSize(map);
+    }
+
+    /**
+     * Deletes the run of a mapping that is no longer needed. A spilled mapping
+     * is empty afterwards.
+     */
+    public void delete() {
+        if (isSpilled()) {
+            map = new HashMap<>();
+            size = 0;
+        }
+        dropFile();
+    }
+
+    /**
+     * @param mapping
+     *            A mapping
+     * @return the estimated size of the links of the mapping in memory in
+     *         bytes
+     */
+    public static long estimateSize(AMapping mapping) {
+        if (mapping instanceof FileMapping) {
+            return ((FileMapping) mapping).getEstimatedSize();
+        }
+        return estimateSize(mapping.getMap());
+    }
+
+    private static long estimateSize(Map<String, HashMap<String, Double>> map) {
+        long size = 0;
+        for (Map.Entry<String, HashMap<String, Double>> links : map.entrySet()) {
+            size += STRING_BYTES + 2 * links.getKey().length();
+            for (String target : links.getValue().keySet()) {
+                size += 2 * STRING_BYTES + 2 * target.length();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Pushes all links of this mapping into a sink, reading them from the run
+     * if the mapping is spilled.
+     *
+     * @param sink
+     *            Receiver of the links
+     */
+    public void forEachLink(LinkSink sink) {
+        if (!isSpilled()) {
+            for (Map.Entry<String, HashMap<String, Double>> links : map.entrySet()) {
+                for (Map.Entry<String, Double> link : links.getValue().entrySet()) {
+                    sink.add(links.getKey(), link.getKey(), link.getValue());
+                }
+            }
+            return;
+        }
+        try (Cursor links = cursor(this)) {
+            while (links.next()) {
+                sink.add(links.getSource(), links.getTarget(), links.getSimilarity());
+            }
+        }
+    }
+
+    /**
+     * Opens a cursor over the links of a mapping sorted by source and target
+     * URI. The links of a spilled {@link FileMapping} are read from its run.
+     *
+     * @param mapping
+     *            The mapping
+     * @return the cursor, which has to be closed
+     */
+    public static Cursor cursor(AMapping mapping) {
+        if (isSpilled(mapping)) {
+            return new FileCursor(((FileMapping) mapping).file);
+        }
+        return new MemoryCursor(mapping.getMap());
+    }
 
+    /**
+     * Opens a writer for a new run. The links have to be added sorted by
+     * source and target URI without duplicates, e.g., as returned by
+     * {@link #cursor(AMapping)}.
+     *
+     * @param folder
+     *            Folder of the run, or null for the default temporary folder
+     * @return the writer, which has to be closed
+     */
+    public static Writer writer(File folder) {
+        return new Writer(folder);
+    }
+
+    @Override
+    public HashMap<String, HashMap<String, Double>> getMap() {
+        load();
+        return map;
+    }
+
+    @Override
+    public void setMap(HashMap<String, HashMap<String, Double>> map) {
+        dropFile();
+        this.map = map;
+    }
+
+    @Override
+    public int getNumberofMappings() {
+        if (isSpilled()) {
+            return size;
+        }
+        int n = 0;
+        for (HashMap<String, Double> links : map.values()) {
+            n += links.size();
+        }
+        return n;
+    }
+
+    @Override
+    public AMapping reverseSourceTarget() {
+        AMapping m = MappingFactory.createDefaultMapping();
+        forEachLink((s, t, sim) -> m.add(t, s, sim));
+        return m;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void add(String key, HashMap<String, Double> hashMap) {
+        for (Map.Entry<String, Double> link : hashMap.entrySet()) {
+            add(key, link.getKey(), link.getValue());
+        }
     }
 
+    @Override
     public double getConfidence(String key, String value) {
-        // TODO Auto-generated method stub
-        return 0.0d;
+        HashMap<String, Double> links = getMap().get(key);
+        if (links != null && links.containsKey(value)) {
+            return links.get(value);
+        }
+        return 0;
     }
 
+    /**
+     * Adds a link, keeping the higher similarity if the mapping already
+     * contains the pair. A spilled mapping is loaded first.
+     */
     @Override
     public void add(String key, String value, double sim) {
-        // TODO Auto-generated method stub
-
+        load();
+        HashMap<String, Double> links = map.get(key);
+        if (links == null) {
+            links = new HashMap<>();
+            map.put(key, links);
+        }
+        Double old = links.get(value);
+        if (old == null) {
+            links.put(value, sim);
+            size++;
+        } else if (sim > old) {
+            links.put(value, sim);
+        }
     }
 
     @Override
     public boolean contains(String key, String value) {
-        // TODO Auto-generated method stub
-        return false;
+        HashMap<String, Double> links = getMap().get(key);
+        return links != null && links.containsKey(value);
     }
 
     @Override
     public AMapping getBestOneToNMapping() {
-        // TODO Auto-generated method stub
-        return null;
+        AMapping result = MappingFactory.createDefaultMapping();
+        for (Map.Entry<String, HashMap<String, Double>> links : getMap().entrySet()) {
+            double max = 0;
+            for (double sim : links.getValue().values()) {
+                max = Math.max(max, sim);
+            }
+            for (Map.Entry<String, Double> link : links.getValue().entrySet()) {
+                if (link.getValue() == max) {
+                    result.add(links.getKey(), link.getKey(), max);
+                }
+            }
+        }
+        return result;
     }
 
     @Override
     public AMapping getSubMap(double threshold) {
-        // TODO Auto-generated method stub
-        return null;
+        AMapping m = MappingFactory.createDefaultMapping();
+        forEachLink((s, t, sim) -> {
+            if (sim >= threshold) {
+                m.add(s, t, sim);
+            }
+        });
+        return m;
+    }
+
+    @Override
+    public String toString() {
+        return (isSpilled() ? "spilled " : "") + size + " links" + (file != null ? " in " + file : "");
+    }
+
+    /**
+     * Compares the links and the predicate of two mappings. Spilled mappings
+     * are compared by merging their runs without loading them.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        FileMapping other = (FileMapping) obj;
+        if (!Objects.equals(predicate, other.predicate)
+                || getNumberofMappings() != other.getNumberofMappings()) {
+            return false;
+        }
+        if (!isSpilled() && !other.isSpilled()) {
+            return map.equals(other.map);
+        }
+        try (Cursor a = cursor(this); Cursor b = cursor(other)) {
+            while (a.next()) {
+                if (!b.next() || a.compareTo(b) != 0
+                        || Double.compare(a.getSimilarity(), b.getSimilarity()) != 0) {
+                    return false;
+                }
+            }
+            return !b.next();
+        }
+    }
+
+    /**
+     * Hash of the links and the predicate, computed from the run if the
+     * mapping is spilled, which equals the one of the loaded mapping.
+     */
+    @Override
+    public int hashCode() {
+        int links = 0;
+        if (!isSpilled()) {
+            links = map.hashCode();
+        } else {
+            try (Cursor cursor = cursor(this)) {
+                // same as the hash code of the map of the loaded mapping
+                String source = null;
+                int targets = 0;
+                while (cursor.next()) {
+                    if (!cursor.getSource().equals(source)) {
+                        if (source != null) {
+                            links += source.hashCode() ^ targets;
+                        }
+                        source = cursor.getSource();
+                        targets = 0;
+                    }
+                    targets += cursor.getTarget().hashCode() ^ Double.hashCode(cursor.getSimilarity());
+                }
+                if (source != null) {
+                    links += source.hashCode() ^ targets;
+                }
+            }
+        }
+        return 31 * (31 + links) + (predicate == null ? 0 : predicate.hashCode());
+    }
+
+    private void load() {
+        if (!isSpilled()) {
+            return;
+        }
+        HashMap<String, HashMap<String, Double>> links = new HashMap<>();
+        try (Cursor cursor = cursor(this)) {
+            HashMap<String, Double> targets = null;
+            String source = null;
+            while (cursor.next()) {
+                if (!cursor.getSource().equals(source)) {
+                    source = cursor.getSource();
+                    targets = new HashMap<>();
+                    links.put(source, targets);
+                }
+                targets.put(cursor.getTarget(), cursor.getSimilarity());
+            }
+        }
+        map = links;
+        dropFile();
+    }
+
+    private void dropFile() {
+        if (file != null) {
+            file.delete();
+            file = null;
+        }
+    }
+
+    /**
+     * Cursor over links sorted by source and target URI.
+     */
+    public static abstract class Cursor implements Closeable {
+        protected String source = null;
+        protected String target = null;
+        protected double similarity = 0;
+
+        /**
+         * Moves to the next link.
+         *
+         * @return false if there is no further link
+         */
+        public abstract boolean next();
+
+        /**
+         * @return the source URI of the current link
+         */
+        public String getSource() {
+            return source;
+        }
+
+        /**
+         * @return the target URI of the current link
+         */
+        public String getTarget() {
+            return target;
+        }
+
+        /**
+         * @return the similarity of the current link
+         */
+        public double getSimilarity() {
+            return similarity;
+        }
+
+        /**
+         * @param other
+         *            Another cursor
+         * @return the order of the current links of this and the other cursor
+         */
+        public int compareTo(Cursor other) {
+            int c = source.compareTo(other.source);
+            return c != 0 ? c : target.compareTo(other.target);
+        }
+
+        @Override
+        public void close() {
+        }
     }
 
+    private static class MemoryCursor extends Cursor {
+        private final Map<String, HashMap<String, Double>> map;
+        private final Iterator<String> sources;
+        private Iterator<String> targets = Collections.emptyIterator();
+        private HashMap<String, Double> links = null;
 
+        MemoryCursor(Map<String, HashMap<String, Double>> map) {
+            this.map = map;
+            this.sources = sorted(map.keySet()).iterator();
+        }
+
+        @Override
+        public boolean next() {
+            while (!targets.hasNext()) {
+                if (!sources.hasNext()) {
+                    return false;
+                }
+                source = sources.next();
+                links = map.get(source);
+                targets = sorted(links.keySet()).iterator();
+            }
+            target = targets.next();
+            similarity = links.get(target);
+            return true;
+        }
+
+        private static List<String> sorted(Set<String> keys) {
+            List<String> list = new ArrayList<>(keys);
+            Collections.sort(list);
+            return list;
+        }
+    }
+
+    private static class FileCursor extends Cursor {
+        private final DataInputStream in;
+        private boolean done = false;
+
+        FileCursor(File file) {
+            try {
+                in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+                if (in.readInt() != MAGIC) {
+                    in.close();
+                    throw new IOException("Not a mapping run");
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Could not read " + file, e);
+            }
+        }
+
+        @Override
+        public boolean next() {
+            if (done) {
+                return false;
+            }
+            try {
+                byte type = in.readByte();
+                if (type == END) {
+                    done = true;
+                    return false;
+                }
+                if (type == SOURCE) {
+                    source = readString(in);
+                }
+                target = readString(in);
+                similarity = in.readDouble();
+                return true;
+            } catch (IOException e) {
+                throw new RuntimeException("Could not read mapping run", e);
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                in.close();
+            } catch (IOException e) {
+                // nothing left to read
+            }
+        }
+    }
+
+    /**
+     * Writer of a sorted run, see {@link FileMapping#writer(File)}.
+     */
+    public static class Writer implements LinkSink, Closeable {
+        private final File file;
+        private final DataOutputStream out;
+        private String source = null;
+        private int size = 0;
+        private boolean finished = false;
+
+        private Writer(File folder) {
+            try {
+                file = File.createTempFile("limes-", ".run", folder);
+                out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+                out.writeInt(MAGIC);
+            } catch (IOException e) {
+                throw new RuntimeException("Could not create a mapping run in " + folder, e);
+            }
+        }
+
+        @Override
+        public void add(String source, String target, double similarity) {
+            try {
+                if (source.equals(this.source)) {
+                    out.writeByte(TARGET);
+                } else {
+                    out.writeByte(SOURCE);
+                    writeString(out, source);
+                    this.source = source;
+                }
+                writeString(out, target);
+                out.writeDouble(similarity);
+                size++;
+            } catch (IOException e) {
+                throw new RuntimeException("Could not write " + file, e);
+            }
+        }
+
+        /**
+         * Completes the run.
+         *
+         * @return the spilled mapping backed by the run
+         */
+        public FileMapping finish() {
+            try {
+                out.writeByte(END);
+                out.close();
+            } catch (IOException e) {
+                throw new RuntimeException("Could not write " + file, e);
+            }
+            finished = true;
+            FileMapping m = new FileMapping();
+            m.file = file;
+            m.size = size;
+            m.map = null;
+            return m;
+        }
+
+        /**
+         * Deletes the run unless it was completed.
+         */
+        @Override
+        public void close() {
+            if (!finished) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    // the run is deleted anyway
+                }
+                file.delete();
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
 }
@@ -0,0 +1,45 @@
+package org.aksw.limes.core.io.mapping;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Receiver of links that are pushed one at a time, e.g., by a mapper, so that
+ * they can be filtered on the fly instead of being collected in a mapping
+ * first. A mapping is a sink itself via {@code mapping::add}. A sink is only
+ * called from one thread at a time and may receive the same pair more than
+ * once, in which case the highest similarity counts like in
+ * {@link AMapping#add(String, String, double)}.
+ */
+@FunctionalInterface
+public interface LinkSink {
+
+    /**
+     * @param source
+     *            URI of the source resource
+     * @param target
+     *            URI of the target resource
+     * @param similarity
+     *            Similarity of the link
+     */
+    void add(String source, String target, double similarity);
+
+    /**
+     * Pushes all links of a mapping into this sink. The links of a spilled
+     * {@link FileMapping} are read from disk without loading the mapping.
+     *
+     * @param mapping
+     *            The mapping
+     */
+    default void addAll(AMapping mapping) {
+        if (mapping instanceof FileMapping) {
+            ((FileMapping) mapping).forEachLink(this);
+            return;
+        }
+        for (Map.Entry<String, HashMap<String, Double>> links : mapping.getMap().entrySet()) {
+            for (Map.Entry<String, Double> link : links.getValue().entrySet()) {
+                add(links.getKey(), link.getKey(), link.getValue());
+            }
+        }
+    }
+}
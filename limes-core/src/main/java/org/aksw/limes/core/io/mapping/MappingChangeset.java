@@ -0,0 +1,105 @@
+package org.aksw.limes.core.io.mapping;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Links added to and deleted from a mapping between two runs. A link whose
+ * similarity changed is deleted with its old and added with its new
+ * similarity, so that the changeset of the links within a similarity range
+ * is obtained by restricting both parts to that range.
+ */
+public class MappingChangeset {
+
+    private final AMapping additions;
+    private final AMapping deletions;
+
+    /**
+     * Constructor
+     *
+     * @param additions
+     *            Links that are new or changed their similarity
+     * @param deletions
+     *            Links that were retracted or changed their similarity
+     */
+    public MappingChangeset(AMapping additions, AMapping deletions) {
+        this.additions = additions;
+        this.deletions = deletions;
+    }
+
+    /**
+     * Computes the changeset between two mappings.
+     *
+     * @param previous
+     *            The previous mapping
+     * @param current
+     *            The current mapping
+     * @return the links of current that are not in previous as additions and
+     *         the links of previous that are not in current as deletions
+     */
+    public static MappingChangeset of(AMapping previous, AMapping current) {
+        return new MappingChangeset(minus(current, previous), minus(previous, current));
+    }
+
+    private static AMapping minus(AMapping a, AMapping b) {
+        AMapping result = MappingFactory.createDefaultMapping();
+        for (Map.Entry<String, HashMap<String, Double>> links : a.getMap().entrySet()) {
+            HashMap<String, Double> other = b.getMap().get(links.getKey());
+            for (Map.Entry<String, Double> link : links.getValue().entrySet()) {
+                Double similarity = other == null ? null : other.get(link.getKey());
+                if (similarity == null || similarity.doubleValue() != link.getValue().doubleValue()) {
+                    result.add(links.getKey(), link.getKey(), link.getValue());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Restricts the changeset to the links whose similarity lies within a
+     * range.
+     *
+     * @param minSimilarity
+     *            Lowest similarity of the links
+     * @param maxSimilarity
+     *            Similarity above those of the links
+     * @return the changeset of the links within the range
+     */
+    public MappingChangeset getSubChangeset(double minSimilarity, double maxSimilarity) {
+        return new MappingChangeset(range(additions, minSimilarity, maxSimilarity),
+                range(deletions, minSimilarity, maxSimilarity));
+    }
+
+    private static AMapping range(AMapping mapping, double min, double max) {
+        AMapping result = MappingFactory.createDefaultMapping();
+        for (Map.Entry<String, HashMap<String, Double>> links : mapping.getMap().entrySet()) {
+            for (Map.Entry<String, Double> link : links.getValue().entrySet()) {
+                if (link.getValue() >= min && link.getValue() < max) {
+                    result.add(links.getKey(), link.getKey(), link.getValue());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the added links
+     */
+    public AMapping getAdditions() {
+        return additions;
+    }
+
+    /**
+     * @return the deleted links
+     */
+    public AMapping getDeletions() {
+        return deletions;
+    }
+
+    /**
+     * @return true if no link was added or deleted
+     */
+    public boolean isEmpty() {
+        return additions.size() == 0 && deletions.size() == 0;
+    }
+}
@@ -0,0 +1,365 @@
+package org.aksw.limes.core.io.mapping;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Indexed on-disk store of the links of a mapping, from which pages of links
+ * can be read without loading the mapping. The links are stored sorted by
+ * descending similarity (ties by source and target URI) and followed by two
+ * indexes holding the offsets of the links in this order and in the order of
+ * their source URIs.
+ * <p>
+ * A page of the links within a similarity range is read from a contiguous
+ * part of the file found by binary search. A page of the links of the source
+ * URIs starting with a prefix is collected from the range of the source
+ * index found by binary search, keeping the best links of the page in a heap,
+ * so that the memory needed is bounded by the offset and the size of the
+ * page. Reads use positional reads of a {@link FileChannel}, hence an open
+ * store can be queried by several threads.
+ */
+public class ResultStore implements Closeable {
+
+    private static final int MAGIC = 0x4c525331;
+    /** magic, number of links, offsets of the two indexes */
+    private static final int HEADER = 4 + 8 + 8 + 8;
+    private static final int BUFFER = 1 << 16;
+
+    /**
+     * Link read from a store.
+     */
+    public static class Link {
+        private final String source;
+        private final String target;
+        private final double similarity;
+
+        private Link(String source, String target, double similarity) {
+            this.source = source;
+            this.target = target;
+            this.similarity = similarity;
+        }
+
+        /**
+         * @return the source URI
+         */
+        public String getSource() {
+            return source;
+        }
+
+        /**
+         * @return the target URI
+         */
+        public String getTarget() {
+            return target;
+        }
+
+        /**
+         * @return the similarity
+         */
+        public double getSimilarity() {
+            return similarity;
+        }
+    }
+
+    /** descending similarity, ties by source and target URI */
+    private static final Comparator<Link> ORDER = (a, b) -> {
+        int c = Double.compare(b.similarity, a.similarity);
+        if (c == 0) {
+            c = a.source.compareTo(b.source);
+        }
+        return c != 0 ? c : a.target.compareTo(b.target);
+    };
+
+    private final File file;
+    private final FileChannel channel;
+    private final long size;
+    private final long similarityIndex;
+    private final long sourceIndex;
+
+    private ResultStore(File file) throws IOException {
+        this.file = file;
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            ByteBuffer header = read(0, HEADER);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a result store: " + file);
+            }
+            size = header.getLong();
+            similarityIndex = header.getLong();
+            sourceIndex = header.getLong();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the links of a mapping to a new store.
+     *
+     * @param mapping
+     *            The mapping
+     * @param file
+     *            File of the store, overwritten if it exists
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public static void write(AMapping mapping, File file) throws IOException {
+        List<Link> links = new ArrayList<>();
+        for (Map.Entry<String, HashMap<String, Double>> e : mapping.getMap().entrySet()) {
+            for (Map.Entry<String, Double> link : e.getValue().entrySet()) {
+                links.add(new Link(e.getKey(), link.getKey(), link.getValue()));
+            }
+        }
+        links.sort(ORDER);
+        long[] offsets = new long[links.size()];
+        long position = HEADER;
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file), BUFFER))) {
+            out.write(new byte[HEADER]);
+            for (int i = 0; i < links.size(); i++) {
+                Link link = links.get(i);
+                byte[] source = link.source.getBytes(StandardCharsets.UTF_8);
+                byte[] target = link.target.getBytes(StandardCharsets.UTF_8);
+                offsets[i] = position;
+                out.writeDouble(link.similarity);
+                out.writeInt(source.length);
+                out.writeInt(target.length);
+                out.write(source);
+                out.write(target);
+                position += 16 + source.length + target.length;
+            }
+            for (long offset : offsets) {
+                out.writeLong(offset);
+            }
+            // the sort is stable, so the links of a source stay sorted by
+            // descending similarity
+            Integer[] bySource = new Integer[links.size()];
+            for (int i = 0; i < bySource.length; i++) {
+                bySource[i] = i;
+            }
+            Arrays.sort(bySource, Comparator.comparing(i -> links.get(i).source));
+            for (int i : bySource) {
+                out.writeLong(offsets[i]);
+            }
+        }
+        try (RandomAccessFile header = new RandomAccessFile(file, "rw")) {
+            header.writeInt(MAGIC);
+            header.writeLong(links.size());
+            header.writeLong(position);
+            header.writeLong(position + 8L * links.size());
+        }
+    }
+
+    /**
+     * Opens a store for reading.
+     *
+     * @param file
+     *            File of the store
+     * @return the open store
+     * @throws IOException
+     *             if the file is not a store
+     */
+    public static ResultStore open(File file) throws IOException {
+        return new ResultStore(file);
+    }
+
+    /**
+     * @return number of links in the store
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Reads a page of the links whose source URI starts with a prefix and
+     * whose similarity lies within a range, sorted by descending similarity.
+     *
+     * @param sourcePrefix
+     *            Prefix of the source URIs, or null for all links
+     * @param minSimilarity
+     *            Lowest similarity of the links
+     * @param maxSimilarity
+     *            Highest similarity of the links
+     * @param offset
+     *            Number of matching links to skip
+     * @param limit
+     *            Maximal number of links of the page
+     * @param sink
+     *            Receiver of the links of the page
+     * @return the number of all matching links
+     * @throws IOException
+     *             if the store cannot be read
+     */
+    public long query(String sourcePrefix, double minSimilarity, double maxSimilarity, long offset, int limit,
+            LinkSink sink) throws IOException {
+        if (sourcePrefix == null || sourcePrefix.isEmpty()) {
+            return queryBySimilarity(minSimilarity, maxSimilarity, offset, limit, sink);
+        }
+        return queryBySource(sourcePrefix, minSimilarity, maxSimilarity, offset, limit, sink);
+    }
+
+    /**
+     * Pushes all links of the store into a sink, sorted by descending
+     * similarity.
+     *
+     * @param sink
+     *            Receiver of the links
+     * @throws IOException
+     *             if the store cannot be read
+     */
+    public void forEachLink(LinkSink sink) throws IOException {
+        Reader reader = new Reader(HEADER, BUFFER);
+        for (long i = 0; i < size; i++) {
+            Link link = reader.next();
+            sink.add(link.source, link.target, link.similarity);
+        }
+    }
+
+    private long queryBySimilarity(double min, double max, long offset, int limit, LinkSink sink)
+            throws IOException {
+        long from = search(similarityIndex, link -> link.similarity <= max);
+        long to = search(similarityIndex, link -> link.similarity < min);
+        long first = from + Math.max(0, offset);
+        if (first < to && limit > 0) {
+            // the links of a similarity range are stored contiguously
+            Reader reader = new Reader(offsetAt(similarityIndex, first), BUFFER);
+            for (long i = first; i < Math.min(to, first + limit); i++) {
+                Link link = reader.next();
+                sink.add(link.source, link.target, link.similarity);
+            }
+        }
+        return Math.max(0, to - from);
+    }
+
+    private long queryBySource(String prefix, double min, double max, long offset, int limit, LinkSink sink)
+            throws IOException {
+        long from = search(sourceIndex, link -> link.source.compareTo(prefix) >= 0);
+        long to = search(sourceIndex, link -> link.source.compareTo(prefix) > 0 && !link.source.startsWith(prefix));
+        long capacity = Math.min(Integer.MAX_VALUE - 1, Math.max(0, offset) + Math.max(0, limit));
+        // worst link of the page first
+        PriorityQueue<Link> page = new PriorityQueue<>(ORDER.reversed());
+        long total = 0;
+        for (long i = from; i < to; i++) {
+            Link link = readAt(offsetAt(sourceIndex, i));
+            if (link.similarity < min || link.similarity > max) {
+                continue;
+            }
+            total++;
+            if (page.size() < capacity) {
+                page.add(link);
+            } else if (capacity > 0 && ORDER.compare(link, page.peek()) < 0) {
+                page.poll();
+                page.add(link);
+            }
+        }
+        List<Link> links = new ArrayList<>(page);
+        links.sort(ORDER);
+        for (long i = Math.max(0, offset); i < links.size(); i++) {
+            Link link = links.get((int) i);
+            sink.add(link.source, link.target, link.similarity);
+        }
+        return total;
+    }
+
+    private interface LinkPredicate {
+        boolean test(Link link) throws IOException;
+    }
+
+    /**
+     * @return the first position of the index whose link satisfies a
+     *         predicate that is monotone in the order of the index
+     */
+    private long search(long index, LinkPredicate predicate) throws IOException {
+        long low = 0;
+        long high = size;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (predicate.test(readAt(offsetAt(index, mid)))) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private long offsetAt(long index, long i) throws IOException {
+        return read(index + 8 * i, 8).getLong();
+    }
+
+    private Link readAt(long offset) throws IOException {
+        return new Reader(offset, 256).next();
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of " + file);
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Sequential reader of the links starting at an offset, reading the file
+     * in chunks.
+     */
+    private class Reader {
+        private final int chunk;
+        /** position of the end of the buffer in the file */
+        private long position;
+        private ByteBuffer buffer = ByteBuffer.allocate(0);
+
+        private Reader(long position, int chunk) {
+            this.position = position;
+            this.chunk = chunk;
+        }
+
+        private void ensure(int length) throws IOException {
+            if (buffer.remaining() >= length) {
+                return;
+            }
+            long start = position - buffer.remaining();
+            int n = (int) Math.max(length, Math.min(chunk, similarityIndex - start));
+            buffer = read(start, n);
+            position = start + n;
+        }
+
+        private Link next() throws IOException {
+            ensure(16);
+            double similarity = buffer.getDouble();
+            int sourceLength = buffer.getInt();
+            int targetLength = buffer.getInt();
+            ensure(sourceLength + targetLength);
+            String source = new String(buffer.array(), buffer.position(), sourceLength, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + sourceLength);
+            String target = new String(buffer.array(), buffer.position(), targetLength, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + targetLength);
+            return new Link(source, target, similarity);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
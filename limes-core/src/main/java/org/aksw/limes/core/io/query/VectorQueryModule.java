@@ -2,9 +2,9 @@ package org.aksw.limes.core.io.query;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
-import java.util.ArrayList;
 
 import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.VectorMatrix;
 import org.aksw.limes.core.io.config.KBInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,8 +13,10 @@ import org.slf4j.MarkerFactory;
 /**
  * This class reads vectors contained in a text file so as to enable LIMES to
  * compute the similarity of the entities described by these vectors efficiently.
- * The file format is assumed to be URI\tVector. The vector itself is read by the
- * metrics of the metric factory for maximum flexibility.
+ * The file format is assumed to be URI\tVector. The vectors are stored as
+ * property values and additionally read into a {@link VectorMatrix} that is
+ * registered for the cache, so that the vector mappers do not need to parse
+ * them again.
  *
  * @author Axel-C. Ngonga Ngomo (ngonga@informatik.uni-leipzig.de)
  * @author Mohamed Sherif (sherif@informatik.uni-leipzig.de)
@@ -58,16 +60,34 @@ public class VectorQueryModule implements IQueryModule {
             //to be used. In general, we assume that vectors can only be compared
             //with other vectors.
 
-            ArrayList<String> properties = new ArrayList<String>();
-            properties.add(kb.getProperties().get(0));
+            String property = kb.getProperties().get(0);
+            VectorMatrix matrix = null;
             while (s != null) {
-                if (s.contains(SEP)) {
-                    uri = s.substring(1, s.indexOf(SEP) - 1);
-                    c.addTriple(uri, properties.get(0), s.substring(s.indexOf(SEP)));
+                int separator = s.indexOf(SEP);
+                if (separator > 0) {
+                    uri = s.substring(0, separator).trim();
+                    if (uri.startsWith("<") && uri.endsWith(">")) {
+                        uri = uri.substring(1, uri.length() - 1);
+                    }
+                    String value = s.substring(separator + 1).trim();
+                    c.addTriple(uri, property, value);
+                    float[] vector = VectorMatrix.parse(value);
+                    if (vector != null) {
+                        if (matrix == null) {
+                            matrix = new VectorMatrix(vector.length, 1024);
+                        }
+                        if (!matrix.add(uri, vector)) {
+                            logger.warn("Ignoring vector of " + uri + " for the vector matrix.");
+                        }
+                    }
                 }
                 s = reader.readLine();
             }
             reader.close();
+            if (matrix != null) {
+                VectorMatrix.register(c, property, matrix);
+                logger.info("Read " + matrix.size() + " vectors with " + matrix.getDimensions() + " dimensions");
+            }
             logger.info("Retrieved " + c.size() + " statements");
         } catch (Exception e) {
             logger.error(MarkerFactory.getMarker("FATAL"),"Exception:" + e.getMessage());
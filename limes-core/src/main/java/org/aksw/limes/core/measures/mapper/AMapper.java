@@ -5,10 +5,14 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.aksw.limes.core.execution.ExecutionContext;
 import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.ValueDictionary;
 import org.aksw.limes.core.io.mapping.AMapping;
 import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.aksw.limes.core.measures.measure.ValueIndex;
 
 /**
  * Implements the mapper abstract class.
@@ -19,6 +23,55 @@ import org.aksw.limes.core.io.mapping.MappingFactory;
  */
 public abstract class AMapper implements IMapper {
 
+    /** compared pairs, -1 until the mapper counts them */
+    private final AtomicLong candidates = new AtomicLong(-1);
+    /** context checked by the loops of the mapper */
+    protected ExecutionContext context = ExecutionContext.NONE;
+    /** value index of the run, or null */
+    protected ValueIndex values = null;
+
+    @Override
+    public void setContext(ExecutionContext context) {
+        this.context = context;
+    }
+
+    @Override
+    public void setValueIndex(ValueIndex values) {
+        this.values = values;
+    }
+
+    /**
+     * Checks the context every 1024 steps of the main loop of a mapper and
+     * reports the progress of the loop.
+     *
+     * @param step
+     *            Current step of the loop
+     * @param steps
+     *            Number of steps of the loop
+     */
+    protected void checkpoint(int step, int steps) {
+        if ((step & 1023) == 0) {
+            context.checkpoint();
+            context.progress((double) step / steps);
+        }
+    }
+
+    /**
+     * Adds compared pairs to the candidate count of the mapper.
+     *
+     * @param pairs
+     *            Number of pairs whose similarity was computed
+     */
+    protected void countCandidates(long pairs) {
+        candidates.compareAndSet(-1, 0);
+        candidates.addAndGet(pairs);
+    }
+
+    @Override
+    public long getCandidateCount() {
+        return candidates.get();
+    }
+
     /**
      * Helper method, re-factored from common setup code of Mappers.
      *
@@ -27,9 +80,13 @@ public abstract class AMapper implements IMapper {
      * @param property,
      *            Input linking property
      * @return reversed Map from literal values to resource uris for a specified
-     *         property
+     *         property, read-only if it is shared through the value index
      */
     protected Map<String, Set<String>> getValueToUriMap(ACache cache, String property) {
+        ValueDictionary dictionary = values == null ? null : values.getDictionary(cache, property);
+        if (dictionary != null) {
+            return dictionary.getValueToUriMap();
+        }
         Map<String, Set<String>> result = new HashMap<>();
         List<String> uris = cache.getAllUris();
         for (String uri : uris) {
@@ -79,4 +136,27 @@ public abstract class AMapper implements IMapper {
         return getUriToUriMapping(valueMap, sourceValueToUriMap, targetValueToUriMap, false);
     }
 
+    /**
+     * Computes the mappings of a series of thresholds by running the mapper
+     * once with the lowest one.
+     *
+     * @param source
+     *            Source cache
+     * @param target
+     *            Target cache
+     * @param sourceVar
+     *            Variable for the source dataset
+     * @param targetVar
+     *            Variable for the target dataset
+     * @param expression
+     *            Expression to process.
+     * @param lowestThreshold
+     *            Lowest threshold of the series
+     * @return the sweep from which the mapping of each threshold can be cut
+     */
+    public ThresholdSweep getThresholdSweep(ACache source, ACache target, String sourceVar, String targetVar,
+            String expression, double lowestThreshold) {
+        return new ThresholdSweep(getMapping(source, target, sourceVar, targetVar, expression, lowestThreshold));
+    }
+
 }
@@ -1,7 +1,10 @@
 package org.aksw.limes.core.measures.mapper;
 
+import org.aksw.limes.core.execution.ExecutionContext;
 import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.LinkSink;
+import org.aksw.limes.core.measures.measure.ValueIndex;
 
 /**
  * Implements the mapper interface.
@@ -32,7 +35,32 @@ public interface IMapper {
     AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
             double threshold);
 
-    ;
+    /**
+     * Pushes the links of the mapping given a source, a target knowledge base
+     * and a link specification into a sink, so that they can be processed
+     * without materializing the mapping. Mappers that produce their links
+     * incrementally override this method, the default implementation pushes
+     * the links of {@link #getMapping(ACache, ACache, String, String, String, double)}.
+     *
+     * @param source
+     *            source cache
+     * @param target
+     *            target cache
+     * @param sourceVar
+     *            source property variable
+     * @param targetVar
+     *            size property variable
+     * @param expression
+     *            metric expression of link specification
+     * @param threshold
+     *            threshold of link specification
+     * @param sink
+     *            receiver of the links
+     */
+    default void getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
+            double threshold, LinkSink sink) {
+        sink.addAll(getMapping(source, target, sourceVar, targetVar, expression, threshold));
+    }
 
     /**
      * Returns the estimated time needed to obtain the mapping computed by the
@@ -65,6 +93,53 @@ public interface IMapper {
      */
     double getMappingSizeApproximation(int sourceSize, int targetSize, double theta, Language language);
 
+    /**
+     * Returns the number of pairs whose similarity the mapper computed since
+     * it was created, i.e., the candidates that survived its blocking.
+     *
+     * @return number of compared pairs, or -1 if the mapper does not count
+     *         them
+     */
+    default long getCandidateCount() {
+        return -1;
+    }
+
+    /**
+     * Sets the context of the next computations of the mapper. Mappers with
+     * long loops check it periodically, so that the computation can be
+     * cancelled, and report their progress to it. The default
+     * implementation ignores the context.
+     *
+     * @param context
+     *            The execution context
+     */
+    default void setContext(ExecutionContext context) {
+    }
+
+    /**
+     * Sets the value index of the run. Mappers that compare distinct values
+     * take the values of the source and target cache of the index from its
+     * dictionaries instead of collecting them again. The default
+     * implementation ignores the index.
+     *
+     * @param values
+     *            Value index of the run, or null for none
+     */
+    default void setValueIndex(ValueIndex values) {
+    }
+
+    /**
+     * Returns the settings of the mapper other than the measure and the
+     * threshold that its mapping depends on, e.g., the recall of an
+     * approximate mapper. Stored mappings are only reused by mappers with the
+     * same settings. The default implementation returns an empty string.
+     *
+     * @return the settings of the mapper
+     */
+    default String getParameters() {
+        return "";
+    }
+
     /**
      * Returns the name of the mapper.
      *
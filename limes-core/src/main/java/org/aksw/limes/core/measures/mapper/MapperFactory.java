@@ -1,14 +1,17 @@
 package org.aksw.limes.core.measures.mapper;
 
 import org.aksw.limes.core.exceptions.InvalidMeasureException;
+import org.aksw.limes.core.measures.mapper.numeric.NumericRangeMapper;
 import org.aksw.limes.core.measures.mapper.pointsets.OrchidMapper;
 import org.aksw.limes.core.measures.mapper.pointsets.SymmetricHausdorffMapper;
 import org.aksw.limes.core.measures.mapper.resourcesets.SetJaccardMapper;
 import org.aksw.limes.core.measures.mapper.space.HR3Mapper;
+import org.aksw.limes.core.measures.mapper.space.VectorMapper;
 import org.aksw.limes.core.measures.mapper.string.EDJoinMapper;
 import org.aksw.limes.core.measures.mapper.string.ExactMatchMapper;
 import org.aksw.limes.core.measures.mapper.string.JaroMapper;
 import org.aksw.limes.core.measures.mapper.string.JaroWinklerMapper;
+import org.aksw.limes.core.measures.mapper.string.MinHashLSHMapper;
 import org.aksw.limes.core.measures.mapper.string.MongeElkanMapper;
 import org.aksw.limes.core.measures.mapper.string.PPJoinPlusPlus;
 import org.aksw.limes.core.measures.mapper.string.RatcliffObershelpMapper;
@@ -75,6 +78,9 @@ public class MapperFactory {
         case TRIGRAM:
         case JACCARD:
             return new PPJoinPlusPlus();
+        case APPROX_JACCARD:
+        case APPROX_TRIGRAM:
+            return new MinHashLSHMapper();
         case LEVENSHTEIN:
             return new EDJoinMapper();
         case EXACTMATCH:
@@ -90,6 +96,12 @@ public class MapperFactory {
             return new HR3Mapper();
         case MANHATTAN:
             return new HR3Mapper();
+        case VECTOR_COSINE:
+        case VECTOR_EUCLIDEAN:
+            return new VectorMapper();
+        case NUMERIC_ABSOLUTE:
+        case NUMERIC_RELATIVE:
+            return new NumericRangeMapper();
         case GEO_ORTHODROMIC:
         case GEO_GREAT_ELLIPTIC:
             ///////////////////////
@@ -1,6 +1,9 @@
 package org.aksw.limes.core.measures.mapper;
 
+import java.io.File;
+
 import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.FileMapping;
 import org.aksw.limes.core.io.mapping.MappingFactory;
 /**
  * Implements the mapping operations abstract class.
@@ -10,8 +13,14 @@ import org.aksw.limes.core.io.mapping.MappingFactory;
  */
 public class MappingOperations {
 
+    private static final int DIFFERENCE = 0;
+    private static final int INTERSECTION = 1;
+    private static final int UNION = 2;
+
     /**
-     * Computes the difference of two mappings.
+     * Computes the difference of two mappings. If one of the mappings is a
+     * spilled {@link FileMapping}, the result is merged from the sorted links
+     * of both and spilled as well.
      *
      * @param map1
      *            First mapping
@@ -20,6 +29,9 @@ public class MappingOperations {
      * @return map1 \ map2
      */
     public static AMapping difference(AMapping map1, AMapping map2) {
+        if (FileMapping.isSpilled(map1) || FileMapping.isSpilled(map2)) {
+            return merge(map1, map2, DIFFERENCE);
+        }
         AMapping map = MappingFactory.createDefaultMapping();
         
         // go through all the keys in map1
@@ -43,7 +55,8 @@ public class MappingOperations {
 
     /**
      * Computes the intersection of two mappings. In case an entry exists in
-     * both mappings the minimal similarity is taken.
+     * both mappings the minimal similarity is taken. Spilled mappings are
+     * merged like in {@link #difference(AMapping, AMapping)}.
      *
      * @param map1
      *            First mapping
@@ -52,6 +65,9 @@ public class MappingOperations {
      * @return Intersection of map1 and map2
      */
     public static AMapping intersection(AMapping map1, AMapping map2) {
+        if (FileMapping.isSpilled(map1) || FileMapping.isSpilled(map2)) {
+            return merge(map1, map2, INTERSECTION);
+        }
         AMapping map = MappingFactory.createDefaultMapping();
         // takes care of not running the filter if some set is empty
         if (map1.size() == 0 || map2.size() == 0) {
@@ -80,7 +96,8 @@ public class MappingOperations {
 
     /**
      * Computes the union of two mappings. In case an entry exists in both
-     * mappings the maximal similarity is taken.
+     * mappings the maximal similarity is taken. Spilled mappings are merged
+     * like in {@link #difference(AMapping, AMapping)}.
      *
      * @param map1
      *            First mapping
@@ -89,6 +106,9 @@ public class MappingOperations {
      * @return Union of map1 and map2
      */
     public static AMapping union(AMapping map1, AMapping map2) {
+        if (FileMapping.isSpilled(map1) || FileMapping.isSpilled(map2)) {
+            return merge(map1, map2, UNION);
+        }
         AMapping map = MappingFactory.createDefaultMapping();
         // go through all the keys in map1
         for (String key : map1.getMap().keySet()) {
@@ -105,4 +125,44 @@ public class MappingOperations {
         return map;
     }
 
+    /**
+     * Merges the links of two mappings sorted by source and target URI into a
+     * run next to the run of the spilled mapping.
+     */
+    private static AMapping merge(AMapping map1, AMapping map2, int operation) {
+        File folder = (FileMapping.isSpilled(map1) ? (FileMapping) map1 : (FileMapping) map2).getFile()
+                .getParentFile();
+        try (FileMapping.Cursor links1 = FileMapping.cursor(map1);
+                FileMapping.Cursor links2 = FileMapping.cursor(map2);
+                FileMapping.Writer result = FileMapping.writer(folder)) {
+            boolean has1 = links1.next();
+            boolean has2 = links2.next();
+            while (has1 && (has2 || operation != INTERSECTION) || has2 && operation == UNION) {
+                int c = !has1 ? 1 : !has2 ? -1 : links1.compareTo(links2);
+                if (c < 0) {
+                    if (operation != INTERSECTION) {
+                        result.add(links1.getSource(), links1.getTarget(), links1.getSimilarity());
+                    }
+                    has1 = links1.next();
+                } else if (c > 0) {
+                    if (operation == UNION) {
+                        result.add(links2.getSource(), links2.getTarget(), links2.getSimilarity());
+                    }
+                    has2 = links2.next();
+                } else {
+                    if (operation == UNION) {
+                        result.add(links1.getSource(), links1.getTarget(),
+                                Math.max(links1.getSimilarity(), links2.getSimilarity()));
+                    } else if (operation == INTERSECTION) {
+                        result.add(links1.getSource(), links1.getTarget(),
+                                Math.min(links1.getSimilarity(), links2.getSimilarity()));
+                    }
+                    has1 = links1.next();
+                    has2 = links2.next();
+                }
+            }
+            return result.finish();
+        }
+    }
+
 }
@@ -0,0 +1,179 @@
+package org.aksw.limes.core.measures.mapper;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingFactory;
+
+/**
+ * The links of a mapping sorted by descending confidence. A mapping computed
+ * with a low threshold contains the mappings of all higher thresholds, so a
+ * mapper has to be run only once for a series of thresholds: the mapping of
+ * each threshold is a prefix of the sorted links. The F-measure and the
+ * pseudo-F-measure of all prefixes can be computed in a single pass.
+ */
+public class ThresholdSweep {
+
+    private final String[] sources;
+    private final String[] targets;
+    private final double[] confidences;
+
+    /**
+     * Constructor
+     *
+     * @param mapping
+     *            Mapping computed with the lowest threshold of the sweep
+     */
+    public ThresholdSweep(AMapping mapping) {
+        int size = mapping.getNumberofMappings();
+        Link[] links = new Link[size];
+        int i = 0;
+        for (Map.Entry<String, HashMap<String, Double>> entry : mapping.getMap().entrySet()) {
+            for (Map.Entry<String, Double> link : entry.getValue().entrySet()) {
+                links[i++] = new Link(entry.getKey(), link.getKey(), link.getValue());
+            }
+        }
+        Arrays.sort(links, 0, i, (a, b) -> Double.compare(b.confidence, a.confidence));
+        sources = new String[i];
+        targets = new String[i];
+        confidences = new double[i];
+        for (int j = 0; j < i; j++) {
+            sources[j] = links[j].source;
+            targets[j] = links[j].target;
+            confidences[j] = links[j].confidence;
+        }
+    }
+
+    /**
+     * @return the number of links of the lowest threshold
+     */
+    public int size() {
+        return confidences.length;
+    }
+
+    /**
+     * @param threshold
+     *            A threshold
+     * @return the number of links whose confidence is at least the threshold
+     */
+    public int getLinkCount(double threshold) {
+        int from = 0, to = confidences.length;
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (confidences[mid] >= threshold) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * @param threshold
+     *            A threshold that is at least the one the sweep was computed
+     *            with
+     * @return the mapping of the threshold
+     */
+    public AMapping getMapping(double threshold) {
+        AMapping result = MappingFactory.createDefaultMapping();
+        int count = getLinkCount(threshold);
+        for (int i = 0; i < count; i++) {
+            result.add(sources[i], targets[i], confidences[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the F-measure of the mapping of each threshold w.r.t. a
+     * reference mapping, like
+     * {@link org.aksw.limes.core.evaluation.qualititativeMeasures.FMeasure}.
+     *
+     * @param thresholds
+     *            Thresholds in any order
+     * @param reference
+     *            Reference mapping
+     * @return the F-measure of each threshold
+     */
+    public double[] getFMeasures(double[] thresholds, AMapping reference) {
+        int referenceSize = reference.getNumberofMappings();
+        double[] result = new double[thresholds.length];
+        int truePositives = 0, links = 0;
+        for (int t : getDescendingOrder(thresholds)) {
+            for (; links < confidences.length && confidences[links] >= thresholds[t]; links++) {
+                if (reference.contains(sources[links], targets[links])) {
+                    truePositives++;
+                }
+            }
+            if (truePositives > 0 && referenceSize > 0) {
+                double precision = truePositives / (double) links;
+                double recall = truePositives / (double) referenceSize;
+                result[t] = 2 * precision * recall / (precision + recall);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the pseudo-F-measure of the mapping of each threshold, like
+     * {@link org.aksw.limes.core.evaluation.qualititativeMeasures.PseudoFMeasure}
+     * without 1-to-1 mappings.
+     *
+     * @param thresholds
+     *            Thresholds in any order
+     * @param sourceSize
+     *            Number of source resources
+     * @param targetSize
+     *            Number of target resources
+     * @param symmetricPrecision
+     *            Whether the pseudo-precision counts linked targets as well
+     * @return the pseudo-F-measure of each threshold
+     */
+    public double[] getPseudoFMeasures(double[] thresholds, int sourceSize, int targetSize,
+            boolean symmetricPrecision) {
+        double[] result = new double[thresholds.length];
+        Set<String> linkedSources = new HashSet<>();
+        Set<String> linkedTargets = new HashSet<>();
+        int links = 0;
+        for (int t : getDescendingOrder(thresholds)) {
+            for (; links < confidences.length && confidences[links] >= thresholds[t]; links++) {
+                linkedSources.add(sources[links]);
+                linkedTargets.add(targets[links]);
+            }
+            if (links == 0) {
+                continue;
+            }
+            double precision = symmetricPrecision
+                    ? (linkedSources.size() + linkedTargets.size()) / (2d * links)
+                    : linkedSources.size() / (double) links;
+            double recall = (linkedSources.size() + linkedTargets.size()) / (double) (sourceSize + targetSize);
+            result[t] = 2 * precision * recall / (precision + recall);
+        }
+        return result;
+    }
+
+    private static Integer[] getDescendingOrder(double[] thresholds) {
+        Integer[] order = new Integer[thresholds.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(thresholds[b], thresholds[a]));
+        return order;
+    }
+
+    private static class Link {
+        final String source;
+        final String target;
+        final double confidence;
+
+        Link(String source, String target, double confidence) {
+            this.source = source;
+            this.target = target;
+            this.confidence = confidence;
+        }
+    }
+}
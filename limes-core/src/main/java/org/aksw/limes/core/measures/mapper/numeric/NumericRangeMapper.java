@@ -0,0 +1,151 @@
+package org.aksw.limes.core.measures.mapper.numeric;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.aksw.limes.core.exceptions.InvalidThresholdException;
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.aksw.limes.core.io.parser.Parser;
+import org.aksw.limes.core.measures.mapper.AMapper;
+import org.aksw.limes.core.measures.mapper.pointsets.PropertyFetcher;
+import org.aksw.limes.core.measures.mapper.space.SpacePoints;
+import org.aksw.limes.core.measures.measure.MeasureFactory;
+import org.aksw.limes.core.measures.measure.numeric.ANumericMeasure;
+
+/**
+ * Range join for one-dimensional numeric measures. The values of both caches
+ * are parsed once and sorted, then a sweep over the sorted source values
+ * keeps a pointer to the first target value within the range of the current
+ * source value. Only the target values within the range are compared, so the
+ * runtime is in O((n + m) log(n + m) + output).
+ */
+public class NumericRangeMapper extends AMapper {
+
+    public String getName() {
+        return "NumericRangeMapper";
+    }
+
+    /**
+     * Computes a mapping between a source and a target.
+     *
+     * @param source
+     *            Source cache
+     * @param target
+     *            Target cache
+     * @param sourceVar
+     *            Variable for the source dataset
+     * @param targetVar
+     *            Variable for the target dataset
+     * @param expression
+     *            Expression to process.
+     * @param threshold
+     *            Similarity threshold
+     * @return A mapping which contains links between the source instances and
+     *         the target instances
+     */
+    public AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
+            double threshold) {
+        if (threshold <= 0) {
+            throw new InvalidThresholdException(threshold);
+        }
+        List<String> properties = PropertyFetcher.getProperties(expression, threshold);
+        ANumericMeasure measure = (ANumericMeasure) MeasureFactory
+                .createMeasure(MeasureFactory.getMeasureType(new Parser(expression, threshold).getOperator()));
+        SpacePoints sourcePoints = SpacePoints.extract(source, new String[] { properties.get(0) });
+        SpacePoints targetPoints = SpacePoints.extract(target, new String[] { properties.get(1) });
+        SortedValues sourceValues = new SortedValues(sourcePoints);
+        SortedValues targetValues = new SortedValues(targetPoints);
+        double[] targets = targetValues.values;
+
+        AMapping mapping = MappingFactory.createDefaultMapping();
+        long compared = 0;
+        int start = 0;
+        for (int i = 0; i < sourceValues.values.length; i++) {
+            double x = sourceValues.values[i];
+            // widen the range by a few ulps so that rounding errors in the
+            // bounds never drop a pair that the measure accepts
+            double lower = measure.getLowerBound(x, threshold);
+            double upper = measure.getUpperBound(x, threshold);
+            lower -= 4 * Math.ulp(lower);
+            upper += 4 * Math.ulp(upper);
+            while (start < targets.length && targets[start] < lower) {
+                start++;
+            }
+            // the widening may break the monotonicity of the lower bound
+            while (start > 0 && targets[start - 1] >= lower) {
+                start--;
+            }
+            String sourceUri = sourcePoints.uris[sourceValues.owners[i]];
+            for (int k = start; k < targets.length && targets[k] <= upper; k++) {
+                compared++;
+                double sim = measure.getSimilarity(x, targets[k]);
+                if (sim >= threshold) {
+                    mapping.add(sourceUri, targetPoints.uris[targetValues.owners[k]], sim);
+                }
+            }
+        }
+        countCandidates(compared);
+        return mapping;
+    }
+
+    /**
+     * Values of a cache in ascending order together with the index of the
+     * instance that owns each value.
+     */
+    private static class SortedValues {
+        final double[] values;
+        final int[] owners;
+
+        /**
+         * Sorts the points by value. Each point is encoded as the rank of its
+         * value among the sorted values (upper 32 bits) and its owner
+         * instance (lower 32 bits), so that only primitive arrays are sorted.
+         */
+        SortedValues(SpacePoints points) {
+            double[] sorted = Arrays.copyOf(points.columns[0], points.size());
+            Arrays.sort(sorted);
+            long[] order = new long[points.size()];
+            for (int i = 0; i < points.getInstanceCount(); i++) {
+                for (int p = points.instanceStart[i]; p < points.instanceStart[i + 1]; p++) {
+                    long rank = Arrays.binarySearch(sorted, points.columns[0][p]);
+                    order[p] = (rank << 32) | i;
+                }
+            }
+            Arrays.sort(order);
+            values = new double[order.length];
+            owners = new int[order.length];
+            for (int p = 0; p < order.length; p++) {
+                values[p] = sorted[(int) (order[p] >>> 32)];
+                owners[p] = (int) order[p];
+            }
+        }
+    }
+
+    /**
+     * Sorting dominates the runtime for selective thresholds, the comparisons
+     * are linear in the expected mapping size.
+     */
+    @Override
+    public double getRuntimeApproximation(int sourceSize, int targetSize, double threshold, Language language) {
+        double sort = sourceSize * log2(sourceSize + 1) + targetSize * log2(targetSize + 1);
+        return 1e-4 * sort + 1e-3 * getMappingSizeApproximation(sourceSize, targetSize, threshold, language);
+    }
+
+    /**
+     * The number of target values within the range of a source value depends
+     * on the measure (absolute or relative ranges) and on the spread of the
+     * values, neither of which is known from the cache sizes. The planner
+     * asks before the values are sorted, so this returns the neutral default
+     * of the other uncalibrated mappers.
+     */
+    @Override
+    public double getMappingSizeApproximation(int sourceSize, int targetSize, double threshold, Language language) {
+        return 1000d;
+    }
+
+    private static double log2(double x) {
+        return Math.log(x) / Math.log(2);
+    }
+}
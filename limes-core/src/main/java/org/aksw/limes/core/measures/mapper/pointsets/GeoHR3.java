@@ -12,6 +12,7 @@ import java.util.Map;
 import java.util.Set;
 
 import org.aksw.limes.core.datastrutures.Point;
+import org.aksw.limes.core.execution.ExecutionContext;
 import org.aksw.limes.core.io.mapping.AMapping;
 import org.aksw.limes.core.io.mapping.MappingFactory;
 import org.aksw.limes.core.measures.measure.MeasureFactory;
@@ -40,6 +41,10 @@ public class GeoHR3 {
     public IPointsetsMeasure setMeasure;
     public boolean verbose = false;
     public long indexingTime;
+    /**
+     * Context checked for each source square
+     */
+    public ExecutionContext context = ExecutionContext.NONE;
     protected int granularity;
     protected float angularThreshold;
     protected float distanceThreshold;
@@ -256,8 +261,15 @@ public class GeoHR3 {
             targetIndex.index(targetData);
             ((IndexedHausdorffMeasure) setMeasure).targetIndex = targetIndex;
         }
+        int squareCount = 0;
+        for (Integer latIndex : source.squares.keySet()) {
+            squareCount += source.squares.get(latIndex).size();
+        }
+        int comparedSquares = 0;
         for (Integer latIndex : source.squares.keySet()) {
             for (Integer longIndex : source.squares.get(latIndex).keySet()) {
+                context.checkpoint();
+                context.progress((double) comparedSquares++ / squareCount);
                 GeoSquare g1 = source.getSquare(latIndex, longIndex);
                 Set<List<Integer>> squares = getSquaresToCompare(latIndex, longIndex, target);
                 for (List<Integer> squareIndex : squares) {
@@ -105,6 +105,7 @@ public class OrchidMapper extends AMapper {
         MeasureType type = null;
         type = MeasureFactory.getMeasureType(expression);
         GeoHR3 orchid = new GeoHR3(theta, GeoHR3.DEFAULT_GRANULARITY, type);
+        orchid.context = context;
         return orchid.run(sourcePolygons, targetPolygons);
     }
 
@@ -1,284 +1,314 @@
 package org.aksw.limes.core.measures.mapper.resourcesets;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.aksw.limes.core.exceptions.InvalidThresholdException;
+import org.aksw.limes.core.execution.ExecutionContext;
 import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.LinkSink;
 import org.aksw.limes.core.io.mapping.MappingFactory;
 import org.aksw.limes.core.measures.mapper.AMapper;
 import org.aksw.limes.core.measures.mapper.pointsets.PropertyFetcher;
 
 /**
+ * Set similarity join for SET_JACCARD. The resources of both caches are
+ * dictionary-encoded into int arrays sorted by ascending global frequency.
+ * The prefixes of the target sets are indexed in inverted lists; each source
+ * set probes the lists of its prefix tokens (prefix filter) and candidates
+ * are pruned with the size and positional filters of PPJoin. The remaining
+ * candidates are verified with a merge intersection. Source sets are
+ * processed in parallel.
+ *
  * @author Kevin Dreßler
  * @since 1.0
  */
 public class SetJaccardMapper extends AMapper {
 
-    public static class SetSizeQuicksort {
-
-        /**
-         * Public class method to quicksort lists
-         *
-         * @param values
-         *         list of sets of strings
-         */
-        public static void sort(List<Set<String>> values) {
-            if (values == null || values.size() == 0)
-                return;
-            quicksort(values, 0, values.size() - 1);
-        }
-
-        /**
-         * Quicksort class method
-         *
-         * @param strings
-         *         list of sets of strings
-         * @param low
-         *         low index
-         * @param high
-         *         high index
-         */
-        private static void quicksort(List<Set<String>> strings, int low, int high) {
-            int i = low, j = high;
-            int pivot = strings.get(low + (high - low) / 2).size();
-            while (i <= j) {
-                while (strings.get(i).size() < pivot)
-                    i++;
-                while (strings.get(j).size() > pivot)
-                    j--;
-                if (i <= j) {
-                    exchange(strings, i, j);
-                    i++;
-                    j--;
-                }
-            }
-            if (low < j)
-                quicksort(strings, low, j);
-            if (i < high)
-                quicksort(strings, i, high);
-        }
-
-        /**
-         * Swap elements
-         *
-         * @param strings
-         *         list of sets of strings
-         * @param i
-         *         index of element a to be swapped
-         * @param j
-         *         index of element b to be swapped
-         */
-        private static void exchange(List<Set<String>> strings, int i, int j) {
-            Set<String> temp = strings.get(i);
-            strings.set(i, strings.get(j));
-            strings.set(j, temp);
-        }
+    @Override
+    public AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
+            double threshold) {
+        AMapping result = MappingFactory.createDefaultMapping();
+        getMapping(source, target, sourceVar, targetVar, expression, threshold, result::add);
+        return result;
     }
 
-    public static class NamedHashSet<E> implements Set<E> {
-        private String uri;
-        private Set<E> decoratedSet;
-
-        public NamedHashSet(Set<E> set, String uri) {
-            this.decoratedSet = set;
-            this.uri = uri;
-        }
-
-        public String getUri() {
-            return uri;
-        }
-
-        public void setUri(String uri) {
-            this.uri = uri;
-        }
-
-        @Override
-        public int size() {
-            return decoratedSet.size();
-        }
-
-        @Override
-        public boolean isEmpty() {
-            return decoratedSet.isEmpty();
-        }
-
-        @Override
-        public boolean contains(Object o) {
-            return decoratedSet.contains(o);
-        }
-
-        @Override
-        public Iterator<E> iterator() {
-            return decoratedSet.iterator();
+    /**
+     * Pushes the links of each chunk of source sets into the sink as soon as
+     * the chunk is joined, in the order of the chunks.
+     */
+    @Override
+    public void getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
+            double threshold, LinkSink sink) {
+        if (threshold <= 0) {
+            throw new InvalidThresholdException(threshold);
         }
-
-        @Override
-        public Object[] toArray() {
-            return decoratedSet.toArray();
+        List<String> properties = PropertyFetcher.getProperties(expression, threshold);
+        Map<String, Integer> dictionary = buildDictionary(source, properties.get(0), target, properties.get(1));
+        Records sourceRecords = new Records(source, properties.get(0), dictionary);
+        Records targetRecords = new Records(target, properties.get(1), dictionary);
+        if (sourceRecords.size() == 0 || targetRecords.size() == 0) {
+            return;
         }
+        PrefixIndex index = new PrefixIndex(targetRecords, dictionary.size(), threshold);
 
-        @Override
-        public <T> T[] toArray(T[] a) {
-            return decoratedSet.toArray(a);
+        int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), sourceRecords.size() / 1000));
+        int chunkSize = Math.max(1, (sourceRecords.size() + threads * 8 - 1) / (threads * 8));
+        List<Callable<List<Object[]>>> workers = new ArrayList<>();
+        int chunks = (sourceRecords.size() + chunkSize - 1) / chunkSize;
+        AtomicInteger done = new AtomicInteger();
+        ExecutionContext context = this.context;
+        for (int from = 0; from < sourceRecords.size(); from += chunkSize) {
+            final int start = from, end = Math.min(sourceRecords.size(), from + chunkSize);
+            workers.add(() -> {
+                List<Object[]> links = join(sourceRecords, targetRecords, index, threshold, start, end, context);
+                context.progress((double) done.incrementAndGet() / chunks);
+                return links;
+            });
         }
-
-        @Override
-        public boolean add(E e) {
-            return decoratedSet.add(e);
+        for (List<Object[]> links : context.invokeAll(workers, threads)) {
+            for (Object[] link : links) {
+                sink.add((String) link[0], (String) link[1], (Double) link[2]);
+            }
         }
+    }
 
-        @Override
-        public boolean remove(Object o) {
-            return decoratedSet.remove(o);
+    /**
+     * Assigns an id to each resource such that rarer resources get smaller
+     * ids. Rare resources thus end up in the prefixes, which keeps the
+     * inverted lists short.
+     */
+    private Map<String, Integer> buildDictionary(ACache source, String sourceProperty, ACache target,
+            String targetProperty) {
+        Map<String, int[]> frequencies = new HashMap<>();
+        for (ACache cache : new ACache[] { source, target }) {
+            String property = cache == source ? sourceProperty : targetProperty;
+            for (String uri : cache.getAllUris()) {
+                for (String value : cache.getInstance(uri).getProperty(property)) {
+                    int[] frequency = frequencies.get(value);
+                    if (frequency == null) {
+                        frequencies.put(value, new int[] { 1 });
+                    } else {
+                        frequency[0]++;
+                    }
+                }
+            }
         }
-
-        @Override
-        public boolean containsAll(Collection<?> c) {
-            return decoratedSet.containsAll(c);
+        List<Map.Entry<String, int[]>> entries = new ArrayList<>(frequencies.entrySet());
+        entries.sort((a, b) -> a.getValue()[0] != b.getValue()[0] ? Integer.compare(a.getValue()[0], b.getValue()[0])
+                : a.getKey().compareTo(b.getKey()));
+        Map<String, Integer> dictionary = new HashMap<>(entries.size() * 2);
+        for (Map.Entry<String, int[]> entry : entries) {
+            dictionary.put(entry.getKey(), dictionary.size());
         }
+        return dictionary;
+    }
 
-        @Override
-        public boolean addAll(Collection<? extends E> c) {
-            return decoratedSet.addAll(c);
+    /**
+     * Joins the source records [from, to) with the target records. The
+     * context is checked every 256 source records.
+     *
+     * @return the links as {source uri, target uri, similarity}
+     */
+    private static List<Object[]> join(Records sourceRecords, Records targetRecords, PrefixIndex index,
+            double threshold, int from, int to, ExecutionContext context) {
+        List<Object[]> links = new ArrayList<>();
+        // overlap in the prefixes so far, -1 for pruned candidates
+        int[] overlaps = new int[targetRecords.size()];
+        int[] candidates = new int[targetRecords.size()];
+        for (int s = from; s < to; s++) {
+            if (((s - from) & 255) == 0) {
+                context.checkpoint();
+            }
+            int[] x = sourceRecords.sets[s];
+            int minSize = (int) Math.ceil(threshold * x.length - 1e-9);
+            int maxSize = (int) Math.floor(x.length / threshold + 1e-9);
+            int prefix = getPrefixLength(x.length, threshold);
+            int candidateCount = 0;
+            for (int i = 0; i < prefix; i++) {
+                int token = x[i];
+                int k = index.lowerBound(token, minSize);
+                for (; k < index.listStart[token + 1]; k++) {
+                    int y = index.records[k];
+                    int ySize = targetRecords.sets[y].length;
+                    if (ySize > maxSize) {
+                        break;
+                    }
+                    if (overlaps[y] < 0) {
+                        continue;
+                    }
+                    int required = getRequiredOverlap(x.length, ySize, threshold);
+                    int upperBound = 1 + Math.min(x.length - i - 1, ySize - index.positions[k] - 1);
+                    if (overlaps[y] + upperBound >= required) {
+                        if (overlaps[y] == 0) {
+                            candidates[candidateCount++] = y;
+                        }
+                        overlaps[y]++;
+                    } else {
+                        if (overlaps[y] == 0) {
+                            candidates[candidateCount++] = y;
+                        }
+                        overlaps[y] = -1;
+                    }
+                }
+            }
+            for (int c = 0; c < candidateCount; c++) {
+                int y = candidates[c];
+                if (overlaps[y] > 0) {
+                    int[] set = targetRecords.sets[y];
+                    int overlap = intersect(x, set, getRequiredOverlap(x.length, set.length, threshold));
+                    double sim = overlap / ((double) x.length + set.length - overlap);
+                    if (sim >= threshold) {
+                        links.add(new Object[] { sourceRecords.uris[s], targetRecords.uris[y], sim });
+                    }
+                }
+                overlaps[y] = 0;
+            }
         }
+        return links;
+    }
 
-        @Override
-        public boolean retainAll(Collection<?> c) {
-            return decoratedSet.retainAll(c);
-        }
+    private static int getPrefixLength(int size, double threshold) {
+        return size - (int) Math.ceil(threshold * size - 1e-9) + 1;
+    }
 
-        @Override
-        public boolean removeAll(Collection<?> c) {
-            return decoratedSet.removeAll(c);
-        }
+    /**
+     * Minimal overlap of two sets whose Jaccard similarity reaches the
+     * threshold, i.e., ceil(threshold / (1 + threshold) * (|x| + |y|)).
+     */
+    private static int getRequiredOverlap(int xSize, int ySize, double threshold) {
+        return (int) Math.ceil(threshold / (1 + threshold) * (xSize + ySize) - 1e-9);
+    }
 
-        @Override
-        public void clear() {
-            decoratedSet.clear();
+    /**
+     * Merge intersection of two sorted int arrays. Stops as soon as the
+     * required overlap cannot be reached any more.
+     *
+     * @return the size of the intersection or a smaller value if it is below
+     *         the required overlap
+     */
+    private static int intersect(int[] x, int[] y, int required) {
+        int i = 0, j = 0, overlap = 0;
+        while (i < x.length && j < y.length) {
+            if (overlap + Math.min(x.length - i, y.length - j) < required) {
+                return overlap;
+            }
+            if (x[i] == y[j]) {
+                overlap++;
+                i++;
+                j++;
+            } else if (x[i] < y[j]) {
+                i++;
+            } else {
+                j++;
+            }
         }
+        return overlap;
     }
 
-    @Override
-    public AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression, double threshold) {
-        // Phase 0: Initialize
-        List<String> properties;
-        List<Set<String>> sourceIndex, targetIndex, small, big;
-        properties = PropertyFetcher.getProperties(expression, threshold);
-        sourceIndex = buildIndex(source, properties.get(0));
-        targetIndex = buildIndex(target, properties.get(1));
-        // Swap if necessary
-        if (sourceIndex.size() > targetIndex.size()) {
-            big = sourceIndex;
-            small = targetIndex;
-        } else {
-            big = targetIndex;
-            small = sourceIndex;
-        }
-        List<List<Set<String>>> possibleMatches = getPossibleMatches(small, big, threshold);
-        AMapping result = MappingFactory.createDefaultMapping();
-        for (int i = 0; i < possibleMatches.size(); i+=2) {
-            List<Set<String>> s = possibleMatches.get(i);
-            List<Set<String>> t = possibleMatches.get(i+1);
-            for (Set<String> setS : s) {
-                for (Set<String> setT : t) {
-                    double score = fastSimCheck(setS, setT, threshold);
-                    if (score >= threshold) {
-                        result.add(((NamedHashSet<String>)setS).getUri(), ((NamedHashSet<String>)setT).getUri(), score);
-                    }
+    /**
+     * Dictionary-encoded resource sets of the instances of a cache. Instances
+     * without values are skipped.
+     */
+    private static class Records {
+        final String[] uris;
+        final int[][] sets;
+
+        Records(ACache cache, String property, Map<String, Integer> dictionary) {
+            List<String> allUris = cache.getAllUris();
+            String[] uris = new String[allUris.size()];
+            int[][] sets = new int[allUris.size()][];
+            int size = 0;
+            for (String uri : allUris) {
+                Set<String> values = cache.getInstance(uri).getProperty(property);
+                if (values.isEmpty()) {
+                    continue;
+                }
+                int[] set = new int[values.size()];
+                int i = 0;
+                for (String value : values) {
+                    set[i++] = dictionary.get(value);
                 }
+                Arrays.sort(set);
+                uris[size] = uri;
+                sets[size] = set;
+                size++;
             }
+            this.uris = Arrays.copyOf(uris, size);
+            this.sets = Arrays.copyOf(sets, size);
         }
-        return result;
-    }
 
-    private List<Set<String>> buildIndex(ACache c, String p) {
-        List<Set<String>> index = new ArrayList<>();
-        // Phase 1: Build index
-        for (String uri : c.getAllUris()) {
-            Set<String> values = new NamedHashSet<>(c.getInstance(uri).getProperty(p), uri);
-            if (values.size() > 0) {
-                index.add(values);
-            }
+        int size() {
+            return uris.length;
         }
-        SetSizeQuicksort.sort(index);
-        return index;
     }
 
-    private List<List<Set<String>>> getPossibleMatches(List<Set<String>> small, List<Set<String>> big, double threshold) {
-        // Phase 2: Iterate over smaller KB
-        int startBig = 0;
-        int oldSize = small.get(0).size();
-        List<Set<String>> tempSource = new ArrayList<>();
-        List<Set<String>> tempTarget = new ArrayList<>();
-        List<List<Set<String>>> possibleMatches = new ArrayList<>();
-        for (Set<String> values : small) {
-            // add sets of same size in small to temp
-            if (values.size() > oldSize) {
-                // Phase 2.1: Use boundaries to lookup possible matches
-                int loB, hiB, nextStartSize;
-                boolean nextStartSizeNotFixedYet = true;
-                loB = (int) Math.ceil((double) oldSize * threshold);
-                hiB = (int) Math.floor((double) oldSize / threshold);
-                nextStartSize = (int) Math.ceil(threshold * (double) values.size());
-                for (int j = startBig; j < big.size(); j++) {
-                    Set<String> targetValues = big.get(j);
-                    if (targetValues.size() < loB) {
-                        continue;
-                    }
-                    if (targetValues.size() > hiB) {
-                        break;
-                    }
-                    if (nextStartSizeNotFixedYet && targetValues.size() >= nextStartSize) {
-                        nextStartSizeNotFixedYet = false;
-                        startBig = (startBig == 0) ? 0 : j - 1;
-                    }
-                    tempTarget.add(targetValues);
+    /**
+     * Inverted lists over the prefix tokens of the target records in CSR
+     * layout. Each list is sorted by record size, so that the size filter
+     * can skip its head with a binary search.
+     */
+    private static class PrefixIndex {
+        final int[] listStart;
+        final int[] records;
+        final int[] positions;
+        final int[] sizes;
+
+        PrefixIndex(Records target, int tokens, double threshold) {
+            Integer[] bySize = new Integer[target.size()];
+            for (int y = 0; y < bySize.length; y++) {
+                bySize[y] = y;
+            }
+            Arrays.sort(bySize, (a, b) -> Integer.compare(target.sets[a].length, target.sets[b].length));
+            listStart = new int[tokens + 1];
+            for (int[] set : target.sets) {
+                int prefix = getPrefixLength(set.length, threshold);
+                for (int i = 0; i < prefix; i++) {
+                    listStart[set[i] + 1]++;
                 }
-                // Phase 2.2: Schedule temp lists for similarity check
-                possibleMatches.add(tempSource);
-                possibleMatches.add(tempTarget);
-                // Reset temps
-                tempSource = new ArrayList<>();
-                oldSize = values.size();
             }
-            tempSource.add(values);
-        }
-        int loB = (int) Math.ceil((double) oldSize * threshold);
-        int hiB = (int) Math.floor((double) oldSize / threshold);
-        for (int j = startBig; j < big.size(); j++) {
-            Set<String> targetValues = big.get(j);
-            if (targetValues.size() < loB) {
-                continue;
+            for (int t = 0; t < tokens; t++) {
+                listStart[t + 1] += listStart[t];
             }
-            if (targetValues.size() > hiB) {
-                break;
+            int[] fill = Arrays.copyOf(listStart, tokens);
+            records = new int[listStart[tokens]];
+            positions = new int[listStart[tokens]];
+            sizes = new int[listStart[tokens]];
+            for (int y : bySize) {
+                int[] set = target.sets[y];
+                int prefix = getPrefixLength(set.length, threshold);
+                for (int i = 0; i < prefix; i++) {
+                    int k = fill[set[i]]++;
+                    records[k] = y;
+                    positions[k] = i;
+                    sizes[k] = set.length;
+                }
             }
-            tempTarget.add(targetValues);
         }
-        possibleMatches.add(tempSource);
-        possibleMatches.add(tempTarget);
-        return possibleMatches;
-    }
 
-    private double fastSimCheck (Set<String> s, Set<String> t, double threshold) {
-        int matches = 0;
-        int mismatches = 0;
-        int maxMismatches = (int) Math.floor((Math.min(s.size(), t.size()) -
-                threshold * Math.max(s.size(), t.size())) / (1 + threshold));
-        for (String x : s) {
-            if (t.contains(x)) {
-                matches++;
-            } else {
-                mismatches++;
-                if (mismatches > maxMismatches)
-                    return 0d;
+        /**
+         * @return the first position in the list of the token whose record
+         *         has at least the given size
+         */
+        int lowerBound(int token, int size) {
+            int from = listStart[token], to = listStart[token + 1];
+            while (from < to) {
+                int mid = (from + to) >>> 1;
+                if (sizes[mid] < size) {
+                    from = mid + 1;
+                } else {
+                    to = mid;
+                }
             }
+            return from;
         }
-        return matches / ((double) s.size() + (double) t.size() - (double) matches);
     }
 
     @Override
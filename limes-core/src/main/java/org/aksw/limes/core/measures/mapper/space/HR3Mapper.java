@@ -5,17 +5,26 @@
 package org.aksw.limes.core.measures.mapper.space;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
 // * Previously call ToralOrderBlockingMapper
 
+import org.aksw.limes.core.execution.ExecutionContext;
 import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.LinkSink;
 import org.aksw.limes.core.io.mapping.MappingFactory;
 import org.aksw.limes.core.io.parser.Parser;
 import org.aksw.limes.core.measures.mapper.AMapper;
 import org.aksw.limes.core.measures.mapper.space.blocking.BlockingFactory;
 import org.aksw.limes.core.measures.mapper.space.blocking.IBlockingModule;
+import org.aksw.limes.core.measures.mapper.space.blocking.PackedBlockIndex;
+import org.aksw.limes.core.measures.measure.MeasureFactory;
+import org.aksw.limes.core.measures.measure.MeasureType;
 import org.aksw.limes.core.measures.measure.space.ISpaceMeasure;
 import org.aksw.limes.core.measures.measure.space.SpaceMeasureFactory;
 
@@ -39,7 +48,11 @@ public class HR3Mapper extends AMapper {
     }
 
     /**
-     * Computes a mapping between a source and a target.
+     * Computes a mapping between a source and a target. The coordinates of
+     * both caches are parsed once into primitive columns, the target points
+     * are indexed by packed HR3 block ids and the source instances are
+     * processed in parallel. Falls back to the list-based blocking if the
+     * block ids cannot be packed (e.g., for a threshold of 1).
      *
      * @param source
      *            Source cache
@@ -58,42 +71,150 @@ public class HR3Mapper extends AMapper {
      */
     public AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
             double threshold) {
-
-        
-        
         AMapping mapping = MappingFactory.createDefaultMapping();
+        getMapping(source, target, sourceVar, targetVar, expression, threshold, mapping::add);
+        return mapping;
+    }
 
-        // maps each block id to a set of instances. Actually one should
-        // integrate LIMES here
-        HashMap<ArrayList<Integer>, TreeSet<String>> targetBlocks = new HashMap<ArrayList<Integer>, TreeSet<String>>();
-
-        // 0. get properties
-        String property1, property2;
-        // get property labels
+    /**
+     * Pushes the links of each chunk of source instances into the sink as
+     * soon as the chunk is compared, in the order of the chunks. Only the
+     * fallback to list blocks materializes the mapping first.
+     */
+    @Override
+    public void getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
+            double threshold, LinkSink sink) {
         Parser p = new Parser(expression, threshold);
-        // get first property label
-        String term1 = p.getLeftTerm();
-        if (term1.contains(".")) {
-            String split[] = term1.split("\\.");
-            property1 = split[1];
-            if (split.length >= 2)
-                for (int part = 2; part < split.length; part++)
-                    property1 += "." + split[part];
-        } else {
-            property1 = term1;
+        String property1 = getPropertyLabel(p.getLeftTerm());
+        String property2 = getPropertyLabel(p.getRightTerm());
+        String[] sourceProperties = property1.split("\\|");
+        String[] targetProperties = property2.split("\\|");
+        if (sourceProperties.length != targetProperties.length) {
+            throw new IllegalArgumentException("Source and target of " + expression + " differ in dimensions.");
         }
+        boolean manhattan = MeasureFactory.getMeasureType(p.getOperator()) == MeasureType.MANHATTAN;
+        ISpaceMeasure measure = (ISpaceMeasure) MeasureFactory.createMeasure(MeasureFactory.getMeasureType(p.getOperator()));
+        measure.setDimension(targetProperties.length);
+        double distanceThreshold = measure.getThreshold(0, threshold);
+        if (distanceThreshold > 0 && !Double.isInfinite(distanceThreshold)) {
+            SpacePoints sourcePoints = SpacePoints.extract(source, sourceProperties);
+            SpacePoints targetPoints = SpacePoints.extract(target, targetProperties);
+            PackedBlockIndex index = PackedBlockIndex.build(sourcePoints, targetPoints, distanceThreshold, granularity,
+                    manhattan);
+            if (index != null) {
+                getMapping(sourcePoints, targetPoints, index, manhattan, threshold, sink);
+                return;
+            }
+        }
+        sink.addAll(getMappingWithListBlocks(source, target, property1, property2, p.getOperator(), threshold));
+    }
+
+    private void getMapping(SpacePoints sourcePoints, SpacePoints targetPoints, PackedBlockIndex index,
+            boolean manhattan, double threshold, LinkSink sink) {
+        int instances = sourcePoints.getInstanceCount();
+        int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), instances / 1000));
+        int chunkSize = Math.max(1, (instances + threads * 8 - 1) / (threads * 8));
+        // target instance of each point, used to resolve point ids to uris
+        int[] owner = getOwners(targetPoints);
+        List<Callable<LinkBuffer>> workers = new ArrayList<>();
+        int chunks = (instances + chunkSize - 1) / chunkSize;
+        AtomicInteger done = new AtomicInteger();
+        ExecutionContext context = this.context;
+        for (int from = 0; from < instances; from += chunkSize) {
+            final int start = from, end = Math.min(instances, from + chunkSize);
+            workers.add(() -> {
+                LinkBuffer links = compare(sourcePoints, targetPoints, owner, index, manhattan, threshold, start, end,
+                        context);
+                context.progress((double) done.incrementAndGet() / chunks);
+                return links;
+            });
+        }
+        for (LinkBuffer links : context.invokeAll(workers, threads)) {
+            countCandidates(links.candidates);
+            for (int i = 0; i < links.size; i++) {
+                sink.add(sourcePoints.uris[links.sources[i]], targetPoints.uris[links.targets[i]],
+                        links.similarities[i]);
+            }
+        }
+    }
 
-        // get second property label
-        String term2 = p.getRightTerm();
-        if (term2.contains(".")) {
-            String split[] = term2.split("\\.");
-            property2 = split[1];
+    /**
+     * Compares the source instances [from, to) with all target points in the
+     * neighbouring blocks of their points. Instances with multi-valued
+     * coordinates may yield the same pair several times, the mapping keeps
+     * the highest similarity. The context is checked every 256 instances.
+     */
+    private static LinkBuffer compare(SpacePoints sourcePoints, SpacePoints targetPoints, int[] owner,
+            PackedBlockIndex index, boolean manhattan, double threshold, int from, int to, ExecutionContext context) {
+        LinkBuffer links = new LinkBuffer();
+        int dimensions = targetPoints.getDimensions();
+        double[][] sourceColumns = sourcePoints.columns;
+        double[][] targetColumns = targetPoints.columns;
+        long[] offsets = index.getNeighbourOffsets();
+        int[] blockPoints = index.getPoints();
+        for (int s = from; s < to; s++) {
+            if (((s - from) & 255) == 0) {
+                context.checkpoint();
+            }
+            for (int sp = sourcePoints.instanceStart[s]; sp < sourcePoints.instanceStart[s + 1]; sp++) {
+                long blockId = index.getBlockId(sourceColumns, sp);
+                for (long offset : offsets) {
+                    int slot = index.getSlot(blockId + offset);
+                    if (slot < 0) {
+                        continue;
+                    }
+                    links.candidates += index.getSlotEnd(slot) - index.getSlotStart(slot);
+                    for (int k = index.getSlotStart(slot); k < index.getSlotEnd(slot); k++) {
+                        int tp = blockPoints[k];
+                        double distance = 0;
+                        for (int d = 0; d < dimensions; d++) {
+                            double diff = sourceColumns[d][sp] - targetColumns[d][tp];
+                            distance += manhattan ? Math.abs(diff) : diff * diff;
+                        }
+                        double sim = 1d / (1d + (manhattan ? distance : Math.sqrt(distance)));
+                        if (sim >= threshold) {
+                            links.add(s, owner[tp], sim);
+                        }
+                    }
+                }
+            }
+        }
+        return links;
+    }
+
+    private static int[] getOwners(SpacePoints points) {
+        int[] owner = new int[points.size()];
+        for (int i = 0; i < points.getInstanceCount(); i++) {
+            Arrays.fill(owner, points.instanceStart[i], points.instanceStart[i + 1], i);
+        }
+        return owner;
+    }
+
+    private static String getPropertyLabel(String term) {
+        String property;
+        if (term.contains(".")) {
+            String split[] = term.split("\\.");
+            property = split[1];
             if (split.length >= 2)
                 for (int part = 2; part < split.length; part++)
-                    property2 += "." + split[part];
+                    property += "." + split[part];
         } else {
-            property2 = term2;
+            property = term;
         }
+        return property;
+    }
+
+    /**
+     * List-based HR3 blocking, which works for any threshold but parses the
+     * coordinates for each comparison.
+     */
+    private AMapping getMappingWithListBlocks(ACache source, ACache target, String property1, String property2,
+            String operator, double threshold) {
+        AMapping mapping = MappingFactory.createDefaultMapping();
+
+        // maps each block id to a set of instances. Actually one should
+        // integrate LIMES here
+        HashMap<ArrayList<Integer>, TreeSet<String>> targetBlocks = new HashMap<ArrayList<Integer>, TreeSet<String>>();
 
         // get number of dimensions we are dealing with
         int dimensions = property2.split("\\|").length;
@@ -102,11 +223,10 @@ public class HR3Mapper extends AMapper {
         // distance threshold. Central for finding the right blocks and might
         // differ from blocker
         // to blocker.
-        IBlockingModule generator = BlockingFactory.getBlockingModule(property2, p.getOperator(), threshold,
-                granularity);
+        IBlockingModule generator = BlockingFactory.getBlockingModule(property2, operator, threshold, granularity);
 
         // initialize the measure for similarity computation
-        ISpaceMeasure measure = SpaceMeasureFactory.getMeasure(p.getOperator(), dimensions);
+        ISpaceMeasure measure = SpaceMeasureFactory.getMeasure(operator, dimensions);
 
         // compute blockid for each of the elements of the target
         // implement our simple yet efficient blocking approach
@@ -125,26 +245,15 @@ public class HR3Mapper extends AMapper {
         // comparison
         TreeSet<String> uris;
         double sim;
-        int counter = 0;
-        source.getAllUris().size();
-        for (String sourceInstanceUri : source.getAllUris()) {
-            counter++;
-            if (counter % 1000 == 0) {
-                // logger.info("Processed " + (counter * 100 / size) + "% of the
-                // links");
-                // get key
-
-            }
-            // logger.info("Getting "+property1+" from "+sourceInstanceUri);
+        List<String> sourceUris = source.getAllUris();
+        for (int i = 0; i < sourceUris.size(); i++) {
+            checkpoint(i, sourceUris.size());
+            String sourceInstanceUri = sourceUris.get(i);
             blockIds = generator.getAllSourceIds(source.getInstance(sourceInstanceUri), property1);
-            // logger.info("BlockId for "+sourceInstanceUri+" is "+blockId);
             // for all blocks in [-1, +1] in each dimension compute similarities
             // and store them
             for (int ids = 0; ids < blockIds.size(); ids++) {
                 blocksToCompare = generator.getBlocksToCompare(blockIds.get(ids));
-
-                // logger.info(sourceInstanceUri+" is to compare with blocks
-                // "+blocksToCompare);
                 for (int index = 0; index < blocksToCompare.size(); index++) {
                     if (targetBlocks.containsKey(blocksToCompare.get(index))) {
                         uris = targetBlocks.get(blocksToCompare.get(index));
@@ -159,7 +268,6 @@ public class HR3Mapper extends AMapper {
                 }
             }
         }
-        // logger.info("Cmin = "+necessaryComparisons+"; C = "+comparisons);
         return mapping;
     }
 
@@ -0,0 +1,28 @@
+package org.aksw.limes.core.measures.mapper.space;
+
+import java.util.Arrays;
+
+/**
+ * Growable primitive buffer of links computed by a worker. Sources and
+ * targets are indexes into the inputs of the mapper.
+ */
+class LinkBuffer {
+    int[] sources = new int[64];
+    int[] targets = new int[64];
+    double[] similarities = new double[64];
+    int size = 0;
+    /** compared pairs */
+    long candidates = 0;
+
+    void add(int source, int target, double sim) {
+        if (size == sources.length) {
+            sources = Arrays.copyOf(sources, size * 2);
+            targets = Arrays.copyOf(targets, size * 2);
+            similarities = Arrays.copyOf(similarities, size * 2);
+        }
+        sources[size] = source;
+        targets[size] = target;
+        similarities[size] = sim;
+        size++;
+    }
+}
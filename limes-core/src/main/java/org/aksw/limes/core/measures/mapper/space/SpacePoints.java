@@ -0,0 +1,126 @@
+package org.aksw.limes.core.measures.mapper.space;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.Instance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Column-wise representation of the numeric vectors of a cache. The values of
+ * the given properties are parsed exactly once. An instance with multi-valued
+ * properties contributes one point per combination of values, so the points
+ * of an instance are always stored contiguously.
+ */
+public class SpacePoints {
+    private static final Logger logger = LoggerFactory.getLogger(SpacePoints.class);
+
+    /**
+     * URIs of the instances that own at least one point
+     */
+    public final String[] uris;
+    /**
+     * Index of the first point of each instance, size uris.length + 1
+     */
+    public final int[] instanceStart;
+    /**
+     * columns[d][i] is the d-th coordinate of point i
+     */
+    public final double[][] columns;
+    private final int size;
+
+    private SpacePoints(String[] uris, int[] instanceStart, double[][] columns, int size) {
+        this.uris = uris;
+        this.instanceStart = instanceStart;
+        this.columns = columns;
+        this.size = size;
+    }
+
+    /**
+     * Extracts the numeric vectors of all instances of a cache.
+     *
+     * @param cache
+     *            Input cache
+     * @param properties
+     *            One property per dimension
+     * @return the points of the cache
+     */
+    public static SpacePoints extract(ACache cache, String[] properties) {
+        int dimensions = properties.length;
+        List<String> allUris = cache.getAllUris();
+        String[] uris = new String[allUris.size()];
+        int[] instanceStart = new int[allUris.size() + 1];
+        double[][] columns = new double[dimensions][Math.max(16, allUris.size())];
+        double[][] values = new double[dimensions][];
+        int points = 0;
+        int instances = 0;
+        for (String uri : allUris) {
+            Instance instance = cache.getInstance(uri);
+            int combinations = 1;
+            for (int d = 0; d < dimensions; d++) {
+                values[d] = parse(instance.getProperty(properties[d]), uri);
+                combinations *= values[d].length;
+            }
+            if (combinations == 0) {
+                continue;
+            }
+            if (points + combinations > columns[0].length) {
+                int capacity = Math.max(columns[0].length * 2, points + combinations);
+                for (int d = 0; d < dimensions; d++) {
+                    columns[d] = Arrays.copyOf(columns[d], capacity);
+                }
+            }
+            // enumerate the cartesian product of the values of all dimensions
+            for (int c = 0; c < combinations; c++) {
+                int rest = c;
+                for (int d = dimensions - 1; d >= 0; d--) {
+                    columns[d][points] = values[d][rest % values[d].length];
+                    rest = rest / values[d].length;
+                }
+                points++;
+            }
+            uris[instances] = uri;
+            instanceStart[++instances] = points;
+        }
+        return new SpacePoints(Arrays.copyOf(uris, instances), Arrays.copyOf(instanceStart, instances + 1), columns,
+                points);
+    }
+
+    private static double[] parse(TreeSet<String> values, String uri) {
+        double[] result = new double[values.size()];
+        int i = 0;
+        for (String value : values) {
+            try {
+                result[i] = Double.parseDouble(value);
+                i++;
+            } catch (NumberFormatException e) {
+                logger.warn(value + " is not a number. Ignoring it for " + uri + ".");
+            }
+        }
+        return i == result.length ? result : Arrays.copyOf(result, i);
+    }
+
+    /**
+     * @return the number of points
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of instances owning at least one point
+     */
+    public int getInstanceCount() {
+        return uris.length;
+    }
+
+    /**
+     * @return the number of dimensions
+     */
+    public int getDimensions() {
+        return columns.length;
+    }
+}
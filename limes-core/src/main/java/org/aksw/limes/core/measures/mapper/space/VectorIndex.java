@@ -0,0 +1,294 @@
+package org.aksw.limes.core.measures.mapper.space;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.function.IntConsumer;
+
+import org.aksw.limes.core.execution.ExecutionContext;
+import org.aksw.limes.core.io.cache.VectorMatrix;
+
+/**
+ * Inverted file (IVF) index over the rows of a {@link VectorMatrix}. The rows
+ * are clustered with k-means into lists, each list is sorted by the distance
+ * of its rows to the list centroid and annotated with its radius. A query only
+ * scans the lists and the part of each list that may contain rows within the
+ * distance threshold according to the triangle inequality, which is exact.
+ * Limiting the number of probed lists to the ones with the closest centroids
+ * makes the search approximate.
+ * <p>
+ * For cosine similarity, distances are computed between the normalized
+ * vectors, i.e., d = sqrt(2 - 2 cos). Rows with a norm of 0 are not indexed.
+ */
+public class VectorIndex {
+
+    private static final int SAMPLE_PER_LIST = 16;
+    private static final int ITERATIONS = 5;
+
+    private final VectorMatrix matrix;
+    private final boolean cosine;
+    private float[][] centroids;
+    private double[] radii;
+    private int[] listStart;
+    private int[] rows;
+    private double[] rowDistances;
+
+    private VectorIndex(VectorMatrix matrix, boolean cosine) {
+        this.matrix = matrix;
+        this.cosine = cosine;
+    }
+
+    /**
+     * Builds the index.
+     *
+     * @param matrix
+     *            Vectors to index
+     * @param cosine
+     *            True if the index is used for cosine similarity, else for
+     *            Euclidean distance
+     * @param lists
+     *            Number of lists (k-means clusters)
+     * @param context
+     *            Context whose pool assigns the rows to the lists
+     * @param threads
+     *            Maximal number of threads used to assign the rows
+     * @return the index
+     */
+    public static VectorIndex build(VectorMatrix matrix, boolean cosine, int lists, ExecutionContext context,
+            int threads) {
+        VectorIndex index = new VectorIndex(matrix, cosine);
+        int[] indexed = index.getIndexableRows();
+        index.train(indexed, Math.max(1, Math.min(lists, indexed.length)), context, threads);
+        index.fill(indexed, context, threads);
+        return index;
+    }
+
+    private int[] getIndexableRows() {
+        int[] result = new int[matrix.size()];
+        int size = 0;
+        for (int row = 0; row < matrix.size(); row++) {
+            if (!cosine || matrix.getNorm(row) > 0) {
+                result[size++] = row;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Runs k-means on a deterministic sample of the rows.
+     */
+    private void train(int[] indexed, int lists, ExecutionContext context, int threads) {
+        int dimensions = matrix.getDimensions();
+        Random random = new Random(42);
+        int[] sample = indexed.clone();
+        int sampleSize = Math.min(sample.length, lists * SAMPLE_PER_LIST);
+        // partial Fisher-Yates shuffle
+        for (int i = 0; i < sampleSize; i++) {
+            int j = i + random.nextInt(sample.length - i);
+            int tmp = sample[i];
+            sample[i] = sample[j];
+            sample[j] = tmp;
+        }
+        sample = Arrays.copyOf(sample, sampleSize);
+        centroids = new float[lists][dimensions];
+        for (int l = 0; l < lists; l++) {
+            matrix.copyRow(sample[l], centroids[l]);
+            normalizeCentroid(centroids[l]);
+        }
+        float[] vector = new float[dimensions];
+        for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+            int[] assignment = assign(sample, new double[sample.length], context, threads);
+            double[][] sums = new double[lists][dimensions];
+            int[] counts = new int[lists];
+            for (int i = 0; i < sample.length; i++) {
+                matrix.copyRow(sample[i], vector);
+                double scale = cosine ? 1d / matrix.getNorm(sample[i]) : 1d;
+                double[] sum = sums[assignment[i]];
+                for (int d = 0; d < dimensions; d++) {
+                    sum[d] += vector[d] * scale;
+                }
+                counts[assignment[i]]++;
+            }
+            for (int l = 0; l < lists; l++) {
+                // empty lists keep their centroid
+                if (counts[l] > 0) {
+                    for (int d = 0; d < dimensions; d++) {
+                        centroids[l][d] = (float) (sums[l][d] / counts[l]);
+                    }
+                    normalizeCentroid(centroids[l]);
+                }
+            }
+        }
+    }
+
+    private void normalizeCentroid(float[] centroid) {
+        if (!cosine) {
+            return;
+        }
+        double norm = 0;
+        for (float f : centroid) {
+            norm += f * f;
+        }
+        if (norm > 0) {
+            norm = Math.sqrt(norm);
+            for (int d = 0; d < centroid.length; d++) {
+                centroid[d] = (float) (centroid[d] / norm);
+            }
+        }
+    }
+
+    /**
+     * Assigns all indexable rows to their closest centroid and lays the lists
+     * out in CSR format, sorted by the distance to the centroid.
+     */
+    private void fill(int[] indexed, ExecutionContext context, int threads) {
+        double[] distances = new double[indexed.length];
+        int[] assignment = assign(indexed, distances, context, threads);
+        int lists = centroids.length;
+        listStart = new int[lists + 1];
+        for (int a : assignment) {
+            listStart[a + 1]++;
+        }
+        for (int l = 0; l < lists; l++) {
+            listStart[l + 1] += listStart[l];
+        }
+        int[] fill = Arrays.copyOf(listStart, lists);
+        Integer[] order = new Integer[indexed.length];
+        for (int i = 0; i < indexed.length; i++) {
+            order[fill[assignment[i]]++] = i;
+        }
+        rows = new int[indexed.length];
+        rowDistances = new double[indexed.length];
+        radii = new double[lists];
+        for (int l = 0; l < lists; l++) {
+            Arrays.sort(order, listStart[l], listStart[l + 1], (a, b) -> Double.compare(distances[a], distances[b]));
+            for (int k = listStart[l]; k < listStart[l + 1]; k++) {
+                rows[k] = indexed[order[k]];
+                rowDistances[k] = distances[order[k]];
+            }
+            if (listStart[l + 1] > listStart[l]) {
+                radii[l] = rowDistances[listStart[l + 1] - 1];
+            }
+        }
+    }
+
+    /**
+     * Computes the closest centroid of each row in parallel.
+     */
+    private int[] assign(int[] toAssign, double[] distances, ExecutionContext context, int threads) {
+        int[] assignment = new int[toAssign.length];
+        int chunkSize = 1024;
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int from = 0; from < toAssign.length; from += chunkSize) {
+            final int start = from, end = Math.min(toAssign.length, from + chunkSize);
+            workers.add(() -> {
+                for (int i = start; i < end; i++) {
+                    double best = Double.POSITIVE_INFINITY;
+                    for (int l = 0; l < centroids.length; l++) {
+                        double distance = getDistance(toAssign[i], centroids[l]);
+                        if (distance < best) {
+                            best = distance;
+                            assignment[i] = l;
+                        }
+                    }
+                    distances[i] = best;
+                }
+                return null;
+            });
+        }
+        context.invokeAll(workers, threads);
+        return assignment;
+    }
+
+    /**
+     * Distance between an indexed row and a centroid.
+     */
+    private double getDistance(int row, float[] centroid) {
+        if (cosine) {
+            return Math.sqrt(Math.max(0, 2 - 2 * matrix.dot(row, centroid) / matrix.getNorm(row)));
+        }
+        return Math.sqrt(matrix.squaredDistance(row, centroid));
+    }
+
+    /**
+     * Distance between a query vector and a centroid.
+     */
+    private double getQueryDistance(float[] query, double queryNorm, float[] centroid) {
+        double sum = 0;
+        if (cosine) {
+            for (int d = 0; d < query.length; d++) {
+                sum += query[d] * centroid[d];
+            }
+            return Math.sqrt(Math.max(0, 2 - 2 * sum / queryNorm));
+        }
+        for (int d = 0; d < query.length; d++) {
+            double diff = query[d] - centroid[d];
+            sum += diff * diff;
+        }
+        return Math.sqrt(sum);
+    }
+
+    /**
+     * Collects the candidate rows of a query, i.e., all indexed rows whose
+     * distance to the query may not exceed the distance threshold.
+     *
+     * @param query
+     *            Query vector
+     * @param queryNorm
+     *            Norm of the query vector
+     * @param distanceThreshold
+     *            Distance threshold in the index space
+     * @param probes
+     *            Maximal number of lists to scan, ordered by the distance of
+     *            their centroid to the query. 0 scans all lists that may
+     *            contain candidates, which makes the search exact.
+     * @param candidates
+     *            Receives the candidate rows
+     */
+    public void search(float[] query, double queryNorm, double distanceThreshold, int probes,
+            IntConsumer candidates) {
+        int lists = centroids.length;
+        double[] centroidDistances = new double[lists];
+        Integer[] probed = new Integer[lists];
+        int size = 0;
+        for (int l = 0; l < lists; l++) {
+            centroidDistances[l] = getQueryDistance(query, queryNorm, centroids[l]);
+            if (listStart[l + 1] > listStart[l] && centroidDistances[l] - radii[l] <= distanceThreshold) {
+                probed[size++] = l;
+            }
+        }
+        if (probes > 0 && size > probes) {
+            Arrays.sort(probed, 0, size, (a, b) -> Double.compare(centroidDistances[a], centroidDistances[b]));
+            size = probes;
+        }
+        for (int i = 0; i < size; i++) {
+            int l = probed[i];
+            // |d(q,c) - d(r,c)| <= d(q,r)
+            int from = lowerBound(listStart[l], listStart[l + 1], centroidDistances[l] - distanceThreshold);
+            for (int k = from; k < listStart[l + 1] && rowDistances[k] <= centroidDistances[l] + distanceThreshold; k++) {
+                candidates.accept(rows[k]);
+            }
+        }
+    }
+
+    private int lowerBound(int from, int to, double value) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (rowDistances[mid] < value) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * @return the number of lists
+     */
+    public int getListCount() {
+        return centroids.length;
+    }
+}
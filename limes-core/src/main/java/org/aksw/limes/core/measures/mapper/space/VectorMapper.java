@@ -0,0 +1,261 @@
+package org.aksw.limes.core.measures.mapper.space;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.aksw.limes.core.exceptions.InvalidThresholdException;
+import org.aksw.limes.core.execution.ExecutionContext;
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.VectorMatrix;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.aksw.limes.core.io.parser.Parser;
+import org.aksw.limes.core.measures.mapper.AMapper;
+import org.aksw.limes.core.measures.mapper.pointsets.PropertyFetcher;
+import org.aksw.limes.core.measures.measure.MeasureFactory;
+import org.aksw.limes.core.measures.measure.MeasureType;
+import org.aksw.limes.core.measures.measure.space.ISpaceMeasure;
+
+/**
+ * Mapper for the vector_cosine and vector_euclidean measures. The vectors of
+ * both caches are read into {@link VectorMatrix} instances (or reused if the
+ * cache was filled by the VectorQueryModule). Small inputs are compared
+ * exhaustively, larger ones are compared through an IVF index over the target
+ * vectors. The source vectors are processed in parallel in both cases.
+ * <p>
+ * By default all lists of the index are probed, so the mapping is exact.
+ * Probing only a fraction of them (see {@link #setProbeRatio(double)} or the
+ * system property {@link #PROBE_RATIO_PROPERTY}) is faster but may miss
+ * links with a similarity close to the threshold.
+ */
+public class VectorMapper extends AMapper {
+
+    /**
+     * System property holding the default number of pairs up to which inputs
+     * are compared exhaustively
+     */
+    public static final String BRUTE_FORCE_LIMIT_PROPERTY = "limes.vector.bruteForceLimit";
+    /**
+     * System property holding the default ratio of the IVF lists to probe
+     */
+    public static final String PROBE_RATIO_PROPERTY = "limes.vector.probeRatio";
+    /**
+     * Default number of pairs up to which inputs are compared exhaustively
+     */
+    public static final long DEFAULT_BRUTE_FORCE_LIMIT = 1L << 22;
+    /**
+     * Default ratio of the IVF lists to probe, i.e., all of them
+     */
+    public static final double DEFAULT_PROBE_RATIO = 1;
+
+    private long bruteForceLimit = DEFAULT_BRUTE_FORCE_LIMIT;
+    private double probeRatio = DEFAULT_PROBE_RATIO;
+
+    /**
+     * Constructor, reading the defaults of the settings from the system
+     * properties if they are set.
+     */
+    public VectorMapper() {
+        if (System.getProperty(BRUTE_FORCE_LIMIT_PROPERTY) != null) {
+            setBruteForceLimit(Long.parseLong(System.getProperty(BRUTE_FORCE_LIMIT_PROPERTY)));
+        }
+        if (System.getProperty(PROBE_RATIO_PROPERTY) != null) {
+            setProbeRatio(Double.parseDouble(System.getProperty(PROBE_RATIO_PROPERTY)));
+        }
+    }
+
+    /**
+     * @return the number of pairs up to which inputs are compared
+     *         exhaustively
+     */
+    public long getBruteForceLimit() {
+        return bruteForceLimit;
+    }
+
+    /**
+     * Sets the number of pairs up to which inputs are compared exhaustively.
+     * Larger inputs are compared through an IVF index.
+     *
+     * @param bruteForceLimit
+     *            Non-negative number of pairs
+     */
+    public void setBruteForceLimit(long bruteForceLimit) {
+        if (bruteForceLimit < 0) {
+            throw new IllegalArgumentException("Brute force limit must not be negative: " + bruteForceLimit);
+        }
+        this.bruteForceLimit = bruteForceLimit;
+    }
+
+    /**
+     * @return the ratio of the IVF lists probed per source vector
+     */
+    public double getProbeRatio() {
+        return probeRatio;
+    }
+
+    /**
+     * Sets the number of IVF lists to probe per source vector, relative to
+     * the number of lists. Values below 1 make the search approximate.
+     *
+     * @param probeRatio
+     *            Ratio in (0, 1]
+     */
+    public void setProbeRatio(double probeRatio) {
+        if (!(probeRatio > 0 && probeRatio <= 1)) {
+            throw new IllegalArgumentException("Probe ratio must be in (0, 1]: " + probeRatio);
+        }
+        this.probeRatio = probeRatio;
+    }
+
+    public String getName() {
+        return "VectorMapper";
+    }
+
+    @Override
+    public String getParameters() {
+        return "bruteForceLimit=" + bruteForceLimit + ",probeRatio=" + probeRatio;
+    }
+
+    /**
+     * Computes a mapping between a source and a target.
+     *
+     * @param source
+     *            Source cache
+     * @param target
+     *            Target cache
+     * @param sourceVar
+     *            Variable for the source dataset
+     * @param targetVar
+     *            Variable for the target dataset
+     * @param expression
+     *            Expression to process.
+     * @param threshold
+     *            Similarity threshold
+     * @return A mapping which contains links between the source instances and
+     *         the target instances
+     */
+    public AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
+            double threshold) {
+        if (threshold <= 0) {
+            throw new InvalidThresholdException(threshold);
+        }
+        List<String> properties = PropertyFetcher.getProperties(expression, threshold);
+        MeasureType type = MeasureFactory.getMeasureType(new Parser(expression, threshold).getOperator());
+        boolean cosine = type == MeasureType.VECTOR_COSINE;
+        double distanceThreshold = ((ISpaceMeasure) MeasureFactory.createMeasure(type)).getThreshold(0, threshold);
+        VectorMatrix sourceVectors = VectorMatrix.forCache(source, properties.get(0));
+        VectorMatrix targetVectors = VectorMatrix.forCache(target, properties.get(1));
+        AMapping mapping = MappingFactory.createDefaultMapping();
+        if (sourceVectors == null || targetVectors == null) {
+            return mapping;
+        }
+        if (sourceVectors.getDimensions() != targetVectors.getDimensions()) {
+            throw new IllegalArgumentException("Source and target of " + expression + " differ in dimensions.");
+        }
+        int rows = sourceVectors.size();
+        int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), rows / 100));
+        int chunkSize = Math.max(1, (rows + threads * 8 - 1) / (threads * 8));
+        ExecutionContext context = this.context;
+        VectorIndex index = null;
+        int probes = 0;
+        if ((long) sourceVectors.size() * targetVectors.size() > bruteForceLimit) {
+            int lists = (int) Math.min(1024, Math.max(1, Math.round(Math.sqrt(targetVectors.size()))));
+            index = VectorIndex.build(targetVectors, cosine, lists, context, threads);
+            probes = probeRatio >= 1 ? 0 : (int) Math.max(1, Math.ceil(probeRatio * index.getListCount()));
+        }
+        List<Callable<LinkBuffer>> workers = new ArrayList<>();
+        int chunks = (rows + chunkSize - 1) / chunkSize;
+        AtomicInteger done = new AtomicInteger();
+        for (int from = 0; from < rows; from += chunkSize) {
+            final int start = from, end = Math.min(rows, from + chunkSize);
+            final VectorIndex finalIndex = index;
+            final int finalProbes = probes;
+            workers.add(() -> {
+                LinkBuffer links = compare(sourceVectors, targetVectors, finalIndex, finalProbes, cosine,
+                        threshold, distanceThreshold, start, end, context);
+                context.progress((double) done.incrementAndGet() / chunks);
+                return links;
+            });
+        }
+        for (LinkBuffer links : context.invokeAll(workers, threads)) {
+            countCandidates(links.candidates);
+            for (int i = 0; i < links.size; i++) {
+                mapping.add(sourceVectors.getUri(links.sources[i]), targetVectors.getUri(links.targets[i]),
+                        links.similarities[i]);
+            }
+        }
+        return mapping;
+    }
+
+    /**
+     * Compares the source rows [from, to) with all target rows or with the
+     * candidates returned by the index. The context is checked every 64 rows.
+     */
+    private static LinkBuffer compare(VectorMatrix sourceVectors, VectorMatrix targetVectors, VectorIndex index,
+            int probes, boolean cosine, double threshold, double distanceThreshold, int from, int to,
+            ExecutionContext context) {
+        LinkBuffer links = new LinkBuffer();
+        float[] query = new float[sourceVectors.getDimensions()];
+        for (int s = from; s < to; s++) {
+            if (((s - from) & 63) == 0) {
+                context.checkpoint();
+            }
+            double queryNorm = sourceVectors.getNorm(s);
+            if (cosine && queryNorm == 0) {
+                continue;
+            }
+            sourceVectors.copyRow(s, query);
+            final int source = s;
+            if (index == null) {
+                for (int t = 0; t < targetVectors.size(); t++) {
+                    compare(targetVectors, t, query, queryNorm, cosine, threshold, source, links);
+                }
+            } else {
+                // the distances are computed on floats, keep the pruning
+                // conservative
+                index.search(query, queryNorm, distanceThreshold + 1e-4, probes,
+                        t -> compare(targetVectors, t, query, queryNorm, cosine, threshold, source, links));
+            }
+        }
+        return links;
+    }
+
+    private static void compare(VectorMatrix targetVectors, int t, float[] query, double queryNorm, boolean cosine,
+            double threshold, int source, LinkBuffer links) {
+        links.candidates++;
+        double sim;
+        if (cosine) {
+            double norm = targetVectors.getNorm(t);
+            if (norm == 0) {
+                return;
+            }
+            sim = Math.max(0, Math.min(1, targetVectors.dot(t, query) / (queryNorm * norm)));
+        } else {
+            sim = 1d / (1d + Math.sqrt(targetVectors.squaredDistance(t, query)));
+        }
+        if (sim >= threshold) {
+            links.add(source, t, sim);
+        }
+    }
+
+    /**
+     * No regression has been fitted for this mapper, so it returns the
+     * neutral default of the other uncalibrated mappers. Calibrated runtimes
+     * are taken from the cost profile, if one is enabled.
+     */
+    @Override
+    public double getRuntimeApproximation(int sourceSize, int targetSize, double threshold, Language language) {
+        return 1000d;
+    }
+
+    /**
+     * No regression has been fitted for this mapper, so it returns the
+     * neutral default of the other uncalibrated mappers.
+     */
+    @Override
+    public double getMappingSizeApproximation(int sourceSize, int targetSize, double threshold, Language language) {
+        return 1000d;
+    }
+}
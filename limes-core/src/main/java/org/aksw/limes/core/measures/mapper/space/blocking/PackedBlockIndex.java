@@ -0,0 +1,249 @@
+package org.aksw.limes.core.measures.mapper.space.blocking;
+
+import java.util.Arrays;
+
+import org.aksw.limes.core.measures.mapper.space.SpacePoints;
+
+/**
+ * HR3 block index over primitive points. Each block id is a vector of cell
+ * coordinates (one per dimension, cell width = threshold / granularity) that is
+ * packed into a single long using a mixed-radix encoding over the bounding box
+ * of the source and target points. The box is padded by the granularity in
+ * each dimension so that neighbour blocks can be addressed by adding a
+ * precomputed offset to the packed id without ever leaving the encodable
+ * range.
+ * <p>
+ * The target points are stored in CSR layout: an open-addressing hash table
+ * maps a packed block id to a slot, and all points of slot k are found in
+ * {@code points[slotStart[k]..slotStart[k+1])}. Lookups and neighbour
+ * enumeration do not allocate.
+ */
+public class PackedBlockIndex {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final int dimensions;
+    private final double[] cellWidths;
+    private final long[] minCells;
+    private final long[] strides;
+    private final long[] neighbourOffsets;
+
+    private long[] tableKeys;
+    private int[] tableSlots;
+    private int mask;
+    private int[] slotStart;
+    private int[] points;
+
+    private PackedBlockIndex(int dimensions, double[] cellWidths, long[] minCells, long[] strides,
+            long[] neighbourOffsets) {
+        this.dimensions = dimensions;
+        this.cellWidths = cellWidths;
+        this.minCells = minCells;
+        this.strides = strides;
+        this.neighbourOffsets = neighbourOffsets;
+    }
+
+    /**
+     * Builds the index for the target points.
+     *
+     * @param source
+     *            Source points, only used to compute the bounding box
+     * @param target
+     *            Target points to index
+     * @param distanceThreshold
+     *            Distance threshold, must be positive and finite
+     * @param granularity
+     *            HR3 granularity (number of cells per threshold)
+     * @param manhattan
+     *            True if the blocks to compare should be pruned for the
+     *            Manhattan metric, else they are pruned for the Euclidean one
+     * @return the index or null if the block ids of the input cannot be packed
+     *         into a long
+     */
+    public static PackedBlockIndex build(SpacePoints source, SpacePoints target, double distanceThreshold,
+            int granularity, boolean manhattan) {
+        int dimensions = target.getDimensions();
+        double[] cellWidths = new double[dimensions];
+        long[] minCells = new long[dimensions];
+        long[] strides = new long[dimensions];
+        long stride = 1;
+        for (int d = 0; d < dimensions; d++) {
+            cellWidths[d] = distanceThreshold / granularity;
+            double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+            for (SpacePoints sp : new SpacePoints[] { source, target }) {
+                double[] column = sp.columns[d];
+                for (int i = 0; i < sp.size(); i++) {
+                    min = Math.min(min, column[i]);
+                    max = Math.max(max, column[i]);
+                }
+            }
+            if (min > max) {
+                min = max = 0;
+            }
+            double lo = Math.floor(min / cellWidths[d]) - granularity;
+            double hi = Math.floor(max / cellWidths[d]) + granularity;
+            double range = hi - lo + 1;
+            // keep a safety margin below 2^62 so that key + offset never
+            // overflows
+            if (Double.isNaN(range) || Double.isInfinite(range) || range * stride > (double) (1L << 62)) {
+                return null;
+            }
+            minCells[d] = (long) lo;
+            strides[d] = stride;
+            stride = stride * (long) range;
+        }
+        PackedBlockIndex index = new PackedBlockIndex(dimensions, cellWidths, minCells, strides,
+                computeNeighbourOffsets(strides, granularity, manhattan));
+        index.indexTarget(target);
+        return index;
+    }
+
+    /**
+     * Computes the packed offsets of all blocks that may contain points within
+     * the distance threshold of a point of the center block. A block with cell
+     * offset (o_1, ..., o_n) can only contain such points if the sum of
+     * max(|o_d| - 1, 0)^p is at most granularity^p.
+     */
+    private static long[] computeNeighbourOffsets(long[] strides, int granularity, boolean manhattan) {
+        int dimensions = strides.length;
+        int[] offset = new int[dimensions];
+        Arrays.fill(offset, -granularity);
+        long bound = manhattan ? granularity : (long) granularity * granularity;
+        long[] result = new long[16];
+        int size = 0;
+        while (true) {
+            long gap = 0;
+            long packed = 0;
+            for (int d = 0; d < dimensions; d++) {
+                long cells = Math.max(Math.abs(offset[d]) - 1, 0);
+                gap += manhattan ? cells : cells * cells;
+                packed += offset[d] * strides[d];
+            }
+            if (gap <= bound) {
+                if (size == result.length) {
+                    result = Arrays.copyOf(result, size * 2);
+                }
+                result[size++] = packed;
+            }
+            // odometer increment over [-granularity, granularity]^dimensions
+            int d = 0;
+            while (d < dimensions && offset[d] == granularity) {
+                offset[d] = -granularity;
+                d++;
+            }
+            if (d == dimensions) {
+                break;
+            }
+            offset[d]++;
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private void indexTarget(SpacePoints target) {
+        int n = target.size();
+        long[] keys = new long[n];
+        int capacity = Integer.highestOneBit(Math.max(4, n * 2 - 1)) << 1;
+        tableKeys = new long[capacity];
+        Arrays.fill(tableKeys, EMPTY);
+        tableSlots = new int[capacity];
+        mask = capacity - 1;
+        int[] counts = new int[Math.max(1, n)];
+        int slots = 0;
+        for (int i = 0; i < n; i++) {
+            keys[i] = getBlockId(target.columns, i);
+            int pos = find(keys[i]);
+            if (tableKeys[pos] == EMPTY) {
+                tableKeys[pos] = keys[i];
+                tableSlots[pos] = slots++;
+            }
+            counts[tableSlots[pos]]++;
+        }
+        slotStart = new int[slots + 1];
+        for (int k = 0; k < slots; k++) {
+            slotStart[k + 1] = slotStart[k] + counts[k];
+        }
+        int[] fill = Arrays.copyOf(slotStart, slots);
+        points = new int[n];
+        for (int i = 0; i < n; i++) {
+            points[fill[tableSlots[find(keys[i])]]++] = i;
+        }
+    }
+
+    private int find(long key) {
+        int pos = (int) mix(key) & mask;
+        while (tableKeys[pos] != EMPTY && tableKeys[pos] != key) {
+            pos = (pos + 1) & mask;
+        }
+        return pos;
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    /**
+     * Computes the packed block id of a point.
+     *
+     * @param columns
+     *            Coordinates of the points, column-wise
+     * @param point
+     *            Index of the point
+     * @return the packed block id
+     */
+    public long getBlockId(double[][] columns, int point) {
+        long key = 0;
+        for (int d = 0; d < dimensions; d++) {
+            key += ((long) Math.floor(columns[d][point] / cellWidths[d]) - minCells[d]) * strides[d];
+        }
+        return key;
+    }
+
+    /**
+     * @return the packed offsets of the blocks to compare with any block
+     */
+    public long[] getNeighbourOffsets() {
+        return neighbourOffsets;
+    }
+
+    /**
+     * Returns the slot of a block, which can be used with
+     * {@link #getSlotStart(int)} and {@link #getSlotEnd(int)}.
+     *
+     * @param blockId
+     *            Packed block id
+     * @return the slot of the block or -1 if the block is empty
+     */
+    public int getSlot(long blockId) {
+        int pos = find(blockId);
+        return tableKeys[pos] == EMPTY ? -1 : tableSlots[pos];
+    }
+
+    /**
+     * @param slot
+     *            Slot of a non-empty block
+     * @return the first position of the block in {@link #getPoints()}
+     */
+    public int getSlotStart(int slot) {
+        return slotStart[slot];
+    }
+
+    /**
+     * @param slot
+     *            Slot of a non-empty block
+     * @return the position after the last point of the block in
+     *         {@link #getPoints()}
+     */
+    public int getSlotEnd(int slot) {
+        return slotStart[slot + 1];
+    }
+
+    /**
+     * @return the indexes of the target points, grouped by block
+     */
+    public int[] getPoints() {
+        return points;
+    }
+}
@@ -368,6 +368,14 @@ public class EDJoinMapper extends AMapper {
     @Override
     public AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
             double threshold) {
+        // the join keeps its state in static fields
+        synchronized (EDJoinMapper.class) {
+            return join(source, target, sourceVar, targetVar, expression, threshold);
+        }
+    }
+
+    private AMapping join(ACache source, ACache target, String sourceVar, String targetVar, String expression,
+            double threshold) {
 
         if (Q <= 1) {
             Q = 3;
@@ -446,6 +454,7 @@ public class EDJoinMapper extends AMapper {
         // run the core of EdJoin
         String id1, id2;
         for (int i = 0; i < records.length; i++) {
+            checkpoint(i, records.length);
             /*
              * if the length of a record is smaller than q, then we cannot use
              * the q-gram approach and have to go for comparison without q-gram
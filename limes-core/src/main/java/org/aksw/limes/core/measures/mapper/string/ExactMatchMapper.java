@@ -10,6 +10,7 @@ import java.util.TreeSet;
 import org.aksw.limes.core.exceptions.InvalidThresholdException;
 import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.LinkSink;
 import org.aksw.limes.core.io.mapping.MappingFactory;
 import org.aksw.limes.core.measures.mapper.AMapper;
 import org.aksw.limes.core.measures.mapper.pointsets.PropertyFetcher;
@@ -45,6 +46,14 @@ public class ExactMatchMapper extends AMapper {
     @Override
     public AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
             double threshold) {
+        AMapping m = MappingFactory.createDefaultMapping();
+        getMapping(source, target, sourceVar, targetVar, expression, threshold, m::add);
+        return m;
+    }
+
+    @Override
+    public void getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
+            double threshold, LinkSink sink) {
         if (threshold <= 0) {
             throw new InvalidThresholdException(threshold);
         }
@@ -56,7 +65,6 @@ public class ExactMatchMapper extends AMapper {
         }
         Map<String, Set<String>> sourceIndex = getValueToUriMap(source, properties.get(0));
         Map<String, Set<String>> targetIndex = getValueToUriMap(target, properties.get(1));
-        AMapping m = MappingFactory.createDefaultMapping();
         boolean swapped = sourceIndex.keySet().size() > targetIndex.keySet().size();
         (!swapped ? sourceIndex : targetIndex).keySet().stream().filter(!swapped ? targetIndex::containsKey : sourceIndex::containsKey).forEach(value -> {
             for (String sourceUri : (!swapped ? sourceIndex : targetIndex).get(value)) {
@@ -66,11 +74,10 @@ public class ExactMatchMapper extends AMapper {
                         sourceUri = targetUri;
                         targetUri = tmp;
                     }
-                        m.add(sourceUri, targetUri, 1d);
+                        sink.add(sourceUri, targetUri, 1d);
                 }
             }
         });
-        return m;
     }
 
     public Map<String, Set<String>> index(ACache c, String property) {
@@ -0,0 +1,333 @@
+package org.aksw.limes.core.measures.mapper.string;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aksw.limes.core.exceptions.InvalidThresholdException;
+import org.aksw.limes.core.execution.ExecutionContext;
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.parser.Parser;
+import org.aksw.limes.core.measures.mapper.AMapper;
+import org.aksw.limes.core.measures.mapper.pointsets.PropertyFetcher;
+import org.aksw.limes.core.measures.measure.AMeasure;
+import org.aksw.limes.core.measures.measure.MeasureFactory;
+import org.aksw.limes.core.measures.measure.MeasureType;
+import org.aksw.limes.core.measures.measure.string.TrigramMeasure;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Approximate mapper for approx_jaccard and approx_trigram based on MinHash
+ * signatures and locality-sensitive hashing. The signatures of all distinct
+ * values are computed in parallel and split into bands; two values become a
+ * candidate pair if they agree on all rows of at least one band. Candidates
+ * are verified with the exact {@link
+ * org.aksw.limes.core.measures.measure.string.JaccardMeasure} or
+ * {@link TrigramMeasure}, so the mapping contains no false positives, but
+ * pairs above the threshold may be missed.
+ * <p>
+ * The number of bands b and rows r is chosen such that a pair whose Jaccard
+ * similarity equals the threshold j is found with probability 1 - (1 -
+ * j^r)^b &gt;= {@link #getRecall()}, using the largest r (i.e., the fewest
+ * false candidates) that fits in {@link #getMaxHashes()} hash functions. The
+ * mappers created by the {@link org.aksw.limes.core.measures.mapper.MapperFactory}
+ * use a recall of {@value #DEFAULT_RECALL} and at most
+ * {@value #DEFAULT_MAX_HASHES} hash functions.
+ */
+public class MinHashLSHMapper extends AMapper {
+    private static final Logger logger = LoggerFactory.getLogger(MinHashLSHMapper.class);
+
+    /**
+     * Default probability of finding a pair whose similarity equals the
+     * threshold
+     */
+    public static final double DEFAULT_RECALL = 0.95;
+    /**
+     * Default maximal length of the signatures
+     */
+    public static final int DEFAULT_MAX_HASHES = 256;
+
+    private double recall = DEFAULT_RECALL;
+    private int maxHashes = DEFAULT_MAX_HASHES;
+
+    /**
+     * @return probability of finding a pair whose similarity equals the
+     *         threshold
+     */
+    public double getRecall() {
+        return recall;
+    }
+
+    /**
+     * Sets the probability of finding a pair whose similarity equals the
+     * threshold. A higher recall needs more bands and hence yields more
+     * candidates.
+     *
+     * @param recall
+     *            Probability in (0, 1)
+     */
+    public void setRecall(double recall) {
+        if (!(recall > 0 && recall < 1)) {
+            throw new IllegalArgumentException("Recall must be in (0, 1): " + recall);
+        }
+        this.recall = recall;
+    }
+
+    /**
+     * @return maximal length of the signatures
+     */
+    public int getMaxHashes() {
+        return maxHashes;
+    }
+
+    /**
+     * Sets the maximal length of the signatures, i.e., the maximal number of
+     * bands times rows.
+     *
+     * @param maxHashes
+     *            Positive number of hash functions
+     */
+    public void setMaxHashes(int maxHashes) {
+        if (maxHashes < 1) {
+            throw new IllegalArgumentException("Number of hash functions must be positive: " + maxHashes);
+        }
+        this.maxHashes = maxHashes;
+    }
+
+    @Override
+    public String getName() {
+        return "MinHashLSHMapper";
+    }
+
+    @Override
+    public String getParameters() {
+        return "recall=" + recall + ",maxHashes=" + maxHashes;
+    }
+
+    /**
+     * Computes a mapping between a source and a target.
+     *
+     * @param source
+     *            Source cache
+     * @param target
+     *            Target cache
+     * @param sourceVar
+     *            Variable for the source dataset
+     * @param targetVar
+     *            Variable for the target dataset
+     * @param expression
+     *            Expression to process.
+     * @param threshold
+     *            Similarity threshold
+     * @return A mapping which contains links between the source instances and
+     *         the target instances
+     */
+    @Override
+    public AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
+            double threshold) {
+        if (threshold <= 0) {
+            throw new InvalidThresholdException(threshold);
+        }
+        List<String> properties = PropertyFetcher.getProperties(expression, threshold);
+        MeasureType type = MeasureFactory.getMeasureType(new Parser(expression, threshold).getOperator());
+        boolean trigram = type == MeasureType.APPROX_TRIGRAM;
+        // the trigram measure is a Dice coefficient, D = 2J / (1 + J)
+        double jaccardThreshold = trigram ? threshold / (2 - threshold) : threshold;
+        int[] bandsAndRows = getBandsAndRows(jaccardThreshold, recall, maxHashes);
+        int bands = bandsAndRows[0], rows = bandsAndRows[1];
+        logger.debug("Using " + bands + " bands of " + rows + " rows for a Jaccard threshold of " + jaccardThreshold);
+
+        Map<String, Set<String>> sourceMap = getValueToUriMap(source, properties.get(0));
+        Map<String, Set<String>> targetMap = getValueToUriMap(target, properties.get(1));
+        String[] sourceValues = sourceMap.keySet().toArray(new String[sourceMap.size()]);
+        String[] targetValues = targetMap.keySet().toArray(new String[targetMap.size()]);
+        long[] seeds = new long[bands * rows];
+        Random random = new Random(42);
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = random.nextLong();
+        }
+
+        Map<String, Map<String, Double>> similarityBook = new ConcurrentHashMap<>();
+        int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(),
+                (sourceValues.length + targetValues.length) / 1000));
+        ExecutionContext context = this.context;
+        int[][] targetSignatures = getSignatures(targetValues, trigram, seeds, context, threads);
+        long[][] buckets = new long[bands][];
+        for (int band = 0; band < bands; band++) {
+            buckets[band] = new long[targetValues.length];
+            for (int t = 0; t < targetValues.length; t++) {
+                buckets[band][t] = ((long) getBandHash(targetSignatures[t], band, rows) << 32) | t;
+            }
+            Arrays.sort(buckets[band]);
+        }
+        int[][] sourceSignatures = getSignatures(sourceValues, trigram, seeds, context, threads);
+        List<Callable<Void>> workers = new ArrayList<>();
+        int chunkSize = Math.max(1, (sourceValues.length + threads * 8 - 1) / (threads * 8));
+        for (int from = 0; from < sourceValues.length; from += chunkSize) {
+            final int start = from, end = Math.min(sourceValues.length, from + chunkSize);
+            workers.add(() -> {
+                AMeasure measure = MeasureFactory.createMeasure(type);
+                // stamp of the last source value that considered a target
+                int[] seen = new int[targetValues.length];
+                for (int s = start; s < end; s++) {
+                    Map<String, Double> similarities = new HashMap<>();
+                    for (int band = 0; band < bands; band++) {
+                        long hash = getBandHash(sourceSignatures[s], band, rows);
+                        int k = lowerBound(buckets[band], hash << 32);
+                        for (; k < buckets[band].length && (buckets[band][k] >> 32) == hash; k++) {
+                            int t = (int) buckets[band][k];
+                            if (seen[t] == s + 1) {
+                                continue;
+                            }
+                            seen[t] = s + 1;
+                            double sim = measure.getSimilarity(sourceValues[s], targetValues[t]);
+                            if (sim >= threshold) {
+                                similarities.put(targetValues[t], sim);
+                            }
+                        }
+                    }
+                    if (!similarities.isEmpty()) {
+                        similarityBook.put(sourceValues[s], similarities);
+                    }
+                }
+                return null;
+            });
+        }
+        context.invokeAll(workers, threads);
+        return getUriToUriMapping(similarityBook, sourceMap, targetMap);
+    }
+
+    /**
+     * Chooses the number of bands and rows.
+     *
+     * @param jaccardThreshold
+     *            Jaccard similarity that must be found with the given
+     *            probability
+     * @param recall
+     *            Target probability
+     * @param maxHashes
+     *            Maximal number of hash functions (bands * rows)
+     * @return {bands, rows}
+     */
+    static int[] getBandsAndRows(double jaccardThreshold, double recall, int maxHashes) {
+        int[] result = { Math.max(1, maxHashes), 1 };
+        if (jaccardThreshold >= 1 || recall <= 0) {
+            return result;
+        }
+        double miss = Math.log(1 - Math.min(recall, 1 - 1e-9));
+        for (int rows = 1; rows <= maxHashes; rows++) {
+            double collision = Math.pow(jaccardThreshold, rows);
+            int bands = (int) Math.ceil(miss / Math.log(1 - collision));
+            if ((long) bands * rows > maxHashes) {
+                break;
+            }
+            result[0] = bands;
+            result[1] = rows;
+        }
+        return result;
+    }
+
+    private static int[][] getSignatures(String[] values, boolean trigram, long[] seeds, ExecutionContext context,
+            int threads) {
+        int[][] signatures = new int[values.length][];
+        List<Callable<Void>> workers = new ArrayList<>();
+        int chunkSize = 1024;
+        for (int from = 0; from < values.length; from += chunkSize) {
+            final int start = from, end = Math.min(values.length, from + chunkSize);
+            workers.add(() -> {
+                TrigramMeasure measure = new TrigramMeasure();
+                for (int i = start; i < end; i++) {
+                    signatures[i] = getSignature(getTokens(values[i], trigram, measure), seeds);
+                }
+                return null;
+            });
+        }
+        context.invokeAll(workers, threads);
+        return signatures;
+    }
+
+    /**
+     * Returns the tokens the exact measure works on: whitespace-separated
+     * tokens for Jaccard and the n-grams of the padded value for trigram.
+     */
+    private static Set<String> getTokens(String value, boolean trigram, TrigramMeasure measure) {
+        if (trigram) {
+            return measure.getTrigrams("  " + value + "  ");
+        }
+        Set<String> tokens = new HashSet<>();
+        for (String token : value.trim().split("\\s+")) {
+            tokens.add(token);
+        }
+        return tokens;
+    }
+
+    private static int[] getSignature(Set<String> tokens, long[] seeds) {
+        int[] signature = new int[seeds.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (String token : tokens) {
+            long hash = mix(token.hashCode());
+            for (int i = 0; i < seeds.length; i++) {
+                int h = (int) (mix(hash ^ seeds[i]) >>> 32);
+                if (h < signature[i]) {
+                    signature[i] = h;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private static long getBandHash(int[] signature, int band, int rows) {
+        long hash = 1;
+        for (int r = band * rows; r < (band + 1) * rows; r++) {
+            hash = hash * 31 + signature[r];
+        }
+        // keep 31 bits so that the packed bucket entries sort by hash
+        return mix(hash) >>> 33;
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static int lowerBound(long[] sorted, long value) {
+        int from = 0, to = sorted.length;
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (sorted[mid] < value) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * Hashing dominates the runtime, the number of verified candidates is
+     * about the size of the mapping.
+     */
+    @Override
+    public double getRuntimeApproximation(int sourceSize, int targetSize, double threshold, Language language) {
+        return 1e-3 * (sourceSize + targetSize) * Math.sqrt(maxHashes)
+                + 1e-3 * getMappingSizeApproximation(sourceSize, targetSize, threshold, language);
+    }
+
+    @Override
+    public double getMappingSizeApproximation(int sourceSize, int targetSize, double threshold, Language language) {
+        return recall * new PPJoinPlusPlus().getMappingSizeApproximation(sourceSize, targetSize, threshold, language);
+    }
+}
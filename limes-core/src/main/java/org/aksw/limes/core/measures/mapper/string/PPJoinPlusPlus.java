@@ -463,6 +463,7 @@ public class PPJoinPlusPlus extends AMapper {
             throw new RuntimeException();
         }
         for (int i = 0; i < records.length; i++) {
+            checkpoint(i, records.length);
             HashMap<Record, CandidateInfo> candidates = new HashMap<Record, CandidateInfo>(); // A
             Record currentRec = records[i]; // record x
             int tokensNumber = currentRec.tokens.length; // |x|
@@ -555,12 +556,14 @@ public class PPJoinPlusPlus extends AMapper {
     private int verification(Record currentRec, HashMap<Record, CandidateInfo> candidates, AMapping mapping,
             HashMap<Integer, String> sourceMap, HashMap<Integer, String> targetMap, IStringMeasure measure) {
         int count = 0;
+        long compared = 0;
         String id1, id2;
 
         for (@SuppressWarnings("rawtypes")
         Map.Entry e : candidates.entrySet()) {
             CandidateInfo value = (CandidateInfo) e.getValue();
             if (value.currentOverlap > 0) {
+                compared++;
                 Record key = (Record) e.getKey();
                 int overlap = value.currentOverlap;
                 Token wx = currentRec.tokens[currentRec.prefixLength - 1];
@@ -621,6 +624,7 @@ public class PPJoinPlusPlus extends AMapper {
                 // count++;
             }
         }
+        countCandidates(compared);
         return count;
     }
 
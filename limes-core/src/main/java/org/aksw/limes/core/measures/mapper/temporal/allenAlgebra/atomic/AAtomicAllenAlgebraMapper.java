@@ -10,6 +10,7 @@ import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.TreeSet;
 
+import org.aksw.limes.core.execution.ExecutionContext;
 import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.cache.Instance;
 import org.aksw.limes.core.io.parser.Parser;
@@ -32,10 +33,26 @@ import org.slf4j.LoggerFactory;
 public abstract class AAtomicAllenAlgebraMapper {
     protected static final Logger logger = LoggerFactory.getLogger(AAtomicAllenAlgebraMapper.class);
 
+    /**
+     * Context of the mapping task, checked once per source event
+     */
+    protected final ExecutionContext context;
+
     /**
      * Constructor of AtomicAllenAlgebraMapper class.
      */
     public AAtomicAllenAlgebraMapper() {
+        this(ExecutionContext.NONE);
+    }
+
+    /**
+     * Constructor of AtomicAllenAlgebraMapper class.
+     *
+     * @param context,
+     *            The context of the mapping task
+     */
+    public AAtomicAllenAlgebraMapper(ExecutionContext context) {
+        this.context = context;
     }
 
     /**
@@ -191,13 +208,16 @@ public abstract class AAtomicAllenAlgebraMapper {
      *            The set of source instances ordered by begin/end date
      * @param targets,
      *            The set of target instances ordered by begin/end date
+     * @param context,
+     *            The context of the mapping task
      * @return concurrentEvents, the map of concurrent events
      */
     protected static TreeMap<String, Set<String>> mapConcurrent(TreeMap<Long, Set<String>> sources,
-            TreeMap<Long, Set<String>> targets) {
+            TreeMap<Long, Set<String>> targets, ExecutionContext context) {
         TreeMap<String, Set<String>> concurrentEvents = new TreeMap<String, Set<String>>();
 
         for (Map.Entry<Long, Set<String>> sourceEntry : sources.entrySet()) {
+            context.checkpoint();
 
             Long sourceTimeStamp = sourceEntry.getKey();
             Set<String> sourceInstances = sourceEntry.getValue();
@@ -221,13 +241,16 @@ public abstract class AAtomicAllenAlgebraMapper {
      *            The set of source instances ordered by begin/end date
      * @param targets,
      *            The set of target instances ordered by begin/end date
+     * @param context,
+     *            The context of the mapping task
      * @return concurrentEvents, the map of predecessor events
      */
     protected static TreeMap<String, Set<String>> mapPredecessor(TreeMap<Long, Set<String>> sources,
-            TreeMap<Long, Set<String>> targets) {
+            TreeMap<Long, Set<String>> targets, ExecutionContext context) {
         TreeMap<String, Set<String>> concurrentEvents = new TreeMap<String, Set<String>>();
 
         for (Map.Entry<Long, Set<String>> sourceEntry : sources.entrySet()) {
+            context.checkpoint();
 
             Long sourceTimeStamp = sourceEntry.getKey();
             Set<String> sourceInstances = sourceEntry.getValue();
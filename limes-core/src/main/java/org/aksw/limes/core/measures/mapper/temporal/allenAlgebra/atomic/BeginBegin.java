@@ -3,6 +3,7 @@ package org.aksw.limes.core.measures.mapper.temporal.allenAlgebra.atomic;
 import java.util.Set;
 import java.util.TreeMap;
 
+import org.aksw.limes.core.execution.ExecutionContext;
 import org.aksw.limes.core.io.cache.ACache;
 
 /**
@@ -17,6 +18,17 @@ public class BeginBegin extends AAtomicAllenAlgebraMapper {
      * Constructor of BeginBegin class.
      */
     public BeginBegin() {
+        super();
+    }
+
+    /**
+     * Constructor of BeginBegin class.
+     *
+     * @param context,
+     *            The context of the mapping task
+     */
+    public BeginBegin(ExecutionContext context) {
+        super(context);
     }
 
     /**
@@ -34,7 +46,7 @@ public class BeginBegin extends AAtomicAllenAlgebraMapper {
     public TreeMap<String, Set<String>> getConcurrentEvents(ACache source, ACache target, String expression) {
         TreeMap<Long, Set<String>> sources = AAtomicAllenAlgebraMapper.orderByBeginDate(source, expression, "source");
         TreeMap<Long, Set<String>> targets = AAtomicAllenAlgebraMapper.orderByBeginDate(target, expression, "target");
-        TreeMap<String, Set<String>> events = AAtomicAllenAlgebraMapper.mapConcurrent(sources, targets);
+        TreeMap<String, Set<String>> events = AAtomicAllenAlgebraMapper.mapConcurrent(sources, targets, context);
         return events;
     }
 
@@ -45,7 +57,7 @@ public class BeginBegin extends AAtomicAllenAlgebraMapper {
     public TreeMap<String, Set<String>> getPredecessorEvents(ACache source, ACache target, String expression) {
         TreeMap<Long, Set<String>> sources = AAtomicAllenAlgebraMapper.orderByBeginDate(source, expression, "source");
         TreeMap<Long, Set<String>> targets = AAtomicAllenAlgebraMapper.orderByBeginDate(target, expression, "target");
-        TreeMap<String, Set<String>> events = AAtomicAllenAlgebraMapper.mapPredecessor(sources, targets);
+        TreeMap<String, Set<String>> events = AAtomicAllenAlgebraMapper.mapPredecessor(sources, targets, context);
         return events;
     }
 
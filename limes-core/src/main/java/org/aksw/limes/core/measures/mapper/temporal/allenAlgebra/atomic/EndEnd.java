@@ -3,6 +3,7 @@ package org.aksw.limes.core.measures.mapper.temporal.allenAlgebra.atomic;
 import java.util.Set;
 import java.util.TreeMap;
 
+import org.aksw.limes.core.execution.ExecutionContext;
 import org.aksw.limes.core.io.cache.ACache;
 
 /**
@@ -14,7 +15,17 @@ import org.aksw.limes.core.io.cache.ACache;
  */
 public class EndEnd extends AAtomicAllenAlgebraMapper {
     public EndEnd() {
+        super();
+    }
 
+    /**
+     * Constructor of EndEnd class.
+     *
+     * @param context,
+     *            The context of the mapping task
+     */
+    public EndEnd(ExecutionContext context) {
+        super(context);
     }
 
     /**
@@ -32,7 +43,7 @@ public class EndEnd extends AAtomicAllenAlgebraMapper {
     public TreeMap<String, Set<String>> getConcurrentEvents(ACache source, ACache target, String expression) {
         TreeMap<Long, Set<String>> sources = AAtomicAllenAlgebraMapper.orderByEndDate(source, expression, "source");
         TreeMap<Long, Set<String>> targets = AAtomicAllenAlgebraMapper.orderByEndDate(target, expression, "target");
-        TreeMap<String, Set<String>> events = AAtomicAllenAlgebraMapper.mapConcurrent(sources, targets);
+        TreeMap<String, Set<String>> events = AAtomicAllenAlgebraMapper.mapConcurrent(sources, targets, context);
         return events;
     }
 
@@ -43,7 +54,7 @@ public class EndEnd extends AAtomicAllenAlgebraMapper {
     public TreeMap<String, Set<String>> getPredecessorEvents(ACache source, ACache target, String expression) {
         TreeMap<Long, Set<String>> sources = AAtomicAllenAlgebraMapper.orderByEndDate(source, expression, "source");
         TreeMap<Long, Set<String>> targets = AAtomicAllenAlgebraMapper.orderByEndDate(target, expression, "target");
-        TreeMap<String, Set<String>> events = AAtomicAllenAlgebraMapper.mapPredecessor(sources, targets);
+        TreeMap<String, Set<String>> events = AAtomicAllenAlgebraMapper.mapPredecessor(sources, targets, context);
         return events;
     }
 }
@@ -102,7 +102,7 @@ public class AfterMapper extends AllenAlgebraMapper {
         this.target = target;
         ArrayList<TreeMap<String, Set<String>>> maps = new ArrayList<TreeMap<String, Set<String>>>();
 
-        BeginEnd be = new BeginEnd();
+        BeginEnd be = new BeginEnd(context);
         // SxT \ (BE0 U BE1)
         maps.add(be.getConcurrentEvents(source, target, expression));
         maps.add(be.getPredecessorEvents(source, target, expression));
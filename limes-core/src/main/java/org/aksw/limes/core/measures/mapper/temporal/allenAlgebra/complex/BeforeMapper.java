@@ -75,7 +75,7 @@ public class BeforeMapper extends AllenAlgebraMapper {
         
         ArrayList<TreeMap<String, Set<String>>> maps = new ArrayList<TreeMap<String, Set<String>>>();
         
-        EndBegin eb = new EndBegin();
+        EndBegin eb = new EndBegin(context);
         // EB1
         maps.add(eb.getPredecessorEvents(source, target, expression));
 
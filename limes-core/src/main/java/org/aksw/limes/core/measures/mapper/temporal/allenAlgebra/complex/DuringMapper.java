@@ -95,8 +95,8 @@ public class DuringMapper extends AllenAlgebraMapper {
     public AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
             double threshold) {
         ArrayList<TreeMap<String, Set<String>>> maps = new ArrayList<TreeMap<String, Set<String>>>();
-        EndEnd ee = new EndEnd();
-        BeginBegin bb = new BeginBegin();
+        EndEnd ee = new EndEnd(context);
+        BeginBegin bb = new BeginBegin(context);
         // EE1 \ (BB0 U BB1)
         maps.add(ee.getPredecessorEvents(source, target, expression));
 
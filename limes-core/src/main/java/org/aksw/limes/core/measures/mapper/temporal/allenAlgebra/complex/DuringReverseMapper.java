@@ -93,8 +93,8 @@ public class DuringReverseMapper extends AllenAlgebraMapper {
     public AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
             double threshold) {
         ArrayList<TreeMap<String, Set<String>>> maps = new ArrayList<TreeMap<String, Set<String>>>();
-        EndEnd ee = new EndEnd();
-        BeginBegin bb = new BeginBegin();
+        EndEnd ee = new EndEnd(context);
+        BeginBegin bb = new BeginBegin(context);
         // BB1 \\ (EE0 U EE1)
         maps.add(bb.getPredecessorEvents(source, target, expression));
         maps.add(ee.getConcurrentEvents(source, target, expression));
@@ -95,8 +95,8 @@ public class FinishesMapper extends AllenAlgebraMapper {
     public AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
             double threshold) {
         ArrayList<TreeMap<String, Set<String>>> maps = new ArrayList<TreeMap<String, Set<String>>>();
-        EndEnd ee = new EndEnd();
-        BeginBegin bb = new BeginBegin();
+        EndEnd ee = new EndEnd(context);
+        BeginBegin bb = new BeginBegin(context);
         // EE0 \\ (BB0 U BB1)
         maps.add(ee.getConcurrentEvents(source, target, expression));
         maps.add(bb.getConcurrentEvents(source, target, expression));
@@ -70,7 +70,7 @@ public class IsMetByMapper extends AllenAlgebraMapper {
     public AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
             double threshold) {
         ArrayList<TreeMap<String, Set<String>>> maps = new ArrayList<TreeMap<String, Set<String>>>();
-        BeginEnd be = new BeginEnd();
+        BeginEnd be = new BeginEnd(context);
         // BE0
         maps.add(be.getConcurrentEvents(source, target, expression));
         AMapping m = getMapping(maps);
@@ -110,9 +110,9 @@ public class IsOverlappedByMapper extends AllenAlgebraMapper {
     public AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
             double threshold) {
         ArrayList<TreeMap<String, Set<String>>> maps = new ArrayList<TreeMap<String, Set<String>>>();
-        EndEnd ee = new EndEnd();
-        BeginBegin bb = new BeginBegin();
-        BeginEnd be = new BeginEnd();
+        EndEnd ee = new EndEnd(context);
+        BeginBegin bb = new BeginBegin(context);
+        BeginEnd be = new BeginEnd(context);
         // { BE1 \ (BB0 U BB1) } \ (EE0 U EE1)
         maps.add(be.getPredecessorEvents(source, target, expression));
 
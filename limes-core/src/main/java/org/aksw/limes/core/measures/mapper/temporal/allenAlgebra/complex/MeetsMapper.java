@@ -74,7 +74,7 @@ public class MeetsMapper extends AllenAlgebraMapper {
     public AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
             double threshold) {
         ArrayList<TreeMap<String, Set<String>>> maps = new ArrayList<TreeMap<String, Set<String>>>();
-        EndBegin eb = new EndBegin();
+        EndBegin eb = new EndBegin(context);
         // EB0
         maps.add(eb.getConcurrentEvents(source, target, expression));
         AMapping m = getMapping(maps);
@@ -104,9 +104,9 @@ public class OverlapsMapper extends AllenAlgebraMapper {
     public AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
             double threshold) {
         ArrayList<TreeMap<String, Set<String>>> maps = new ArrayList<TreeMap<String, Set<String>>>();
-        EndEnd ee = new EndEnd();
-        BeginBegin bb = new BeginBegin();
-        EndBegin eb = new EndBegin();
+        EndEnd ee = new EndEnd(context);
+        BeginBegin bb = new BeginBegin(context);
+        EndBegin eb = new EndBegin(context);
         // (BB1 & EE1) \ (EB0 U EB1)
         maps.add(bb.getPredecessorEvents(source, target, expression));
         maps.add(ee.getPredecessorEvents(source, target, expression));
@@ -87,8 +87,8 @@ public class StartsMapper extends AllenAlgebraMapper {
     public AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression,
             double threshold) {
         ArrayList<TreeMap<String, Set<String>>> maps = new ArrayList<TreeMap<String, Set<String>>>();
-        EndEnd ee = new EndEnd();
-        BeginBegin bb = new BeginBegin();
+        EndEnd ee = new EndEnd(context);
+        BeginBegin bb = new BeginBegin(context);
         // BB0 & EE1
         maps.add(bb.getConcurrentEvents(source, target, expression));
         maps.add(ee.getPredecessorEvents(source, target, expression));
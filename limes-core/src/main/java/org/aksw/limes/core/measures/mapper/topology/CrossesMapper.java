@@ -32,7 +32,7 @@ public class CrossesMapper extends AMapper implements ITopologicRelationMapper {
 
     @Override
     public AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression, double threshold) {
-        return RADON.getMapping(source, target, sourceVar, targetVar, expression, threshold, RADON.CROSSES);
+        return RADON.getMapping(source, target, sourceVar, targetVar, expression, threshold, RADON.CROSSES, context);
     }
 
     @Override
@@ -32,7 +32,7 @@ public class EqualsMapper extends AMapper implements ITopologicRelationMapper {
 
     @Override
     public AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression, double threshold) {
-        return RADON.getMapping(source, target, sourceVar, targetVar, expression, threshold, RADON.EQUALS);
+        return RADON.getMapping(source, target, sourceVar, targetVar, expression, threshold, RADON.EQUALS, context);
     }
 
     @Override
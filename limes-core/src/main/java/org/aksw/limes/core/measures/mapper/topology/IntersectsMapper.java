@@ -32,7 +32,8 @@ public class IntersectsMapper extends AMapper implements ITopologicRelationMappe
 
     @Override
     public AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar, String expression, double threshold) {
-        return RADON.getMapping(source, target, sourceVar, targetVar, expression, threshold, RADON.INTERSECTS);
+        return RADON.getMapping(source, target, sourceVar, targetVar, expression, threshold, RADON.INTERSECTS,
+                context);
     }
 
     @Override
@@ -14,7 +14,9 @@ import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
+import org.aksw.limes.core.exceptions.ExecutionCancelledException;
 import org.aksw.limes.core.exceptions.InvalidThresholdException;
+import org.aksw.limes.core.execution.ExecutionContext;
 import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.mapping.AMapping;
 import org.aksw.limes.core.io.mapping.MappingFactory;
@@ -361,13 +363,19 @@ public class RADON {
 
     public static AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar,
             String expression, double threshold, String relation) {
+        return getMapping(source, target, sourceVar, targetVar, expression, threshold, relation,
+                ExecutionContext.NONE);
+    }
+
+    public static AMapping getMapping(ACache source, ACache target, String sourceVar, String targetVar,
+            String expression, double threshold, String relation, ExecutionContext context) {
         if (threshold <= 0) {
             throw new InvalidThresholdException(threshold);
         }
         List<String> properties = PropertyFetcher.getProperties(expression, threshold);
         Map<String, Geometry> sourceMap = getGeometryMapFromCache(source, properties.get(0));
         Map<String, Geometry> targetMap = getGeometryMapFromCache(target, properties.get(1));
-        return getMapping(sourceMap, targetMap, relation);
+        return getMapping(sourceMap, targetMap, relation, context);
     }
 
     public static AMapping getMapping(Set<Polygon> sourceData, Set<Polygon> targetData, String relation) {
@@ -393,6 +401,15 @@ public class RADON {
 
     public static AMapping getMapping(Map<String, Geometry> sourceData, Map<String, Geometry> targetData,
             String relation) {
+        return getMapping(sourceData, targetData, relation, ExecutionContext.NONE);
+    }
+
+    /**
+     * Computes the mapping of a topological relation. The context is checked
+     * for each square of the source index and while waiting for the matchers.
+     */
+    public static AMapping getMapping(Map<String, Geometry> sourceData, Map<String, Geometry> targetData,
+            String relation, ExecutionContext context) {
         double thetaX, thetaY;
         int numThreads = new Double(Math.ceil((double) Runtime.getRuntime().availableProcessors() / 2.0d)).intValue();
         // Relation thats actually used for computation.
@@ -448,38 +465,48 @@ public class RADON {
         Map<String, Set<String>> computed = new HashMap<>();
         Matcher matcher = new Matcher(rel, results);
 
+        int squareCount = 0;
         for (Integer lat : sourceIndex.map.keySet()) {
-            for (Integer lon : sourceIndex.map.get(lat).keySet()) {
-                List<MBBIndex> source = sourceIndex.getSquare(lat, lon);
-                List<MBBIndex> target = targetIndex.getSquare(lat, lon);
-                if (target != null && target.size() > 0) {
-                    for (MBBIndex a : source) {
-                        if (!computed.containsKey(a.uri))
-                            computed.put(a.uri, new HashSet<>());
-                        for (MBBIndex b : target) {
-                            if (!computed.get(a.uri).contains(b.uri)) {
-                                computed.get(a.uri).add(b.uri);
-                                boolean compute = (rel.equals(COVERS) && a.covers(b))
-                                        || (rel.equals(COVEREDBY) && b.covers(a))
-                                        || (rel.equals(CONTAINS) && a.contains(b))
-                                        || (rel.equals(WITHIN) && b.contains(a)) || (rel.equals(EQUALS) && a.equals(b))
-                                        || rel.equals(INTERSECTS) || rel.equals(CROSSES) || rel.equals(TOUCHES)
-                                        || rel.equals(OVERLAPS);
-                                if (compute) {
-                                    if (numThreads == 1) {
-                                        if (Matcher.relate(a.polygon, b.polygon, rel)) {
-                                            if (swapped)
-                                                m.add(b.origin_uri, a.origin_uri, 1.0);
-                                            else
-                                                m.add(a.origin_uri, b.origin_uri, 1.0);
-                                        }
-                                    } else {
-                                        matcher.schedule(a, b);
-                                        if (matcher.size() == Matcher.maxSize) {
-                                            matchExec.execute(matcher);
-                                            matcher = new Matcher(rel, results);
-                                            if (results.size() > 0) {
-                                                mergerExec.execute(new Merger(results, m));
+            squareCount += sourceIndex.map.get(lat).size();
+        }
+        int comparedSquares = 0;
+        try {
+            for (Integer lat : sourceIndex.map.keySet()) {
+                for (Integer lon : sourceIndex.map.get(lat).keySet()) {
+                    context.checkpoint();
+                    context.progress((double) comparedSquares++ / squareCount);
+                    List<MBBIndex> source = sourceIndex.getSquare(lat, lon);
+                    List<MBBIndex> target = targetIndex.getSquare(lat, lon);
+                    if (target != null && target.size() > 0) {
+                        for (MBBIndex a : source) {
+                            if (!computed.containsKey(a.uri))
+                                computed.put(a.uri, new HashSet<>());
+                            for (MBBIndex b : target) {
+                                if (!computed.get(a.uri).contains(b.uri)) {
+                                    computed.get(a.uri).add(b.uri);
+                                    boolean compute = (rel.equals(COVERS) && a.covers(b))
+                                            || (rel.equals(COVEREDBY) && b.covers(a))
+                                            || (rel.equals(CONTAINS) && a.contains(b))
+                                            || (rel.equals(WITHIN) && b.contains(a))
+                                            || (rel.equals(EQUALS) && a.equals(b))
+                                            || rel.equals(INTERSECTS) || rel.equals(CROSSES) || rel.equals(TOUCHES)
+                                            || rel.equals(OVERLAPS);
+                                    if (compute) {
+                                        if (numThreads == 1) {
+                                            if (Matcher.relate(a.polygon, b.polygon, rel)) {
+                                                if (swapped)
+                                                    m.add(b.origin_uri, a.origin_uri, 1.0);
+                                                else
+                                                    m.add(a.origin_uri, b.origin_uri, 1.0);
+                                            }
+                                        } else {
+                                            matcher.schedule(a, b);
+                                            if (matcher.size() == Matcher.maxSize) {
+                                                matchExec.execute(matcher);
+                                                matcher = new Matcher(rel, results);
+                                                if (results.size() > 0) {
+                                                    mergerExec.execute(new Merger(results, m));
+                                                }
                                             }
                                         }
                                     }
@@ -489,34 +516,43 @@ public class RADON {
                     }
                 }
             }
-        }
-        if (numThreads > 1) {
-            if (matcher.size() > 0) {
-                matchExec.execute(matcher);
-            }
-            matchExec.shutdown();
-            while (!matchExec.isTerminated()) {
-                try {
-                    if (results.size() > 0) {
-                        mergerExec.execute(new Merger(results, m));
+            if (numThreads > 1) {
+                if (matcher.size() > 0) {
+                    matchExec.execute(matcher);
+                }
+                matchExec.shutdown();
+                while (!matchExec.isTerminated()) {
+                    context.checkpoint();
+                    try {
+                        if (results.size() > 0) {
+                            mergerExec.execute(new Merger(results, m));
+                        }
+                        Thread.sleep(500);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new ExecutionCancelledException(false);
                     }
-                    Thread.sleep(500);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
                 }
-            }
-            if (results.size() > 0) {
-                mergerExec.execute(new Merger(results, m));
-            }
-            mergerExec.shutdown();
-            while (!mergerExec.isTerminated()) {
-                try {
-                    Thread.sleep(100);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
+                if (results.size() > 0) {
+                    mergerExec.execute(new Merger(results, m));
+                }
+                mergerExec.shutdown();
+                while (!mergerExec.isTerminated()) {
+                    try {
+                        Thread.sleep(100);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new ExecutionCancelledException(false);
+                    }
                 }
             }
+        } catch (ExecutionCancelledException e) {
+            matchExec.shutdownNow();
+            mergerExec.shutdownNow();
+            throw e;
         }
+        matchExec.shutdown();
+        mergerExec.shutdown();
 
         // Compute M = (S x T) \ M' for disjoint relation
         if (disjointStrategy) {
@@ -1,6 +1,8 @@
 package org.aksw.limes.core.measures.measure;
 
 import org.aksw.limes.core.exceptions.InvalidMeasureException;
+import org.aksw.limes.core.measures.measure.numeric.AbsoluteDifferenceMeasure;
+import org.aksw.limes.core.measures.measure.numeric.RelativeDifferenceMeasure;
 import org.aksw.limes.core.measures.measure.pointsets.GeoGreatEllipticMeasure;
 import org.aksw.limes.core.measures.measure.pointsets.GeoOrthodromicMeasure;
 import org.aksw.limes.core.measures.measure.pointsets.average.NaiveAverageMeasure;
@@ -21,6 +23,8 @@ import org.aksw.limes.core.measures.measure.pointsets.surjection.NaiveSurjection
 import org.aksw.limes.core.measures.measure.resourcesets.SetJaccardMeasure;
 import org.aksw.limes.core.measures.measure.space.EuclideanMeasure;
 import org.aksw.limes.core.measures.measure.space.ManhattanMeasure;
+import org.aksw.limes.core.measures.measure.space.VectorCosineMeasure;
+import org.aksw.limes.core.measures.measure.space.VectorEuclideanMeasure;
 import org.aksw.limes.core.measures.measure.string.CosineMeasure;
 import org.aksw.limes.core.measures.measure.string.ExactMatchMeasure;
 import org.aksw.limes.core.measures.measure.string.JaccardMeasure;
@@ -85,13 +89,21 @@ public class MeasureFactory {
     public static final String RATCLIFF = "ratcliff";
     public static final String SOUNDEX = "soundex";
     public static final String TRIGRAM = "trigram";
+    public static final String APPROX_JACCARD = "approx_jaccard";
+    public static final String APPROX_TRIGRAM = "approx_trigram";
 
     // vector space measures
     public static final String EUCLIDEAN = "euclidean";
     public static final String MANHATTAN = "manhattan";
+    public static final String VECTOR_COSINE = "vector_cosine";
+    public static final String VECTOR_EUCLIDEAN = "vector_euclidean";
     public static final String GEO_ORTHODROMIC = "geo_orthodromic";
     public static final String GEO_GREAT_ELLIPTIC = "geo_great_elliptic";
 
+    // Numeric measures
+    public static final String NUMERIC_ABSOLUTE = "numeric_absolute";
+    public static final String NUMERIC_RELATIVE = "numeric_relative";
+
     // Point-set measures
     public static final String GEO_CENTROID_INDEXED_HAUSDORFF = "geo_centroid_indexed_hausdorff";
     public static final String GEO_FAST_HAUSDORFF = "geo_fast_hausdorff";
@@ -195,6 +207,12 @@ public class MeasureFactory {
         if (measure.startsWith(TRIGRAM)) {
             return MeasureType.TRIGRAM;
         }
+        if (measure.startsWith(APPROX_JACCARD)) {
+            return MeasureType.APPROX_JACCARD;
+        }
+        if (measure.startsWith(APPROX_TRIGRAM)) {
+            return MeasureType.APPROX_TRIGRAM;
+        }
         ////////////////////////////
         if (measure.startsWith(EUCLIDEAN)) {
             return MeasureType.EUCLIDEAN;
@@ -202,6 +220,12 @@ public class MeasureFactory {
         if (measure.startsWith(MANHATTAN)) {
             return MeasureType.MANHATTAN;
         }
+        if (measure.startsWith(VECTOR_COSINE)) {
+            return MeasureType.VECTOR_COSINE;
+        }
+        if (measure.startsWith(VECTOR_EUCLIDEAN)) {
+            return MeasureType.VECTOR_EUCLIDEAN;
+        }
         if (measure.startsWith(GEO_ORTHODROMIC)) {
             return MeasureType.GEO_ORTHODROMIC;
         }
@@ -209,6 +233,12 @@ public class MeasureFactory {
         if (measure.startsWith(GEO_GREAT_ELLIPTIC)) {
             return MeasureType.GEO_GREAT_ELLIPTIC;
         }
+        if (measure.startsWith(NUMERIC_ABSOLUTE)) {
+            return MeasureType.NUMERIC_ABSOLUTE;
+        }
+        if (measure.startsWith(NUMERIC_RELATIVE)) {
+            return MeasureType.NUMERIC_RELATIVE;
+        }
         /////////////////////////////
         if (measure.startsWith(GEO_CENTROID_INDEXED_HAUSDORFF)) {
             return MeasureType.GEO_CENTROID_INDEXED_HAUSDORFF;
@@ -390,16 +420,29 @@ public class MeasureFactory {
             return new SoundexMeasure();
         case TRIGRAM:
             return new TrigramMeasure();
+        // approximate measures are verified with the exact ones
+        case APPROX_JACCARD:
+            return new JaccardMeasure();
+        case APPROX_TRIGRAM:
+            return new TrigramMeasure();
         ////////////////////////////////////////////
 
         case EUCLIDEAN:
             return new EuclideanMeasure();
         case MANHATTAN:
             return new ManhattanMeasure();
+        case VECTOR_COSINE:
+            return new VectorCosineMeasure();
+        case VECTOR_EUCLIDEAN:
+            return new VectorEuclideanMeasure();
         case GEO_GREAT_ELLIPTIC:
             return new GeoGreatEllipticMeasure();
         case GEO_ORTHODROMIC:
             return new GeoOrthodromicMeasure();
+        case NUMERIC_ABSOLUTE:
+            return new AbsoluteDifferenceMeasure();
+        case NUMERIC_RELATIVE:
+            return new RelativeDifferenceMeasure();
         ///////////////////////
         case GEO_CENTROID_INDEXED_HAUSDORFF:
             return new CentroidIndexedHausdorffMeasure();
@@ -86,19 +86,38 @@ public class MeasureProcessor {
      */
     public static double getSimilarity(Instance sourceInstance, Instance targetInstance, String expression,
             double threshold, String sourceVar, String targetVar) {
+        return getSimilarity(sourceInstance, targetInstance, expression, threshold, sourceVar, targetVar, null);
+    }
+
+    /**
+     * Returns similarity between two instances given a metric expression. The
+     * similarities of atomic measures are looked up in and added to the memo
+     * of a value index, so that every pair of values is only scored once.
+     *
+     * @param sourceInstance,
+     *            the source instance, from the source cache of the index
+     * @param targetInstance,
+     *            the target instance, from the target cache of the index
+     * @param expression,
+     *            the metric expression
+     * @param threshold,
+     *            the threshold
+     * @param sourceVar,
+     *            the source variable
+     * @param targetVar,
+     *            the target variable
+     * @param values,
+     *            the value index of the run, or null for none
+     * @return the similarity of sourceInstance and targetInstance
+     */
+    public static double getSimilarity(Instance sourceInstance, Instance targetInstance, String expression,
+            double threshold, String sourceVar, String targetVar, ValueIndex values) {
 
         Parser p = new Parser(expression, threshold);
         try {
             if (p.isAtomic()) {
 
-                AMapper mapper = null;
-
                 MeasureType type = MeasureFactory.getMeasureType(p.getOperator());
-                mapper = MapperFactory.createMapper(type);
-                ACache source = new HybridCache();
-                ACache target = new HybridCache();
-                source.addInstance(sourceInstance);
-                target.addInstance(targetInstance);
 
                 String property1 = null, property2 = null;
 
@@ -152,31 +171,26 @@ public class MeasureProcessor {
                     logger.error(MarkerFactory.getMarker("FATAL"), "Property values could not be read. Exiting");
                     throw new RuntimeException();
                 } else {
-                    double similarity = 0.0d;
                     if (threshold <= 0) {
                         throw new InvalidThresholdException(threshold);
                     }
-                    AMapping m = mapper.getMapping(source, target, sourceVar, targetVar, expression, threshold);
-                    for (String s : m.getMap().keySet()) {
-                        for (String t : m.getMap().get(s).keySet()) {
-                            similarity = m.getConfidence(s, t);
-
-                        }
+                    if (values != null && isPlainProperty(property1) && isPlainProperty(property2)) {
+                        return values.getSimilarity(p.getOperator() + "(" + p.getLeftTerm() + "," + p.getRightTerm()
+                                + ")", property1, property2, sourceInstance, targetInstance, threshold,
+                                () -> getAtomicSimilarity(type, sourceInstance, targetInstance, expression, threshold,
+                                        sourceVar, targetVar));
                     }
-
-                    if (similarity >= threshold)
-                        return similarity;
-                    else
-                        return 0.0d;
+                    return getAtomicSimilarity(type, sourceInstance, targetInstance, expression, threshold,
+                            sourceVar, targetVar);
                 }
             } else {
                 if (p.getOperator().equalsIgnoreCase(MAX) | p.getOperator().equalsIgnoreCase(OR)
                         | p.getOperator().equalsIgnoreCase(XOR)) {
                     double parentThreshold = p.getThreshold();
                     double firstChild = getSimilarity(sourceInstance, targetInstance, p.getLeftTerm(),
-                            p.getThreshold1(), sourceVar, targetVar);
+                            p.getThreshold1(), sourceVar, targetVar, values);
                     double secondChild = getSimilarity(sourceInstance, targetInstance, p.getRightTerm(),
-                            p.getThreshold2(), sourceVar, targetVar);
+                            p.getThreshold2(), sourceVar, targetVar, values);
 
                     // parentThreshold is 0 and (s,t) are not part of the union
                     if (firstChild < p.getThreshold1() && secondChild < p.getThreshold2())
@@ -193,9 +207,9 @@ public class MeasureProcessor {
                 if (p.getOperator().equalsIgnoreCase(MIN) | p.getOperator().equalsIgnoreCase(AND)) {
                     double parentThreshold = p.getThreshold();
                     double firstChild = getSimilarity(sourceInstance, targetInstance, p.getLeftTerm(),
-                            p.getThreshold1(), sourceVar, targetVar);
+                            p.getThreshold1(), sourceVar, targetVar, values);
                     double secondChild = getSimilarity(sourceInstance, targetInstance, p.getRightTerm(),
-                            p.getThreshold2(), sourceVar, targetVar);
+                            p.getThreshold2(), sourceVar, targetVar, values);
 
                     // parentThreshold is 0 and (s,t) are not part of the
                     // intersection
@@ -213,9 +227,9 @@ public class MeasureProcessor {
                 if (p.getOperator().equalsIgnoreCase(ADD)) {
                     double parentThreshold = p.getThreshold();
                     double firstChild = p.getLeftCoefficient() * getSimilarity(sourceInstance, targetInstance,
-                            p.getLeftTerm(), p.getThreshold1(), sourceVar, targetVar);
+                            p.getLeftTerm(), p.getThreshold1(), sourceVar, targetVar, values);
                     double secondChild = p.getRightCoefficient() * getSimilarity(sourceInstance, targetInstance,
-                            p.getRightTerm(), p.getThreshold2(), sourceVar, targetVar);
+                            p.getRightTerm(), p.getThreshold2(), sourceVar, targetVar, values);
 
                     if (firstChild < p.getThreshold1() && secondChild < p.getThreshold2())
                         return 0;
@@ -229,9 +243,9 @@ public class MeasureProcessor {
                 } else {
                     double parentThreshold = p.getThreshold();
                     double firstChild = getSimilarity(sourceInstance, targetInstance, p.getLeftTerm(),
-                            p.getThreshold1(), sourceVar, targetVar);
+                            p.getThreshold1(), sourceVar, targetVar, values);
                     double secondChild = getSimilarity(sourceInstance, targetInstance, p.getRightTerm(),
-                            p.getThreshold2(), sourceVar, targetVar);
+                            p.getThreshold2(), sourceVar, targetVar, values);
                     // the second similarity must be 0 in order for the instance
                     // to
                     // have a change to be included at the final result
@@ -259,6 +273,41 @@ public class MeasureProcessor {
 
     }
 
+    /**
+     * Computes the similarity of an atomic measure with its mapper on caches
+     * holding only the two instances.
+     */
+    private static double getAtomicSimilarity(MeasureType type, Instance sourceInstance, Instance targetInstance,
+            String expression, double threshold, String sourceVar, String targetVar) {
+        AMapper mapper = MapperFactory.createMapper(type);
+        ACache source = new HybridCache();
+        ACache target = new HybridCache();
+        source.addInstance(sourceInstance);
+        target.addInstance(targetInstance);
+        double similarity = 0.0d;
+        AMapping m = mapper.getMapping(source, target, sourceVar, targetVar, expression, threshold);
+        for (String s : m.getMap().keySet()) {
+            for (String t : m.getMap().get(s).keySet()) {
+                similarity = m.getConfidence(s, t);
+
+            }
+        }
+
+        if (similarity >= threshold)
+            return similarity;
+        else
+            return 0.0d;
+    }
+
+    /**
+     * @return true if the values of the property are read as they are, i.e.,
+     *         the property neither combines several properties nor applies a
+     *         function
+     */
+    private static boolean isPlainProperty(String property) {
+        return property.indexOf('|') < 0 && property.indexOf('(') < 0;
+    }
+
     /**
      * Returns the approximation of the runtime for a certain expression.
      *
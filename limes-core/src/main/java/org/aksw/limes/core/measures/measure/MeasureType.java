@@ -15,8 +15,9 @@ public enum MeasureType {
     TMP_DURING_REVERSE, TMP_IS_STARTED_BY, TMP_STARTS, TMP_IS_FINISHED_BY,
     TMP_FINISHES, TMP_IS_MET_BY, TMP_MEETS, TMP_AFTER,
     TMP_BEFORE, TMP_CONCURRENT, TMP_PREDECESSOR, TMP_SUCCESSOR,
-    COSINE, EXACTMATCH, JACCARD, JARO, LEVENSHTEIN, OVERLAP,
-    TRIGRAM, QGRAMS, SOUNDEX, EUCLIDEAN, MANHATTAN, JAROWINKLER, MONGEELKAN, RATCLIFF,
+    COSINE, EXACTMATCH, JACCARD, APPROX_JACCARD, APPROX_TRIGRAM, JARO, LEVENSHTEIN, OVERLAP,
+    TRIGRAM, QGRAMS, SOUNDEX, EUCLIDEAN, MANHATTAN, VECTOR_COSINE, VECTOR_EUCLIDEAN,
+    NUMERIC_ABSOLUTE, NUMERIC_RELATIVE, JAROWINKLER, MONGEELKAN, RATCLIFF,
     TOP_EQUALS, TOP_DISJOINT, TOP_INTERSECTS, TOP_OVERLAPS, TOP_CROSSES, TOP_CONTAINS, TOP_WITHIN, TOP_TOUCHES, TOP_COVERS, TOP_COVERED_BY,
     SET_JACCARD
 }
\ No newline at end of file
@@ -0,0 +1,136 @@
+package org.aksw.limes.core.measures.measure;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded memo of similarities keyed by (measure id, source value id, target
+ * value id). It is a direct-mapped table: every key has a single slot and a
+ * new entry replaces whatever entry occupied its slot, so the memory is
+ * bounded by the capacity and neither reads nor writes take a lock. A lookup
+ * may miss an entry written concurrently, which only costs a recomputation.
+ */
+public class SimilarityMemo {
+
+    /**
+     * System property holding the default capacity in entries, 0 disables
+     * the memo
+     */
+    public static final String CAPACITY_PROPERTY = "limes.engine.similarityMemo";
+    /**
+     * Default capacity in entries
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 18;
+
+    private static final class Entry {
+        private final int measure;
+        private final int source;
+        private final int target;
+        private final double similarity;
+
+        private Entry(int measure, int source, int target, double similarity) {
+            this.measure = measure;
+            this.source = source;
+            this.target = target;
+            this.similarity = similarity;
+        }
+    }
+
+    private final AtomicReferenceArray<Entry> entries;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructor of a memo with the capacity of the system property
+     * {@link #CAPACITY_PROPERTY} or {@link #DEFAULT_CAPACITY}.
+     */
+    public SimilarityMemo() {
+        this(Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param capacity
+     *            Maximal number of entries, rounded up to a power of two. 0
+     *            disables the memo.
+     */
+    public SimilarityMemo(int capacity) {
+        int c = Math.min(capacity, 1 << 30);
+        int size = c <= 0 ? 0 : Integer.highestOneBit(c);
+        if (size < c) {
+            size <<= 1;
+        }
+        entries = new AtomicReferenceArray<>(size);
+        mask = size - 1;
+    }
+
+    private int slot(int measure, int source, int target) {
+        int h = measure * 0x9E3779B9 + source;
+        h = h * 0x85EBCA6B + target;
+        h ^= h >>> 16;
+        return h & mask;
+    }
+
+    /**
+     * @param measure
+     *            Id of the measure
+     * @param source
+     *            Id of the source value
+     * @param target
+     *            Id of the target value
+     * @return the memoized similarity, or NaN if there is none
+     */
+    public double get(int measure, int source, int target) {
+        if (mask < 0) {
+            return Double.NaN;
+        }
+        Entry e = entries.get(slot(measure, source, target));
+        if (e != null && e.measure == measure && e.source == source && e.target == target) {
+            hits.increment();
+            return e.similarity;
+        }
+        misses.increment();
+        return Double.NaN;
+    }
+
+    /**
+     * Memoizes a similarity, replacing the entry of its slot.
+     *
+     * @param measure
+     *            Id of the measure
+     * @param source
+     *            Id of the source value
+     * @param target
+     *            Id of the target value
+     * @param similarity
+     *            The similarity
+     */
+    public void put(int measure, int source, int target, double similarity) {
+        if (mask >= 0) {
+            entries.lazySet(slot(measure, source, target), new Entry(measure, source, target, similarity));
+        }
+    }
+
+    /**
+     * @return maximal number of entries
+     */
+    public int getCapacity() {
+        return entries.length();
+    }
+
+    /**
+     * @return number of lookups that found their entry
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of lookups that did not find their entry
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+}
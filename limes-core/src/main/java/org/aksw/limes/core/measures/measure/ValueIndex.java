@@ -0,0 +1,141 @@
+package org.aksw.limes.core.measures.measure;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleSupplier;
+
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.Instance;
+import org.aksw.limes.core.io.cache.ValueDictionary;
+
+/**
+ * Values of a source and a target cache shared by the mappers and filters of
+ * a run: a {@link ValueDictionary} per cache and property, built on first
+ * use, and a {@link SimilarityMemo} of the similarities of atomic measures
+ * per pair of value ids. It can be shared by engines running on the same
+ * caches and has to be dropped whenever the caches change.
+ */
+public class ValueIndex {
+
+    private final ACache source;
+    private final ACache target;
+    private final Map<String, ValueDictionary> sourceDictionaries = new ConcurrentHashMap<>();
+    private final Map<String, ValueDictionary> targetDictionaries = new ConcurrentHashMap<>();
+    private final Map<String, Integer> measures = new ConcurrentHashMap<>();
+    private final AtomicInteger nextMeasure = new AtomicInteger();
+    private final SimilarityMemo memo;
+
+    /**
+     * Constructor of an index with a memo of the default capacity
+     *
+     * @param source
+     *            Source cache
+     * @param target
+     *            Target cache
+     */
+    public ValueIndex(ACache source, ACache target) {
+        this(source, target, new SimilarityMemo());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param source
+     *            Source cache
+     * @param target
+     *            Target cache
+     * @param memo
+     *            Memo of the similarities
+     */
+    public ValueIndex(ACache source, ACache target, SimilarityMemo memo) {
+        this.source = source;
+        this.target = target;
+        this.memo = memo;
+    }
+
+    /**
+     * @param source
+     *            A source cache
+     * @param target
+     *            A target cache
+     * @return true if the index covers the pair of caches
+     */
+    public boolean indexes(ACache source, ACache target) {
+        return this.source == source && this.target == target;
+    }
+
+    /**
+     * @param cache
+     *            Source or target cache of the index
+     * @param property
+     *            A property
+     * @return the dictionary of the values of the property, or null if the
+     *         cache is neither the source nor the target cache
+     */
+    public ValueDictionary getDictionary(ACache cache, String property) {
+        Map<String, ValueDictionary> dictionaries = cache == source ? sourceDictionaries
+                : cache == target ? targetDictionaries : null;
+        if (dictionaries == null) {
+            return null;
+        }
+        return dictionaries.computeIfAbsent(property, p -> new ValueDictionary(cache, p));
+    }
+
+    /**
+     * @return the memo of the similarities
+     */
+    public SimilarityMemo getMemo() {
+        return memo;
+    }
+
+    /**
+     * Returns the similarity of an atomic measure for two instances of the
+     * source and the target cache, computing it only if the pair of their
+     * values is not memoized yet. Only instances with a single value are
+     * memoized. As the similarity is only known if it reaches the threshold
+     * it was computed with, a similarity below the threshold is memoized as
+     * the negated threshold and recomputed for lower thresholds.
+     *
+     * @param measure
+     *            Atomic measure expression without threshold
+     * @param sourceProperty
+     *            Property of the source instance compared by the measure
+     * @param targetProperty
+     *            Property of the target instance compared by the measure
+     * @param s
+     *            Source instance
+     * @param t
+     *            Target instance
+     * @param threshold
+     *            Threshold of the similarity
+     * @param similarity
+     *            Computes the similarity, or 0 if it is below the threshold
+     * @return the similarity, or 0 if it is below the threshold
+     */
+    public double getSimilarity(String measure, String sourceProperty, String targetProperty, Instance s,
+            Instance t, double threshold, DoubleSupplier similarity) {
+        Set<String> sourceValues = s.getProperty(sourceProperty);
+        Set<String> targetValues = t.getProperty(targetProperty);
+        if (memo.getCapacity() == 0 || sourceValues.size() != 1 || targetValues.size() != 1) {
+            return similarity.getAsDouble();
+        }
+        int sourceId = getDictionary(source, sourceProperty).getId(sourceValues.iterator().next());
+        int targetId = getDictionary(target, targetProperty).getId(targetValues.iterator().next());
+        if (sourceId < 0 || targetId < 0) {
+            return similarity.getAsDouble();
+        }
+        int measureId = measures.computeIfAbsent(measure, m -> nextMeasure.getAndIncrement());
+        double memoized = memo.get(measureId, sourceId, targetId);
+        if (memoized > 0) {
+            return memoized >= threshold ? memoized : 0;
+        }
+        if (memoized <= 0 && -memoized <= threshold) {
+            return 0;
+        }
+        double sim = similarity.getAsDouble();
+        memo.put(measureId, sourceId, targetId, sim > 0 ? sim : -threshold);
+        return sim;
+    }
+}
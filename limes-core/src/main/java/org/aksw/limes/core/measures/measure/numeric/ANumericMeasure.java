@@ -0,0 +1,73 @@
+package org.aksw.limes.core.measures.measure.numeric;
+
+import org.aksw.limes.core.io.cache.Instance;
+import org.aksw.limes.core.measures.measure.AMeasure;
+
+/**
+ * Base class of the measures that compare single numeric values (years,
+ * populations, prices, ...). Besides the similarity, each measure defines the
+ * interval of values that are similar enough to a given value, which is used
+ * by the {@link org.aksw.limes.core.measures.mapper.numeric.NumericRangeMapper}
+ * to sweep over sorted values. Both bounds must be non-decreasing in the
+ * value.
+ */
+public abstract class ANumericMeasure extends AMeasure {
+
+    @Override
+    public String getType() {
+        return "numeric";
+    }
+
+    @Override
+    public double getSimilarity(Object object1, Object object2) {
+        try {
+            return getSimilarity(Double.parseDouble(object1.toString()), Double.parseDouble(object2.toString()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public double getSimilarity(Instance instance1, Instance instance2, String property1, String property2) {
+        double max = 0;
+        for (String value1 : instance1.getProperty(property1)) {
+            for (String value2 : instance2.getProperty(property2)) {
+                max = Math.max(max, getSimilarity(value1, value2));
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public double getRuntimeApproximation(double mappingSize) {
+        return mappingSize / 1000d;
+    }
+
+    /**
+     * @param x
+     *            First value
+     * @param y
+     *            Second value
+     * @return the similarity of the values
+     */
+    public abstract double getSimilarity(double x, double y);
+
+    /**
+     * @param x
+     *            A value
+     * @param threshold
+     *            Similarity threshold in (0, 1]
+     * @return the smallest value whose similarity to x may reach the
+     *         threshold
+     */
+    public abstract double getLowerBound(double x, double threshold);
+
+    /**
+     * @param x
+     *            A value
+     * @param threshold
+     *            Similarity threshold in (0, 1]
+     * @return the largest value whose similarity to x may reach the threshold
+     */
+    public abstract double getUpperBound(double x, double threshold);
+}
@@ -0,0 +1,28 @@
+package org.aksw.limes.core.measures.measure.numeric;
+
+/**
+ * Similarity of two numbers based on their absolute difference d, computed as
+ * 1/(1+d) like the one-dimensional Euclidean similarity.
+ */
+public class AbsoluteDifferenceMeasure extends ANumericMeasure {
+
+    @Override
+    public double getSimilarity(double x, double y) {
+        return 1d / (1d + Math.abs(x - y));
+    }
+
+    @Override
+    public double getLowerBound(double x, double threshold) {
+        return x - (1 - threshold) / threshold;
+    }
+
+    @Override
+    public double getUpperBound(double x, double threshold) {
+        return x + (1 - threshold) / threshold;
+    }
+
+    @Override
+    public String getName() {
+        return "numeric_absolute";
+    }
+}
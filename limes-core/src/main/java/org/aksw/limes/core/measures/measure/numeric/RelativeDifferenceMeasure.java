@@ -0,0 +1,33 @@
+package org.aksw.limes.core.measures.measure.numeric;
+
+/**
+ * Similarity of two numbers based on their relative difference, computed as 1
+ * - |x - y| / max(|x|, |y|) and bounded below by 0. Numbers of different signs
+ * thus have a similarity of 0, e.g., 90 and 100 have a similarity of 0.9.
+ */
+public class RelativeDifferenceMeasure extends ANumericMeasure {
+
+    @Override
+    public double getSimilarity(double x, double y) {
+        double max = Math.max(Math.abs(x), Math.abs(y));
+        if (max == 0) {
+            return 1;
+        }
+        return Math.max(0, 1 - Math.abs(x - y) / max);
+    }
+
+    @Override
+    public double getLowerBound(double x, double threshold) {
+        return x >= 0 ? x * threshold : x / threshold;
+    }
+
+    @Override
+    public double getUpperBound(double x, double threshold) {
+        return x >= 0 ? x / threshold : x * threshold;
+    }
+
+    @Override
+    public String getName() {
+        return "numeric_relative";
+    }
+}
@@ -0,0 +1,56 @@
+package org.aksw.limes.core.measures.measure.space;
+
+import org.aksw.limes.core.io.cache.Instance;
+import org.aksw.limes.core.io.cache.VectorMatrix;
+
+/**
+ * Base class of the measures that compare dense vectors (e.g., embeddings)
+ * stored as a single property value, see {@link VectorMatrix#parse(String)}
+ * for the supported formats. Values that are not vectors or whose dimensions
+ * differ have a similarity of 0.
+ */
+public abstract class AVectorMeasure extends ASpaceMeasure {
+
+    @Override
+    public String getType() {
+        return "vector";
+    }
+
+    @Override
+    public double getSimilarity(Object object1, Object object2) {
+        float[] v1 = VectorMatrix.parse(object1.toString());
+        float[] v2 = VectorMatrix.parse(object2.toString());
+        if (v1 == null || v2 == null || v1.length != v2.length) {
+            return 0;
+        }
+        return getSimilarity(v1, v2);
+    }
+
+    @Override
+    public double getSimilarity(Instance instance1, Instance instance2, String property1, String property2) {
+        double max = 0;
+        for (String value1 : instance1.getProperty(property1)) {
+            for (String value2 : instance2.getProperty(property2)) {
+                max = Math.max(max, getSimilarity(value1, value2));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Computes the similarity of two vectors with the same number of
+     * dimensions.
+     *
+     * @param v1
+     *            First vector
+     * @param v2
+     *            Second vector
+     * @return the similarity of the vectors
+     */
+    public abstract double getSimilarity(float[] v1, float[] v2);
+
+    @Override
+    public double getRuntimeApproximation(double mappingSize) {
+        return mappingSize / 1000d;
+    }
+}
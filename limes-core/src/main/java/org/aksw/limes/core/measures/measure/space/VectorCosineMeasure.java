@@ -0,0 +1,38 @@
+package org.aksw.limes.core.measures.measure.space;
+
+/**
+ * Cosine similarity of two dense vectors. Negative cosines are mapped to 0 and
+ * zero vectors are not similar to any vector.
+ */
+public class VectorCosineMeasure extends AVectorMeasure {
+
+    @Override
+    public double getSimilarity(float[] v1, float[] v2) {
+        double dot = 0, norm1 = 0, norm2 = 0;
+        for (int i = 0; i < v1.length; i++) {
+            dot += v1[i] * v2[i];
+            norm1 += v1[i] * v1[i];
+            norm2 += v2[i] * v2[i];
+        }
+        if (norm1 == 0 || norm2 == 0) {
+            return 0;
+        }
+        return Math.max(0, Math.min(1, dot / Math.sqrt(norm1 * norm2)));
+    }
+
+    @Override
+    public String getName() {
+        return "vector_cosine";
+    }
+
+    /**
+     * Returns the distance between the normalized vectors that corresponds to
+     * the similarity threshold, i.e., sqrt(2 - 2 * simThreshold).
+     *
+     * @param dimension
+     * @param simThreshold
+     */
+    public double getThreshold(int dimension, double simThreshold) {
+        return Math.sqrt(Math.max(0, 2 - 2 * simThreshold));
+    }
+}
@@ -0,0 +1,34 @@
+package org.aksw.limes.core.measures.measure.space;
+
+/**
+ * Similarity of two dense vectors based on their Euclidean distance d, computed
+ * as 1/(1+d) like in {@link EuclideanMeasure}.
+ */
+public class VectorEuclideanMeasure extends AVectorMeasure {
+
+    @Override
+    public double getSimilarity(float[] v1, float[] v2) {
+        double sum = 0;
+        for (int i = 0; i < v1.length; i++) {
+            double d = v1[i] - v2[i];
+            sum += d * d;
+        }
+        return 1d / (1d + Math.sqrt(sum));
+    }
+
+    @Override
+    public String getName() {
+        return "vector_euclidean";
+    }
+
+    /**
+     * Returns the distance that corresponds to the similarity threshold, i.e.,
+     * (1 - simThreshold) / simThreshold.
+     *
+     * @param dimension
+     * @param simThreshold
+     */
+    public double getThreshold(int dimension, double simThreshold) {
+        return (1 - simThreshold) / simThreshold;
+    }
+}
@@ -6,6 +6,7 @@ import java.util.List;
 import org.aksw.limes.core.evaluation.qualititativeMeasures.PseudoFMeasure;
 import org.aksw.limes.core.exceptions.NoSuchParameterException;
 import org.aksw.limes.core.exceptions.UnsupportedMLImplementationException;
+import org.aksw.limes.core.execution.ExecutionContext;
 import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.config.Configuration;
 import org.aksw.limes.core.io.mapping.AMapping;
@@ -28,6 +29,8 @@ public abstract class ACoreMLAlgorithm {
     
     protected Configuration configuration;
 
+    protected ExecutionContext context = ExecutionContext.NONE;
+
     /**
      * @return the configuration
      */
@@ -195,5 +198,22 @@ public abstract class ACoreMLAlgorithm {
         return targetCache;
     }
 
+    /**
+     * @return the context of the learning
+     */
+    public ExecutionContext getContext() {
+        return context;
+    }
+
+    /**
+     * Sets the context of the following learning and prediction calls, which
+     * is checked between iterations and passed on to the execution engines.
+     *
+     * @param context the context of the learning
+     */
+    public void setContext(ExecutionContext context) {
+        this.context = context;
+    }
+
 
 }
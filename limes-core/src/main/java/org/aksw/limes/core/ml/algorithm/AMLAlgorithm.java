@@ -2,6 +2,7 @@ package org.aksw.limes.core.ml.algorithm;
 
 import java.util.List;
 
+import org.aksw.limes.core.execution.ExecutionContext;
 import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.mapping.AMapping;
 
@@ -94,4 +95,12 @@ public abstract class AMLAlgorithm {
 	    coreMLAlgorithm.setParameter(par, val);
 	}
 
+    /**
+     * @param context the context of the learning, carrying its cancellation
+     *            token, deadline and progress sink
+     */
+    public void setContext(ExecutionContext context) {
+        coreMLAlgorithm.setContext(context);
+    }
+
 }
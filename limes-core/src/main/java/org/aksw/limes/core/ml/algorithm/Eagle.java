@@ -6,6 +6,7 @@ import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 
+import org.aksw.limes.core.datastrutures.DisagreementIndex;
 import org.aksw.limes.core.evaluation.qualititativeMeasures.FMeasure;
 import org.aksw.limes.core.evaluation.qualititativeMeasures.IQualitativeMeasure;
 import org.aksw.limes.core.evaluation.qualititativeMeasures.PseudoFMeasure;
@@ -48,6 +49,8 @@ public class Eagle extends ACoreMLAlgorithm {
     private int turn = 0;
     private List<IGPProgram> bestSolutions = new LinkedList<IGPProgram>();
     private ALDecider alDecider = new ALDecider();
+    /* mappings of the metrics of the last oracle questions, updated incrementally */
+    private DisagreementIndex committee = new DisagreementIndex();
 
     //=============== UNSUPERVISED-LEARNING VARIABLES ===============
     private List<LinkSpecification> specifications;
@@ -73,6 +76,7 @@ public class Eagle extends ACoreMLAlgorithm {
 
     public static final String MEASURE = "measure";
     public static final String PROPERTY_MAPPING = "property_mapping";
+    public static final String THREADS = "threads";
     
     
     // ========================================================================
@@ -98,6 +102,7 @@ public class Eagle extends ACoreMLAlgorithm {
         super.init(lp, source, target);
         this.turn = 0;
         this.bestSolutions = new LinkedList<IGPProgram>();
+        this.committee = new DisagreementIndex();
     }
     
 	@Override
@@ -117,9 +122,13 @@ public class Eagle extends ACoreMLAlgorithm {
 
         Integer nGen = (Integer) getParameter(GENERATIONS);
         
+        evaluatePopulation();
         for (int gen = 1; gen <= nGen; gen++) {
+            context.checkpoint();
             gp.evolve();
+            evaluatePopulation();
             bestSolutions.add(determineFittest(gp, gen));
+            context.progress((double) gen / nGen);
         }
 
         MLResults result = createSupervisedResult();
@@ -144,12 +153,16 @@ public class Eagle extends ACoreMLAlgorithm {
 		
         specifications = new LinkedList<LinkSpecification>();
         logger.info("Start learning");
+        evaluatePopulation();
         for (int gen = 1; gen <= nGen; gen++) {
+            context.checkpoint();
             gp.evolve();
+            evaluatePopulation();
             IGPProgram currentBest = determineFittestUnsup(gp, gen);
             LinkSpecification currentBestMetric = getLinkSpecification(currentBest);
             //TODO: save the best LS of each generation
             specifications.add(currentBestMetric);
+            context.progress((double) gen / nGen);
         }
 
         allBest = determineFittestUnsup(gp, nGen);
@@ -211,6 +224,7 @@ public class Eagle extends ACoreMLAlgorithm {
     	learningParameters.add(new LearningParameter(MEASURE, new FMeasure(), IQualitativeMeasure.class, Double.NaN, Double.NaN, Double.NaN, MEASURE));
     	learningParameters.add(new LearningParameter(PSEUDO_FMEASURE, new PseudoFMeasure(), IQualitativeMeasure.class, Double.NaN, Double.NaN, Double.NaN, MEASURE));
     	learningParameters.add(new LearningParameter(PROPERTY_MAPPING, new PropertyMapping(), PropertyMapping.class, Double.NaN, Double.NaN, Double.NaN, PROPERTY_MAPPING));  	    
+    	learningParameters.add(new LearningParameter(THREADS, Runtime.getRuntime().availableProcessors(), Integer.class, 1, Integer.MAX_VALUE, 1, THREADS));
     }
 
 
@@ -332,6 +346,14 @@ public class Eagle extends ACoreMLAlgorithm {
         return bestHere;
     }
 
+    /**
+     * Computes the fitness of the programs of the current population
+     * concurrently, so that JGAP finds them evaluated.
+     */
+    private void evaluatePopulation() {
+        fitness.evaluatePopulation(gp.getGPPopulation(), (Integer) getParameter(THREADS), context);
+    }
+
     /**
      * Computes for a given jgap Program its corresponding link specification.
      *
@@ -381,7 +403,6 @@ public class Eagle extends ACoreMLAlgorithm {
         GPPopulation pop = this.gp.getGPPopulation();
         pop.sortByFitness();
         HashSet<LinkSpecification> metrics = new HashSet<LinkSpecification>();
-        List<AMapping> candidateMaps = new LinkedList<AMapping>();
         // and add the all time best
 
         metrics.add(getLinkSpecification(allBest));
@@ -399,15 +420,18 @@ public class Eagle extends ACoreMLAlgorithm {
         	throw new NotYetImplementedException("Fallback solution if we have too less candidates.");
         }
 
-        // get mappings for all distinct metrics
-        logger.info("Getting " + metrics.size() + " full mappings to determine controversy matches...");
+        // get mappings for all distinct metrics not in the committee yet
+        committee.retainMembers(metrics);
+        int known = committee.getMemberCount();
+        logger.info("Getting " + (metrics.size() - known) + " full mappings to determine controversy matches...");
         for (LinkSpecification m : metrics) {
-            candidateMaps.add(fitness.getMapping(sourceCache, targetCache, m));
+            if (!committee.containsMember(m)) {
+                alDecider.addMember(committee, m, fitness.getMapping(sourceCache, targetCache, m));
+            }
         }
         // get most controversy matches
-        logger.info("Getting " + size + " controversy match candidates from " + candidateMaps.size() + " maps...");
-        ;
-        List<ALDecider.Triple> controversyMatches = alDecider.getControversyCandidates(candidateMaps, size);
+        logger.info("Getting " + size + " controversy match candidates from " + committee.getMemberCount() + " maps...");
+        List<ALDecider.Triple> controversyMatches = alDecider.getControversyCandidates(committee, size);
         // construct answer
         AMapping answer = MappingFactory.createDefaultMapping();
         for (ALDecider.Triple t : controversyMatches) {
@@ -4,10 +4,12 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import org.aksw.limes.core.datastrutures.Tree;
 import org.aksw.limes.core.evaluation.qualititativeMeasures.PseudoFMeasure;
 import org.aksw.limes.core.exceptions.UnsupportedMLImplementationException;
+import org.aksw.limes.core.execution.ExecutionContext;
 import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.ls.LinkSpecification;
 import org.aksw.limes.core.io.mapping.AMapping;
@@ -123,10 +125,11 @@ public class WombatComplete extends AWombat {
      * @author sherif
      */
     public RefinementNode findBestSolution() {
+        ExecutionContext search = startSearch();
         List<ExtendedClassifier> classifiers = findInitialClassifiers();
         diffs = computeClassifiersDiffPermutations(classifiers);
         createRefinementTreeRoot();
-        RefinementNode.setrMax(computeMaxRecall(classifiers));
+        rMax = computeMaxRecall(classifiers);
         Tree<RefinementNode> mostPromisingNode = findMostPromisingNode(refinementTreeRoot, false);
         long time = System.currentTimeMillis();
         pruneTree(refinementTreeRoot, mostPromisingNode.getValue().getFMeasure());
@@ -135,7 +138,8 @@ public class WombatComplete extends AWombat {
         iterationNr++;
         while ((mostPromisingNode.getValue().getFMeasure()) < getMaxFitnessThreshold()
                 && (refinementTreeRoot.size() - pruneNodeCount) <= getMaxRefinmentTreeSize()
-                && iterationNr <= getMaxIterationNumber()) {
+                && iterationNr <= getMaxIterationNumber()
+                && !isExecutionTimeUp(search, iterationNr - 1)) {
             logger.debug("Running iteration number " + iterationNr);
             iterationNr++;
             mostPromisingNode = expandNode(mostPromisingNode);
@@ -150,7 +154,7 @@ public class WombatComplete extends AWombat {
         }
         RefinementNode bestSolution = findMostPromisingNode(refinementTreeRoot, true).getValue();
         logger.debug("Overall Best Solution: " + bestSolution);
-        if (!RefinementNode.isSaveMapping()) {
+        if (bestSolution.getMapping() == null) {
             bestSolution.setMap(getMapingOfMetricExpression(bestSolution.getMetricExpression()));
         }
         return bestSolution;
@@ -183,16 +187,22 @@ public class WombatComplete extends AWombat {
      * @author sherif
      */
     private Map<String, AMapping> computeClassifiersDiffPermutations(List<ExtendedClassifier> c) {
-        Map<String, AMapping> diffs = new HashMap<>();
+        List<String> expressions = new ArrayList<>();
+        List<Callable<AMapping>> tasks = new ArrayList<>();
         for (int i = 0; i < c.size(); i++) {
             for (int j = 0; j < c.size(); j++) {
                 if (i != j) {
-                    AMapping m = MappingOperations.difference(c.get(i).getMapping(), c.get(j).getMapping());
-                    String e = "MINUS(" + c.get(i).getMetricExpression() + "," + c.get(j).getMetricExpression() + ")|0.0";
-                    diffs.put(e, m);
+                    ExtendedClassifier x = c.get(i), y = c.get(j);
+                    expressions.add("MINUS(" + x.getMetricExpression() + "," + y.getMetricExpression() + ")|0.0");
+                    tasks.add(() -> MappingOperations.difference(x.getMapping(), y.getMapping()));
                 }
             }
         }
+        List<AMapping> mappings = invokeAll(tasks);
+        Map<String, AMapping> diffs = new HashMap<>();
+        for (int i = 0; i < expressions.size(); i++) {
+            diffs.put(expressions.get(i), mappings.get(i));
+        }
         return diffs;
     }
     
@@ -318,11 +328,7 @@ public class WombatComplete extends AWombat {
         String nodeMetricExpr = node.getValue().getMetricExpression();
         // is it the root of the tree?
         if (node.getParent() == null) {
-            for (String diffExpr : diffs.keySet()) {
-                AMapping diffMapping = diffs.get(diffExpr);
-                result.add(createNode(diffMapping, diffExpr));
-            }
-            return result;
+            return createDiffNodes();
         } else if (isAtomic(nodeMetricExpr)) {
             return createDisjunctionsWithDiffNodes(node);
         } else if (isDifference(nodeMetricExpr)) {
@@ -388,20 +394,26 @@ public class WombatComplete extends AWombat {
      * @return list of nodes L \cup A_i \ A_j | A_i \in P, A_j \in P, where P is the set if initial classifiers
      */
     private List<RefinementNode> createDisjunctionsWithDiffNodes(Tree<RefinementNode> node) {
-        List<RefinementNode> result = new ArrayList<>();
+        AMapping nodeMaping = getMapping(node.getValue());
+        List<Callable<RefinementNode>> tasks = new ArrayList<>();
         for (String diffExpr : diffs.keySet()) {
             AMapping diffMapping = diffs.get(diffExpr);
             String childMetricExpr = "OR(" + node.getValue().getMetricExpression() + "," + diffExpr + ")|0.0";
-            AMapping nodeMaping = MappingFactory.createDefaultMapping();
-            if (RefinementNode.isSaveMapping()) {
-                nodeMaping = node.getValue().getMapping();
-            } else {
-                nodeMaping = getMapingOfMetricExpression(node.getValue().getMetricExpression());
-            }
-            AMapping childMap = MappingOperations.union(nodeMaping, diffMapping);
-            result.add(createNode(childMap, childMetricExpr));
+            tasks.add(() -> createNode(MappingOperations.union(nodeMaping, diffMapping), childMetricExpr));
         }
-        return result;
+        return invokeAll(tasks);
+    }
+
+    /**
+     * @return list of nodes A_i \ A_j | A_i \in P, A_j \in P, where P is the set if initial classifiers
+     */
+    private List<RefinementNode> createDiffNodes() {
+        List<Callable<RefinementNode>> tasks = new ArrayList<>();
+        for (String diffExpr : diffs.keySet()) {
+            AMapping diffMapping = diffs.get(diffExpr);
+            tasks.add(() -> createNode(diffMapping, diffExpr));
+        }
+        return invokeAll(tasks);
     }
 
    
@@ -436,20 +448,14 @@ public class WombatComplete extends AWombat {
      * @return list of nodes L \cup A_i \ A_j | A_i \in P, A_j \in P, where P is the set if initial classifiers
      */
     private List<RefinementNode> createConjunctionsWithDiffNodes(Tree<RefinementNode> node) {
-        List<RefinementNode> result = new ArrayList<>();
+        AMapping nodeMaping = getMapping(node.getValue());
+        List<Callable<RefinementNode>> tasks = new ArrayList<>();
         for (String diffExpr : diffs.keySet()) {
             AMapping diffMapping = diffs.get(diffExpr);
-            AMapping nodeMaping = MappingFactory.createDefaultMapping();
-            if (RefinementNode.isSaveMapping()) {
-                nodeMaping = node.getValue().getMapping();
-            } else {
-                nodeMaping = getMapingOfMetricExpression(node.getValue().getMetricExpression());
-            }
             String childMetricExpr = "AND(" + node.getValue().getMetricExpression() + "," + diffExpr + ")|0.0";
-            AMapping childMap = MappingOperations.intersection(nodeMaping, diffMapping);
-            result.add(createNode(childMap, childMetricExpr));
+            tasks.add(() -> createNode(MappingOperations.intersection(nodeMaping, diffMapping), childMetricExpr));
         }
-        return result;
+        return invokeAll(tasks);
     }
     
     /**
@@ -501,9 +507,7 @@ public class WombatComplete extends AWombat {
     private void createRefinementTreeRoot() {
         RefinementNode initialNode = new RefinementNode(-Double.MAX_VALUE, MappingFactory.createDefaultMapping(), "");
         refinementTreeRoot = new Tree<RefinementNode>(null, initialNode, null);
-        for (String diffExpr : diffs.keySet()) {
-            AMapping diffMapping = diffs.get(diffExpr);
-            RefinementNode n = createNode(diffMapping, diffExpr);
+        for (RefinementNode n : createDiffNodes()) {
             refinementTreeRoot.addChild(new Tree<RefinementNode>(refinementTreeRoot, n, null));
         }
         if (isVerbose()) {
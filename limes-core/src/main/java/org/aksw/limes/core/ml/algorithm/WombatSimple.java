@@ -4,11 +4,16 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
 
+import org.aksw.limes.core.datastrutures.DisagreementIndex;
+import org.aksw.limes.core.datastrutures.DisagreementIndex.Candidate;
 import org.aksw.limes.core.datastrutures.LogicOperator;
 import org.aksw.limes.core.datastrutures.Tree;
 import org.aksw.limes.core.evaluation.qualititativeMeasures.PseudoFMeasure;
+import org.aksw.limes.core.evaluation.qualititativeMeasures.PseudoFMeasureEvaluator.LinkSet;
 import org.aksw.limes.core.exceptions.UnsupportedMLImplementationException;
+import org.aksw.limes.core.execution.ExecutionContext;
 import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.ls.LinkSpecification;
 import org.aksw.limes.core.io.mapping.AMapping;
@@ -17,7 +22,6 @@ import org.aksw.limes.core.io.mapping.MappingFactory.MappingType;
 import org.aksw.limes.core.measures.mapper.MappingOperations;
 import org.aksw.limes.core.ml.algorithm.classifier.ExtendedClassifier;
 import org.aksw.limes.core.ml.algorithm.wombat.AWombat;
-import org.aksw.limes.core.ml.algorithm.wombat.LinkEntropy;
 import org.aksw.limes.core.ml.algorithm.wombat.RefinementNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +40,8 @@ public class WombatSimple extends AWombat {
     protected RefinementNode bestSolutionNode = null;
     protected List<ExtendedClassifier> classifiers = null;
     protected int iterationNr = 0;
+    /** mappings of the best nodes of the last active learning round */
+    protected DisagreementIndex committee = new DisagreementIndex();
 
 
 
@@ -59,6 +65,7 @@ public class WombatSimple extends AWombat {
         bestSolutionNode = null;
         classifiers = null;
         iterationNr = 0;
+        committee = new DisagreementIndex();
     }
 
     @Override
@@ -67,6 +74,7 @@ public class WombatSimple extends AWombat {
         fillSampleSourceTargetCaches(trainingData);
         this.sourceCache = sourceSample;
         this.targetCache = targetSample;
+        committee.clear();
         return learn();
     }
 
@@ -80,7 +88,7 @@ public class WombatSimple extends AWombat {
         String bestMetricExpr = bestSolutionNode.getMetricExpression();
         if(!bestMetricExpr.equals("")){
             double threshold = Double.parseDouble(bestMetricExpr.substring(bestMetricExpr.lastIndexOf("|") + 1, bestMetricExpr.length()));
-            AMapping bestMapping = bestSolutionNode.getMapping();
+            AMapping bestMapping = getMapping(bestSolutionNode);
             LinkSpecification bestLS = new LinkSpecification(bestMetricExpr, threshold);
             double bestFMeasure = bestSolutionNode.getFMeasure();
             return new MLResults(bestLS, bestMapping, bestFMeasure, null);
@@ -116,42 +124,18 @@ public class WombatSimple extends AWombat {
     @Override
     protected AMapping getNextExamples(int size) throws UnsupportedMLImplementationException {
         List<RefinementNode> bestNodes = getBestKNodes(refinementTreeRoot, activeLearningRate);
-        AMapping intersectionMapping = MappingFactory.createDefaultMapping();
-        AMapping unionMapping = MappingFactory.createDefaultMapping();
-
+        // only the mappings of nodes new to the committee are added
+        committee.retainMembers(bestNodes);
         for(RefinementNode sn : bestNodes){
-            intersectionMapping = MappingOperations.intersection(intersectionMapping, sn.getMapping());
-            unionMapping = MappingOperations.union(unionMapping, sn.getMapping());
-        }
-        AMapping posEntropyMapping = MappingOperations.difference(unionMapping, intersectionMapping);
-
-        TreeSet<LinkEntropy> linkEntropy = new TreeSet<>();
-        int entropyPos = 0, entropyNeg = 0;
-        for(String s : posEntropyMapping.getMap().keySet()){
-            for(String t : posEntropyMapping.getMap().get(s).keySet()){
-                // compute Entropy(s,t)
-                for(RefinementNode sn : bestNodes){
-                    if(sn.getMapping().contains(s, t)){
-                        entropyPos++;
-                    }else{
-                        entropyNeg++;
-                    }
-                }
-                int entropy = entropyPos * entropyNeg;
-                linkEntropy.add(new LinkEntropy(s, t, entropy));
+            if(!committee.containsMember(sn)){
+                committee.addMember(sn, getMapping(sn));
             }
         }
-        // get highestEntropyLinks
-        List<LinkEntropy> highestEntropyLinks = new ArrayList<>();
-        int i = 0;
-        Iterator<LinkEntropy> itr = linkEntropy.descendingIterator();
-        while(itr.hasNext() && i < size) {
-            highestEntropyLinks.add(itr.next());
-            i++;
-        }
+        // the entropy of a link is the product of the numbers of nodes containing and missing it
+        int members = committee.getMemberCount();
         AMapping result = MappingFactory.createDefaultMapping();
-        for(LinkEntropy l: highestEntropyLinks){
-            result.add(l.getSourceUri(), l.getTargetUri(), l.getEntropy());
+        for(Candidate c : committee.getTopCandidates(size, votes -> votes * (members - votes), false)){
+            result.add(c.getSourceUri(), c.getTargetUri(), c.getScore());
         }
         return result;
     }
@@ -169,7 +153,7 @@ public class WombatSimple extends AWombat {
         bestSolutionNode = findBestSolution();
         String bestMetricExpr = bestSolutionNode.getMetricExpression();
         double threshold = Double.parseDouble(bestMetricExpr.substring(bestMetricExpr.lastIndexOf("|") + 1, bestMetricExpr.length()));
-        AMapping bestMapping = bestSolutionNode.getMapping();
+        AMapping bestMapping = getMapping(bestSolutionNode);
         LinkSpecification bestLS = new LinkSpecification(bestMetricExpr, threshold);
         double bestFMeasure = bestSolutionNode.getFMeasure();
         return new MLResults(bestLS, bestMapping, bestFMeasure, null);
@@ -185,16 +169,18 @@ public class WombatSimple extends AWombat {
      */
     protected void updateScores(Tree<RefinementNode> r) {
         if (r.getchildren() == null || r.getchildren().size() == 0) {
-            r.getValue().setfMeasure(fMeasure(r.getValue().getMapping()));
-            r.getValue().setPrecision(precision(r.getValue().getMapping()));
-            r.getValue().setRecall(recall(r.getValue().getMapping()));
+            AMapping map = getMapping(r.getValue());
+            r.getValue().setfMeasure(fMeasure(map));
+            r.getValue().setPrecision(precision(map));
+            r.getValue().setRecall(recall(map));
             return;
         }
         for (Tree<RefinementNode> child : r.getchildren()) {
             if (child.getValue().getFMeasure() >= 0) {
-                r.getValue().setfMeasure(fMeasure(r.getValue().getMapping()));
-                r.getValue().setPrecision(precision(r.getValue().getMapping()));
-                r.getValue().setRecall(recall(r.getValue().getMapping()));
+                AMapping map = getMapping(r.getValue());
+                r.getValue().setfMeasure(fMeasure(map));
+                r.getValue().setPrecision(precision(map));
+                r.getValue().setRecall(recall(map));
                 updateScores(child);
             }
         }
@@ -205,6 +191,7 @@ public class WombatSimple extends AWombat {
      * @return RefinementNode containing the best over all solution
      */
     public RefinementNode findBestSolution() {
+        ExecutionContext search = startSearch();
         classifiers = findInitialClassifiers();
         createRefinementTreeRoot();
         Tree<RefinementNode> mostPromisingNode = getMostPromisingNode(refinementTreeRoot, getOverAllPenaltyWeight() );
@@ -212,7 +199,8 @@ public class WombatSimple extends AWombat {
         iterationNr++;
         while ((mostPromisingNode.getValue().getFMeasure()) < getMaxFitnessThreshold()
                 && refinementTreeRoot.size() <= getMaxRefinmentTreeSize()
-                && iterationNr <= getMaxIterationNumber()) {
+                && iterationNr <= getMaxIterationNumber()
+                && !isExecutionTimeUp(search, iterationNr - 1)) {
             iterationNr++;
             mostPromisingNode = expandNode(mostPromisingNode);
             mostPromisingNode = getMostPromisingNode(refinementTreeRoot, getOverAllPenaltyWeight());
@@ -274,7 +262,9 @@ public class WombatSimple extends AWombat {
     /**
      * Expand an input refinement node by applying
      * all available operators to the input refinement
-     * node's mapping with all other classifiers' mappings
+     * node's mapping with all other classifiers' mappings.
+     * The children are evaluated concurrently and added in
+     * the order of classifiers and operators.
      *
      * @param node
      *         Refinement node to be expanded
@@ -282,23 +272,40 @@ public class WombatSimple extends AWombat {
      * @author sherif
      */
     private Tree<RefinementNode> expandNode(Tree<RefinementNode> node) {
-        AMapping map = MappingFactory.createDefaultMapping();
+        AMapping nodeMapping = getMapping(node.getValue());
+        // children are scored from the links of the classifiers only
+        LinkSet nodeLinks = encode(nodeMapping);
+        List<Callable<RefinementNode>> tasks = new ArrayList<>();
+        // operator whose mapping the next child gets; operators without a set
+        // operation (DIFF, XOR) keep the one of the previous child
+        LogicOperator setOperation = null;
         for (ExtendedClassifier c : classifiers) {
             for (LogicOperator op : LogicOperator.values()) {
                 if (!node.getValue().getMetricExpression().equals(c.getMetricExpression())) { // do not create the same metricExpression again
-                    if (op.equals(LogicOperator.AND)) {
-                        map = MappingOperations.intersection(node.getValue().getMapping(), c.getMapping());
-                    } else if (op.equals(LogicOperator.OR)) {
-                        map = MappingOperations.union(node.getValue().getMapping(), c.getMapping());
-                    } else if (op.equals(LogicOperator.MINUS)) {
-                        map = MappingOperations.difference(node.getValue().getMapping(), c.getMapping());
+                    if (op.equals(LogicOperator.AND) || op.equals(LogicOperator.OR) || op.equals(LogicOperator.MINUS)) {
+                        setOperation = op;
                     }
                     String metricExpr = op + "(" + node.getValue().getMetricExpression() + "," + c.getMetricExpression() + ")|0";
-                    RefinementNode child = createNode(map, metricExpr);
-                    node.addChild(new Tree<RefinementNode>(child));
+                    LogicOperator applied = setOperation;
+                    tasks.add(() -> {
+                        if (applied == null) {
+                            return createNode(MappingFactory.createDefaultMapping(), metricExpr);
+                        }
+                        return createNode(nodeLinks, applied, c, () -> {
+                            if (applied.equals(LogicOperator.AND)) {
+                                return MappingOperations.intersection(nodeMapping, c.getMapping());
+                            } else if (applied.equals(LogicOperator.OR)) {
+                                return MappingOperations.union(nodeMapping, c.getMapping());
+                            }
+                            return MappingOperations.difference(nodeMapping, c.getMapping());
+                        }, metricExpr);
+                    });
                 }
             }
         }
+        for (RefinementNode child : invokeAll(tasks)) {
+            node.addChild(new Tree<RefinementNode>(child));
+        }
         if (isVerbose()) {
             refinementTreeRoot.print();
         }
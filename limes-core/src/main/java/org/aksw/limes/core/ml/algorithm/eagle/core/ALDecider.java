@@ -4,10 +4,11 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
+import java.util.function.IntToDoubleFunction;
 
+import org.aksw.limes.core.datastrutures.DisagreementIndex;
+import org.aksw.limes.core.datastrutures.DisagreementIndex.Candidate;
 import org.aksw.limes.core.io.mapping.AMapping;
 import org.aksw.limes.core.io.mapping.MappingFactory;
 import org.slf4j.Logger;
@@ -96,26 +97,48 @@ public class ALDecider {
      */
     public HashMap<Triple, Integer> getControversyMatches(List<AMapping> mapList) {
         HashMap<Triple, Integer> answer = new HashMap<Triple, Integer>();
-        for (AMapping m : mapList) { // for all Mapping
-            int counter = 0;
-            for (String key : m.getMap().keySet()) {// and all Matches <key>-<value> within them
-                if (counter < maxCount)
-                    for (String value : m.getMap().get(key).keySet()) {
-                        Triple t = new Triple(key, value, 1f); // construct Triple
-                        if (!retrieved.contains(t)) // already have the triple answered some time ago
-                            if (answer.containsKey(t)) { // if we already have the match <key>-<value>
-                                int count = answer.get(t);// increment its counter
-                                answer.put(t, count + 1);
-                            } else {// otherwise add the match
-                                answer.put(t, 1);
-                            }
-                        counter++;
-                    }
+        AMapping votes = getCommittee(mapList).getVotes();
+        for (String key : votes.getMap().keySet()) {
+            for (Entry<String, Double> value : votes.getMap().get(key).entrySet()) {
+                answer.put(new Triple(key, value.getKey(), 1f), value.getValue().intValue());
             }
         }
         return answer;
     }
 
+    /**
+     * Builds the committee of the given mappings. Already retrieved matches are excluded.
+     *
+     * @param mapList
+     *         A List of all Mappings to process.
+     * @return the committee index with one member per Mapping
+     */
+    public DisagreementIndex getCommittee(List<AMapping> mapList) {
+        DisagreementIndex committee = new DisagreementIndex();
+        for (Triple t : retrieved) {
+            committee.exclude(t.getSourceUri(), t.getTargetUri());
+        }
+        for (int i = 0; i < mapList.size(); i++) {
+            addMember(committee, i, mapList.get(i));
+        }
+        return committee;
+    }
+
+    /**
+     * Adds a Mapping to a committee, limited to the matches of its first sources like the Mappings of
+     * {@link #getCommittee(List)}. Allows to update a committee incrementally.
+     *
+     * @param committee
+     *         the committee index
+     * @param key
+     *         the key of the member, replacing an older member with the same key
+     * @param mapping
+     *         the Mapping of the member
+     */
+    public void addMember(DisagreementIndex committee, Object key, AMapping mapping) {
+        committee.addMember(key, mapping, maxCount);
+    }
+
     /**
      * Function to get the n most controversy matching candidates of the given mappings. The most controversy once
      * are those, who are only in half of the given mappings.
@@ -124,57 +147,29 @@ public class ALDecider {
      *         List of Mappings.
      * @param n
      *         Controls how many candidates should be retrieved.
-     * @return
+     * @return the n most controversy matches, at most one per source URI
      */
     public List<Triple> getControversyCandidates(List<AMapping> mapList, int n) {
         logger.info("get " + n + " most controversy matches from " + mapList.size() + " Mappings");
-        Map<Integer, Set<Triple>> answer = new HashMap<Integer, Set<Triple>>();
-        // initialize Map and Set
-        for (int i = 1; i <= mapList.size(); i++)
-            answer.put(i, new HashSet<Triple>());
-        Map<Triple, Integer> sub = getControversyMatches(mapList);
-        for (Entry<Triple, Integer> e : sub.entrySet()) {
-            answer.get(e.getValue()).add(e.getKey());
-        }
-        logger.info("numbered controversy Matches with "
-        		+ "" + sub.size() + " triples. Putting them to " + answer.size() + " indices.");
-        List<Triple> tripleList = new LinkedList<Triple>();
-        int center = mapList.size() / 2;
-        int minDist = mapList.size(); // at most all maps contain a match
-        int minimalDistance = mapList.size();
-        while (tripleList.size() < Math.min(n, sub.size()) && !answer.isEmpty()) {
-            // we look for those as close to center as possible
-            boolean found = false;
-            int MapsForFound = 0;
-            for (int d : answer.keySet()) {
-                if (Math.abs(d - center) <= minimalDistance) {
-                    minDist = d;
-                    minimalDistance = Math.abs(d - center);
-                    found = true;
-                    MapsForFound = d;
-                }
-            }
+        return getControversyCandidates(getCommittee(mapList), n);
+    }
 
-            HashSet<String> retrievedIDs = new HashSet<String>();
-            if (found && answer.containsKey(minDist)) {
-                for (Triple t : answer.get(minDist)) {
-                    if (tripleList.size() < Math.min(n, sub.size())) {
-                        if (!retrievedIDs.contains(t.getSourceUri())) {
-                            t.setSimilarity((float) MapsForFound / (float) mapList.size());
-                            tripleList.add(t);
-//                            retrieved.add(t); // remember the triple, to don't ask about it twice
-                            retrievedIDs.add(t.getSourceUri());
-                        }
-                    } else {
-                        return tripleList;
-                    }
-                }
-                answer.remove(minDist);
-            }
-            //reset center & dist
-            center = mapList.size() / 2;
-            minDist = mapList.size(); // at most all maps contain a match
-            minimalDistance = mapList.size();
+    /**
+     * Function to get the n most controversy matching candidates of a committee. The most controversy ones
+     * are those contained in about half of its members, among equally controversy ones those contained in
+     * more members come first. The similarity of a candidate is the fraction of members containing it.
+     *
+     * @param committee
+     *         the committee index
+     * @param n
+     *         Controls how many candidates should be retrieved.
+     * @return the n most controversy matches, at most one per source URI
+     */
+    public List<Triple> getControversyCandidates(DisagreementIndex committee, int n) {
+        int members = committee.getMemberCount();
+        List<Triple> tripleList = new LinkedList<Triple>();
+        for (Candidate c : committee.getTopCandidates(n, controversy(members), true)) {
+            tripleList.add(new Triple(c.getSourceUri(), c.getTargetUri(), (float) c.getVotes() / (float) members));
         }
         logger.info("Controversy matches: " + tripleList);
         return tripleList;
@@ -185,47 +180,12 @@ public class ALDecider {
      * @return tripleList with informative value
      */
     public List<Triple> getControversyCandidates(List<AMapping> mapList) {
-
-        Map<Integer, Set<Triple>> answer = new HashMap<Integer, Set<Triple>>();
-        // initialize Map and Set
-        for (int i = 1; i <= mapList.size(); i++)
-            answer.put(i, new HashSet<Triple>());
-        Map<Triple, Integer> sub = getControversyMatches(mapList);
-        for (Entry<Triple, Integer> e : sub.entrySet()) {
-            answer.get(e.getValue()).add(e.getKey());
-        }
-        logger.info("numbered controversy Matches with " + sub.size() + " triples. Putting them to " + answer.size() + " indices.");
+        DisagreementIndex committee = getCommittee(mapList);
+        int members = committee.getMemberCount();
         List<Triple> tripleList = new LinkedList<Triple>();
-        int center = mapList.size() / 2;
-        int minDist = mapList.size(); // at most all maps contain a match
-        while (tripleList.size() < sub.size() && !answer.isEmpty()) {
-            // we look for those as close to center as possible
-            boolean found = false;
-            int MapsForFound = 0;
-            for (int d : answer.keySet()) {// 1 ... mapList.size()
-                if (Math.abs(d - center) <= minDist)
-                    minDist = d;
-                found = true;
-                MapsForFound = d;
-            }
-            if (found && answer.containsKey(minDist)) {
-                for (Triple t : answer.get(minDist)) {
-                    if (tripleList.size() < sub.size()) {
-                        t.setSimilarity((float) MapsForFound / (float) mapList.size());
-                        tripleList.add(t);
-                        //retrieved.add(t); // I want all triples the
-                        //TODO triples which were asked should be set before this method is called
-                    } else {
-                        return tripleList;
-                    }
-                }
-                answer.remove(minDist);
-            }
-            //reset center & dist
-            center = mapList.size() / 2;
-            minDist = mapList.size(); // at most all maps contain a match
+        for (Candidate c : committee.getTopCandidates(Integer.MAX_VALUE, controversy(members), false)) {
+            tripleList.add(new Triple(c.getSourceUri(), c.getTargetUri(), (float) c.getVotes() / (float) members));
         }
-        //logger.info("Controversy matches: "+tripleList);
         if (tripleList.size() == 0) {
             logger.error("NO triples for oracle found! Quitting!");
             logger.error("mapList.size:" + mapList.size());
@@ -239,6 +199,12 @@ public class ALDecider {
         return tripleList;
     }
 
+    /* Matches contained in close to half of the members first, then those contained in more members. */
+    private static IntToDoubleFunction controversy(int members) {
+        int center = members / 2;
+        return votes -> -Math.abs(votes - center) + votes / (members + 1d);
+    }
+
     /**
      * To set already retrieved instances. For example those provided at start up.
      *
@@ -9,6 +9,7 @@ import org.aksw.limes.core.evaluation.qualititativeMeasures.IQualitativeMeasure;
 import org.aksw.limes.core.execution.engine.ExecutionEngine;
 import org.aksw.limes.core.execution.engine.ExecutionEngineFactory;
 import org.aksw.limes.core.execution.engine.ExecutionEngineFactory.ExecutionEngineType;
+import org.aksw.limes.core.execution.engine.SimpleExecutionEngine;
 import org.aksw.limes.core.execution.planning.planner.ExecutionPlannerFactory;
 import org.aksw.limes.core.execution.planning.planner.ExecutionPlannerFactory.ExecutionPlannerType;
 import org.aksw.limes.core.execution.planning.planner.IPlanner;
@@ -118,19 +119,20 @@ public class ExpressionFitnessFunction extends IGPFitnessFunction {
      * The evolution could produce non wanted individuals especially those who compare properties which are
      * not part of the PropertyMapping (set in the ExpressionConfiguration). In such cases setp 1.1 throws an
      * IllegalStateException. As a result the fitness value would be set to rather bad one.
+     * Individuals with the same canonical link specification are evaluated only once.
      *
      * @param p
      *         GPProgram fitness is calculated for.
      * @return Double value. The closer to 0 the better.
      */
     public double calculateRawFitness(IGPProgram p) {
-        p.getGPConfiguration().clearStack();
-        p.getGPConfiguration().clearMemory();
+        return calculateRawFitness(getLinkSpecification(p));
+    }
+
+    @Override
+    protected double calculateFitness(LinkSpecification spec) {
         // get actual Mapping
-        Object[] args = {};
-        ProgramChromosome pc = p.getChromosome(0);
         AMapping actualMapping = MappingFactory.createDefaultMapping();
-        LinkSpecification spec = (LinkSpecification) pc.getNode(0).execute_object(pc, 0, args);
         String expr = spec.getFilterExpression();
         
         if(expr == null)
@@ -236,6 +238,10 @@ public class ExpressionFitnessFunction extends IGPFitnessFunction {
         	ExecutionEngine engine = ExecutionEngineFactory.getEngine(ExecutionEngineType.DEFAULT,
         			 sourceCache, targetCache,
                      this.m_config.source.getVar(), this.m_config.target.getVar());
+        	if (engine instanceof SimpleExecutionEngine) {
+        		((SimpleExecutionEngine) engine).setAtomicMappings(getAtomicMappings(sourceCache, targetCache));
+        	}
+        	engine.setValueIndex(getValueIndex(sourceCache, targetCache));
         	IPlanner planner = ExecutionPlannerFactory.getPlanner(ExecutionPlannerType.DEFAULT,
                   sC, tC);
         	return engine.execute(spec, planner);
@@ -255,6 +261,7 @@ public class ExpressionFitnessFunction extends IGPFitnessFunction {
      *         Mapping holding data instances a user has evaluated. That may include non-matches.
      */
     public void trimKnowledgeBases(AMapping trainingData) {
+    	clearMemos();
     	trimmedSourceCache = sC;
 		trimmedTargetCache = tC;
     	if(trainingData.size()<=0) {
@@ -282,6 +289,7 @@ public class ExpressionFitnessFunction extends IGPFitnessFunction {
      * @param value
      */
     public void setUseFullCaches(boolean value) {
+    	fitnessCache.clear();
     	this.useFullCaches = value;
     }
 
@@ -302,6 +310,7 @@ public class ExpressionFitnessFunction extends IGPFitnessFunction {
      *         A Mapping holding all matches.
      */
     public void setReferenceMapping(AMapping referenceData) {
+        fitnessCache.clear();
         reference = referenceData;
     }
 
@@ -313,6 +322,7 @@ public class ExpressionFitnessFunction extends IGPFitnessFunction {
      */
     public void addToReference(AMapping m) {
         logger.info("Filling reference of size " + reference.size() + " with " + m.size() + " additional matches.");
+        fitnessCache.clear();
         for (Entry<String, HashMap<String, Double>> e1 : m.getMap().entrySet()) {
             for (Entry<String, Double> e2 : e1.getValue().entrySet()) {
                 reference.add(e1.getKey(), e2.getKey(), 1d);
@@ -335,6 +345,8 @@ public class ExpressionFitnessFunction extends IGPFitnessFunction {
                     	trimmedTargetCache.addInstance(tC.getInstance(tUri));
                 }
             }
+        // the trimmed caches grew in place, so their value index is stale
+        clearMemos();
 //        engine = ExecutionEngineFactory.getEngine(ExecutionEngineType.DEFAULT,
 //                trimmedSourceCache, trimmedTargetCache,
 //                this.m_config.source.getVar(), this.m_config.target.getVar());
@@ -342,6 +354,7 @@ public class ExpressionFitnessFunction extends IGPFitnessFunction {
     }
 
     public void setCaches(ACache sC, ACache tC) {
+        clearMemos();
         this.sC = sC;
         this.tC = tC;
     }
@@ -1,7 +1,24 @@
 package org.aksw.limes.core.ml.algorithm.eagle.core;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aksw.limes.core.datastrutures.LogicOperator;
+import org.aksw.limes.core.execution.ExecutionContext;
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.ls.LinkSpecification;
 import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.measures.measure.ValueIndex;
 import org.jgap.gp.GPFitnessFunction;
+import org.jgap.gp.GPProgramBase;
+import org.jgap.gp.IGPProgram;
+import org.jgap.gp.impl.GPPopulation;
+import org.jgap.gp.impl.ProgramChromosome;
 
 /**
  * @author Tommaso Soru (tsoru@informatik.uni-leipzig.de)
@@ -10,12 +27,150 @@ import org.jgap.gp.GPFitnessFunction;
 public abstract class IGPFitnessFunction extends GPFitnessFunction implements IFitnessFunction {
 
 	/**
-	 * 
+	 *
 	 */
 	private static final long serialVersionUID = -94163100342394354L;
-	
+
+	/**
+	 * Fitness of the link specifications evaluated so far, keyed by their
+	 * canonical form. Has to be cleared whenever the reference, the measure or
+	 * the caches change.
+	 */
+	protected final Map<String, Double> fitnessCache = new ConcurrentHashMap<>();
+	/**
+	 * Mappings of atomic measures per pair of caches, shared by all individuals
+	 */
+	protected final Map<List<ACache>, Map<String, AMapping>> atomicMappings = new ConcurrentHashMap<>();
+	/**
+	 * Value indexes per pair of caches, shared by all individuals
+	 */
+	protected final Map<List<ACache>, ValueIndex> valueIndexes = new ConcurrentHashMap<>();
+
 	public abstract void addToReference(AMapping m);
-	
+
 	public abstract void fillCachesIncrementally(AMapping matches);
-	
+
+	/**
+	 * Calculates the fitness of a link specification without consulting the
+	 * fitness cache.
+	 *
+	 * @param spec link specification of an individual
+	 * @return fitness, the closer to 0 the better
+	 */
+	protected abstract double calculateFitness(LinkSpecification spec);
+
+	/**
+	 * @param spec link specification of an individual
+	 * @return fitness, the closer to 0 the better. Individuals with the same
+	 * canonical form are evaluated only once.
+	 */
+	public double calculateRawFitness(LinkSpecification spec) {
+		String key = getCanonicalForm(spec);
+		Double fitness = fitnessCache.get(key);
+		if (fitness == null) {
+			fitness = calculateFitness(spec);
+			fitnessCache.put(key, fitness);
+		}
+		return fitness;
+	}
+
+	/**
+	 * @param p GP program
+	 * @return link specification of the program
+	 */
+	public LinkSpecification getLinkSpecification(IGPProgram p) {
+		p.getGPConfiguration().clearStack();
+		p.getGPConfiguration().clearMemory();
+		Object[] args = {};
+		ProgramChromosome pc = p.getChromosome(0);
+		return (LinkSpecification) pc.getNode(0).execute_object(pc, 0, args);
+	}
+
+	/**
+	 * Computes the fitness of all programs of a population that were not
+	 * evaluated yet. The link specifications are built sequentially, their
+	 * mappings and fitness values are computed concurrently on the pool of
+	 * the context. Programs whose link specification cannot be built are left
+	 * to JGAP.
+	 *
+	 * @param population population of a generation
+	 * @param threads maximal number of programs evaluated at a time
+	 * @param context context of the learning, whose cancellation is thrown
+	 * unchanged
+	 */
+	public void evaluatePopulation(GPPopulation population, int threads, ExecutionContext context) {
+		List<IGPProgram> programs = new ArrayList<>();
+		List<Callable<Double>> tasks = new ArrayList<>();
+		for (IGPProgram p : population.getGPPrograms()) {
+			if (p == null || (p instanceof GPProgramBase && ((GPProgramBase) p).getFitnessValueDirectly() >= 0)) {
+				continue;
+			}
+			LinkSpecification spec;
+			try {
+				spec = getLinkSpecification(p);
+			} catch (IllegalStateException e) {
+				continue;
+			}
+			programs.add(p);
+			tasks.add(() -> calculateRawFitness(spec));
+		}
+		List<Double> results = context.invokeAll(tasks, threads);
+		for (int i = 0; i < programs.size(); i++) {
+			programs.get(i).setFitnessValue(results.get(i));
+		}
+	}
+
+	/**
+	 * @param sourceCache source cache
+	 * @param targetCache target cache
+	 * @return memo of atomic mappings for the pair of caches
+	 */
+	protected Map<String, AMapping> getAtomicMappings(ACache sourceCache, ACache targetCache) {
+		return atomicMappings.computeIfAbsent(Arrays.asList(sourceCache, targetCache), k -> new ConcurrentHashMap<>());
+	}
+
+	/**
+	 * @param sourceCache source cache
+	 * @param targetCache target cache
+	 * @return value index of the pair of caches, until {@link #clearMemos()}
+	 * drops it after the caches were refilled
+	 */
+	protected ValueIndex getValueIndex(ACache sourceCache, ACache targetCache) {
+		return valueIndexes.computeIfAbsent(Arrays.asList(sourceCache, targetCache),
+				k -> new ValueIndex(sourceCache, targetCache));
+	}
+
+	/**
+	 * Forget all fitness values, atomic mappings and value indexes, e.g.,
+	 * after the caches changed.
+	 */
+	protected void clearMemos() {
+		fitnessCache.clear();
+		atomicMappings.clear();
+		valueIndexes.clear();
+	}
+
+	/**
+	 * Computes a canonical form of a link specification: the children of the
+	 * commutative operators AND, OR and XOR are sorted, so that permutations
+	 * of the same individual share one form.
+	 *
+	 * @param spec link specification
+	 * @return canonical form
+	 */
+	public static String getCanonicalForm(LinkSpecification spec) {
+		if (spec.isAtomic()) {
+			return spec.getFilterExpression() + "|" + spec.getThreshold();
+		}
+		List<String> children = new ArrayList<>();
+		for (LinkSpecification child : spec.getChildren()) {
+			children.add(getCanonicalForm(child));
+		}
+		LogicOperator op = spec.getOperator();
+		if (op == LogicOperator.AND || op == LogicOperator.OR || op == LogicOperator.XOR) {
+			Collections.sort(children);
+		}
+		return op + "(" + String.join(",", children) + ")|" + spec.getThreshold();
+	}
+
 }
@@ -2,9 +2,11 @@ package org.aksw.limes.core.ml.algorithm.eagle.core;
 
 import org.aksw.limes.core.datastrutures.GoldStandard;
 import org.aksw.limes.core.evaluation.qualititativeMeasures.PseudoFMeasure;
+import org.aksw.limes.core.evaluation.qualititativeMeasures.PseudoFMeasureEvaluator;
 import org.aksw.limes.core.execution.engine.ExecutionEngine;
 import org.aksw.limes.core.execution.engine.ExecutionEngineFactory;
 import org.aksw.limes.core.execution.engine.ExecutionEngineFactory.ExecutionEngineType;
+import org.aksw.limes.core.execution.engine.SimpleExecutionEngine;
 import org.aksw.limes.core.execution.planning.planner.ExecutionPlannerFactory;
 import org.aksw.limes.core.execution.planning.planner.ExecutionPlannerFactory.ExecutionPlannerType;
 import org.aksw.limes.core.execution.planning.planner.IPlanner;
@@ -34,12 +36,20 @@ public class PseudoFMeasureFitnessFunction extends IGPFitnessFunction {
     private static final long serialVersionUID = -7114137172832439294L;
     static Logger logger = LoggerFactory.getLogger("LIMES");
     private static PseudoFMeasureFitnessFunction instance = null;
+    /**
+     * Engine on the caches of the fitness function.
+     *
+     * @deprecated not used for the evaluation anymore, which runs every
+     *             specification on its own engine since engines keep state
+     */
+    @Deprecated
     public ExecutionEngine engine;
     ACache sourceCache, targetCache;
     LinkSpecGeneticLearnerConfig config;
     double beta = 1.0d;
     
     PseudoFMeasure pfm;
+    private PseudoFMeasureEvaluator evaluator = null;
 
     private PseudoFMeasureFitnessFunction(LinkSpecGeneticLearnerConfig a_config, PseudoFMeasure pfm, ACache c1, ACache c2) {
         config = a_config;
@@ -72,18 +82,20 @@ public class PseudoFMeasureFitnessFunction extends IGPFitnessFunction {
     }
 
     /**
-     * Determine fitness of the individual p;
+     * Determine fitness of the individual p. Individuals with the same
+     * canonical link specification are evaluated only once.
      *
      * @param p GP programs
      * @return 1-PseudoFMeasure. Or if something wents wrong either 5d, iff p isn't fulfilling all constraints. 8d if executing p results in memory error.
      */
     public double calculateRawFitness(IGPProgram p) {
-        double pseudoFMeasure = calculatePseudoMeasure(p);
+        return calculateRawFitness(getLinkSpecification(p));
+    }
+
+    @Override
+    protected double calculateFitness(LinkSpecification spec) {
+        double pseudoFMeasure = calculatePseudoMeasure(spec);
         if (!(pseudoFMeasure >= 0d && pseudoFMeasure <= 1d)) {
-            Object[] args = {};
-            ProgramChromosome pc = null;
-            pc = p.getChromosome(0);
-            LinkSpecification spec = (LinkSpecification) pc.getNode(0).execute_object(pc, 0, args);
             logger.info("LS: " + spec);
             logger.error("Pseudo Measure was not in [0,1]");
             System.out.println("Pseudo Measure for (" + spec + ") was not in [0,1]");
@@ -101,8 +113,16 @@ public class PseudoFMeasureFitnessFunction extends IGPFitnessFunction {
         Object[] args = {};
         ProgramChromosome pc = null;
         pc = p.getChromosome(0);
-        AMapping actualMapping = MappingFactory.createDefaultMapping();
         LinkSpecification spec = (LinkSpecification) pc.getNode(0).execute_object(pc, 0, args);
+        return calculateMapping(spec);
+    }
+
+    /**
+     * @param spec link specification of an individual
+     * @return mapping of the link specification on the caches of this function
+     */
+    public AMapping calculateMapping(LinkSpecification spec) {
+        AMapping actualMapping = MappingFactory.createDefaultMapping();
         // get Mapping
         try {
             actualMapping = getMapping(sourceCache, targetCache, spec);
@@ -119,9 +139,21 @@ public class PseudoFMeasureFitnessFunction extends IGPFitnessFunction {
      * @return PseudoMeasure
      */
     public Double calculatePseudoMeasure(IGPProgram p) {
+        return calculatePseudoMeasure(getLinkSpecification(p));
+    }
+
+    /**
+     * @param spec link specification of an individual
+     * @return PseudoMeasure
+     */
+    public Double calculatePseudoMeasure(LinkSpecification spec) {
         
     	// mapping
-        AMapping mapping = calculateMapping(p);
+        AMapping mapping = calculateMapping(spec);
+        PseudoFMeasureEvaluator evaluator = getEvaluator();
+        if (evaluator != null) {
+            return evaluator.calculate(mapping);
+        }
         // gold standard is not needed by pseudoFM
         GoldStandard gold = new GoldStandard(mapping, sourceCache, targetCache);
         
@@ -129,6 +161,21 @@ public class PseudoFMeasureFitnessFunction extends IGPFitnessFunction {
         
     }
 
+    /**
+     * @return evaluator over the URIs of the caches, null if the pseudo
+     * measure is customized
+     */
+    private synchronized PseudoFMeasureEvaluator getEvaluator() {
+        if (pfm == null || pfm.getClass() != PseudoFMeasure.class) {
+            return null;
+        }
+        if (evaluator == null) {
+            // PseudoFMeasure evaluates with a default PseudoPrecision, i.e., a symmetric one
+            evaluator = new PseudoFMeasureEvaluator(sourceCache.getAllUris(), targetCache.getAllUris(), beta, true);
+        }
+        return evaluator;
+    }
+
     /**
      * Get or create a mapping from a link specification (Metric String + Acceptance threshold: 0&lt;=threshold&lt;=1).
      * 
@@ -137,6 +184,13 @@ public class PseudoFMeasureFitnessFunction extends IGPFitnessFunction {
      */
     public AMapping getMapping(ACache sC, ACache tC, LinkSpecification spec) {
         try {
+            // engines keep state, so every evaluation gets its own
+            ExecutionEngine engine = ExecutionEngineFactory.getEngine(ExecutionEngineType.DEFAULT, sC, tC,
+                    config.source.getVar(), config.target.getVar());
+            if (engine instanceof SimpleExecutionEngine) {
+                ((SimpleExecutionEngine) engine).setAtomicMappings(getAtomicMappings(sC, tC));
+            }
+            engine.setValueIndex(getValueIndex(sC, tC));
             IPlanner planner = ExecutionPlannerFactory.getPlanner(ExecutionPlannerType.DEFAULT,
                     sC, tC);
             return engine.execute(spec, planner);
@@ -162,6 +216,7 @@ public class PseudoFMeasureFitnessFunction extends IGPFitnessFunction {
     }
 
     public void setMeasure(PseudoFMeasure pfm) {
+        fitnessCache.clear();
         this.pfm = pfm;
     }
 
@@ -170,7 +225,11 @@ public class PseudoFMeasureFitnessFunction extends IGPFitnessFunction {
     }
 
     public void setBeta(double beta) {
-        this.beta = beta;
+        fitnessCache.clear();
+        synchronized (this) {
+            evaluator = null;
+            this.beta = beta;
+        }
     }
 
 
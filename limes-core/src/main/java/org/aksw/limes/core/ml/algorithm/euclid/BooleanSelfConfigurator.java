@@ -3,6 +3,7 @@ package org.aksw.limes.core.ml.algorithm.euclid;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.mapping.AMapping;
@@ -93,14 +94,14 @@ public class BooleanSelfConfigurator extends LinearSelfConfigurator {
      */
     @Override
     public AMapping getMapping(List<SimpleClassifier> classifiers) {
-        List<AMapping> mappings = new ArrayList<AMapping>();
+        List<SimilarityMatrix> matrices = new ArrayList<>();
+        double[] thresholds = new double[classifiers.size()];
         for (int i = 0; i < classifiers.size(); i++) {
-            AMapping m = executeClassifier(classifiers.get(i), classifiers.get(i).getThreshold());
-            mappings.add(m);
+            SimpleClassifier c = classifiers.get(i);
+            thresholds[i] = c.getThreshold();
+            matrices.add(getSimilarityMatrix(c.getSourceProperty(), c.getTargetProperty(), c.getMeasure(), thresholds[i]));
         }
-        AMapping result = getIntersection(mappings);
-        //System.out.println("***" + classifiers + "\n" + mappings + " => " + result + "***");
-        return result;
+        return SimilarityMatrix.getIntersection(matrices, thresholds);
     }
 
     /** Computes the intersection of several mappings
@@ -154,9 +155,15 @@ public class BooleanSelfConfigurator extends LinearSelfConfigurator {
 //            double fMeasure;
 //            int index = -1;
             bestF = 0;
-            //evaluate neighbors of current classifier
+            //evaluate neighbors of current classifier concurrently
+            List<Callable<ComplexClassifier>> tasks = new ArrayList<>();
             for (int i = 0; i < classifier.getClassifiers().size(); i++) {
-                cc = computeNext(classifier, i);
+                ComplexClassifier current = classifier;
+                int index = i;
+                tasks.add(() -> computeNext(current, index));
+            }
+            for (ComplexClassifier neighbor : invokeAll(tasks)) {
+                cc = neighbor;
                 if (cc.getfMeasure() > bestF) {
                     bestF = cc.getfMeasure();
 //                    index = i;
@@ -32,6 +32,7 @@ public class LinearEuclid extends ACoreMLAlgorithm{
 	public static final String BETA = "beta";
 	public static final String LEARNING_RATE = "learning_rate";
     public static final String MIN_COVERAGE = "min_coverage";
+    public static final String THREADS = "threads";
     
     /**The EUCLID implementation*/
     protected LinearSelfConfigurator lsc = null;
@@ -59,6 +60,7 @@ public class LinearEuclid extends ACoreMLAlgorithm{
     	learningParameters.add(new LearningParameter(KAPPA, 0.8, Double.class, 0d, 1d, Double.NaN, KAPPA));
     	learningParameters.add(new LearningParameter(LEARNING_RATE, 0.125, Double.class, 0d, 1d, Double.NaN, "Step range of each LSs treshold"));
     	learningParameters.add(new LearningParameter(MIN_COVERAGE, 0.9, Double.class, 0d, 1d, Double.NaN, "Coverage percentage of a property over all instances"));
+    	learningParameters.add(new LearningParameter(THREADS, Runtime.getRuntime().availableProcessors(), Integer.class, 1, Integer.MAX_VALUE, 1, "Maximal number of threads used to search for classifiers"));
 	}
 
 	/**
@@ -152,6 +154,8 @@ public class LinearEuclid extends ACoreMLAlgorithm{
 		lsc.learningRate = (double) getParameter(LEARNING_RATE);
 		boolean strict = (boolean) getParameter(STRICT);
 		lsc.STRICT = strict;
+		lsc.threads = Integer.parseInt(getParameter(THREADS).toString());
+		lsc.context = context;
 		
 	}
 	
@@ -3,15 +3,21 @@ package org.aksw.limes.core.ml.algorithm.euclid;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.aksw.limes.core.controller.LSPipeline;
 import org.aksw.limes.core.datastrutures.GoldStandard;
 import org.aksw.limes.core.evaluation.evaluator.EvaluatorFactory;
 import org.aksw.limes.core.evaluation.evaluator.EvaluatorType;
 import org.aksw.limes.core.evaluation.qualititativeMeasures.IQualitativeMeasure;
+import org.aksw.limes.core.evaluation.qualititativeMeasures.PseudoFMeasure;
+import org.aksw.limes.core.evaluation.qualititativeMeasures.PseudoFMeasureEvaluator;
+import org.aksw.limes.core.execution.ExecutionContext;
 import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.cache.Instance;
 import org.aksw.limes.core.io.ls.LinkSpecification;
@@ -37,6 +43,10 @@ public class LinearSelfConfigurator implements ISelfConfigurator {
 	public boolean STRICT = true;
 	public int ITERATIONS_MAX = 1000;
 	public double MIN_THRESHOLD = 0.3;
+	/** maximal number of threads used to search for classifiers */
+	public int threads = Runtime.getRuntime().availableProcessors();
+	/** context of the learning, whose pool runs the search for classifiers */
+	public ExecutionContext context = ExecutionContext.NONE;
 	
     static Logger logger = LoggerFactory.getLogger(LinearSelfConfigurator.class);
 
@@ -64,6 +74,13 @@ public class LinearSelfConfigurator implements ISelfConfigurator {
     public double min_coverage = 0.9;
     /* used to compute qualities for the unsupervised approach*/
     private IQualitativeMeasure qMeasure = null;
+    /* evaluates the default PFM without building gold standards*/
+    private PseudoFMeasureEvaluator pfmEvaluator = null;
+    private ACache evaluatorSource, evaluatorTarget;
+    /* similarity matrices of the atomic measures, shared by all searches on the same caches*/
+    private final Map<String, SimilarityMatrix> similarityMatrices = new ConcurrentHashMap<>();
+    private SimilarityMatrix.Index index = null;
+    private ACache indexSource, indexTarget;
     /* supervised approaches need a reference mapping to compute qualities*/
     AMapping reference = MappingFactory.createDefaultMapping(); // all true instance pairs.
     public AMapping asked = MappingFactory.createDefaultMapping();// all known instance pairs.
@@ -260,14 +277,24 @@ public class LinearSelfConfigurator implements ISelfConfigurator {
         List<SimpleClassifier> initialClassifiers = new ArrayList<>();
         //        logger.info(sourcePropertiesCoverageMap);
         //        logger.info(targetPropertiesCoverageMap);
+        // the classifiers of all property pairs and measures are searched concurrently
+        List<Callable<SimpleClassifier>> tasks = new ArrayList<>();
+        for (String p : sourcePropertiesCoverageMap.keySet()) {
+            for (String q : targetPropertiesCoverageMap.keySet()) {
+                for (String measure : measureList) {
+                    tasks.add(() -> getInitialClassifier(p, q, measure));
+                }
+            }
+        }
+        Iterator<SimpleClassifier> classifiers = invokeAll(tasks).iterator();
         for (String p : sourcePropertiesCoverageMap.keySet()) {
             double fMeasure = 0;
             SimpleClassifier bestClassifier = null;
             //String bestProperty = "";
 //            Map<String, SimpleClassifier> cp = new HashMap<>();
-            for (String q : targetPropertiesCoverageMap.keySet()) {
-                for (String measure : measureList) {
-                    SimpleClassifier cps = getInitialClassifier(p, q, measure);
+            for (int q = 0; q < targetPropertiesCoverageMap.size(); q++) {
+                for (int measure = 0; measure < measureList.size(); measure++) {
+                    SimpleClassifier cps = classifiers.next();
                     if (cps.getfMeasure() > fMeasure) {
                         bestClassifier = cps.clone();
                         //bestProperty = q;
@@ -295,6 +322,12 @@ public class LinearSelfConfigurator implements ISelfConfigurator {
     private SimpleClassifier getInitialClassifier(String sourceProperty, String targetProperty, String measure) {
         double fMax = 0;
         double theta = 1.0;
+        // compute the similarities once for the lowest threshold of the search
+        double lowestThreshold = 1;
+        for (double threshold = 1; threshold > MIN_THRESHOLD; threshold = threshold - learningRate) {
+            lowestThreshold = threshold;
+        }
+        getSimilarityMatrix(sourceProperty, targetProperty, measure, lowestThreshold);
         for (double threshold = 1; threshold > MIN_THRESHOLD; threshold = threshold - learningRate) {
 //        	logger.info("execute("+sourceProperty+", "+targetProperty+ ", "+measure+", "+threshold+");");
             AMapping mapping = execute(sourceProperty, targetProperty, measure, threshold);
@@ -334,15 +367,20 @@ public class LinearSelfConfigurator implements ISelfConfigurator {
      */
     public AMapping getMapping(List<SimpleClassifier> classifiers) {
         classifiers = normalizeClassifiers(classifiers);
-        Map<SimpleClassifier, AMapping> mappings = new HashMap<SimpleClassifier, AMapping>();
+        List<SimilarityMatrix> matrices = new ArrayList<>();
+        double[] thresholds = new double[classifiers.size()];
+        double[] weights = new double[classifiers.size()];
         for (int i = 0; i < classifiers.size(); i++) {
-            double threshold = 1 + classifiers.get(i).getWeight() - (1 / kappa);
+            SimpleClassifier c = classifiers.get(i);
+            double threshold = 1 + c.getWeight() - (1 / kappa);
             if (threshold > 0) {
-                AMapping m = executeClassifier(classifiers.get(i), threshold);
-                mappings.put(classifiers.get(i), m);
+                thresholds[matrices.size()] = threshold;
+                weights[matrices.size()] = c.getWeight();
+                matrices.add(getSimilarityMatrix(c.getSourceProperty(), c.getTargetProperty(), c.getMeasure(), threshold));
             }
         }
-        return getOverallMapping(mappings, 1.0);
+        // same as getOverallMapping(mappings, 1.0) with the first classifier as reference
+        return SimilarityMatrix.getLinearCombination(matrices, thresholds, weights, 1.0);
     }
 
     /**
@@ -494,8 +532,58 @@ public class LinearSelfConfigurator implements ISelfConfigurator {
      * @return Correspoding AMapping
      */
     public AMapping execute(String sourceProperty, String targetProperty, String measure, double threshold) {
+        return getSimilarityMatrix(sourceProperty, targetProperty, measure, threshold).getMapping(threshold);
+    }
+
+    /**
+     * Returns the similarities of measure(sourceProperty, targetProperty) for
+     * all pairs with a similarity of at least the threshold. The mapper is
+     * only run if no matrix with a lower or equal threshold was computed on
+     * the current caches.
+     *
+     * @param sourceProperty Source property
+     * @param targetProperty Target property
+     * @param measure Similarity measure
+     * @param threshold Similarity threshold
+     * @return Similarity matrix with a threshold of at most the given one
+     */
+    public SimilarityMatrix getSimilarityMatrix(String sourceProperty, String targetProperty, String measure, double threshold) {
         String measureExpression = measure + "(x." + sourceProperty + ", y." + targetProperty + ")";
-        return LSPipeline.execute(source, target, new LinkSpecification(measureExpression, threshold));
+        SimilarityMatrix.Index index = getIndex();
+        SimilarityMatrix matrix = similarityMatrices.get(measureExpression);
+        if (matrix == null || matrix.getThreshold() > threshold) {
+            AMapping m = LSPipeline.execute(source, target, new LinkSpecification(measureExpression, threshold));
+            SimilarityMatrix computed = new SimilarityMatrix(m, threshold, index);
+            matrix = similarityMatrices.merge(measureExpression, computed,
+                    (old, now) -> old.getThreshold() <= now.getThreshold() ? old : now);
+        }
+        return matrix;
+    }
+
+    /**
+     * @return index of the resources of the current caches. Similarity
+     * matrices of former caches are dropped.
+     */
+    private synchronized SimilarityMatrix.Index getIndex() {
+        if (index == null || indexSource != source || indexTarget != target) {
+            similarityMatrices.clear();
+            index = new SimilarityMatrix.Index(source, target);
+            indexSource = source;
+            indexTarget = target;
+        }
+        return index;
+    }
+
+    /**
+     * Runs independent tasks, e.g., the evaluation of candidate classifiers,
+     * with at most {@link #threads} threads of the pool of the
+     * {@link #context}.
+     *
+     * @param tasks to run
+     * @return results in the order of the tasks
+     */
+    protected <T> List<T> invokeAll(List<Callable<T>> tasks) {
+        return context.invokeAll(tasks, threads);
     }
 
     /**
@@ -533,9 +621,30 @@ public class LinearSelfConfigurator implements ISelfConfigurator {
      * @return
      */
     public Double computeQuality(AMapping map) {
+        PseudoFMeasureEvaluator evaluator = getPseudoFMeasureEvaluator();
+        if (evaluator != null) {
+            return evaluator.calculate(map);
+        }
     	return qMeasure.calculate(map, new GoldStandard(reference, source.getAllUris(), target.getAllUris()));
     }
 
+    /**
+     * @return evaluator over the URIs of the caches if the default
+     * pseudo-F-measure is used, null otherwise
+     */
+    private synchronized PseudoFMeasureEvaluator getPseudoFMeasureEvaluator() {
+        if (qMeasureType != QMeasureType.UNSUPERVISED || qMeasure == null || qMeasure.getClass() != PseudoFMeasure.class) {
+            return null;
+        }
+        if (pfmEvaluator == null || evaluatorSource != source || evaluatorTarget != target) {
+            // PseudoFMeasure evaluates with a default PseudoPrecision, i.e., a symmetric one
+            pfmEvaluator = new PseudoFMeasureEvaluator(source.getAllUris(), target.getAllUris());
+            evaluatorSource = source;
+            evaluatorTarget = target;
+        }
+        return pfmEvaluator;
+    }
+
     /** Set caches to trimmed caches according to the given reference mapping.
      * @param reference
      */
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.mapping.AMapping;
@@ -275,44 +276,43 @@ public class MeshBasedSelfConfigurator extends BooleanSelfConfigurator {
         //these basically give the thresholds for each of the classifiers
         List<List<Double>> coordinates = generateCoordinates(min, max, n);
 //        logger.info("Generated " + coordinates.size() + " grid points ...");
-        //then generate mappings for each of the classifiers
-        // the access to the map is classifier_index -> threshold -> mapping
-        Map<Double, Map<Double, AMapping>> mappings = new HashMap<Double, Map<Double, AMapping>>();
+        //then get the similarities of each of the classifiers for the lowest
+        //threshold of its dimension, the mapper is run at most once per classifier
+        List<SimilarityMatrix> matrices = new ArrayList<>();
         for (int i = 0; i < sc.size(); i++) {
-            mappings.put(new Double(i), getMappings(min.get(i), max.get(i), n, sc.get(i)));
+            double lowest = min.get(i) == 0 ? (max.get(i) - min.get(i)) / (double) (n - 1) : min.get(i);
+            matrices.add(lowest > 0 ? getSimilarityMatrix(sc.get(i).getSourceProperty(), sc.get(i).getTargetProperty(),
+                    sc.get(i).getMeasure(), lowest) : null);
         }
+        //evaluate the mesh points concurrently
+        List<Callable<Double>> tasks = new ArrayList<>();
+        for (List<Double> meshPoint : coordinates) {
+            tasks.add(() -> {
+                AMapping m = getMapping(matrices, meshPoint);
+                return m == null ? 0.0 : computeQuality(m);
+            });
+        }
+        List<Double> fMeasures = invokeAll(tasks);
         //get list of best classifiers
         double bestF = -1;
         List<List<Double>> highestPoints = new ArrayList<List<Double>>();
-        AMapping bestMapping = MappingFactory.createDefaultMapping();
-        AMapping m = MappingFactory.createDefaultMapping();
+        List<Double> firstHighestPoint = null;
         for (int i = 0; i < coordinates.size(); i++) {
             List<Double> meshPoint = coordinates.get(i);
-            List<AMapping> currentMappings = new ArrayList<AMapping>();
-            //get the mappings for the current meshpoint
-            for (int j = 0; j < meshPoint.size(); j++) {
-                // take the jth classifier and its threshold
-                if (meshPoint.get(j) > 0) {
-                    currentMappings.add(mappings.get(new Double(j)).get(meshPoint.get(j)));
-                }
-            }
-            double f;
-            if (currentMappings.isEmpty()) {
-                f = 0.0;
-            } else {
-                m = getIntersection(currentMappings);
-
-                f = computeQuality(m);
-            }
+            double f = fMeasures.get(i);
             if (f > bestF) {
                 highestPoints = new ArrayList<List<Double>>();
                 highestPoints.add(meshPoint);
                 bestF = f;
-                bestMapping = m;
+                firstHighestPoint = meshPoint;
             } else if (f == bestF) {
                 highestPoints.add(meshPoint);
             }
         }
+        AMapping bestMapping = firstHighestPoint == null ? null : getMapping(matrices, firstHighestPoint);
+        if (bestMapping == null) {
+            bestMapping = MappingFactory.createDefaultMapping();
+        }
         //we have found the best points. Return the point with the highest total coordinates
         double bestSum = -1;
         List<Double> bestPoint = null;
@@ -365,7 +365,25 @@ public class MeshBasedSelfConfigurator extends BooleanSelfConfigurator {
         return cc;
     }
 
-    
+    /**
+     * @param matrices Similarity matrix of each dimension
+     * @param meshPoint Thresholds of the classifiers, 0 to leave one out
+     * @return the intersection of the mappings of the classifiers with a
+     * positive threshold or null if there is none
+     */
+    private AMapping getMapping(List<SimilarityMatrix> matrices, List<Double> meshPoint) {
+        List<SimilarityMatrix> current = new ArrayList<>();
+        double[] thresholds = new double[meshPoint.size()];
+        for (int j = 0; j < meshPoint.size(); j++) {
+            // take the jth classifier and its threshold
+            if (meshPoint.get(j) > 0) {
+                thresholds[current.size()] = meshPoint.get(j);
+                current.add(matrices.get(j));
+            }
+        }
+        return current.isEmpty() ? null : SimilarityMatrix.getIntersection(current, thresholds);
+    }
+
     public void setStrategy(String strategy) {
     	this.strategy = strategy;
     }
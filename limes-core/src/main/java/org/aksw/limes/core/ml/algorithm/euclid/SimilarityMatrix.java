@@ -0,0 +1,262 @@
+package org.aksw.limes.core.ml.algorithm.euclid;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingFactory;
+
+/**
+ * Sparse matrix of the similarities of an atomic measure between the source
+ * and target resources, i.e., the mapping of the measure computed once with
+ * the lowest threshold needed. The mapping of any higher threshold is a
+ * prefix of the links sorted by descending similarity. Source and target
+ * resources are identified by their position in a shared {@link Index}, so
+ * that links of different matrices can be combined without String maps.
+ */
+public class SimilarityMatrix {
+
+    private final Index index;
+    private final double threshold;
+    /** links sorted by descending similarity */
+    private final int[] sources;
+    private final int[] targets;
+    private final double[] similarities;
+    /** links sorted by (source, target) for lookups */
+    private final long[] keys;
+    private final double[] keySimilarities;
+
+    /**
+     * Constructor
+     *
+     * @param mapping
+     *            Mapping of the measure
+     * @param threshold
+     *            Threshold the mapping was computed with
+     * @param index
+     *            Index of the source and target resources
+     */
+    public SimilarityMatrix(AMapping mapping, double threshold, Index index) {
+        this.index = index;
+        this.threshold = threshold;
+        int size = 0;
+        for (HashMap<String, Double> links : mapping.getMap().values()) {
+            size += links.size();
+        }
+        long[] byKey = new long[size];
+        double[] sims = new double[size];
+        Integer[] order = new Integer[size];
+        int i = 0;
+        for (Map.Entry<String, HashMap<String, Double>> links : mapping.getMap().entrySet()) {
+            long s = index.getSourceId(links.getKey());
+            for (Map.Entry<String, Double> link : links.getValue().entrySet()) {
+                byKey[i] = s << 32 | index.getTargetId(link.getKey());
+                sims[i] = link.getValue();
+                order[i] = i;
+                i++;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(sims[b], sims[a]));
+        sources = new int[size];
+        targets = new int[size];
+        similarities = new double[size];
+        for (int j = 0; j < size; j++) {
+            sources[j] = (int) (byKey[order[j]] >>> 32);
+            targets[j] = (int) byKey[order[j]];
+            similarities[j] = sims[order[j]];
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(byKey[a], byKey[b]));
+        keys = new long[size];
+        keySimilarities = new double[size];
+        for (int j = 0; j < size; j++) {
+            keys[j] = byKey[order[j]];
+            keySimilarities[j] = sims[order[j]];
+        }
+    }
+
+    /**
+     * @return the threshold the matrix was computed with
+     */
+    public double getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * @param threshold
+     *            A threshold
+     * @return the number of links whose similarity is at least the threshold
+     */
+    public int getLinkCount(double threshold) {
+        int from = 0, to = similarities.length;
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (similarities[mid] >= threshold) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * @param source
+     *            Source id
+     * @param target
+     *            Target id
+     * @return the similarity of the pair or 0 if it is below the threshold
+     *         of the matrix
+     */
+    public double getSimilarity(int source, int target) {
+        int i = Arrays.binarySearch(keys, (long) source << 32 | target);
+        return i < 0 ? 0 : keySimilarities[i];
+    }
+
+    /**
+     * @param threshold
+     *            A threshold that is at least the one of the matrix
+     * @return the mapping of the measure for the threshold
+     */
+    public AMapping getMapping(double threshold) {
+        AMapping result = MappingFactory.createDefaultMapping();
+        String[] sourceUris = index.sourceUris, targetUris = index.targetUris;
+        int count = getLinkCount(threshold);
+        for (int i = 0; i < count; i++) {
+            result.add(sourceUris[sources[i]], targetUris[targets[i]], similarities[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the weighted linear combination of the similarities of several
+     * measures like {@link LinearSelfConfigurator#getOverallMapping}. The links
+     * of the first measure are the candidates.
+     *
+     * @param matrices
+     *            Matrices of the measures, sharing one index
+     * @param thresholds
+     *            Threshold of each measure, below which its similarity is 0
+     * @param weights
+     *            Weight of each measure
+     * @param threshold
+     *            Threshold of the combined similarity
+     * @return the mapping of the combination
+     */
+    public static AMapping getLinearCombination(List<SimilarityMatrix> matrices, double[] thresholds,
+            double[] weights, double threshold) {
+        AMapping result = MappingFactory.createDefaultMapping();
+        if (matrices.isEmpty()) {
+            return result;
+        }
+        SimilarityMatrix first = matrices.get(0);
+        String[] sourceUris = first.index.sourceUris, targetUris = first.index.targetUris;
+        int count = first.getLinkCount(thresholds[0]);
+        for (int i = 0; i < count; i++) {
+            int s = first.sources[i], t = first.targets[i];
+            double score = weights[0] * first.similarities[i];
+            for (int m = 1; m < matrices.size(); m++) {
+                double sim = matrices.get(m).getSimilarity(s, t);
+                if (sim >= thresholds[m]) {
+                    score = score + weights[m] * sim;
+                }
+            }
+            if (score >= threshold) {
+                result.add(sourceUris[s], targetUris[t], score);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the intersection of the mappings of several measures like
+     * {@link BooleanSelfConfigurator#getIntersection}.
+     *
+     * @param matrices
+     *            Matrices of the measures, sharing one index
+     * @param thresholds
+     *            Threshold of each measure
+     * @return the links contained in the mappings of all measures with
+     *         similarity 1
+     */
+    public static AMapping getIntersection(List<SimilarityMatrix> matrices, double[] thresholds) {
+        AMapping result = MappingFactory.createDefaultMapping();
+        if (matrices.isEmpty()) {
+            return result;
+        }
+        SimilarityMatrix first = matrices.get(0);
+        String[] sourceUris = first.index.sourceUris, targetUris = first.index.targetUris;
+        int count = first.getLinkCount(thresholds[0]);
+        for (int i = 0; i < count; i++) {
+            int s = first.sources[i], t = first.targets[i];
+            boolean maps = true;
+            for (int m = 1; m < matrices.size() && maps; m++) {
+                double sim = matrices.get(m).getSimilarity(s, t);
+                maps = sim > 0 && sim >= thresholds[m];
+            }
+            if (maps) {
+                result.add(sourceUris[s], targetUris[t], 1.0);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Ids of the source and target resources of a pair of caches.
+     */
+    public static class Index {
+        private final Map<String, Integer> sourceIds = new HashMap<>();
+        private final Map<String, Integer> targetIds = new HashMap<>();
+        // only grow if a mapping contains URIs that are not in the caches
+        private volatile String[] sourceUris;
+        private volatile String[] targetUris;
+
+        /**
+         * Constructor
+         *
+         * @param source
+         *            Source cache
+         * @param target
+         *            Target cache
+         */
+        public Index(ACache source, ACache target) {
+            sourceUris = index(source.getAllUris(), sourceIds);
+            targetUris = index(target.getAllUris(), targetIds);
+        }
+
+        private static String[] index(List<String> uris, Map<String, Integer> ids) {
+            for (String uri : uris) {
+                ids.putIfAbsent(uri, ids.size());
+            }
+            String[] result = new String[ids.size()];
+            for (Map.Entry<String, Integer> id : ids.entrySet()) {
+                result[id.getValue()] = id.getKey();
+            }
+            return result;
+        }
+
+        synchronized int getSourceId(String uri) {
+            Integer id = sourceIds.get(uri);
+            if (id == null) {
+                id = sourceIds.size();
+                sourceIds.put(uri, id);
+                sourceUris = Arrays.copyOf(sourceUris, id + 1);
+                sourceUris[id] = uri;
+            }
+            return id;
+        }
+
+        synchronized int getTargetId(String uri) {
+            Integer id = targetIds.get(uri);
+            if (id == null) {
+                id = targetIds.size();
+                targetIds.put(uri, id);
+                targetUris = Arrays.copyOf(targetUris, id + 1);
+                targetUris[id] = uri;
+            }
+            return id;
+        }
+    }
+}
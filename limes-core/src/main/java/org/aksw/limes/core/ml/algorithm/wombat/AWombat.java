@@ -10,13 +10,22 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 import org.aksw.limes.core.datastrutures.GoldStandard;
+import org.aksw.limes.core.datastrutures.LogicOperator;
 import org.aksw.limes.core.datastrutures.Tree;
 import org.aksw.limes.core.evaluation.qualititativeMeasures.FMeasure;
 import org.aksw.limes.core.evaluation.qualititativeMeasures.Precision;
 import org.aksw.limes.core.evaluation.qualititativeMeasures.PseudoFMeasure;
+import org.aksw.limes.core.evaluation.qualititativeMeasures.PseudoFMeasureEvaluator;
+import org.aksw.limes.core.evaluation.qualititativeMeasures.PseudoFMeasureEvaluator.LinkSet;
 import org.aksw.limes.core.evaluation.qualititativeMeasures.Recall;
+import org.aksw.limes.core.execution.ExecutionContext;
 import org.aksw.limes.core.execution.engine.ExecutionEngine;
 import org.aksw.limes.core.execution.engine.ExecutionEngineFactory;
 import org.aksw.limes.core.execution.engine.ExecutionEngineFactory.ExecutionEngineType;
@@ -34,7 +43,9 @@ import org.aksw.limes.core.io.cache.HybridCache;
 import org.aksw.limes.core.io.ls.LinkSpecification;
 import org.aksw.limes.core.io.mapping.AMapping;
 import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.aksw.limes.core.measures.mapper.ThresholdSweep;
 import org.aksw.limes.core.measures.measure.MeasureType;
+import org.aksw.limes.core.measures.measure.ValueIndex;
 import org.aksw.limes.core.ml.algorithm.ACoreMLAlgorithm;
 import org.aksw.limes.core.ml.algorithm.LearningParameter;
 import org.aksw.limes.core.ml.algorithm.classifier.ExtendedClassifier;
@@ -67,23 +78,35 @@ public abstract class AWombat extends ACoreMLAlgorithm {
 	public static final String PARAMETER_VERBOSE = "verbose";
 	public static final String PARAMETER_ATOMIC_MEASURES = "atomic measures";
 	public static final String PARAMETER_SAVE_MAPPING = "save mapping";
+	public static final String PARAMETER_THREADS = "threads";
 
 	protected String sourceVariable = "x";
 	protected String targetVariable = "y";
 
-	public static List<String> sourceUris;
-	public static List<String> targetUris;
+	protected List<String> sourceUris;
+	protected List<String> targetUris;
+	/** maximal recall of the supervised refinement nodes */
+	protected double rMax = -Double.MAX_VALUE;
+	/** rough memory footprint of a link of a retained mapping in bytes */
+	protected static final long BYTES_PER_LINK = 200;
+	/** maximal number of links kept by the mappings of the refinement nodes */
+	protected long maxRetainedLinks = Runtime.getRuntime().maxMemory() / 4 / BYTES_PER_LINK;
+	private final AtomicLong retainedLinks = new AtomicLong();
 
 	protected Map<String, Double> sourcePropertiesCoverageMap; //coverage map for latter computations
 	protected Map<String, Double> targetPropertiesCoverageMap; //coverage map for latter computations
 
 	protected PseudoFMeasure pseudoFMeasure = null;
+	private PseudoFMeasureEvaluator pseudoFMeasureEvaluator = null;
+	private final Map<String, LinkSet> classifierLinks = new ConcurrentHashMap<>();
 	protected AMapping trainingData = MappingFactory.createDefaultMapping();
 	protected boolean isUnsupervised = false;
 	protected Set<String> wombatParameterNames = new HashSet<>();
 	protected Tree<RefinementNode> refinementTreeRoot = null;
 	protected ACache sourceSample = new HybridCache();
 	protected ACache targetSample = new HybridCache();
+	/** value indexes per pair of caches, shared by the engines of a run */
+	private final Map<List<ACache>, ValueIndex> valueIndexes = new ConcurrentHashMap<>();
 
 
 	protected AWombat() {
@@ -96,21 +119,109 @@ public abstract class AWombat extends ACoreMLAlgorithm {
 	}
 
 	/**
-	 * Create new RefinementNode using either real or pseudo-F-Measure
+	 * Create new RefinementNode using either real or pseudo-F-Measure. The
+	 * node is scored from the mapping and only keeps it if mappings are saved.
 	 *
 	 * @param mapping of the node 
 	 * @param metricExpr learning specifications
 	 * @return new RefinementNode
 	 */
 	protected RefinementNode createNode(AMapping mapping, String metricExpr) {
-		if(!saveMapping()){
-			mapping = null;
-		}
 		if (isUnsupervised) {
-			double pfm = pseudoFMeasure.calculate(mapping, new GoldStandard(null, sourceUris, targetUris));
-			return new RefinementNode(pfm, mapping, metricExpr);
+			return new RefinementNode(mapping, metricExpr, fMeasure(mapping), retain(mapping));
+		}
+		return new RefinementNode(mapping, metricExpr, trainingData, rMax, retain(mapping));
+	}
+
+	/**
+	 * Create new RefinementNode for the result of a set operation of a parent
+	 * mapping and the mapping of a classifier. In unsupervised mode, the
+	 * pseudo-F-Measure is computed from the difference to the parent if
+	 * possible.
+	 *
+	 * @param parentLinks encoded parent mapping, see {@link #encode(AMapping)}
+	 * @param op AND, OR or MINUS
+	 * @param classifier the mapping of the classifier is the second operand
+	 * @param mapping computes the mapping of the node, i.e., parent op
+	 * classifier, which is only done if it is scored or saved
+	 * @param metricExpr learning specifications
+	 * @return new RefinementNode
+	 */
+	protected RefinementNode createNode(LinkSet parentLinks, LogicOperator op, ExtendedClassifier classifier,
+			Supplier<AMapping> mapping, String metricExpr) {
+		PseudoFMeasureEvaluator evaluator = getPseudoFMeasureEvaluator();
+		if (parentLinks == null || evaluator == null) {
+			return createNode(mapping.get(), metricExpr);
+		}
+		LinkSet links = classifierLinks.computeIfAbsent(classifier.getMetricExpression(),
+				k -> evaluator.encode(classifier.getMapping()));
+		double pfm = evaluator.calculate(parentLinks, op, links);
+		AMapping map = saveMapping() ? mapping.get() : null;
+		return new RefinementNode(map, metricExpr, pfm, retain(map));
+	}
+
+	/**
+	 * Nodes whose mapping does not fit into the remaining budget of retained
+	 * links drop it. Their mapping is recomputed from the metric expression
+	 * when needed.
+	 *
+	 * @param map mapping of a new node
+	 * @return true if mappings are saved and the mapping fits into the budget
+	 */
+	protected boolean retain(AMapping map) {
+		if (!saveMapping() || map == null) {
+			return false;
+		}
+		long links = map.getNumberofMappings();
+		if (retainedLinks.addAndGet(links) > maxRetainedLinks) {
+			retainedLinks.addAndGet(-links);
+			return false;
+		}
+		return true;
+	}
+
+	public long getMaxRetainedLinks() {
+		return maxRetainedLinks;
+	}
+
+	/**
+	 * @param maxRetainedLinks maximal number of links kept by the mappings of
+	 * the refinement nodes, a quarter of the heap by default
+	 */
+	public void setMaxRetainedLinks(long maxRetainedLinks) {
+		this.maxRetainedLinks = maxRetainedLinks;
+	}
+
+	/**
+	 * @return number of links kept by the mappings of the refinement nodes
+	 */
+	public long getRetainedLinks() {
+		return retainedLinks.get();
+	}
+
+	/**
+	 * @param mapping a parent mapping
+	 * @return the id-encoded links of the mapping if the pseudo-F-Measure of
+	 * its refinements can be computed incrementally, null otherwise
+	 */
+	protected LinkSet encode(AMapping mapping) {
+		PseudoFMeasureEvaluator evaluator = getPseudoFMeasureEvaluator();
+		return evaluator == null ? null : evaluator.encode(mapping);
+	}
+
+	/**
+	 * @return evaluator of the pseudo-F-Measure over the source and target
+	 * URIs, null in supervised mode or if the pseudo-F-Measure is customized
+	 */
+	protected synchronized PseudoFMeasureEvaluator getPseudoFMeasureEvaluator() {
+		if (!isUnsupervised || pseudoFMeasure == null || pseudoFMeasure.getClass() != PseudoFMeasure.class) {
+			return null;
 		}
-		return new RefinementNode(mapping, metricExpr, trainingData);
+		if (pseudoFMeasureEvaluator == null) {
+			// PseudoFMeasure evaluates with a default PseudoPrecision, i.e., a symmetric one
+			pseudoFMeasureEvaluator = new PseudoFMeasureEvaluator(sourceUris, targetUris);
+		}
+		return pseudoFMeasureEvaluator;
 	}
 
 
@@ -120,15 +231,21 @@ public abstract class AWombat extends ACoreMLAlgorithm {
 	 * @return new RefinementNode
 	 */
 	protected RefinementNode createNode(String metricExpr) {
-		AMapping map = null;
-		if(saveMapping()){
-			map = getMapingOfMetricExpression(metricExpr);
-		}
-		return createNode(map, metricExpr);
+		return createNode(getMapingOfMetricExpression(metricExpr), metricExpr);
 	}
 
 
 
+	/**
+	 * @param sCache source cache
+	 * @param tCache target cache
+	 * @return value index of the pair of caches, shared by all engines
+	 * running on them until the caches are refilled
+	 */
+	protected ValueIndex getValueIndex(ACache sCache, ACache tCache) {
+		return valueIndexes.computeIfAbsent(Arrays.asList(sCache, tCache), k -> new ValueIndex(sCache, tCache));
+	}
+
 	/**
 	 * @param sourceProperty URI
 	 * @param targetProperty URI
@@ -141,11 +258,30 @@ public abstract class AWombat extends ACoreMLAlgorithm {
 		String measureExpression = measure + "(" + sourceVariable + "." + sourceProperty + ", " + targetVariable + "." + targetProperty + ")";
 		Instruction inst = new Instruction(Instruction.Command.RUN, measureExpression, threshold + "", -1, -1, -1);
 		ExecutionEngine ee = ExecutionEngineFactory.getEngine(ExecutionEngineType.DEFAULT, sourceCache, targetCache, "?" + sourceVariable, "?" + targetVariable);
+		ee.setContext(context);
+		ee.setValueIndex(getValueIndex(sourceCache, targetCache));
 		Plan plan = new Plan();
 		plan.addInstruction(inst);
 		return ((SimpleExecutionEngine) ee).executeInstructions(plan);
 	}
 
+	/**
+	 * @param sourceProperty URI
+	 * @param targetProperty URI
+	 * @param measure name
+	 * @param lowestThreshold of the LS
+	 * @return sweep from which the mapping of the atomic mapper
+	 * measure(sourceProperty, targetProperty) can be cut for any threshold
+	 * above lowestThreshold
+	 */
+	public ThresholdSweep executeAtomicSweep(String sourceProperty, String targetProperty, String measure, double lowestThreshold) {
+		String measureExpression = measure + "(" + sourceVariable + "." + sourceProperty + ", " + targetVariable + "." + targetProperty + ")";
+		ExecutionEngine ee = ExecutionEngineFactory.getEngine(ExecutionEngineType.DEFAULT, sourceCache, targetCache, "?" + sourceVariable, "?" + targetVariable);
+		ee.setContext(context);
+		ee.setValueIndex(getValueIndex(sourceCache, targetCache));
+		return ((SimpleExecutionEngine) ee).executeSweep(measureExpression, lowestThreshold);
+	}
+
 	/**
 	 * calculate either a real or a pseudo-F-Measure
 	 *
@@ -155,6 +291,10 @@ public abstract class AWombat extends ACoreMLAlgorithm {
 	protected double fMeasure(AMapping predictions) {
 		if (isUnsupervised) {
 			// compute pseudo-F-Measure
+			PseudoFMeasureEvaluator evaluator = getPseudoFMeasureEvaluator();
+			if (evaluator != null) {
+				return evaluator.calculate(predictions);
+			}
 			return pseudoFMeasure.calculate(predictions, new GoldStandard(null, sourceUris, targetUris));
 		}
 		// get real F-Measure based on training data 
@@ -172,7 +312,7 @@ public abstract class AWombat extends ACoreMLAlgorithm {
 	 */
 	protected AMapping getMapingOfMetricExpression(String metricExpression) {
 		AMapping map = null;
-		if (RefinementNode.isSaveMapping()) {
+		if (saveMapping()) {
 			map = getMapingOfMetricFromTree(metricExpression, refinementTreeRoot);
 		}
 		if (map == null) {
@@ -185,12 +325,69 @@ public abstract class AWombat extends ACoreMLAlgorithm {
 
 			ExecutionEngine engine = ExecutionEngineFactory.getEngine(ExecutionEngineType.DEFAULT, sourceCache, targetCache, "?" + sourceVariable, "?" + targetVariable);
 			assert engine != null;
+			engine.setContext(context);
+			engine.setValueIndex(getValueIndex(sourceCache, targetCache));
 			AMapping resultMap = engine.execute(rwLs, planner);
 			map = resultMap.getSubMap(threshold);
 		}
 		return map;
 	}
 
+	/**
+	 * @param node refinement node
+	 * @return mapping of the node, recomputed if the node did not retain it
+	 */
+	protected AMapping getMapping(RefinementNode node) {
+		AMapping map = node.getMapping();
+		if (map == null) {
+			map = getMapingOfMetricExpression(node.getMetricExpression());
+		}
+		return map;
+	}
+
+	/**
+	 * Runs independent tasks, e.g., the evaluation of candidate classifiers or
+	 * of the children of a refinement node, on at most {@link #PARAMETER_THREADS}
+	 * threads of the pool of the context, which is shared with the mappers
+	 * and with concurrent runs, e.g., the folds of an evaluation. The results
+	 * keep the order of the tasks, so the refinement tree and thus the
+	 * selected best node do not depend on the scheduling.
+	 *
+	 * @param tasks to run
+	 * @param <T> type of the results
+	 * @return the result of each task
+	 */
+	protected <T> List<T> invokeAll(List<Callable<T>> tasks) {
+		return context.invokeAll(tasks, getThreads());
+	}
+
+	/**
+	 * @return the context of a search for the best solution, which expires
+	 * after the {@link #PARAMETER_EXECUTION_TIME_IN_MINUTES}
+	 */
+	protected ExecutionContext startSearch() {
+		return context.withTimeout(getExcutionTimeInMinutes(), TimeUnit.MINUTES);
+	}
+
+	/**
+	 * Checks the context between two refinement iterations and reports the
+	 * progress of the search in iterations.
+	 *
+	 * @param search context returned by {@link #startSearch()}
+	 * @param iteration number of iterations done so far
+	 * @return true if the maximal execution time passed, i.e., the search
+	 * has to stop with the best solution found so far
+	 */
+	protected boolean isExecutionTimeUp(ExecutionContext search, int iteration) {
+		context.checkpoint();
+		search.progress((double) iteration / getMaxIterationNumber());
+		if (search.isExpired()) {
+			logger.info("Reached the max execution time of " + getExcutionTimeInMinutes() + " minutes");
+			return true;
+		}
+		return false;
+	}
+
 	/**
 	 * @param metricExpression learning specifications
 	 * @param r refinement tree
@@ -230,6 +427,8 @@ public abstract class AWombat extends ACoreMLAlgorithm {
 		assert planner != null;
 		ExecutionEngine engine = ExecutionEngineFactory.getEngine(ExecutionEngineType.DEFAULT, sCache, tCache, "?" + sourceVariable, "?" + targetVariable);
 		assert engine != null;
+		engine.setContext(context);
+		engine.setValueIndex(getValueIndex(sCache, tCache));
 		AMapping resultMap = engine.execute(rwLs, planner);
 		map = resultMap.getSubMap(ls.getThreshold());
 		return map;
@@ -249,7 +448,15 @@ public abstract class AWombat extends ACoreMLAlgorithm {
 		super.init(lp, sourceCache, targetCache);
 		sourcePropertiesCoverageMap = LinearSelfConfigurator.getPropertyStats(sourceCache, getMinPropertyCoverage());
 		targetPropertiesCoverageMap = LinearSelfConfigurator.getPropertyStats(targetCache, getMinPropertyCoverage());
-		RefinementNode.setSaveMapping(saveMapping());
+		retainedLinks.set(0);
+		synchronized (this) {
+			pseudoFMeasureEvaluator = null;
+		}
+		classifierLinks.clear();
+		valueIndexes.clear();
+		// samples of the training data of a previous run
+		sourceSample = new HybridCache();
+		targetSample = new HybridCache();
 	}
 
 
@@ -268,6 +475,10 @@ public abstract class AWombat extends ACoreMLAlgorithm {
 	protected double precision(AMapping predictions) {
 		if (isUnsupervised) {
 			// compute pseudo-precision
+			PseudoFMeasureEvaluator evaluator = getPseudoFMeasureEvaluator();
+			if (evaluator != null) {
+				return evaluator.precision(predictions);
+			}
 			return pseudoFMeasure.precision(predictions, new GoldStandard(null, sourceUris, targetUris));
 		}
 		// get real precision based on training data 
@@ -284,6 +495,10 @@ public abstract class AWombat extends ACoreMLAlgorithm {
 	protected double recall(AMapping predictions) {
 		if (isUnsupervised) {
 			// compute pseudo-recall
+			PseudoFMeasureEvaluator evaluator = getPseudoFMeasureEvaluator();
+			if (evaluator != null) {
+				return evaluator.recall(predictions);
+			}
 			return pseudoFMeasure.recall(predictions, new GoldStandard(null, sourceUris, targetUris));
 		}
 		// get real recall based on training data 
@@ -301,25 +516,56 @@ public abstract class AWombat extends ACoreMLAlgorithm {
 	 * @return Best simple classifier
 	 */
 	protected ExtendedClassifier findInitialClassifier(String sourceProperty, String targetProperty, String measure) {
+		List<Double> thresholdList = new ArrayList<>();
+		for (double threshold = 1d; threshold > 0.4d; threshold = threshold * getPropertyLearningRate()) {
+			thresholdList.add(threshold);
+		}
+		double[] thresholds = new double[thresholdList.size()];
+		for (int i = 0; i < thresholds.length; i++) {
+			thresholds[i] = thresholdList.get(i);
+		}
+		// run the measure once with the lowest threshold
+		ThresholdSweep sweep = executeAtomicSweep(sourceProperty, targetProperty, measure, thresholds[thresholds.length - 1]);
+		double[] overlaps = fMeasures(sweep, thresholds);
 		double maxOverlap = 0;
 		double theta = 1.0;
-		AMapping bestMapping = MappingFactory.createDefaultMapping();
-		for (double threshold = 1d; threshold > 0.4d; threshold = threshold * getPropertyLearningRate()) {
-			AMapping mapping = executeAtomicMeasure(sourceProperty, targetProperty, measure, threshold);
-			double overlap = fMeasure(mapping);
-			if (maxOverlap < overlap) { //only interested in largest threshold with recall 1
-				bestMapping = mapping;
-				theta = threshold;
-				maxOverlap = overlap;
-				bestMapping = mapping;
+		for (int i = 0; i < thresholds.length; i++) {
+			if (maxOverlap < overlaps[i]) { //only interested in largest threshold with recall 1
+				theta = thresholds[i];
+				maxOverlap = overlaps[i];
 			}
 		}
+		AMapping bestMapping = maxOverlap > 0 ? sweep.getMapping(theta) : MappingFactory.createDefaultMapping();
 		ExtendedClassifier cp = new ExtendedClassifier(measure, theta, sourceProperty, targetProperty);
 		cp.setfMeasure(maxOverlap);
 		cp.setMapping(bestMapping);
 		return cp;
 	}
 
+	/**
+	 * Calculate either the real or the pseudo-F-Measure of the mapping of each
+	 * threshold of a sweep. Both are computed incrementally over the sorted
+	 * links unless the pseudo-F-Measure is customized.
+	 *
+	 * @param sweep of an atomic measure
+	 * @param thresholds to evaluate
+	 * @return F-measure of each threshold
+	 */
+	protected double[] fMeasures(ThresholdSweep sweep, double[] thresholds) {
+		if (!isUnsupervised) {
+			return sweep.getFMeasures(thresholds, trainingData);
+		}
+		if (pseudoFMeasure.getClass() == PseudoFMeasure.class) {
+			// PseudoFMeasure evaluates with a default PseudoPrecision, i.e., a symmetric one
+			return sweep.getPseudoFMeasures(thresholds, sourceUris.size(), targetUris.size(), true);
+		}
+		double[] result = new double[thresholds.length];
+		for (int i = 0; i < thresholds.length; i++) {
+			result[i] = fMeasure(sweep.getMapping(thresholds[i]));
+		}
+		return result;
+	}
+
 	@Override
 	public void setDefaultParameters() {
 		//default parameters
@@ -335,6 +581,7 @@ public abstract class AWombat extends ACoreMLAlgorithm {
 		double propertyLearningRate = 0.9;
 		double overallPenaltyWeight = 0.5d;
 		boolean verbose = false;
+		int threads = Runtime.getRuntime().availableProcessors();
 		Set<String> measures = new HashSet<>(Arrays.asList("jaccard", "trigrams", "cosine", "qgrams"));
 
 		learningParameters = new ArrayList<>();
@@ -351,6 +598,7 @@ public abstract class AWombat extends ACoreMLAlgorithm {
 		learningParameters.add(new LearningParameter(PARAMETER_VERBOSE, verbose, Boolean.class, 0, 1, 0, PARAMETER_VERBOSE));
 		learningParameters.add(new LearningParameter(PARAMETER_ATOMIC_MEASURES, measures, MeasureType.class, 0, 0, 0, PARAMETER_ATOMIC_MEASURES));
 		learningParameters.add(new LearningParameter(PARAMETER_SAVE_MAPPING, saveMapping, Boolean.class, 0, 1, 0, PARAMETER_SAVE_MAPPING));
+		learningParameters.add(new LearningParameter(PARAMETER_THREADS, threads, Integer.class, 1d, Integer.MAX_VALUE, 1, PARAMETER_THREADS));
 	}
 
 	protected boolean isVerbose() {
@@ -397,6 +645,10 @@ public abstract class AWombat extends ACoreMLAlgorithm {
 		return Integer.parseInt(getParameter(PARAMETER_MAX_REFINEMENT_TREE_SIZE).toString());
 	}
 
+	protected int getThreads() {
+		return Integer.parseInt(getParameter(PARAMETER_THREADS).toString());
+	}
+
 	protected Set<String> getAtomicMeasures() {
 		Set<String> atomicMeasures = new HashSet<String>();
 
@@ -420,6 +672,8 @@ public abstract class AWombat extends ACoreMLAlgorithm {
 				logger.warn("Instance " + s + " does not exist in the source dataset");
 			}
 		}
+		// the samples grow in place, so an index built on them is stale
+		valueIndexes.remove(Arrays.asList(sourceSample, targetSample));
 	}
 
 	/**
@@ -461,16 +715,15 @@ public abstract class AWombat extends ACoreMLAlgorithm {
 	 */
 	protected List<ExtendedClassifier> findInitialClassifiers() {
 		logger.debug("Geting all initial classifiers ...");
-		List<ExtendedClassifier> initialClassifiers = new ArrayList<>();
+		List<Callable<ExtendedClassifier>> tasks = new ArrayList<>();
 		for (String p : sourcePropertiesCoverageMap.keySet()) {
 			for (String q : targetPropertiesCoverageMap.keySet()) {
 				for (String m : getAtomicMeasures()) {
-					ExtendedClassifier cp = findInitialClassifier(p, q, m);
-					// only add if classifier covers all entries
-					initialClassifiers.add(cp);
+					tasks.add(() -> findInitialClassifier(p, q, m));
 				}
 			}
 		}
+		List<ExtendedClassifier> initialClassifiers = invokeAll(tasks);
 		logger.debug("Done computing all initial classifiers.");
 		return initialClassifiers;
 	}
@@ -3,7 +3,6 @@
  */
 package org.aksw.limes.core.ml.algorithm.wombat;
 
-
 import org.aksw.limes.core.datastrutures.GoldStandard;
 import org.aksw.limes.core.evaluation.qualititativeMeasures.Precision;
 import org.aksw.limes.core.evaluation.qualititativeMeasures.Recall;
@@ -18,7 +17,6 @@ import org.aksw.limes.core.measures.mapper.MappingOperations;
 public class RefinementNode implements Comparable<RefinementNode> {
 
     protected static double rMax = -Double.MAX_VALUE;
-    protected static boolean saveMapping = true;
     protected double precision = -Double.MAX_VALUE;
     protected double recall = -Double.MAX_VALUE;
     protected double fMeasure = -Double.MAX_VALUE;
@@ -59,11 +57,22 @@ public class RefinementNode implements Comparable<RefinementNode> {
      * @param fMeasure
      */
     public RefinementNode(AMapping map, String metricExpression, double fMeasure) {
+        this(map, metricExpression, fMeasure, true);
+    }
+
+    /**
+     * Note: basically used for unsupervised version of WOMBAT
+     *
+     * @param map
+     * @param metricExpression
+     * @param fMeasure
+     * @param saveMapping whether the node keeps its mapping
+     */
+    public RefinementNode(AMapping map, String metricExpression, double fMeasure, boolean saveMapping) {
         super();
         this.setfMeasure(fMeasure);
         this.setMap(saveMapping ? map : null);
         this.setMetricExpression(metricExpression);
-
     }
 
 
@@ -76,6 +85,19 @@ public class RefinementNode implements Comparable<RefinementNode> {
      * @author sherif
      */
     public RefinementNode(AMapping map, String metricExpression, AMapping refMap) {
+        this(map, metricExpression, refMap, rMax, true);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param map
+     * @param metricExpression
+     * @param refMap
+     * @param rMax maximal recall of the refinement tree
+     * @param saveMapping whether the node keeps its mapping
+     */
+    public RefinementNode(AMapping map, String metricExpression, AMapping refMap, double rMax, boolean saveMapping) {
         super();
         this.setPrecision(new Precision().calculate(map, new GoldStandard(refMap)));
         this.setRecall(new Recall().calculate(map, new GoldStandard(refMap)));
@@ -94,14 +116,6 @@ public class RefinementNode implements Comparable<RefinementNode> {
         RefinementNode.rMax = rMax;
     }
 
-    public static boolean isSaveMapping() {
-        return saveMapping;
-    }
-
-    public static void setSaveMapping(boolean saveMapping) {
-        RefinementNode.saveMapping = saveMapping;
-    }
-
     /* (non-Javadoc)
      * Compare RefinementNodes based on fitness
 	 * @see java.lang.Comparable#compareTo(java.lang.Object)
@@ -0,0 +1,170 @@
+package org.aksw.limes.core.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+
+import org.aksw.limes.core.exceptions.ExecutionCancelledException;
+import org.aksw.limes.core.execution.ExecutionContext;
+import org.aksw.limes.core.execution.engine.ExecutionEngineFactory;
+import org.aksw.limes.core.execution.planning.planner.ExecutionPlannerFactory;
+import org.aksw.limes.core.execution.rewriter.RewriterFactory;
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.InstanceFingerprints;
+import org.aksw.limes.core.io.cache.MemoryCache;
+import org.aksw.limes.core.io.ls.LinkSpecification;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingChangeset;
+import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IncrementalPipelineTest {
+
+    private static final LinkSpecification LS = new LinkSpecification(
+            "AND(levenshtein(x.name, y.name)|0.5, jaccard(x.name, y.name)|0.1)", 0.3);
+    private static final String[] NAMES = { "kleanthi", "kleanthis", "lukas", "luka", "axel", "axl", "mohamed" };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static ACache createCache(String prefix, int size, int offset) {
+        ACache cache = new MemoryCache();
+        for (int i = 0; i < size; i++) {
+            cache.addTriple(prefix + i, "name", NAMES[(i + offset) % NAMES.length] + " " + (i % 3));
+        }
+        return cache;
+    }
+
+    private static IncrementalPipeline.Result update(ACache source, ACache target, File state) throws Exception {
+        return update(source, target, state, LS);
+    }
+
+    private static IncrementalPipeline.Result update(ACache source, ACache target, File state, LinkSpecification ls)
+            throws Exception {
+        return IncrementalPipeline.execute(source, target, state, ls, "?x", "?y",
+                RewriterFactory.RewriterType.DEFAULT, ExecutionPlannerFactory.ExecutionPlannerType.DEFAULT,
+                ExecutionEngineFactory.ExecutionEngineType.DEFAULT, null, ExecutionContext.NONE);
+    }
+
+    @Test
+    public void testDelta() {
+        ACache cache = createCache("S", 10, 0);
+        InstanceFingerprints fingerprints = InstanceFingerprints.of(cache);
+        assertTrue(fingerprints.getDelta(cache).isEmpty());
+        ACache changed = createCache("S", 9, 0);
+        changed.replaceInstance("S1", createCache("S", 2, 3).getInstance("S1"));
+        changed.addTriple("S20", "name", "sandra");
+        InstanceFingerprints.Delta delta = fingerprints.getDelta(changed);
+        assertEquals(1, delta.getAdded().size());
+        assertTrue(delta.getRemoved().contains("S9"));
+        assertTrue(delta.getChanged().contains("S1"));
+        assertEquals(2, delta.getModifiedInstances(changed).size());
+    }
+
+    @Test
+    public void testUpdateEqualsFullRun() throws Exception {
+        File state = new File(folder.getRoot(), "state");
+        ACache source = createCache("S", 40, 0);
+        ACache target = createCache("T", 40, 1);
+        IncrementalPipeline.Result first = update(source, target, state);
+        AMapping full = LSPipeline.execute(source, target, LS);
+        assertEquals(full, first.getMapping());
+        assertEquals(full, first.getChangeset().getAdditions());
+        assertEquals(0, first.getChangeset().getDeletions().size());
+        assertTrue(update(source, target, state).getChangeset().isEmpty());
+
+        // remove, change and add instances on both sides
+        ACache newSource = createCache("S", 38, 0);
+        newSource.replaceInstance("S3", createCache("S", 4, 2).getInstance("S3"));
+        newSource.addTriple("S50", "name", "kleanthis 0");
+        ACache newTarget = createCache("T", 40, 1);
+        newTarget.replaceInstance("T5", createCache("T", 6, 4).getInstance("T5"));
+        newTarget.addTriple("T50", "name", "luka 2");
+        IncrementalPipeline.Result second = update(newSource, newTarget, state);
+        AMapping expected = LSPipeline.execute(newSource, newTarget, LS);
+        assertEquals(expected, second.getMapping());
+        MappingChangeset changeset = MappingChangeset.of(full, expected);
+        assertTrue(changeset.getAdditions().size() > 0 && changeset.getDeletions().size() > 0);
+        assertEquals(changeset.getAdditions(), second.getChangeset().getAdditions());
+        assertEquals(changeset.getDeletions(), second.getChangeset().getDeletions());
+    }
+
+    @Test
+    public void testChangedLinkSpecification() throws Exception {
+        File state = new File(folder.getRoot(), "state");
+        ACache source = createCache("S", 40, 0);
+        ACache target = createCache("T", 40, 1);
+        AMapping previous = update(source, target, state).getMapping();
+
+        // only the threshold of a child changes, the caches stay the same
+        LinkSpecification ls = new LinkSpecification(
+                "AND(levenshtein(x.name, y.name)|0.8, jaccard(x.name, y.name)|0.1)", 0.3);
+        IncrementalPipeline.Result changed = update(source, target, state, ls);
+        AMapping expected = LSPipeline.execute(source, target, ls);
+        assertEquals(expected, changed.getMapping());
+        MappingChangeset changeset = MappingChangeset.of(previous, expected);
+        assertTrue(changeset.getDeletions().size() > 0);
+        assertEquals(changeset.getAdditions(), changed.getChangeset().getAdditions());
+        assertEquals(changeset.getDeletions(), changed.getChangeset().getDeletions());
+        assertTrue(update(source, target, state, ls).getChangeset().isEmpty());
+
+        // other settings of the execution
+        IncrementalPipeline.Result restricted = IncrementalPipeline.execute(source, target, state, ls, "?x", "?y",
+                RewriterFactory.RewriterType.DEFAULT, ExecutionPlannerFactory.ExecutionPlannerType.DEFAULT,
+                ExecutionEngineFactory.ExecutionEngineType.DEFAULT, "?x a <Person>", null, ExecutionContext.NONE);
+        assertEquals(expected, restricted.getMapping());
+        assertTrue(restricted.getChangeset().isEmpty());
+    }
+
+    @Test
+    public void testCancelKeepsState() throws Exception {
+        File state = new File(folder.getRoot(), "state");
+        ACache source = createCache("S", 40, 0);
+        ACache target = createCache("T", 40, 1);
+        AMapping previous = update(source, target, state).getMapping();
+
+        ACache newSource = createCache("S", 38, 0);
+        newSource.addTriple("S50", "name", "kleanthis 0");
+        ExecutionContext context = new ExecutionContext();
+        try {
+            IncrementalPipeline.execute(newSource, target, state, LS, "?x", "?y",
+                    RewriterFactory.RewriterType.DEFAULT, ExecutionPlannerFactory.ExecutionPlannerType.DEFAULT,
+                    ExecutionEngineFactory.ExecutionEngineType.DEFAULT, null,
+                    context.withProgress(p -> context.cancel()));
+            fail();
+        } catch (ExecutionCancelledException e) {
+            // the state of the first run is kept
+        }
+        IncrementalPipeline.Result second = update(newSource, target, state);
+        assertEquals(LSPipeline.execute(newSource, target, LS), second.getMapping());
+        MappingChangeset changeset = MappingChangeset.of(previous, second.getMapping());
+        assertEquals(changeset.getAdditions(), second.getChangeset().getAdditions());
+        assertEquals(changeset.getDeletions(), second.getChangeset().getDeletions());
+    }
+
+    @Test
+    public void testSubChangeset() {
+        AMapping previous = MappingFactory.createDefaultMapping();
+        previous.add("s1", "t1", 0.9);
+        previous.add("s2", "t2", 0.6);
+        AMapping current = MappingFactory.createDefaultMapping();
+        current.add("s1", "t1", 0.7);
+        current.add("s2", "t2", 0.6);
+        current.add("s3", "t3", 0.95);
+        MappingChangeset changeset = MappingChangeset.of(previous, current);
+        assertEquals(2, changeset.getAdditions().size());
+        assertEquals(1, changeset.getDeletions().size());
+        MappingChangeset accepted = changeset.getSubChangeset(0.8, Double.POSITIVE_INFINITY);
+        assertTrue(accepted.getAdditions().contains("s3", "t3"));
+        assertTrue(accepted.getDeletions().contains("s1", "t1"));
+        MappingChangeset verified = changeset.getSubChangeset(0.5, 0.8);
+        assertTrue(verified.getAdditions().contains("s1", "t1"));
+        assertEquals(0, verified.getDeletions().size());
+        assertEquals("a/b_added.nt", Controller.getChangesetFile("a/b.nt", Controller.ADDED_SUFFIX));
+        assertEquals("a.b/c_deleted", Controller.getChangesetFile("a.b/c", Controller.DELETED_SUFFIX));
+    }
+}
@@ -0,0 +1,24 @@
+package org.aksw.limes.core.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+public class SimpleServerTest {
+
+    @Test
+    public void testQueryToMap() {
+        Map<String, String> params = SimpleServer.queryToMap("job_id=42&source_prefix=http%3A%2F%2Fex.org%2F%3Fa%3Db%26c"
+                + "&min%20similarity=0.5&empty=&flag");
+        assertEquals("42", params.get("job_id"));
+        assertEquals("http://ex.org/?a=b&c", params.get("source_prefix"));
+        assertEquals("0.5", params.get("min similarity"));
+        assertEquals("", params.get("empty"));
+        assertEquals("", params.get("flag"));
+        assertEquals(5, params.size());
+        assertTrue(SimpleServer.queryToMap(null).isEmpty());
+    }
+}
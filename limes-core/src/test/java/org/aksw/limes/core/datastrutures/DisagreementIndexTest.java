@@ -0,0 +1,122 @@
+package org.aksw.limes.core.datastrutures;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.aksw.limes.core.datastrutures.DisagreementIndex.Candidate;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.aksw.limes.core.ml.algorithm.eagle.core.ALDecider;
+import org.junit.Test;
+
+public class DisagreementIndexTest {
+
+    private final Random random = new Random(3);
+
+    private AMapping generate(int links) {
+        AMapping m = MappingFactory.createDefaultMapping();
+        for (int i = 0; i < links; i++) {
+            m.add("s" + random.nextInt(30), "t" + random.nextInt(30), 1d);
+        }
+        return m;
+    }
+
+    private static int count(List<AMapping> mappings, String s, String t) {
+        int votes = 0;
+        for (AMapping m : mappings) {
+            if (m.contains(s, t)) {
+                votes++;
+            }
+        }
+        return votes;
+    }
+
+    @Test
+    public void testIncrementalVotes() {
+        List<AMapping> mappings = new ArrayList<>();
+        DisagreementIndex committee = new DisagreementIndex();
+        for (int i = 0; i < 6; i++) {
+            mappings.add(generate(200));
+            committee.addMember(i, mappings.get(i));
+        }
+        // replace one member and remove two others
+        mappings.set(2, generate(100));
+        committee.addMember(2, mappings.get(2));
+        committee.removeMember(0);
+        committee.retainMembers(Arrays.asList(1, 2, 3, 5));
+        List<AMapping> current = Arrays.asList(mappings.get(1), mappings.get(2), mappings.get(3), mappings.get(5));
+        assertEquals(4, committee.getMemberCount());
+        assertFalse(committee.containsMember(4));
+
+        AMapping votes = committee.getVotes();
+        for (int s = 0; s < 30; s++) {
+            for (int t = 0; t < 30; t++) {
+                int expected = count(current, "s" + s, "t" + t);
+                assertEquals(expected, committee.getVotes("s" + s, "t" + t));
+                assertEquals(expected > 0, votes.contains("s" + s, "t" + t));
+            }
+        }
+    }
+
+    @Test
+    public void testTopCandidates() {
+        List<AMapping> mappings = new ArrayList<>();
+        DisagreementIndex committee = new DisagreementIndex();
+        for (int i = 0; i < 5; i++) {
+            mappings.add(generate(300));
+            committee.addMember(i, mappings.get(i));
+        }
+        committee.exclude("s1", "t1");
+        AMapping votes = committee.getVotes();
+        List<Candidate> all = committee.getTopCandidates(Integer.MAX_VALUE, v -> v * (5 - v), false);
+        assertEquals(votes.size(), all.size());
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(all.get(i - 1).getScore() >= all.get(i).getScore());
+        }
+        for (Candidate c : all) {
+            assertEquals(count(mappings, c.getSourceUri(), c.getTargetUri()), c.getVotes());
+            assertFalse(c.getSourceUri().equals("s1") && c.getTargetUri().equals("t1"));
+        }
+
+        List<Candidate> top = committee.getTopCandidates(7, v -> v * (5 - v), false);
+        assertEquals(7, top.size());
+        for (int i = 0; i < top.size(); i++) {
+            assertEquals(all.get(i).getSourceUri(), top.get(i).getSourceUri());
+            assertEquals(all.get(i).getTargetUri(), top.get(i).getTargetUri());
+        }
+
+        List<Candidate> perSource = committee.getTopCandidates(10, v -> v * (5 - v), true);
+        Set<String> sources = new HashSet<>();
+        for (Candidate c : perSource) {
+            assertTrue(sources.add(c.getSourceUri()));
+        }
+    }
+
+    @Test
+    public void testALDecider() {
+        List<AMapping> mappings = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            mappings.add(generate(100));
+        }
+        ALDecider decider = new ALDecider();
+        HashMap<ALDecider.Triple, Integer> matches = decider.getControversyMatches(mappings);
+        for (ALDecider.Triple t : matches.keySet()) {
+            assertEquals(count(mappings, t.getSourceUri(), t.getTargetUri()), (int) matches.get(t));
+        }
+        List<ALDecider.Triple> candidates = decider.getControversyCandidates(mappings, 5);
+        assertEquals(5, candidates.size());
+        for (ALDecider.Triple t : candidates) {
+            // contained in half of the mappings
+            assertEquals(0.5, t.getSimilarity(), 1e-9);
+        }
+    }
+}
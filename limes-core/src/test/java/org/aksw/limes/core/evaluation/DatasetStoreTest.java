@@ -0,0 +1,103 @@
+package org.aksw.limes.core.evaluation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.aksw.limes.core.evaluation.evaluationDataLoader.DatasetStore;
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.MemoryCache;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DatasetStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private ACache load(String suffix) {
+        loads.incrementAndGet();
+        ACache cache = new MemoryCache();
+        cache.addTriple("ex:a", "ex:name", "a" + suffix);
+        cache.addTriple("ex:a", "ex:name", "ä");
+        cache.addTriple("ex:b", "ex:age", "42");
+        return cache;
+    }
+
+    private void write(File file, String content) throws IOException {
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write(content);
+        }
+    }
+
+    @Test
+    public void testCache() throws IOException {
+        File data = folder.newFile("source.nt");
+        write(data, "first");
+        File storeFolder = folder.newFolder("store");
+
+        DatasetStore store = new DatasetStore(storeFolder, Long.MAX_VALUE);
+        ACache cache = store.getCache(data, "test", () -> load("1"));
+        assertSame(cache, store.getCache(data, "test", () -> load("1")));
+        assertEquals(1, loads.get());
+
+        // a new store reads the persisted entry
+        ACache stored = new DatasetStore(storeFolder, Long.MAX_VALUE).getCache(data, "test", () -> load("1"));
+        assertEquals(1, loads.get());
+        assertNotSame(cache, stored);
+        assertEquals(cache.getClass(), stored.getClass());
+        assertEquals(cache.size(), stored.size());
+        for (String uri : cache.getAllUris()) {
+            assertEquals(cache.getInstance(uri).getAllProperties(), stored.getInstance(uri).getAllProperties());
+            for (String property : cache.getInstance(uri).getAllProperties()) {
+                assertEquals(cache.getInstance(uri).getProperty(property), stored.getInstance(uri).getProperty(property));
+            }
+        }
+
+        // a changed file is loaded again
+        write(data, "second content");
+        ACache changed = store.getCache(data, "test", () -> load("2"));
+        assertEquals(2, loads.get());
+        assertEquals("a2", changed.getInstance("ex:a").getProperty("ex:name").first());
+    }
+
+    @Test
+    public void testMapping() throws IOException {
+        File data = folder.newFile("reference.csv");
+        write(data, "ex:a,ex:b");
+        File storeFolder = folder.newFolder("store");
+        AMapping mapping = MappingFactory.createDefaultMapping();
+        mapping.add("ex:a", "ex:b", 1d);
+        mapping.add("ex:a", "ex:c", 0.5);
+        mapping.add("ex:d", "ex:c", 0.25);
+
+        DatasetStore store = new DatasetStore(storeFolder, Long.MAX_VALUE);
+        assertSame(mapping, store.getMapping(data, "test", () -> mapping));
+        AMapping stored = new DatasetStore(storeFolder, Long.MAX_VALUE).getMapping(data, "test", () -> null);
+        assertEquals(mapping.getMap(), stored.getMap());
+    }
+
+    @Test
+    public void testMemoryBound() throws IOException {
+        File first = folder.newFile("first.nt");
+        File second = folder.newFile("second.nt");
+        DatasetStore store = new DatasetStore(null, 1);
+        store.getCache(first, "test", () -> load("1"));
+        store.getCache(second, "test", () -> load("2"));
+        // only the most recent entry is kept
+        store.getCache(second, "test", () -> load("2"));
+        assertEquals(2, loads.get());
+        store.getCache(first, "test", () -> load("1"));
+        assertEquals(3, loads.get());
+    }
+}
@@ -1,5 +1,6 @@
 package org.aksw.limes.core.evaluation;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.util.List;
@@ -10,7 +11,12 @@ import org.aksw.limes.core.datastrutures.TaskAlgorithm;
 import org.aksw.limes.core.datastrutures.TaskData;
 import org.aksw.limes.core.evaluation.evaluator.Evaluator;
 import org.aksw.limes.core.evaluation.evaluator.EvaluatorType;
+import org.aksw.limes.core.evaluation.quantitativeMeasures.RunRecord;
+import org.aksw.limes.core.exceptions.UnsupportedMLImplementationException;
+import org.aksw.limes.core.ml.algorithm.MLAlgorithmFactory;
+import org.aksw.limes.core.ml.algorithm.MLImplementationType;
 import org.aksw.limes.core.ml.algorithm.SupervisedMLAlgorithm;
+import org.aksw.limes.core.ml.algorithm.WombatSimple;
 import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -83,4 +89,35 @@ public class EvaluatorsTest {
     }
 
 
+    @Test
+    public void testParallelCrossValidate() throws UnsupportedMLImplementationException {
+        Set<TaskData> tasks = new DatasetsInitTest().initializeDataSets(datasetsList);
+        Set<EvaluatorType> evaluators = new EvaluatorsInitTest().initializeEvaluators();
+
+        Evaluator sequential = new Evaluator();
+        sequential.setSeed(42);
+        List<EvaluationRun> expected = sequential.crossValidate(
+                MLAlgorithmFactory.createMLAlgorithm(WombatSimple.class, MLImplementationType.SUPERVISED_BATCH),
+                null, tasks, 3, evaluators, null);
+
+        Evaluator parallel = new Evaluator();
+        parallel.setSeed(42);
+        parallel.setThreads(3);
+        List<EvaluationRun> results = parallel.crossValidate(
+                MLAlgorithmFactory.createMLAlgorithm(WombatSimple.class, MLImplementationType.SUPERVISED_BATCH),
+                null, tasks, 3, evaluators, null);
+
+        assertEquals(3 * tasks.size(), results.size());
+        assertEquals(expected.size(), results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(expected.get(i).getAlgorithmName(), results.get(i).getAlgorithmName());
+            assertEquals("run " + i, expected.get(i).qualititativeScores, results.get(i).qualititativeScores);
+            RunRecord record = results.get(i).getQuantitativeRecord();
+            assertEquals(i, record.getRunId());
+            assertTrue(record.getRunTime() > 0);
+            assertTrue(record.getRunMemory() > 0);
+        }
+        assertEquals(results.size(), parallel.getRunsData().getRuns().size());
+    }
+
 }
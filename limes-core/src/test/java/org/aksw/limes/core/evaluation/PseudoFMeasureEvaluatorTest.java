@@ -0,0 +1,92 @@
+package org.aksw.limes.core.evaluation;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.aksw.limes.core.datastrutures.GoldStandard;
+import org.aksw.limes.core.datastrutures.LogicOperator;
+import org.aksw.limes.core.evaluation.qualititativeMeasures.PseudoFMeasure;
+import org.aksw.limes.core.evaluation.qualititativeMeasures.PseudoFMeasureEvaluator;
+import org.aksw.limes.core.evaluation.qualititativeMeasures.PseudoFMeasureEvaluator.LinkSet;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.aksw.limes.core.measures.mapper.MappingOperations;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PseudoFMeasureEvaluatorTest {
+
+    private static final double EPSILON = 1e-12;
+
+    private List<String> sourceUris;
+    private List<String> targetUris;
+    private GoldStandard gold;
+    private PseudoFMeasureEvaluator evaluator;
+    private Random random;
+
+    @Before
+    public void setUp() {
+        sourceUris = new ArrayList<>();
+        targetUris = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            sourceUris.add("s" + i);
+        }
+        for (int i = 0; i < 60; i++) {
+            targetUris.add("t" + i);
+        }
+        gold = new GoldStandard(null, sourceUris, targetUris);
+        evaluator = new PseudoFMeasureEvaluator(sourceUris, targetUris);
+        random = new Random(7);
+    }
+
+    private AMapping generate(int links) {
+        AMapping m = MappingFactory.createDefaultMapping();
+        for (int i = 0; i < links; i++) {
+            // a few URIs outside of the universe
+            m.add("s" + random.nextInt(45), "t" + random.nextInt(65), 0.5);
+        }
+        return m;
+    }
+
+    @Test
+    public void testCalculate() {
+        PseudoFMeasure pfm = new PseudoFMeasure();
+        List<AMapping> mappings = new ArrayList<>();
+        for (int links : new int[] { 0, 1, 10, 50, 200 }) {
+            mappings.add(generate(links));
+        }
+        for (int i = 0; i < mappings.size(); i++) {
+            AMapping m = mappings.get(i);
+            assertEquals(pfm.calculate(m, gold), evaluator.calculate(m), EPSILON);
+            assertEquals(pfm.calculate(m, gold), evaluator.calculate(evaluator.encode(m)), EPSILON);
+            assertEquals(pfm.precision(m, gold), evaluator.precision(m), EPSILON);
+            assertEquals(pfm.recall(m, gold), evaluator.recall(m), EPSILON);
+        }
+        AMapping m = generate(50);
+        assertEquals(pfm.getPseudoFMeasure(m, gold, 0.5),
+                new PseudoFMeasureEvaluator(sourceUris, targetUris, 0.5, true).calculate(m), EPSILON);
+    }
+
+    @Test
+    public void testIncremental() {
+        PseudoFMeasure pfm = new PseudoFMeasure();
+        AMapping parent = generate(150);
+        LinkSet parentLinks = evaluator.encode(parent);
+        for (int links : new int[] { 0, 5, 40, 300 }) {
+            AMapping operand = generate(links);
+            LinkSet operandLinks = evaluator.encode(operand);
+            AMapping union = MappingOperations.union(parent, operand);
+            AMapping intersection = MappingOperations.intersection(parent, operand);
+            AMapping difference = MappingOperations.difference(parent, operand);
+            AMapping xor = MappingOperations.union(difference, MappingOperations.difference(operand, parent));
+
+            assertEquals(pfm.calculate(union, gold), evaluator.calculate(parentLinks, LogicOperator.OR, operandLinks), EPSILON);
+            assertEquals(pfm.calculate(intersection, gold), evaluator.calculate(parentLinks, LogicOperator.AND, operandLinks), EPSILON);
+            assertEquals(pfm.calculate(difference, gold), evaluator.calculate(parentLinks, LogicOperator.MINUS, operandLinks), EPSILON);
+            assertEquals(pfm.calculate(xor, gold), evaluator.calculate(parentLinks, LogicOperator.XOR, operandLinks), EPSILON);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package org.aksw.limes.core.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.aksw.limes.core.exceptions.ExecutionCancelledException;
+import org.aksw.limes.core.execution.engine.SimpleExecutionEngine;
+import org.aksw.limes.core.execution.planning.planner.CanonicalPlanner;
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.MemoryCache;
+import org.aksw.limes.core.io.ls.LinkSpecification;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.measures.mapper.string.PPJoinPlusPlus;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExecutionContextTest {
+
+    private ACache source;
+    private ACache target;
+
+    @Before
+    public void setUp() {
+        source = new MemoryCache();
+        target = new MemoryCache();
+        source.addTriple("S1", "name", "kleanthi");
+        source.addTriple("S1", "surname", "georgala");
+        source.addTriple("S2", "name", "lukas");
+        source.addTriple("S2", "surname", "sandra");
+        target.addTriple("T1", "name", "klea");
+        target.addTriple("T1", "surname", "georgala");
+        target.addTriple("T2", "name", "lukas");
+        target.addTriple("T2", "surname", "sandra");
+    }
+
+    @Test
+    public void testCancel() {
+        ExecutionContext context = new ExecutionContext();
+        ExecutionContext derived = context.withTimeout(1, TimeUnit.HOURS).slice(0, 0.5);
+        derived.checkpoint();
+        context.cancel();
+        assertTrue(derived.isCancelled());
+        try {
+            derived.checkpoint();
+            fail();
+        } catch (ExecutionCancelledException e) {
+            assertFalse(e.isTimeout());
+        }
+        ExecutionContext.NONE.cancel();
+        ExecutionContext.NONE.checkpoint();
+    }
+
+    @Test
+    public void testTimeout() {
+        ExecutionContext context = new ExecutionContext().withTimeout(0, TimeUnit.NANOSECONDS);
+        assertTrue(context.isExpired());
+        // the earlier deadline wins
+        assertTrue(context.withTimeout(1, TimeUnit.HOURS).isExpired());
+        try {
+            context.checkpoint();
+            fail();
+        } catch (ExecutionCancelledException e) {
+            assertTrue(e.isTimeout());
+        }
+    }
+
+    @Test
+    public void testProgress() {
+        List<Double> reported = new ArrayList<>();
+        ExecutionContext context = new ExecutionContext().withProgress(reported::add);
+        context.slice(0.5, 1).slice(0, 0.5).progress(0.5);
+        context.slice(0.5, 1).progress(2);
+        assertEquals(0.625, reported.get(0), 1e-9);
+        assertEquals(1, reported.get(1), 1e-9);
+    }
+
+    @Test
+    public void testEngineProgress() {
+        List<Double> reported = new ArrayList<>();
+        SimpleExecutionEngine engine = new SimpleExecutionEngine(source, target, "?x", "?y");
+        LinkSpecification ls = new LinkSpecification(
+                "OR(trigrams(x.name,y.name)|0.5,exactmatch(x.surname,y.surname)|0.5)", 0.5);
+        AMapping m = engine.execute(ls, new CanonicalPlanner(), new ExecutionContext().withProgress(reported::add));
+        assertTrue(m.size() > 0);
+        assertFalse(reported.isEmpty());
+        for (int i = 1; i < reported.size(); i++) {
+            assertTrue(reported.get(i - 1) <= reported.get(i));
+        }
+        assertEquals(1, reported.get(reported.size() - 1), 1e-9);
+    }
+
+    @Test(expected = ExecutionCancelledException.class)
+    public void testEngineCancel() {
+        ExecutionContext context = new ExecutionContext();
+        context.cancel();
+        SimpleExecutionEngine engine = new SimpleExecutionEngine(source, target, "?x", "?y");
+        LinkSpecification ls = new LinkSpecification("trigrams(x.name,y.name)", 0.5);
+        engine.execute(ls, new CanonicalPlanner(), context);
+    }
+
+    @Test
+    public void testInvokeAll() {
+        ExecutionContext context = new ExecutionContext().withPool(new ForkJoinPool(2));
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            final int outer = i;
+            tasks.add(() -> {
+                // nested steps run on the same two threads
+                List<Callable<Integer>> inner = new ArrayList<>();
+                for (int j = 0; j < 8; j++) {
+                    final int value = outer * 8 + j;
+                    inner.add(() -> {
+                        threads.add(Thread.currentThread());
+                        return value;
+                    });
+                }
+                int sum = 0;
+                for (int value : context.invokeAll(inner, 4)) {
+                    sum += value;
+                }
+                return sum;
+            });
+        }
+        List<Integer> sums = context.invokeAll(tasks, 4);
+        for (int i = 0; i < 8; i++) {
+            assertEquals(64 * i + 28, (int) sums.get(i));
+        }
+        assertTrue(threads.size() <= 2);
+        context.getPool().shutdown();
+    }
+
+    @Test
+    public void testInvokeAllRethrows() {
+        ExecutionCancelledException cancelled = new ExecutionCancelledException(true);
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        tasks.add(() -> 1);
+        tasks.add(() -> {
+            throw cancelled;
+        });
+        try {
+            new ExecutionContext().invokeAll(tasks, 2);
+            fail();
+        } catch (ExecutionCancelledException e) {
+            assertTrue(e == cancelled);
+        }
+    }
+
+    @Test
+    public void testMapperStopsLoop() {
+        ACache large = new MemoryCache();
+        for (int i = 0; i < 3000; i++) {
+            large.addTriple("S" + i, "name", "name " + i);
+        }
+        List<Double> reported = new ArrayList<>();
+        ExecutionContext context = new ExecutionContext();
+        PPJoinPlusPlus mapper = new PPJoinPlusPlus();
+        // cancels at the first checkpoint of the loop, so that the next one stops it
+        mapper.setContext(context.withProgress(p -> {
+            reported.add(p);
+            context.cancel();
+        }));
+        try {
+            mapper.getMapping(large, large, "?x", "?y", "jaccard(x.name, y.name)", 0.5);
+            fail();
+        } catch (ExecutionCancelledException e) {
+            assertFalse(e.isTimeout());
+        }
+        assertEquals(1, reported.size());
+        assertEquals(0, reported.get(0), 1e-9);
+    }
+
+    @Test
+    public void testEngineStopsBetweenRuns() {
+        List<Double> reported = new ArrayList<>();
+        ExecutionContext context = new ExecutionContext();
+        SimpleExecutionEngine engine = new SimpleExecutionEngine(source, target, "?x", "?y");
+        LinkSpecification ls = new LinkSpecification(
+                "OR(trigrams(x.name,y.name)|0.5,exactmatch(x.surname,y.surname)|0.5)", 0.5);
+        // cancels once the first of the two runs finished
+        ExecutionContext run = context.withProgress(p -> {
+            reported.add(p);
+            if (p >= 0.5) {
+                context.cancel();
+            }
+        });
+        try {
+            engine.execute(ls, new CanonicalPlanner(), run);
+            fail();
+        } catch (ExecutionCancelledException e) {
+            assertFalse(e.isTimeout());
+        }
+        assertEquals(0.5, reported.get(reported.size() - 1), 1e-9);
+    }
+
+    @Test
+    public void testEngineTimeout() {
+        SimpleExecutionEngine engine = new SimpleExecutionEngine(source, target, "?x", "?y");
+        LinkSpecification ls = new LinkSpecification("trigrams(x.name,y.name)", 0.5);
+        try {
+            engine.execute(ls, new CanonicalPlanner(), new ExecutionContext().withTimeout(0, TimeUnit.NANOSECONDS));
+            fail();
+        } catch (ExecutionCancelledException e) {
+            assertTrue(e.isTimeout());
+        }
+    }
+}
@@ -1,7 +1,22 @@
 package org.aksw.limes.core.execution.engine;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.aksw.limes.core.execution.engine.filter.LinearFilter;
 import org.aksw.limes.core.execution.planning.plan.Instruction;
 import org.aksw.limes.core.execution.planning.plan.Instruction.Command;
@@ -698,4 +713,128 @@ public class SimpleExecutionEngineTest {
         System.out.println("---------------------------------");
 
     }
+
+    @Test
+    public void testStreamingFilters() {
+        System.out.println("testStreamingFilters");
+        SimpleExecutionEngine ee = new SimpleExecutionEngine(source, target, "?x", "?y");
+        for (String run : new String[] { "exactmatch(x.age, y.age)", "qgrams(x.surname, y.surname)" }) {
+            Instruction runInstruction = new Instruction(Command.RUN, run, "0.3", -1, -1, 0);
+            Plan runPlan = new Plan();
+            runPlan.addInstruction(runInstruction);
+            AMapping input = ee.executeInstructions(runPlan);
+
+            Instruction filter = new Instruction(Command.FILTER, "trigrams(x.name, y.name)", "0.3", -1, -1, 0);
+            filter.setMainThreshold("0.5");
+            Instruction reverse = new Instruction(Command.REVERSEFILTER, "trigrams(x.name, y.name)", "0.3", -1, -1,
+                    0);
+            reverse.setMainThreshold("0.5");
+            Instruction cut = new Instruction(Command.FILTER, null, "0.5", -1, -1, 0);
+            for (Instruction inst : new Instruction[] { filter, reverse, cut }) {
+                AMapping expected = inst.getCommand().equals(Command.FILTER) ? ee.executeFilter(inst, input)
+                        : new LinearFilter().reversefilter(input, inst.getMeasureExpression(), 0.3, 0.5, source,
+                                target, "?x", "?y");
+                // a filter on the single subplan is applied while it runs
+                NestedPlan sub = new NestedPlan();
+                sub.addInstruction(runInstruction);
+                NestedPlan plan = new NestedPlan();
+                plan.setSubPlans(new ArrayList<>(Arrays.asList(sub)));
+                plan.setFilteringInstruction(inst);
+                assertEquals(expected, ee.executeStatic(plan));
+            }
+        }
+    }
+
+    @Test
+    public void testSharedRuns() {
+        System.out.println("testSharedRuns");
+        LinkSpecification ls = new LinkSpecification(
+                "OR(AND(trigrams(x.name,y.name)|0.8,qgrams(x.surname,y.surname)|0.3)|0.3,AND(trigrams(x.name,y.name)|0.4,exactmatch(x.age,y.age)|0.5)|0.3)",
+                0.3);
+        NestedPlan plan = new CanonicalPlanner().plan(ls);
+        NestedPlan unshared = plan.clone();
+        unshared.setSharedRuns(null);
+
+        SimpleExecutionEngine ee = new SimpleExecutionEngine(source, target, "?x", "?y");
+        Map<String, AMapping> runs = new HashMap<>();
+        ee.setAtomicMappings(runs);
+        AMapping m = ee.executeStatic(plan);
+        // the trigrams join only ran with the lower threshold
+        assertTrue(runs.containsKey("trigrams(x.name,y.name)|0.4"));
+        assertFalse(runs.containsKey("trigrams(x.name,y.name)|0.8"));
+        assertEquals(new SimpleExecutionEngine(source, target, "?x", "?y").executeStatic(unshared), m);
+        assertTrue(m.size() > 0);
+    }
+
+    @Test
+    public void testConcurrentAtomicMappings() throws Exception {
+        System.out.println("testConcurrentAtomicMappings");
+        LinkSpecification ls = new LinkSpecification(
+                "OR(trigrams(x.name,y.name)|0.4,qgrams(x.surname,y.surname)|0.3)", 0.3);
+        NestedPlan plan = new CanonicalPlanner().plan(ls);
+        AMapping expected = new SimpleExecutionEngine(source, target, "?x", "?y").executeStatic(plan);
+        Map<String, AMapping> runs = new ConcurrentHashMap<>();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<AMapping>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                results.add(pool.submit(() -> {
+                    SimpleExecutionEngine ee = new SimpleExecutionEngine(source, target, "?x", "?y");
+                    ee.setAtomicMappings(runs);
+                    return ee.executeStatic(plan);
+                }));
+            }
+            for (Future<AMapping> result : results) {
+                assertEquals(expected, result.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(2, runs.size());
+        // the memoized mappings are only read, their reversed maps are
+        // never built
+        for (AMapping memoized : runs.values()) {
+            assertTrue(memoized.size() > 0);
+            assertTrue(memoized.getReversedMap().isEmpty());
+        }
+    }
+
+    @Test
+    public void testMemoryBudget() throws IOException {
+        System.out.println("testMemoryBudget");
+        SimpleExecutionEngine ee = new SimpleExecutionEngine(source, target, "?x", "?y");
+        SimpleExecutionEngine spilling = new SimpleExecutionEngine(source, target, "?x", "?y");
+        // every intermediate mapping is spilled
+        spilling.setMemoryBudget(0);
+        File runs = Files.createTempDirectory("limes-runs").toFile();
+        spilling.setSpillFolder(runs);
+
+        Plan plan = new Plan();
+        plan.addInstruction(new Instruction(Command.RUN, "qgrams(x.surname, y.surname)", "0.3", -1, -1, 0));
+        plan.addInstruction(new Instruction(Command.RUN, "trigrams(x.name, y.name)", "0.3", -1, -1, 1));
+        plan.addInstruction(new Instruction(Command.RUN, "exactmatch(x.age, y.age)", "0.3", -1, -1, 2));
+        plan.addInstruction(new Instruction(Command.UNION, "", "0.3", 0, 1, 3));
+        plan.addInstruction(new Instruction(Command.INTERSECTION, "", "0.3", 3, 2, 4));
+        AMapping expected = ee.executeInstructions(plan);
+        AMapping m = spilling.executeInstructions(plan);
+        assertTrue(expected.size() > 0);
+        // the operands are released once the intersection is computed
+        assertTrue(spilling.buffer.get(0).getMap().isEmpty());
+        assertTrue(spilling.buffer.get(3).getMap().isEmpty());
+        assertEquals(expected.getMap(), m.getMap());
+
+        for (String spec : new String[] { "OR(qgrams(x.surname,y.surname)|0.4,trigrams(x.name,y.name)|0.4)",
+                "AND(OR(qgrams(x.surname,y.surname)|0.4,trigrams(x.name,y.name)|0.4)|0.3,exactmatch(x.age,y.age)|0.5)",
+                "MINUS(OR(qgrams(x.surname,y.surname)|0.4,trigrams(x.name,y.name)|0.4)|0.3,exactmatch(x.age,y.age)|0.5)" }) {
+            LinkSpecification ls = new LinkSpecification(spec, 0.3);
+            assertEquals(ee.execute(ls, new CanonicalPlanner()).getMap(),
+                    spilling.execute(ls, new CanonicalPlanner()).getMap());
+            assertEquals(ee.execute(ls, new DynamicPlanner(source, target)).getMap(),
+                    spilling.execute(ls, new DynamicPlanner(source, target)).getMap());
+        }
+        // every run was deleted once its mapping was released or loaded
+        assertEquals(0, runs.list().length);
+        runs.delete();
+    }
+
 }
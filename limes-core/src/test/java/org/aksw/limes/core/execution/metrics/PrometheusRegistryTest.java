@@ -0,0 +1,30 @@
+package org.aksw.limes.core.execution.metrics;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringWriter;
+
+import org.aksw.limes.core.execution.planning.plan.Instruction.Command;
+import org.junit.Test;
+
+public class PrometheusRegistryTest {
+
+    @Test
+    public void testWrite() throws Exception {
+        PrometheusRegistry registry = new PrometheusRegistry();
+        registry.record(new InstructionMetrics(Command.RUN, "trigrams(x.name,y.name)", 0.5, 2000000000L, -1, -1, 10,
+                20, 5, 40));
+        registry.record(new InstructionMetrics(Command.RUN, "Trigrams(x.label,y.label)", 0.8, 1000000000L, -1, -1,
+                10, 20, 3, -1));
+        registry.record(new InstructionMetrics(Command.UNION, null, Double.NaN, 500000000L, -1, -1, 5, 3, 7, -1));
+        StringWriter writer = new StringWriter();
+        registry.write(writer);
+        String text = writer.toString();
+        assertTrue(text.contains("# TYPE limes_instructions_total counter\n"));
+        assertTrue(text.contains("limes_instructions_total{command=\"run\",measure=\"trigrams\"} 2\n"));
+        assertTrue(text.contains("limes_instruction_wall_seconds_total{command=\"run\",measure=\"trigrams\"} 3\n"));
+        assertTrue(text.contains("limes_instruction_candidates_total{command=\"run\",measure=\"trigrams\"} 40\n"));
+        assertTrue(text.contains("limes_instruction_links_total{command=\"union\",measure=\"none\"} 7\n"));
+        assertTrue(text.contains("limes_jobs_total 0\n"));
+    }
+}
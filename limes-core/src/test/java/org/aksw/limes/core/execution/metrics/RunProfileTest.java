@@ -0,0 +1,94 @@
+package org.aksw.limes.core.execution.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.util.List;
+
+import org.aksw.limes.core.execution.engine.SimpleExecutionEngine;
+import org.aksw.limes.core.execution.planning.plan.Instruction.Command;
+import org.aksw.limes.core.execution.planning.planner.CanonicalPlanner;
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.MemoryCache;
+import org.aksw.limes.core.io.ls.LinkSpecification;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RunProfileTest {
+
+    private ACache source;
+    private ACache target;
+
+    @Before
+    public void setUp() {
+        source = new MemoryCache();
+        target = new MemoryCache();
+        source.addTriple("S1", "name", "kleanthi");
+        source.addTriple("S1", "surname", "georgala");
+        source.addTriple("S2", "name", "lukas");
+        source.addTriple("S2", "surname", "sandra");
+        source.addTriple("S3", "name", "johny");
+        source.addTriple("S3", "surname", "depp");
+        target.addTriple("T1", "name", "klea");
+        target.addTriple("T1", "surname", "georgala");
+        target.addTriple("T2", "name", "lukas");
+        target.addTriple("T2", "surname", "sandra");
+        target.addTriple("T3", "name", "johnny");
+        target.addTriple("T3", "surname", "derp");
+    }
+
+    @Test
+    public void testEngineRecordsInstructions() {
+        RunProfile profile = new RunProfile();
+        SimpleExecutionEngine engine = new SimpleExecutionEngine(source, target, "?x", "?y");
+        engine.setMetrics(profile);
+        LinkSpecification ls = new LinkSpecification(
+                "OR(trigrams(x.name,y.name)|0.5,exactmatch(x.surname,y.surname)|0.5)", 0.5);
+        AMapping m = engine.execute(ls, new CanonicalPlanner());
+
+        List<InstructionMetrics> instructions = profile.getInstructions();
+        assertTrue(instructions.size() >= 3);
+        int runs = 0;
+        for (InstructionMetrics i : instructions) {
+            assertTrue(i.getWallNanos() >= 0);
+            if (i.getCommand() == Command.RUN) {
+                runs++;
+                assertEquals(3, i.getInput());
+                assertEquals(3, i.getSecondInput());
+                assertTrue(i.getOutput() <= 9);
+            }
+        }
+        assertEquals(2, runs);
+        InstructionMetrics last = instructions.get(instructions.size() - 1);
+        assertEquals(m.size(), last.getOutput());
+    }
+
+    @Test
+    public void testWrite() throws Exception {
+        RunProfile profile = new RunProfile();
+        profile.record(new InstructionMetrics(Command.RUN, "trigrams(x.name,y.name)", 0.5, 2000000, 1000000, 512,
+                10, 20, 5, 40));
+        JobMetrics job = new JobMetrics("42");
+        job.setCaches(source, target, 3000000);
+        job.setResult(4000000, 2, 1);
+        profile.record(job);
+        StringWriter writer = new StringWriter();
+        profile.write(writer);
+        String json = writer.toString();
+        assertTrue(json.contains("\"id\": \"42\""));
+        assertTrue(json.contains("\"sourceTriples\": 6"));
+        assertTrue(json.contains("\"measure\": \"trigrams(x.name,y.name)\""));
+        assertTrue(json.contains("\"candidates\": 40"));
+        assertTrue(json.contains("\"selectivity\": 0.025"));
+    }
+
+    @Test
+    public void testGetProfileFile() {
+        File file = RunProfile.getProfileFile("out" + File.separator + "accepted.nt");
+        assertEquals("accepted" + RunProfile.PROFILE_SUFFIX, file.getName());
+        assertEquals("out", file.getParentFile().getName());
+    }
+}
@@ -0,0 +1,84 @@
+package org.aksw.limes.core.execution.planning.cost;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.aksw.limes.core.measures.measure.MeasureType;
+import org.junit.Test;
+
+public class CostProfileTest {
+
+    @Test
+    public void testFitLinearModel() {
+        double[][] observations = new double[4][];
+        int[] sizes = { 100, 200, 400, 800 };
+        for (int i = 0; i < sizes.length; i++) {
+            observations[i] = new double[] { sizes[i], sizes[i], 5 + 0.01 * 2 * sizes[i], 0 };
+        }
+        assertArrayEquals(new double[] { 5, 0.01, 0 }, CostProfile.fitRuntimeModel(observations), 1e-9);
+    }
+
+    @Test
+    public void testFitQuadraticModel() {
+        double[][] observations = new double[5][];
+        int[] sizes = { 100, 200, 400, 800, 1600 };
+        for (int i = 0; i < sizes.length; i++) {
+            observations[i] = new double[] { sizes[i], sizes[i] / 2, 1e-4 * sizes[i] * (sizes[i] / 2), 0 };
+        }
+        assertArrayEquals(new double[] { 0, 0, 1e-4 }, CostProfile.fitRuntimeModel(observations), 1e-9);
+    }
+
+    @Test
+    public void testSingleObservation() {
+        CostProfile profile = new CostProfile(null);
+        assertEquals(-1, profile.getRuntime(MeasureType.TRIGRAM, 0.8, 1000, 1000), 0);
+        profile.recordRun(MeasureType.TRIGRAM, 0.8, 1000, 1000, 20, 50);
+        // proportional to |S| + |T|
+        assertEquals(40, profile.getRuntime(MeasureType.TRIGRAM, 0.8, 2000, 2000), 1e-9);
+        // selectivity 50 / 10^6
+        assertEquals(200, profile.getMappingSize(MeasureType.TRIGRAM, 0.8, 2000, 2000), 1e-9);
+        // the runtime is taken from the closest bucket, the size only from
+        // the neighbouring ones
+        assertEquals(20, profile.getRuntime(MeasureType.TRIGRAM, 0.3, 1000, 1000), 1e-9);
+        assertEquals(50, profile.getMappingSize(MeasureType.TRIGRAM, 0.75, 1000, 1000), 1e-9);
+        assertEquals(-1, profile.getMappingSize(MeasureType.TRIGRAM, 0.3, 1000, 1000), 0);
+        assertEquals(-1, profile.getRuntime(MeasureType.LEVENSHTEIN, 0.8, 1000, 1000), 0);
+    }
+
+    @Test
+    public void testFilterRuntime() {
+        CostProfile profile = new CostProfile(null);
+        assertEquals(-1, profile.getFilterRuntime(MeasureType.COSINE, 100), 0);
+        profile.recordFilter(MeasureType.COSINE, 1000, 2);
+        profile.recordFilter(MeasureType.COSINE, 3000, 6);
+        assertEquals(0.2, profile.getFilterRuntime(MeasureType.COSINE, 100), 1e-9);
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        File file = File.createTempFile("cost-profile", ".tsv");
+        try {
+            CostProfile profile = new CostProfile(file);
+            for (int size : Arrays.asList(100, 200, 400)) {
+                profile.recordRun(MeasureType.LEVENSHTEIN, 0.9, size, size, 1 + 0.5 * size, size / 10);
+            }
+            profile.recordFilter(MeasureType.LEVENSHTEIN, 100, 1);
+            profile.save();
+
+            CostProfile loaded = CostProfile.load(file);
+            assertEquals(profile.getRuntime(MeasureType.LEVENSHTEIN, 0.95, 300, 300),
+                    loaded.getRuntime(MeasureType.LEVENSHTEIN, 0.95, 300, 300), 1e-9);
+            assertEquals(profile.getMappingSize(MeasureType.LEVENSHTEIN, 0.95, 300, 300),
+                    loaded.getMappingSize(MeasureType.LEVENSHTEIN, 0.95, 300, 300), 1e-9);
+            assertEquals(0.5, loaded.getFilterRuntime(MeasureType.LEVENSHTEIN, 50), 1e-9);
+            assertTrue(loaded.getRuntime(MeasureType.LEVENSHTEIN, 0.95, 300, 300) > 0);
+        } finally {
+            file.delete();
+        }
+    }
+}
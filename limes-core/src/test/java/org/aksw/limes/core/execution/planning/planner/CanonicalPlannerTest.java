@@ -1,5 +1,7 @@
 package org.aksw.limes.core.execution.planning.planner;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
@@ -172,4 +174,24 @@ public class CanonicalPlannerTest {
         assertTrue(plan.equals(planNew));
     }
 
+    @Test
+    public void SharedRuns() {
+        System.out.println("SharedRuns");
+
+        CanonicalPlanner p = new CanonicalPlanner();
+        LinkSpecification ls = new LinkSpecification(
+                "OR(AND(trigrams(x.name,y.name)|0.8,jaccard(x.surname,y.surname)|0.5)|0.3,AND(trigrams(x.name, y.name)|0.6,qgrams(x.surname,y.surname)|0.5)|0.3)",
+                0.3);
+        NestedPlan plan = p.plan(ls);
+        // only the trigrams join is run twice
+        assertEquals(1, plan.getSharedRuns().size());
+        assertEquals(0.6, plan.getSharedRuns().get("trigrams(x.name,y.name)"), 0d);
+        for (NestedPlan subPlan : plan.getSubPlans()) {
+            assertNull(subPlan.getSharedRuns());
+        }
+        assertEquals(plan.getSharedRuns(), plan.clone().getSharedRuns());
+
+        assertNull(p.plan(new LinkSpecification("jaccard(x.surname, y.surname)", 0.8)).getSharedRuns());
+    }
+
 }
@@ -1,10 +1,12 @@
 package org.aksw.limes.core.execution.planning.planner;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.List;
 
+import org.aksw.limes.core.execution.planning.cost.CostProfile;
 import org.aksw.limes.core.execution.planning.plan.Instruction;
 import org.aksw.limes.core.execution.planning.plan.Instruction.Command;
 import org.aksw.limes.core.execution.planning.plan.NestedPlan;
@@ -12,6 +14,7 @@ import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.cache.MemoryCache;
 import org.aksw.limes.core.io.ls.ExtendedLinkSpecification;
 import org.aksw.limes.core.io.ls.LinkSpecification;
+import org.aksw.limes.core.measures.measure.MeasureType;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -72,6 +75,32 @@ public class HeliosPlannerTest {
 
     }
 
+    @Test
+    public void testPlanIsDeterministicWithEmptyProfile() {
+        LinkSpecification ls = new LinkSpecification(
+                "AND(cosine(x.name,y.name)|0.5,OR(trigram(x.surname,y.surname)|0.6,levenshtein(x.name,y.name)|0.7)|0.6)",
+                0.6);
+        CostProfile profile = new CostProfile(null);
+        HeliosPlanner p = new HeliosPlanner(source, target);
+        p.setCostProfile(profile);
+        NestedPlan first = p.plan(ls);
+        assertEquals(first, p.plan(ls));
+
+        // partially calibrated profiles are not mixed with the approximations
+        for (MeasureType type : new MeasureType[] { MeasureType.COSINE, MeasureType.TRIGRAM }) {
+            profile.recordRun(type, 0.6, 5, 5, 1000, 5);
+            profile.recordFilter(type, 5, 1000);
+        }
+        NestedPlan partial = p.plan(ls);
+        assertEquals(first, partial);
+        assertEquals(first.getRuntimeCost(), partial.getRuntimeCost(), 0);
+        assertEquals(first.toString(), partial.toString());
+
+        profile.recordRun(MeasureType.LEVENSHTEIN, 0.7, 5, 5, 1000, 5);
+        profile.recordFilter(MeasureType.LEVENSHTEIN, 5, 1000);
+        assertTrue(p.plan(ls).getRuntimeCost() > first.getRuntimeCost());
+    }
+
     @Test
     public void EmptyPlan() {
         System.out.println("EmptyPlan");
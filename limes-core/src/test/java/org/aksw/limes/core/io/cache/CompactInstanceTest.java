@@ -0,0 +1,94 @@
+package org.aksw.limes.core.io.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class CompactInstanceTest {
+
+    @Test
+    public void testSameContentAsInstance() {
+        Instance expected = new Instance("S1");
+        Instance actual = new CompactInstance("S1", new PropertyDictionary());
+        for (Instance i : Arrays.asList(expected, actual)) {
+            i.addProperty("name", "kleanthi");
+            i.addProperty("label", "b");
+            i.addProperty("label", "c");
+            i.addProperty("label", "a");
+            i.addProperty("label", "b");
+            i.addProperty("alt", new TreeSet<>(Arrays.asList("y", "x")));
+            i.addProperty("alt", new TreeSet<>(Arrays.asList("z")));
+            i.replaceProperty("name", new TreeSet<>(Arrays.asList("klea")));
+        }
+        assertEquals(expected.getAllProperties(), actual.getAllProperties());
+        for (String p : Arrays.asList("name", "label", "alt", "missing")) {
+            assertEquals(expected.getProperty(p), actual.getProperty(p));
+            assertEquals(new ArrayList<>(expected.getProperty(p)), new ArrayList<>(actual.getProperty(p)));
+        }
+        actual.removePropery("label");
+        assertFalse(actual.getAllProperties().contains("label"));
+        assertTrue(actual.getProperty("label").isEmpty());
+    }
+
+    @Test
+    public void testReadOnlyView() {
+        CompactInstance instance = new CompactInstance("S1", new PropertyDictionary());
+        instance.addProperty("label", "b");
+        instance.addProperty("label", "d");
+        TreeSet<String> values = instance.getProperty("label");
+        assertEquals("b", values.first());
+        assertEquals("d", values.last());
+        assertEquals("b", values.lower("c"));
+        assertEquals("d", values.ceiling("c"));
+        assertNull(values.higher("d"));
+        assertTrue(values.contains("d"));
+        assertEquals(1, values.headSet("c").size());
+        try {
+            values.add("a");
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        Instance copy = instance.copy();
+        copy.addProperty("label", "a");
+        assertEquals(2, instance.getProperty("label").size());
+        assertEquals(3, copy.getProperty("label").size());
+    }
+
+    @Test
+    public void testCompactCache() throws Exception {
+        HybridCache cache = new HybridCache();
+        cache.setCompact(true);
+        cache.addTriple("S1", "name", "kleanthi");
+        cache.addTriple("S2", "name", "lukas");
+        cache.addTriple("S2", "surname", "sandra");
+        assertTrue(cache.getInstance("S1") instanceof CompactInstance);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(cache);
+        }
+        HybridCache loaded;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            loaded = (HybridCache) in.readObject();
+        }
+        assertEquals(2, loaded.size());
+        assertEquals(new TreeSet<>(Arrays.asList("sandra")), loaded.getInstance("S2").getProperty("surname"));
+
+        ACache processed = cache.addProperty("name", "lowerName", "lowercase");
+        assertTrue(processed.getInstance("S1") instanceof CompactInstance);
+        assertEquals("kleanthi", processed.getInstance("S1").getProperty("lowerName").first());
+    }
+}
@@ -0,0 +1,159 @@
+package org.aksw.limes.core.io.mapping;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.MemoryCache;
+import org.aksw.limes.core.measures.mapper.space.VectorMapper;
+import org.aksw.limes.core.measures.mapper.string.MinHashLSHMapper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AtomicMappingStoreTest {
+
+    private File folder;
+
+    @Before
+    public void setUp() throws IOException {
+        folder = Files.createTempDirectory("mapping-store").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        for (File file : folder.listFiles()) {
+            file.delete();
+        }
+        folder.delete();
+    }
+
+    private AMapping createMapping() {
+        AMapping m = MappingFactory.createDefaultMapping();
+        m.add("s1", "t1", 0.5);
+        m.add("s1", "t2", 0.8);
+        m.add("s2", "t2", 1d);
+        return m;
+    }
+
+    @Test
+    public void testThresholds() {
+        AtomicMappingStore store = new AtomicMappingStore(folder, AtomicMappingStore.DEFAULT_MAX_SIZE);
+        assertNull(store.get("key", 0.5));
+        store.put("key", 0.5, createMapping());
+        assertEquals(createMapping(), store.get("key", 0.5));
+        assertNull(store.get("key", 0.4));
+
+        AMapping filtered = store.get("key", 0.7);
+        assertEquals(2, filtered.getNumberofMappings());
+        assertFalse(filtered.contains("s1", "t1"));
+
+        // a higher threshold does not replace the stored result
+        AMapping partial = MappingFactory.createDefaultMapping();
+        partial.add("s2", "t2", 1d);
+        store.put("key", 0.9, partial);
+        assertEquals(createMapping(), store.get("key", 0.5));
+
+        // a lower one does, also for new instances of the store
+        AMapping lower = createMapping();
+        lower.add("s3", "t1", 0.3);
+        store.put("key", 0.3, lower);
+        AtomicMappingStore reopened = new AtomicMappingStore(folder, AtomicMappingStore.DEFAULT_MAX_SIZE);
+        assertEquals(lower, reopened.get("key", 0.3));
+        assertEquals(createMapping(), reopened.get("key", 0.5));
+    }
+
+    @Test
+    public void testEviction() {
+        AtomicMappingStore store = new AtomicMappingStore(folder, 1);
+        store.put("a", 0.5, createMapping());
+        assertNull(store.get("a", 0.5));
+        store = new AtomicMappingStore(folder, 1 << 20);
+        for (String key : new String[] { "a", "b", "c" }) {
+            store.put(key, 0.5, createMapping());
+        }
+        long size = 0;
+        for (File file : folder.listFiles()) {
+            size += file.length();
+        }
+        // room for three and a half entries
+        store = new AtomicMappingStore(folder, size + size / 6);
+        assertTrue(folder.listFiles()[0].setLastModified(0));
+        store.put("d", 0.5, createMapping());
+        assertEquals(3, folder.listFiles().length);
+        assertNotNull(store.get("d", 0.5));
+    }
+
+    @Test
+    public void testKey() {
+        ACache source = new MemoryCache();
+        source.addTriple("s1", "name", "abc");
+        source.addTriple("s1", "other", "x");
+        ACache target = new MemoryCache();
+        target.addTriple("t1", "label", "abd");
+        String key = AtomicMappingStore.getKey("trigram(x.name, y.label)", 0.5, source, target);
+        assertEquals(key, AtomicMappingStore.getKey("trigram(x.name,y.label)", 0.9, source, target));
+        assertNotEquals(key, AtomicMappingStore.getKey("levenshtein(x.name, y.label)", 0.5, source, target));
+
+        ACache changed = new MemoryCache();
+        changed.addTriple("s1", "name", "abc ");
+        changed.addTriple("s1", "other", "x");
+        assertNotEquals(key, AtomicMappingStore.getKey("trigram(x.name, y.label)", 0.5, changed, target));
+
+        ACache unrelated = new MemoryCache();
+        unrelated.addTriple("s1", "name", "abc");
+        unrelated.addTriple("s1", "other", "y");
+        assertEquals(key, AtomicMappingStore.getKey("trigram(x.name, y.label)", 0.5, unrelated, target));
+
+        // a change in place that keeps the size of the cache
+        source.getInstance("s1").addProperty("name", "abe");
+        assertNotEquals(key, AtomicMappingStore.getKey("trigram(x.name, y.label)", 0.5, source, target));
+    }
+
+    @Test
+    public void testKeyOfMapperParameters() {
+        ACache source = new MemoryCache();
+        source.addTriple("s1", "name", "abc");
+        ACache target = new MemoryCache();
+        target.addTriple("t1", "label", "abd");
+        String expression = "approx_jaccard(x.name, y.label)";
+        MinHashLSHMapper mapper = new MinHashLSHMapper();
+        String key = AtomicMappingStore.getKey(expression, 0.5, source, target);
+        assertEquals(key, AtomicMappingStore.getKey(expression, 0.5, source, target, mapper));
+        mapper.setRecall(0.5);
+        assertNotEquals(key, AtomicMappingStore.getKey(expression, 0.5, source, target, mapper));
+    }
+
+    @Test
+    public void testProbeRatiosMissEachOther() {
+        ACache source = new MemoryCache();
+        source.addTriple("s1", "vec", "[1, 0]");
+        ACache target = new MemoryCache();
+        target.addTriple("t1", "vec", "[1, 0.1]");
+        String expression = "vector_cosine(x.vec, y.vec)";
+        VectorMapper exact = new VectorMapper();
+        VectorMapper approximate = new VectorMapper();
+        approximate.setProbeRatio(0.125);
+        VectorMapper probed = new VectorMapper();
+        probed.setProbeRatio(0.5);
+        String approximateKey = AtomicMappingStore.getKey(expression, 0.5, source, target, approximate);
+        AtomicMappingStore store = new AtomicMappingStore(folder, AtomicMappingStore.DEFAULT_MAX_SIZE);
+        store.put(approximateKey, 0.5, createMapping());
+        assertNotNull(store.get(approximateKey, 0.5));
+        assertNull(store.get(AtomicMappingStore.getKey(expression, 0.5, source, target, probed), 0.5));
+        assertNull(store.get(AtomicMappingStore.getKey(expression, 0.5, source, target, exact), 0.5));
+        VectorMapper limited = new VectorMapper();
+        limited.setBruteForceLimit(0);
+        assertNull(store.get(AtomicMappingStore.getKey(expression, 0.5, source, target, limited), 0.5));
+        assertEquals(AtomicMappingStore.getKey(expression, 0.5, source, target),
+                AtomicMappingStore.getKey(expression, 0.5, source, target, exact));
+    }
+}
@@ -0,0 +1,114 @@
+package org.aksw.limes.core.io.mapping;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.aksw.limes.core.measures.mapper.MappingOperations;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileMappingTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private AMapping createMapping() {
+        AMapping m = MappingFactory.createDefaultMapping();
+        m.add("s2", "t1", 0.5);
+        m.add("s1", "t2", 0.8);
+        m.add("s1", "t1", 0.3);
+        m.add("ä", "t3", 1d);
+        return m;
+    }
+
+    @Test
+    public void testSpill() {
+        AMapping m = createMapping();
+        FileMapping spilled = FileMapping.spill(m, folder.getRoot());
+        assertTrue(spilled.isSpilled());
+        assertTrue(spilled.getFile().exists());
+        assertEquals(4, spilled.size());
+        assertEquals(4, spilled.getNumberofMappings());
+        assertEquals(0, spilled.getEstimatedSize());
+
+        // links are read in order without loading the mapping
+        List<String> links = new ArrayList<>();
+        spilled.forEachLink((s, t, sim) -> links.add(s + " " + t));
+        assertEquals(Arrays.asList("s1 t1", "s1 t2", "s2 t1", "ä t3"), links);
+        assertEquals(2, spilled.getSubMap(0.8).size());
+        assertTrue(spilled.isSpilled());
+
+        // loading deletes the run
+        File file = spilled.getFile();
+        assertEquals(m.getMap(), spilled.getMap());
+        assertFalse(spilled.isSpilled());
+        assertFalse(file.exists());
+        assertNull(spilled.getFile());
+        assertTrue(spilled.getEstimatedSize() > 0);
+
+        // a changed mapping is written again
+        spilled.add("s3", "t3", 0.2);
+        spilled.spill(folder.getRoot());
+        assertEquals(5, spilled.size());
+        assertEquals(0.2, spilled.getConfidence("s3", "t3"), 0d);
+
+        spilled.spill(folder.getRoot());
+        file = spilled.getFile();
+        spilled.delete();
+        assertFalse(file.exists());
+        assertEquals(0, spilled.size());
+    }
+
+    @Test
+    public void testSetOperations() {
+        AMapping a = createMapping();
+        AMapping b = MappingFactory.createDefaultMapping();
+        b.add("s1", "t1", 0.9);
+        b.add("s2", "t1", 0.4);
+        b.add("s4", "t4", 0.6);
+        FileMapping spilledA = FileMapping.spill(a, folder.getRoot());
+        FileMapping spilledB = FileMapping.spill(b, folder.getRoot());
+
+        for (AMapping[] operands : new AMapping[][] { { spilledA, b }, { a, spilledB }, { spilledA, spilledB } }) {
+            AMapping union = MappingOperations.union(operands[0], operands[1]);
+            assertTrue(FileMapping.isSpilled(union));
+            assertEquals(MappingOperations.union(a, b).getMap(), union.getMap());
+            AMapping intersection = MappingOperations.intersection(operands[0], operands[1]);
+            assertEquals(MappingOperations.intersection(a, b).getMap(), intersection.getMap());
+            AMapping difference = MappingOperations.difference(operands[0], operands[1]);
+            assertEquals(MappingOperations.difference(a, b).getMap(), difference.getMap());
+            AMapping reverse = MappingOperations.difference(operands[1], operands[0]);
+            assertEquals(MappingOperations.difference(b, a).getMap(), reverse.getMap());
+        }
+        assertTrue(spilledA.isSpilled());
+        assertTrue(spilledB.isSpilled());
+    }
+
+    @Test
+    public void testEquals() {
+        FileMapping spilled = FileMapping.spill(createMapping(), folder.getRoot());
+        FileMapping other = FileMapping.spill(createMapping(), folder.getRoot());
+        FileMapping loaded = new FileMapping();
+        createMapping().getMap().forEach(loaded::add);
+        assertEquals(spilled, other);
+        assertEquals(spilled, loaded);
+        assertEquals(loaded, spilled);
+        assertEquals(loaded.hashCode(), spilled.hashCode());
+
+        // same number of links, one similarity differs
+        AMapping changed = createMapping();
+        changed.getMap().get("s1").put("t1", 0.4);
+        assertFalse(spilled.equals(FileMapping.spill(changed, folder.getRoot())));
+        assertFalse(spilled.equals(loaded.getSubMap(0.5)));
+        assertTrue(spilled.isSpilled());
+        assertTrue(other.isSpilled());
+    }
+}
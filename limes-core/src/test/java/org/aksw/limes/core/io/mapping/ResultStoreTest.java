@@ -0,0 +1,69 @@
+package org.aksw.limes.core.io.mapping;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ResultStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File createStore() throws Exception {
+        AMapping m = MappingFactory.createDefaultMapping();
+        m.add("http://a/s2", "t1", 0.5);
+        m.add("http://a/s1", "t2", 0.8);
+        m.add("http://a/s1", "t1", 0.3);
+        m.add("http://b/s3", "t3", 1d);
+        m.add("http://b/ä", "t4", 0.8);
+        // longer than a chunk of the random reads
+        char[] longUri = new char[1000];
+        Arrays.fill(longUri, 'x');
+        m.add("http://c/" + new String(longUri), "t5", 0.1);
+        File file = folder.newFile();
+        ResultStore.write(m, file);
+        return file;
+    }
+
+    private static List<String> query(ResultStore store, String prefix, double min, double max, long offset,
+            int limit, long total) throws Exception {
+        List<String> links = new ArrayList<>();
+        assertEquals(total, store.query(prefix, min, max, offset, limit, (s, t, sim) -> links.add(s + " " + t)));
+        return links;
+    }
+
+    @Test
+    public void testPagesBySimilarity() throws Exception {
+        try (ResultStore store = ResultStore.open(createStore())) {
+            assertEquals(6, store.size());
+            assertEquals(Arrays.asList("http://b/s3 t3", "http://a/s1 t2", "http://b/ä t4"),
+                    query(store, null, 0, 1, 0, 3, 6));
+            assertEquals(Arrays.asList("http://a/s2 t1", "http://a/s1 t1"), query(store, null, 0.2, 1, 3, 10, 5));
+            assertEquals(Arrays.asList("http://b/ä t4", "http://a/s2 t1"), query(store, null, 0.5, 0.8, 1, 10, 3));
+            assertEquals(0, query(store, null, 0.9, 0.95, 0, 10, 0).size());
+            assertEquals(0, query(store, null, 0, 1, 6, 10, 6).size());
+            assertTrue(query(store, null, 0, 0.2, 0, 10, 1).get(0).endsWith("xx t5"));
+        }
+    }
+
+    @Test
+    public void testPagesBySourcePrefix() throws Exception {
+        try (ResultStore store = ResultStore.open(createStore())) {
+            assertEquals(Arrays.asList("http://a/s1 t2", "http://a/s2 t1", "http://a/s1 t1"),
+                    query(store, "http://a/", 0, 1, 0, 10, 3));
+            assertEquals(Arrays.asList("http://a/s2 t1"), query(store, "http://a/", 0, 1, 1, 1, 3));
+            assertEquals(Arrays.asList("http://a/s1 t2", "http://a/s1 t1"), query(store, "http://a/s1", 0, 1, 0, 10, 2));
+            assertEquals(Arrays.asList("http://b/ä t4"), query(store, "http://b/", 0, 0.9, 0, 10, 1));
+            assertEquals(0, query(store, "http://d/", 0, 1, 0, 10, 0).size());
+            assertEquals(1, query(store, "http://c/", 0, 1, 0, 10, 1).size());
+        }
+    }
+}
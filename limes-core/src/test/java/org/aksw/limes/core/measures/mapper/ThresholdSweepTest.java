@@ -0,0 +1,96 @@
+package org.aksw.limes.core.measures.mapper;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.aksw.limes.core.datastrutures.GoldStandard;
+import org.aksw.limes.core.evaluation.qualititativeMeasures.FMeasure;
+import org.aksw.limes.core.evaluation.qualititativeMeasures.PseudoFMeasure;
+import org.aksw.limes.core.evaluation.qualititativeMeasures.PseudoPrecision;
+import org.aksw.limes.core.evaluation.qualititativeMeasures.PseudoRecall;
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.MemoryCache;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.aksw.limes.core.measures.mapper.string.PPJoinPlusPlus;
+import org.junit.Test;
+
+public class ThresholdSweepTest {
+
+    private static final double[] THRESHOLDS = { 1d, 0.9, 0.81, 0.729, 0.6561, 0.59049, 0.531441, 0.4782969 };
+
+    private AMapping generate(Random random, int sources, int targets, int links) {
+        AMapping m = MappingFactory.createDefaultMapping();
+        for (int i = 0; i < links; i++) {
+            // few distinct confidences to get ties
+            m.add("s" + random.nextInt(sources), "t" + random.nextInt(targets),
+                    0.45 + random.nextInt(12) * 0.05);
+        }
+        return m;
+    }
+
+    @Test
+    public void testMappings() {
+        AMapping m = generate(new Random(1), 50, 50, 300);
+        ThresholdSweep sweep = new ThresholdSweep(m);
+        assertEquals(m.getNumberofMappings(), sweep.size());
+        for (double threshold : THRESHOLDS) {
+            assertEquals(m.getSubMap(threshold), sweep.getMapping(threshold));
+            assertEquals(m.getSubMap(threshold).getNumberofMappings(), sweep.getLinkCount(threshold));
+        }
+    }
+
+    @Test
+    public void testFMeasures() {
+        Random random = new Random(2);
+        AMapping m = generate(random, 50, 50, 300);
+        AMapping reference = generate(random, 50, 50, 100);
+        double[] fMeasures = new ThresholdSweep(m).getFMeasures(THRESHOLDS, reference);
+        for (int i = 0; i < THRESHOLDS.length; i++) {
+            assertEquals(new FMeasure().calculate(m.getSubMap(THRESHOLDS[i]), new GoldStandard(reference)),
+                    fMeasures[i], 1e-12);
+        }
+    }
+
+    @Test
+    public void testPseudoFMeasures() {
+        AMapping m = generate(new Random(3), 50, 80, 300);
+        List<String> sourceUris = new ArrayList<>(), targetUris = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            sourceUris.add("s" + i);
+        }
+        for (int i = 0; i < 80; i++) {
+            targetUris.add("t" + i);
+        }
+        GoldStandard gold = new GoldStandard(null, sourceUris, targetUris);
+        double[] pseudoFMeasures = new ThresholdSweep(m).getPseudoFMeasures(THRESHOLDS, 50, 80, true);
+        double[] asymmetric = new ThresholdSweep(m).getPseudoFMeasures(THRESHOLDS, 50, 80, false);
+        for (int i = 0; i < THRESHOLDS.length; i++) {
+            AMapping subMap = m.getSubMap(THRESHOLDS[i]);
+            assertEquals(new PseudoFMeasure().calculate(subMap, gold), pseudoFMeasures[i], 1e-12);
+            double p = new PseudoPrecision(false).calculate(subMap, gold);
+            double r = new PseudoRecall().calculate(subMap, gold);
+            assertEquals(2 * p * r / (p + r), asymmetric[i], 1e-12);
+        }
+    }
+
+    @Test
+    public void testMapperSweep() {
+        ACache source = new MemoryCache();
+        ACache target = new MemoryCache();
+        String[] names = { "berlin", "bern", "bonn", "bremen", "hamburg", "homburg", "hanover", "leipzig" };
+        for (int i = 0; i < names.length; i++) {
+            source.addTriple("s" + i, "name", names[i]);
+            target.addTriple("t" + i, "name", names[names.length - 1 - i]);
+        }
+        PPJoinPlusPlus mapper = new PPJoinPlusPlus();
+        ThresholdSweep sweep = mapper.getThresholdSweep(source, target, "?x", "?y", "jaccard(x.name, y.name)", 0.3);
+        for (double threshold : new double[] { 0.3, 0.5, 0.8 }) {
+            assertEquals(mapper.getMapping(source, target, "?x", "?y", "jaccard(x.name, y.name)", threshold),
+                    sweep.getMapping(threshold));
+        }
+    }
+}
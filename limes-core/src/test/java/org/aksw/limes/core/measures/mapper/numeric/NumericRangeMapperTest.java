@@ -0,0 +1,81 @@
+package org.aksw.limes.core.measures.mapper.numeric;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.MemoryCache;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.aksw.limes.core.measures.measure.numeric.ANumericMeasure;
+import org.aksw.limes.core.measures.measure.numeric.AbsoluteDifferenceMeasure;
+import org.aksw.limes.core.measures.measure.numeric.RelativeDifferenceMeasure;
+import org.junit.Test;
+
+public class NumericRangeMapperTest {
+
+    private ACache generate(String prefix, int size, Random random) {
+        ACache cache = new MemoryCache();
+        for (int i = 0; i < size; i++) {
+            cache.addTriple(prefix + i, "value", "" + (random.nextInt(400) - 200) / 4d);
+            if (random.nextInt(10) == 0) {
+                cache.addTriple(prefix + i, "value", "" + (random.nextInt(400) - 200) / 4d);
+            }
+        }
+        cache.addTriple(prefix + "zero", "value", "0");
+        cache.addTriple(prefix + "invalid", "value", "abc");
+        return cache;
+    }
+
+    private AMapping bruteForce(ACache source, ACache target, ANumericMeasure measure, double threshold) {
+        AMapping m = MappingFactory.createDefaultMapping();
+        for (String s : source.getAllUris()) {
+            for (String t : target.getAllUris()) {
+                double sim = measure.getSimilarity(source.getInstance(s), target.getInstance(t), "value", "value");
+                if (sim >= threshold) {
+                    m.add(s, t, sim);
+                }
+            }
+        }
+        return m;
+    }
+
+    private void assertSameLinks(AMapping expected, AMapping actual) {
+        assertEquals(expected.getNumberofMappings(), actual.getNumberofMappings());
+        for (String s : expected.getMap().keySet()) {
+            for (String t : expected.getMap().get(s).keySet()) {
+                assertEquals(expected.getConfidence(s, t), actual.getConfidence(s, t), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testAbsoluteDifference() {
+        Random random = new Random(42);
+        ACache source = generate("s", 300, random);
+        ACache target = generate("t", 300, random);
+        AMapping m = new NumericRangeMapper().getMapping(source, target, "?x", "?y",
+                "numeric_absolute(x.value, y.value)", 0.5);
+        assertSameLinks(bruteForce(source, target, new AbsoluteDifferenceMeasure(), 0.5), m);
+    }
+
+    @Test
+    public void testRelativeDifference() {
+        Random random = new Random(7);
+        ACache source = generate("s", 300, random);
+        ACache target = generate("t", 300, random);
+        AMapping m = new NumericRangeMapper().getMapping(source, target, "?x", "?y",
+                "numeric_relative(x.value, y.value)", 0.9);
+        assertSameLinks(bruteForce(source, target, new RelativeDifferenceMeasure(), 0.9), m);
+    }
+
+    @Test
+    public void testRelativeDifferenceValues() {
+        RelativeDifferenceMeasure measure = new RelativeDifferenceMeasure();
+        assertEquals(0.9, measure.getSimilarity(90d, 100d), 1e-9);
+        assertEquals(0.9, measure.getSimilarity(-100d, -90d), 1e-9);
+        assertEquals(0, measure.getSimilarity(-1d, 1d), 1e-9);
+        assertEquals(1, measure.getSimilarity(0d, 0d), 1e-9);
+    }
+}
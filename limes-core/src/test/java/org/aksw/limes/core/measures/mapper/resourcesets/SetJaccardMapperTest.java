@@ -2,10 +2,15 @@ package org.aksw.limes.core.measures.mapper.resourcesets;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.Random;
+
+import org.aksw.limes.core.exceptions.ExecutionCancelledException;
+import org.aksw.limes.core.execution.ExecutionContext;
 import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.cache.MemoryCache;
 import org.aksw.limes.core.io.mapping.AMapping;
 import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.aksw.limes.core.measures.measure.resourcesets.SetJaccardMeasure;
 import org.junit.Test;
 
 /**
@@ -30,4 +35,53 @@ public class SetJaccardMapperTest {
         mapping2.add("spielberg", "spilberg", 0.5d);
         assertEquals(mapping2, mapping1);
     }
-}
\ No newline at end of file
+
+    private ACache generate(String prefix, int size, int maxValues, Random random) {
+        ACache cache = new MemoryCache();
+        for (int i = 0; i < size; i++) {
+            int values = 1 + random.nextInt(maxValues);
+            for (int v = 0; v < values; v++) {
+                // skewed value distribution
+                int value = (int) Math.abs(random.nextGaussian() * 30);
+                cache.addTriple(prefix + i, "movies", "m" + value);
+            }
+        }
+        return cache;
+    }
+
+    @Test
+    public void testGetMappingAgainstMeasure() {
+        Random random = new Random(42);
+        // more source than target instances to check the orientation of the
+        // links
+        ACache s = generate("s", 400, 12, random);
+        ACache t = generate("t", 200, 8, random);
+        SetJaccardMeasure measure = new SetJaccardMeasure();
+        for (double threshold : new double[] { 0.3, 0.5, 0.8 }) {
+            AMapping expected = MappingFactory.createDefaultMapping();
+            for (String x : s.getAllUris()) {
+                for (String y : t.getAllUris()) {
+                    double sim = measure.getSimilarity(s.getInstance(x), t.getInstance(y), "movies", "movies");
+                    if (sim >= threshold) {
+                        expected.add(x, y, sim);
+                    }
+                }
+            }
+            AMapping actual = new SetJaccardMapper().getMapping(s, t, "?x", "?y", "set_jaccard(x.movies, y.movies)",
+                    threshold);
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test(expected = ExecutionCancelledException.class)
+    public void testCancel() {
+        Random random = new Random(42);
+        ACache s = generate("s", 400, 12, random);
+        ACache t = generate("t", 200, 8, random);
+        ExecutionContext context = new ExecutionContext();
+        context.cancel();
+        SetJaccardMapper mapper = new SetJaccardMapper();
+        mapper.setContext(context);
+        mapper.getMapping(s, t, "?x", "?y", "set_jaccard(x.movies, y.movies)", 0.5);
+    }
+}
@@ -0,0 +1,92 @@
+package org.aksw.limes.core.measures.mapper.space;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.MemoryCache;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.aksw.limes.core.measures.measure.space.EuclideanMeasure;
+import org.aksw.limes.core.measures.measure.space.ISpaceMeasure;
+import org.aksw.limes.core.measures.measure.space.ManhattanMeasure;
+import org.junit.Test;
+
+public class HR3MapperTest {
+
+    private ACache generate(String prefix, int size, Random random) {
+        ACache cache = new MemoryCache();
+        for (int i = 0; i < size; i++) {
+            cache.addTriple(prefix + i, "lat", "" + random.nextDouble() * 10);
+            cache.addTriple(prefix + i, "long", "" + random.nextDouble() * 10);
+        }
+        return cache;
+    }
+
+    private AMapping bruteForce(ACache source, ACache target, ISpaceMeasure measure, double threshold) {
+        AMapping m = MappingFactory.createDefaultMapping();
+        for (String s : source.getAllUris()) {
+            for (String t : target.getAllUris()) {
+                double sim = measure.getSimilarity(source.getInstance(s), target.getInstance(t), "lat|long",
+                        "lat|long");
+                if (sim >= threshold) {
+                    m.add(s, t, sim);
+                }
+            }
+        }
+        return m;
+    }
+
+    private void assertSameLinks(AMapping expected, AMapping actual) {
+        assertEquals(expected.getNumberofMappings(), actual.getNumberofMappings());
+        for (String s : expected.getMap().keySet()) {
+            for (String t : expected.getMap().get(s).keySet()) {
+                assertEquals(expected.getConfidence(s, t), actual.getConfidence(s, t), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testEuclidean() {
+        Random random = new Random(42);
+        ACache source = generate("s", 300, random);
+        ACache target = generate("t", 300, random);
+        EuclideanMeasure measure = new EuclideanMeasure();
+        measure.setDimension(2);
+        AMapping m = new HR3Mapper().getMapping(source, target, "?x", "?y", "euclidean(x.lat|long, y.lat|long)",
+                0.7);
+        assertSameLinks(bruteForce(source, target, measure, 0.7), m);
+    }
+
+    @Test
+    public void testManhattan() {
+        Random random = new Random(7);
+        ACache source = generate("s", 300, random);
+        ACache target = generate("t", 300, random);
+        ManhattanMeasure measure = new ManhattanMeasure();
+        measure.setDimension(2);
+        AMapping m = new HR3Mapper().getMapping(source, target, "?x", "?y", "manhattan(x.lat|long, y.lat|long)",
+                0.6);
+        assertSameLinks(bruteForce(source, target, measure, 0.6), m);
+    }
+
+    @Test
+    public void testMultiValuedAndInvalidValues() {
+        ACache source = new MemoryCache();
+        source.addTriple("s1", "lat", "1.0");
+        source.addTriple("s1", "lat", "5.0");
+        source.addTriple("s1", "long", "1.0");
+        source.addTriple("s2", "lat", "abc");
+        source.addTriple("s2", "long", "1.0");
+        ACache target = new MemoryCache();
+        target.addTriple("t1", "lat", "5.1");
+        target.addTriple("t1", "long", "1.0");
+        target.addTriple("t2", "lat", "9.0");
+        target.addTriple("t2", "long", "9.0");
+        AMapping m = new HR3Mapper().getMapping(source, target, "?x", "?y", "euclidean(x.lat|long, y.lat|long)",
+                0.8);
+        assertEquals(1, m.getNumberofMappings());
+        assertEquals(1d / 1.1d, m.getConfidence("s1", "t1"), 1e-9);
+    }
+}
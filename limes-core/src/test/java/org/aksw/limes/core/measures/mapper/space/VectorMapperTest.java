@@ -0,0 +1,171 @@
+package org.aksw.limes.core.measures.mapper.space;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.Instance;
+import org.aksw.limes.core.io.cache.MemoryCache;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.aksw.limes.core.measures.measure.space.AVectorMeasure;
+import org.aksw.limes.core.measures.measure.space.VectorCosineMeasure;
+import org.aksw.limes.core.measures.measure.space.VectorEuclideanMeasure;
+import org.junit.Test;
+
+public class VectorMapperTest {
+
+    private static final int DIMENSIONS = 16;
+
+    private ACache generate(String prefix, int size, float[][] centers, Random random) {
+        ACache cache = new MemoryCache();
+        for (int i = 0; i < size; i++) {
+            float[] center = centers[random.nextInt(centers.length)];
+            StringBuilder vector = new StringBuilder("[");
+            for (int d = 0; d < DIMENSIONS; d++) {
+                vector.append(d == 0 ? "" : ", ").append(center[d] + random.nextGaussian() * 0.2);
+            }
+            cache.addTriple(prefix + i, "vec", vector.append("]").toString());
+        }
+        return cache;
+    }
+
+    private float[][] centers(Random random) {
+        float[][] centers = new float[20][DIMENSIONS];
+        for (float[] center : centers) {
+            for (int d = 0; d < DIMENSIONS; d++) {
+                center[d] = (float) random.nextGaussian();
+            }
+        }
+        return centers;
+    }
+
+    private AMapping bruteForce(ACache source, ACache target, AVectorMeasure measure, double threshold) {
+        AMapping m = MappingFactory.createDefaultMapping();
+        for (String s : source.getAllUris()) {
+            for (String t : target.getAllUris()) {
+                double sim = measure.getSimilarity(source.getInstance(s), target.getInstance(t), "vec", "vec");
+                if (sim >= threshold) {
+                    m.add(s, t, sim);
+                }
+            }
+        }
+        return m;
+    }
+
+    /**
+     * Checks that both mappings agree on all pairs that are not within the
+     * float precision of the threshold.
+     */
+    private void assertSameLinks(AMapping expected, AMapping actual, double threshold) {
+        for (String s : expected.getMap().keySet()) {
+            for (String t : expected.getMap().get(s).keySet()) {
+                double sim = expected.getConfidence(s, t);
+                if (sim > threshold + 1e-5) {
+                    assertEquals(sim, actual.getConfidence(s, t), 1e-5);
+                }
+            }
+        }
+        for (String s : actual.getMap().keySet()) {
+            for (String t : actual.getMap().get(s).keySet()) {
+                if (actual.getConfidence(s, t) > threshold + 1e-5) {
+                    assertTrue(expected.contains(s, t));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testBruteForceCosine() {
+        Random random = new Random(42);
+        float[][] centers = centers(random);
+        ACache source = generate("s", 200, centers, random);
+        ACache target = generate("t", 300, centers, random);
+        AMapping m = new VectorMapper().getMapping(source, target, "?x", "?y", "vector_cosine(x.vec, y.vec)", 0.95);
+        AMapping expected = bruteForce(source, target, new VectorCosineMeasure(), 0.95);
+        assertTrue(expected.getNumberofMappings() > 0);
+        assertSameLinks(expected, m, 0.95);
+    }
+
+    @Test
+    public void testIndexedCosine() {
+        Random random = new Random(7);
+        float[][] centers = centers(random);
+        ACache source = generate("s", 200, centers, random);
+        ACache target = generate("t", 1000, centers, random);
+        VectorMapper mapper = new VectorMapper();
+        mapper.setBruteForceLimit(0);
+        AMapping m = mapper.getMapping(source, target, "?x", "?y", "vector_cosine(x.vec, y.vec)", 0.95);
+        assertSameLinks(bruteForce(source, target, new VectorCosineMeasure(), 0.95), m, 0.95);
+    }
+
+    @Test
+    public void testIndexedEuclidean() {
+        Random random = new Random(13);
+        float[][] centers = centers(random);
+        ACache source = generate("s", 200, centers, random);
+        ACache target = generate("t", 1000, centers, random);
+        VectorMapper mapper = new VectorMapper();
+        mapper.setBruteForceLimit(0);
+        AMapping m = mapper.getMapping(source, target, "?x", "?y", "vector_euclidean(x.vec, y.vec)", 0.5);
+        AMapping expected = bruteForce(source, target, new VectorEuclideanMeasure(), 0.5);
+        assertTrue(expected.getNumberofMappings() > 0);
+        assertSameLinks(expected, m, 0.5);
+    }
+
+    @Test
+    public void testApproximateRecall() {
+        Random random = new Random(21);
+        float[][] centers = centers(random);
+        ACache source = generate("s", 200, centers, random);
+        ACache target = generate("t", 1000, centers, random);
+        VectorMapper mapper = new VectorMapper();
+        mapper.setBruteForceLimit(0);
+        mapper.setProbeRatio(0.125);
+        AMapping m = mapper.getMapping(source, target, "?x", "?y", "vector_cosine(x.vec, y.vec)", 0.95);
+        AMapping expected = bruteForce(source, target, new VectorCosineMeasure(), 0.95);
+        assertTrue(m.getNumberofMappings() >= 0.9 * expected.getNumberofMappings());
+    }
+
+    @Test
+    public void testSettings() {
+        VectorMapper mapper = new VectorMapper();
+        assertEquals(VectorMapper.DEFAULT_BRUTE_FORCE_LIMIT, mapper.getBruteForceLimit());
+        assertEquals(1, mapper.getProbeRatio(), 0d);
+        try {
+            mapper.setProbeRatio(0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(1, mapper.getProbeRatio(), 0d);
+        }
+        try {
+            mapper.setBruteForceLimit(-1);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(VectorMapper.DEFAULT_BRUTE_FORCE_LIMIT, mapper.getBruteForceLimit());
+        }
+    }
+
+    @Test
+    public void testChangedValues() {
+        Random random = new Random(3);
+        float[][] centers = centers(random);
+        ACache source = generate("s", 1, centers, random);
+        // large enough for its matrix to be registered
+        ACache target = generate("t", 1100, centers, random);
+        VectorMapper mapper = new VectorMapper();
+        AMapping before = mapper.getMapping(source, target, "?x", "?y", "vector_cosine(x.vec, y.vec)", 0.999);
+        assertFalse(before.contains("s0", "t0"));
+
+        // same size, but t0 now equals s0
+        Instance changed = new Instance("t0");
+        changed.addProperty("vec", source.getInstance("s0").getProperty("vec"));
+        target.replaceInstance("t0", changed);
+        AMapping after = mapper.getMapping(source, target, "?x", "?y", "vector_cosine(x.vec, y.vec)", 0.999);
+        assertTrue(after.contains("s0", "t0"));
+    }
+}
@@ -0,0 +1,94 @@
+package org.aksw.limes.core.measures.mapper.string;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.MemoryCache;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.aksw.limes.core.measures.measure.string.TrigramMeasure;
+import org.junit.Test;
+
+public class MinHashLSHMapperTest {
+
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz";
+
+    private String randomLabel(Random random) {
+        StringBuilder label = new StringBuilder();
+        int length = 8 + random.nextInt(20);
+        for (int i = 0; i < length; i++) {
+            label.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return label.toString();
+    }
+
+    private String mutate(String label, Random random) {
+        StringBuilder result = new StringBuilder(label);
+        int edits = random.nextInt(4);
+        for (int i = 0; i < edits; i++) {
+            result.setCharAt(random.nextInt(result.length()), ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return result.toString();
+    }
+
+    @Test
+    public void testApproximateTrigram() {
+        Random random = new Random(42);
+        ACache source = new MemoryCache();
+        ACache target = new MemoryCache();
+        for (int i = 0; i < 500; i++) {
+            String label = randomLabel(random);
+            source.addTriple("s" + i, "label", label);
+            target.addTriple("t" + i, "label", mutate(label, random));
+            target.addTriple("u" + i, "label", randomLabel(random));
+        }
+        AMapping exact = MappingFactory.createDefaultMapping();
+        TrigramMeasure measure = new TrigramMeasure();
+        for (String s : source.getAllUris()) {
+            for (String t : target.getAllUris()) {
+                double sim = measure.getSimilarity(source.getInstance(s), target.getInstance(t), "label", "label");
+                if (sim >= 0.6) {
+                    exact.add(s, t, sim);
+                }
+            }
+        }
+        AMapping m = new MinHashLSHMapper().getMapping(source, target, "?x", "?y",
+                "approx_trigram(x.label, y.label)", 0.6);
+        // no false positives and correct similarities
+        for (String s : m.getMap().keySet()) {
+            for (String t : m.getMap().get(s).keySet()) {
+                assertTrue(exact.contains(s, t));
+                assertEquals(exact.getConfidence(s, t), m.getConfidence(s, t), 1e-9);
+            }
+        }
+        assertTrue(m.getNumberofMappings() >= 0.9 * exact.getNumberofMappings());
+    }
+
+    @Test
+    public void testBandsAndRows() {
+        int[] bandsAndRows = MinHashLSHMapper.getBandsAndRows(0.5, 0.95, 256);
+        int bands = bandsAndRows[0], rows = bandsAndRows[1];
+        assertTrue(bands * rows <= 256);
+        assertTrue(1 - Math.pow(1 - Math.pow(0.5, rows), bands) >= 0.95);
+    }
+
+    @Test
+    public void testParameters() {
+        MinHashLSHMapper mapper = new MinHashLSHMapper();
+        assertEquals(MinHashLSHMapper.DEFAULT_RECALL, mapper.getRecall(), 0d);
+        assertEquals(MinHashLSHMapper.DEFAULT_MAX_HASHES, mapper.getMaxHashes());
+        mapper.setRecall(0.8);
+        mapper.setMaxHashes(64);
+        assertEquals("recall=0.8,maxHashes=64", mapper.getParameters());
+        try {
+            mapper.setRecall(1);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(0.8, mapper.getRecall(), 0d);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.aksw.limes.core.measures.measure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.aksw.limes.core.execution.engine.filter.LinearFilter;
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.MemoryCache;
+import org.aksw.limes.core.io.cache.ValueDictionary;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ValueIndexTest {
+
+    private ACache source;
+    private ACache target;
+    private AMapping candidates;
+
+    @Before
+    public void setUp() {
+        source = new MemoryCache();
+        target = new MemoryCache();
+        candidates = MappingFactory.createDefaultMapping();
+        String[] names = { "kleanthi", "kleanthis", "lukas", "luka" };
+        for (int i = 0; i < 40; i++) {
+            source.addTriple("S" + i, "name", names[i % names.length]);
+            target.addTriple("T" + i, "name", names[(i + 1) % names.length]);
+        }
+        for (int i = 0; i < 40; i++) {
+            for (int j = 0; j < 40; j++) {
+                candidates.add("S" + i, "T" + j, 1d);
+            }
+        }
+    }
+
+    @Test
+    public void testDictionary() {
+        ValueIndex index = new ValueIndex(source, target);
+        ValueDictionary dictionary = index.getDictionary(source, "name");
+        assertSame(dictionary, index.getDictionary(source, "name"));
+        assertNull(index.getDictionary(new MemoryCache(), "name"));
+        assertEquals(4, dictionary.size());
+        int id = dictionary.getId("lukas");
+        assertEquals("lukas", dictionary.getValue(id));
+        assertEquals(10, dictionary.getUris(id).size());
+        assertEquals(-1, dictionary.getId("sandra"));
+        assertEquals(new HashSet<>(Arrays.asList("kleanthi", "kleanthis", "lukas", "luka")),
+                dictionary.getValueToUriMap().keySet());
+    }
+
+    @Test
+    public void testFilterScoresEachValuePairOnce() {
+        String condition = "levenshtein(x.name, y.name)";
+        ValueIndex index = new ValueIndex(source, target);
+        AMapping expected = new LinearFilter().filter(candidates, condition, 0.6, source, target, "?x", "?y");
+        AMapping actual = new LinearFilter(index).filter(candidates, condition, 0.6, source, target, "?x", "?y");
+        assertEquals(expected, actual);
+        // 4 x 4 distinct value pairs are computed, all other pairs are hits
+        assertEquals(16, index.getMemo().getMisses());
+        assertEquals(40 * 40 - 16, index.getMemo().getHits());
+
+        // similarities below a threshold are only known to be below it
+        AMapping lower = new LinearFilter(index).filter(candidates, condition, 0.3, source, target, "?x", "?y");
+        assertEquals(new LinearFilter().filter(candidates, condition, 0.3, source, target, "?x", "?y"), lower);
+        AMapping higher = new LinearFilter(index).filter(candidates, condition, 0.9, source, target, "?x", "?y");
+        assertEquals(new LinearFilter().filter(candidates, condition, 0.9, source, target, "?x", "?y"), higher);
+        assertTrue(lower.size() > actual.size());
+    }
+
+    @Test
+    public void testBoundedMemo() {
+        SimilarityMemo memo = new SimilarityMemo(100);
+        assertEquals(128, memo.getCapacity());
+        for (int i = 0; i < 1000; i++) {
+            memo.put(0, i, i, 0.5);
+        }
+        int found = 0;
+        for (int i = 0; i < 1000; i++) {
+            double sim = memo.get(0, i, i);
+            if (!Double.isNaN(sim)) {
+                assertEquals(0.5, sim, 0);
+                found++;
+            }
+        }
+        assertTrue(found > 0 && found <= 128);
+        assertTrue(Double.isNaN(new SimilarityMemo(0).get(0, 1, 1)));
+    }
+}
@@ -1,17 +1,26 @@
 package org.aksw.limes.core.ml.algorithm;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import org.aksw.limes.core.evaluation.qualititativeMeasures.PseudoFMeasure;
+import org.aksw.limes.core.exceptions.ExecutionCancelledException;
 import org.aksw.limes.core.exceptions.UnsupportedMLImplementationException;
+import org.aksw.limes.core.execution.ExecutionContext;
 import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.cache.Instance;
 import org.aksw.limes.core.io.cache.MemoryCache;
 import org.aksw.limes.core.io.mapping.AMapping;
 import org.aksw.limes.core.io.mapping.MappingFactory;
+import org.aksw.limes.core.measures.measure.ValueIndex;
 import org.aksw.limes.core.ml.algorithm.ActiveMLAlgorithm;
 import org.aksw.limes.core.ml.algorithm.MLAlgorithmFactory;
 import org.aksw.limes.core.ml.algorithm.MLImplementationType;
@@ -20,6 +29,7 @@ import org.aksw.limes.core.ml.algorithm.SupervisedMLAlgorithm;
 import org.aksw.limes.core.ml.algorithm.UnsupervisedMLAlgorithm;
 import org.aksw.limes.core.ml.algorithm.WombatSimple;
 import org.aksw.limes.core.ml.algorithm.eagle.util.PropertyMapping;
+import org.aksw.limes.core.ml.algorithm.wombat.AWombat;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -83,6 +93,133 @@ public class WombatSimpleTest {
     }
 
 
+    @Test
+    public void testThreadsAndRetainedMappings() throws UnsupportedMLImplementationException {
+        MLResults sequential = learnUnsupervised(1);
+        MLResults parallel = learnUnsupervised(4);
+        assertEquals(sequential.getLinkSpecification(), parallel.getLinkSpecification());
+        assertEquals(sequential.getMapping(), parallel.getMapping());
+
+        UnsupervisedMLAlgorithm limited = createUnsupervised(4, true);
+        AWombat wombat = (AWombat) limited.getMl();
+        wombat.setMaxRetainedLinks(0);
+        MLResults recomputed = limited.learn(new PseudoFMeasure());
+        assertEquals(0, wombat.getRetainedLinks());
+        assertEquals(sequential.getLinkSpecification(), recomputed.getLinkSpecification());
+        assertEquals(sequential.getMapping(), recomputed.getMapping());
+    }
+
+    @Test
+    public void testConcurrentRuns() throws UnsupportedMLImplementationException {
+        MLResults sequential = learnUnsupervised(1);
+        UnsupervisedMLAlgorithm saved = createUnsupervised(2, true);
+        UnsupervisedMLAlgorithm unsaved = createUnsupervised(2, false);
+        List<Callable<MLResults>> runs = new ArrayList<>();
+        runs.add(() -> saved.learn(new PseudoFMeasure()));
+        runs.add(() -> unsaved.learn(new PseudoFMeasure()));
+        for (MLResults result : new ExecutionContext().invokeAll(runs, 2)) {
+            assertEquals(sequential.getLinkSpecification(), result.getLinkSpecification());
+            assertEquals(sequential.getMapping(), result.getMapping());
+        }
+        // each run keeps its own flag and budget of retained links
+        assertTrue(((AWombat) saved.getMl()).getRetainedLinks() > 0);
+        assertEquals(0, ((AWombat) unsaved.getMl()).getRetainedLinks());
+    }
+
+    @Test
+    public void testUnsavedMappings() throws UnsupportedMLImplementationException {
+        // a subclass of PseudoFMeasure scores every node from its mapping
+        MLResults saved = learnUnsupervised(1, true, new PseudoFMeasure() {});
+        MLResults unsaved = learnUnsupervised(1, false, new PseudoFMeasure() {});
+        assertEquals(saved.getLinkSpecification(), unsaved.getLinkSpecification());
+        assertEquals(saved.getMapping(), unsaved.getMapping());
+        assertEquals(saved.getQuality(), unsaved.getQuality(), 0d);
+        assertEquals(learnUnsupervised(1).getLinkSpecification(), unsaved.getLinkSpecification());
+
+        // children are scored from the links of the classifiers only
+        UnsupervisedMLAlgorithm unsavedIncremental = createUnsupervised(4, false);
+        MLResults incremental = unsavedIncremental.learn(new PseudoFMeasure());
+        assertEquals(0, ((AWombat) unsavedIncremental.getMl()).getRetainedLinks());
+        assertEquals(saved.getLinkSpecification(), incremental.getLinkSpecification());
+        assertEquals(saved.getMapping(), incremental.getMapping());
+    }
+
+    @Test
+    public void testExecutionTime() throws UnsupportedMLImplementationException {
+        // with no time left the search stops before the first refinement
+        List<Double> reported = new ArrayList<>();
+        UnsupervisedMLAlgorithm expired = MLAlgorithmFactory.createMLAlgorithm(WombatSimple.class,
+                MLImplementationType.UNSUPERVISED).asUnsupervised();
+        expired.init(null, sc, tc);
+        expired.setParameter(AWombat.PARAMETER_MAX_FITNESS_THRESHOLD, 1d);
+        expired.setParameter(AWombat.PARAMETER_EXECUTION_TIME_IN_MINUTES, 0);
+        expired.setContext(new ExecutionContext().withProgress(reported::add));
+        MLResults best = expired.learn(new PseudoFMeasure());
+        assertNotNull(best);
+        assertEquals(1, reported.size());
+        assertEquals(0, reported.get(0), 0d);
+
+        List<Double> unlimited = new ArrayList<>();
+        UnsupervisedMLAlgorithm full = MLAlgorithmFactory.createMLAlgorithm(WombatSimple.class,
+                MLImplementationType.UNSUPERVISED).asUnsupervised();
+        full.init(null, sc, tc);
+        full.setParameter(AWombat.PARAMETER_MAX_FITNESS_THRESHOLD, 1d);
+        full.setContext(new ExecutionContext().withProgress(unlimited::add));
+        full.learn(new PseudoFMeasure());
+        assertTrue(unlimited.size() > 1);
+    }
+
+    @Test(expected = ExecutionCancelledException.class)
+    public void testCancel() throws UnsupportedMLImplementationException {
+        ExecutionContext context = new ExecutionContext();
+        UnsupervisedMLAlgorithm wombatSimpleU = MLAlgorithmFactory.createMLAlgorithm(WombatSimple.class,
+                MLImplementationType.UNSUPERVISED).asUnsupervised();
+        wombatSimpleU.init(null, sc, tc);
+        wombatSimpleU.setParameter(AWombat.PARAMETER_MAX_FITNESS_THRESHOLD, 1d);
+        wombatSimpleU.setContext(context.withProgress(p -> context.cancel()));
+        wombatSimpleU.learn(new PseudoFMeasure());
+    }
+
+    @Test
+    public void testRefilledSamples() {
+        SampleWombat wombat = new SampleWombat();
+        wombat.init(null, sc, tc);
+        wombat.fill(trainingMap);
+        ValueIndex index = wombat.getSampleIndex();
+        assertEquals(index, wombat.getSampleIndex());
+        wombat.fill(refMap);
+        assertNotSame(index, wombat.getSampleIndex());
+    }
+
+    private static class SampleWombat extends WombatSimple {
+        void fill(AMapping sample) {
+            fillSampleSourceTargetCaches(sample);
+        }
+
+        ValueIndex getSampleIndex() {
+            return getValueIndex(sourceSample, targetSample);
+        }
+    }
+
+    private MLResults learnUnsupervised(int threads) throws UnsupportedMLImplementationException {
+        return learnUnsupervised(threads, true, new PseudoFMeasure());
+    }
+
+    private MLResults learnUnsupervised(int threads, boolean saveMapping, PseudoFMeasure pfm)
+            throws UnsupportedMLImplementationException {
+        return createUnsupervised(threads, saveMapping).learn(pfm);
+    }
+
+    private UnsupervisedMLAlgorithm createUnsupervised(int threads, boolean saveMapping)
+            throws UnsupportedMLImplementationException {
+        UnsupervisedMLAlgorithm wombatSimpleU = MLAlgorithmFactory.createMLAlgorithm(WombatSimple.class,
+                MLImplementationType.UNSUPERVISED).asUnsupervised();
+        wombatSimpleU.init(null, sc, tc);
+        wombatSimpleU.setParameter(AWombat.PARAMETER_THREADS, threads);
+        wombatSimpleU.setParameter(AWombat.PARAMETER_SAVE_MAPPING, saveMapping);
+        return wombatSimpleU;
+    }
+
     @Test
     public void testUnsupervised() throws UnsupportedMLImplementationException {
         UnsupervisedMLAlgorithm wombatSimpleU = null;
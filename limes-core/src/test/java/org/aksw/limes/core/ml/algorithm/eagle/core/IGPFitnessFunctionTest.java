@@ -0,0 +1,31 @@
+package org.aksw.limes.core.ml.algorithm.eagle.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.aksw.limes.core.io.ls.LinkSpecification;
+import org.junit.Test;
+
+public class IGPFitnessFunctionTest {
+
+    private String canonical(String expression, double threshold) {
+        return IGPFitnessFunction.getCanonicalForm(new LinkSpecification(expression, threshold));
+    }
+
+    @Test
+    public void testCanonicalForm() {
+        String and = canonical("AND(trigrams(x.name,y.name)|0.5,jaccard(x.label,y.label)|0.7)", 0.6);
+        assertEquals(and, canonical("AND(jaccard(x.label,y.label)|0.7,trigrams(x.name,y.name)|0.5)", 0.6));
+        assertNotEquals(and, canonical("AND(jaccard(x.label,y.label)|0.7,trigrams(x.name,y.name)|0.5)", 0.8));
+        assertNotEquals(and, canonical("OR(jaccard(x.label,y.label)|0.7,trigrams(x.name,y.name)|0.5)", 0.6));
+
+        String nested = canonical("OR(AND(trigrams(x.name,y.name)|0.5,cosine(x.name,y.name)|0.9)|0.6,"
+                + "jaccard(x.label,y.label)|0.7)", 0.3);
+        assertEquals(nested, canonical("OR(jaccard(x.label,y.label)|0.7,"
+                + "AND(cosine(x.name,y.name)|0.9,trigrams(x.name,y.name)|0.5)|0.6)", 0.3));
+
+        // the operands of MINUS must not be swapped
+        assertNotEquals(canonical("MINUS(trigrams(x.name,y.name)|0.5,jaccard(x.label,y.label)|0.7)", 0.6),
+                canonical("MINUS(jaccard(x.label,y.label)|0.7,trigrams(x.name,y.name)|0.5)", 0.6));
+    }
+}
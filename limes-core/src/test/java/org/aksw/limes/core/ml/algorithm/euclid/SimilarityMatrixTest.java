@@ -0,0 +1,86 @@
+package org.aksw.limes.core.ml.algorithm.euclid;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.aksw.limes.core.controller.LSPipeline;
+import org.aksw.limes.core.io.cache.ACache;
+import org.aksw.limes.core.io.cache.MemoryCache;
+import org.aksw.limes.core.io.ls.LinkSpecification;
+import org.aksw.limes.core.io.mapping.AMapping;
+import org.aksw.limes.core.ml.algorithm.classifier.ComplexClassifier;
+import org.aksw.limes.core.ml.algorithm.classifier.SimpleClassifier;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SimilarityMatrixTest {
+
+    private ACache source;
+    private ACache target;
+
+    @Before
+    public void setUp() {
+        source = new MemoryCache();
+        target = new MemoryCache();
+        String[] names = { "berlin", "bern", "bonn", "bremen", "hamburg", "homburg", "hanover", "leipzig" };
+        String[] countries = { "germany", "swiss", "germany", "germany", "germany", "germania", "germany", "deutschland" };
+        for (int i = 0; i < names.length; i++) {
+            source.addTriple("s" + i, "name", names[i]);
+            source.addTriple("s" + i, "country", countries[i]);
+            target.addTriple("t" + i, "label", names[(i + 3) % names.length]);
+            target.addTriple("t" + i, "land", countries[(i + 3) % names.length]);
+        }
+    }
+
+    private AMapping run(String expression, double threshold) {
+        return LSPipeline.execute(source, target, new LinkSpecification(expression, threshold));
+    }
+
+    @Test
+    public void testMappings() {
+        SimilarityMatrix.Index index = new SimilarityMatrix.Index(source, target);
+        SimilarityMatrix names = new SimilarityMatrix(run("trigrams(x.name, y.label)", 0.2), 0.2, index);
+        SimilarityMatrix countries = new SimilarityMatrix(run("levenshtein(x.country, y.land)", 0.2), 0.2, index);
+        for (double threshold : new double[] { 0.2, 0.45, 0.7, 1 }) {
+            assertEquals(run("trigrams(x.name, y.label)", threshold), names.getMapping(threshold));
+        }
+        double[] thresholds = { 0.3, 0.6 };
+        AMapping first = names.getMapping(0.3), second = countries.getMapping(0.6);
+        assertEquals(BooleanSelfConfigurator.getIntersection(Arrays.asList(first, second)),
+                SimilarityMatrix.getIntersection(Arrays.asList(names, countries), thresholds));
+
+        SimpleClassifier a = new SimpleClassifier("trigrams", 0.3, "name", "label");
+        a.setWeight(0.7);
+        SimpleClassifier b = new SimpleClassifier("levenshtein", 0.6, "country", "land");
+        b.setWeight(0.5);
+        // the first classifier is the reference of the combination
+        Map<SimpleClassifier, AMapping> mappings = new LinkedHashMap<>();
+        mappings.put(a, first);
+        mappings.put(b, second);
+        LinearSelfConfigurator lsc = new LinearSelfConfigurator(source, target);
+        assertEquals(lsc.getOverallMapping(mappings, 0.5),
+                SimilarityMatrix.getLinearCombination(Arrays.asList(names, countries), thresholds, new double[] { 0.7, 0.5 }, 0.5));
+    }
+
+    @Test
+    public void testThreads() {
+        List<String> results = new ArrayList<>();
+        for (int threads : new int[] { 1, 4 }) {
+            MeshBasedSelfConfigurator mesh = new MeshBasedSelfConfigurator(source, target, 0.9);
+            mesh.threads = threads;
+            List<SimpleClassifier> initial = mesh.getBestInitialClassifiers();
+            ComplexClassifier cc = mesh.getZoomedHillTop(5, 3, initial);
+            BooleanSelfConfigurator bsc = new BooleanSelfConfigurator(source, target);
+            bsc.threads = threads;
+            List<SimpleClassifier> learned = bsc.learnClassifer(bsc.getBestInitialClassifiers());
+            results.add(initial + " " + cc.getClassifiers() + " " + cc.getfMeasure() + " " + cc.getMapping() + " "
+                    + learned + " " + bsc.getMapping(learned));
+        }
+        assertEquals(results.get(0), results.get(1));
+    }
+}
@@ -181,6 +181,7 @@ public class MainController {
             Task<Void> mapTask = currentConfig.createMappingTask(results);
 
             TaskProgressView taskProgressView = new TaskProgressView("Mapping");
+            taskProgressView.getProgressBar().progressProperty().bind(mapTask.progressProperty());
             TaskProgressController taskProgressController = new TaskProgressController(
                     taskProgressView);
             taskProgressController.addTask(
@@ -57,6 +57,7 @@ public class ActiveLearningController extends MachineLearningController {
 	Task<Void> learnTask = this.mlModel.createLearningTask();
 
 	TaskProgressView taskProgressView = new TaskProgressView("Learning");
+	taskProgressView.getProgressBar().progressProperty().bind(learnTask.progressProperty());
 	TaskProgressController taskProgressController = new TaskProgressController(taskProgressView);
 	taskProgressView.getCancelled().addListener(new ChangeListener<Boolean>() {
 
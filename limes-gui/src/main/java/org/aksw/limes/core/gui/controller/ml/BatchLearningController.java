@@ -60,6 +60,7 @@ public class BatchLearningController extends MachineLearningController {
 	Task<Void> learnTask = this.mlModel.createLearningTask();
 
 	TaskProgressView taskProgressView = new TaskProgressView("Learning");
+	taskProgressView.getProgressBar().progressProperty().bind(learnTask.progressProperty());
 	taskProgressView.getCancelled().addListener(new ChangeListener<Boolean>() {
 
 	    @Override
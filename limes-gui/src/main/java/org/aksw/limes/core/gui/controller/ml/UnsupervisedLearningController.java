@@ -53,6 +53,7 @@ public class UnsupervisedLearningController extends MachineLearningController {
         Task<Void> learnTask = this.mlModel.createLearningTask();
 
         TaskProgressView taskProgressView = new TaskProgressView("Learning");
+        taskProgressView.getProgressBar().progressProperty().bind(learnTask.progressProperty());
 	taskProgressView.getCancelled().addListener(new ChangeListener<Boolean>() {
 
 	    @Override
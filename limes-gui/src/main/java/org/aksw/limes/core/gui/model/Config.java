@@ -11,8 +11,8 @@ import java.util.Map;
 import java.util.regex.Pattern;
 
 import org.aksw.limes.core.evaluation.evaluator.EvaluatorType;
+import org.aksw.limes.core.execution.ExecutionContext;
 import org.aksw.limes.core.execution.engine.SimpleExecutionEngine;
-import org.aksw.limes.core.execution.planning.plan.NestedPlan;
 import org.aksw.limes.core.execution.planning.planner.HeliosPlanner;
 import org.aksw.limes.core.gui.model.metric.MetricFormatException;
 import org.aksw.limes.core.gui.model.metric.MetricParser;
@@ -382,10 +382,9 @@ public class Config extends Configuration {
 		LinkSpecification ls = new LinkSpecification();
 		ls.readSpec(getMetricExpression(), getAcceptanceThreshold());
 		HeliosPlanner hp = new HeliosPlanner(sourceCache, targetCache);
-		NestedPlan plan = hp.plan(ls);
 		SimpleExecutionEngine ee = new SimpleExecutionEngine(sourceCache, targetCache,
 			getSourceInfo().getVar(), getTargetInfo().getVar());
-		mapping = ee.executeStatic(plan);
+		mapping = ee.execute(ls, hp, new ExecutionContext().withProgress(p -> updateProgress(p, 1)));
 		setMapping(mapping);
 		mapping.getMap().forEach((sourceURI, map2) -> {
 		    map2.forEach((targetURI, value) -> {
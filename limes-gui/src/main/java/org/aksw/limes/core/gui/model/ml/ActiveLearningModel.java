@@ -1,5 +1,7 @@
 package org.aksw.limes.core.gui.model.ml;
 
+import org.aksw.limes.core.exceptions.ExecutionCancelledException;
+import org.aksw.limes.core.execution.ExecutionContext;
 import org.aksw.limes.core.gui.model.Config;
 import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.mapping.AMapping;
@@ -47,8 +49,11 @@ public class ActiveLearningModel extends MachineLearningModel {
         	MLResults model = null;
                 try {
                     mlalgorithm.init(learningParameters, sourceCache, targetCache);
+                    mlalgorithm.setContext(new ExecutionContext().withProgress(p -> updateProgress(p, 1)));
                     model = mlalgorithm.asActive().activeLearn();
                     nextExamples = mlalgorithm.asActive().getNextExamples(nextExamplesNum);
+                } catch (ExecutionCancelledException e) {
+                    throw e;
                 } catch (Exception e) {
                     // TODO Auto-generated catch block
                     e.printStackTrace();
@@ -1,5 +1,7 @@
 package org.aksw.limes.core.gui.model.ml;
 
+import org.aksw.limes.core.exceptions.ExecutionCancelledException;
+import org.aksw.limes.core.execution.ExecutionContext;
 import org.aksw.limes.core.gui.model.Config;
 import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.io.mapping.AMapping;
@@ -39,9 +41,12 @@ public class BatchLearningModel extends MachineLearningModel {
         	MLResults model = null;
                 try {
                     mlalgorithm.init(learningParameters, sourceCache, targetCache);
+                    mlalgorithm.setContext(new ExecutionContext().withProgress(p -> updateProgress(p, 1)));
 //                    RDFMappingReader mappingReader = new RDFMappingReader(config.getMlTrainingDataFile());
 //                    AMapping trainingData = mappingReader.read(); 
                     model = mlalgorithm.asSupervised().learn(trainingMapping);
+                } catch (ExecutionCancelledException e) {
+                    throw e;
                 } catch (Exception e) {
                     // TODO Auto-generated catch block
                     e.printStackTrace();
@@ -1,6 +1,8 @@
 package org.aksw.limes.core.gui.model.ml;
 
 import org.aksw.limes.core.evaluation.qualititativeMeasures.PseudoFMeasure;
+import org.aksw.limes.core.exceptions.ExecutionCancelledException;
+import org.aksw.limes.core.execution.ExecutionContext;
 import org.aksw.limes.core.gui.model.Config;
 import org.aksw.limes.core.io.cache.ACache;
 import org.aksw.limes.core.ml.algorithm.MLResults;
@@ -39,7 +41,10 @@ public class UnsupervisedLearningModel extends MachineLearningModel {
         	MLResults model = null;
                 try {
                     mlalgorithm.init(learningParameters, sourceCache, targetCache);
+                    mlalgorithm.setContext(new ExecutionContext().withProgress(p -> updateProgress(p, 1)));
                     model = mlalgorithm.asUnsupervised().learn(new PseudoFMeasure());
+                } catch (ExecutionCancelledException e) {
+                    throw e;
                 } catch (Exception e) {
                     // TODO Auto-generated catch block
                     e.printStackTrace();